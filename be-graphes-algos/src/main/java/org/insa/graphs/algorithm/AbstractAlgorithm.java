@@ -71,11 +71,25 @@ public abstract class AbstractAlgorithm<Observer> {
      */
     public AbstractSolution run() {
         Instant start = Instant.now();
-        AbstractSolution solution = this.doRun();
+        AbstractSolution solution = this.findTrivialSolution();
+        if (solution == null) {
+            solution = this.doRun();
+        }
         solution.setSolvingTime(Duration.between(start, Instant.now()));
         return solution;
     }
 
+    /**
+     * Find a solution that does not require to run the algorithm (e.g. for a
+     * problem that is known to be infeasible). This method is called by
+     * {@link #run()} before {@link #doRun()}, and returns null by default.
+     * 
+     * @return A solution, or null if the algorithm must be run.
+     */
+    protected AbstractSolution findTrivialSolution() {
+        return null;
+    }
+
     /**
      * Abstract method that should be implemented by child class.
      * 
@@ -27,6 +27,9 @@ public abstract class AbstractInputData {
     // Arc filter.
     protected final ArcInspector arcInspector;
 
+    // Arc filter compiled for the graph, retrieved on first use.
+    private CompiledArcInspector compiledArcInspector;
+
     /**
      * Create a new AbstractInputData instance for the given graph, mode and filter.
      * 
@@ -45,6 +48,27 @@ public abstract class AbstractInputData {
         return graph;
     }
 
+    /**
+     * @return Arc inspector associated with this input data.
+     */
+    public ArcInspector getArcInspector() {
+        return this.arcInspector;
+    }
+
+    /**
+     * @return Arc inspector associated with this input data, compiled for the
+     *         graph (see {@link CompiledArcInspector#get(Graph, ArcInspector)}).
+     */
+    public CompiledArcInspector getCompiledArcInspector() {
+        // Racy but safe: compiled inspectors are immutable and cached.
+        CompiledArcInspector compiled = this.compiledArcInspector;
+        if (compiled == null) {
+            compiled = CompiledArcInspector.get(this.graph, this.arcInspector);
+            this.compiledArcInspector = compiled;
+        }
+        return compiled;
+    }
+
     /**
      * Retrieve the cost associated with the given arc according to the underlying
      * arc inspector.
@@ -7,10 +7,19 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.AStarLandmarksAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalAStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DeltaSteppingAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.strongconnectivity.StronglyConnectedComponentsAlgorithm;
+import org.insa.graphs.algorithm.weakconnectivity.UnionFindWeaklyConnectedComponentsAlgorithm;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
 /**
@@ -27,11 +36,34 @@ public class AlgorithmFactory {
         // Register weakly-connected components algorithm:
         registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC basic",
                 WeaklyConnectedComponentsAlgorithm.class);
+        registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC union-find (parallel)",
+                UnionFindWeaklyConnectedComponentsAlgorithm.class);
+
+        // Register strongly-connected components algorithm:
+        registerAlgorithm(StronglyConnectedComponentsAlgorithm.class, "SCC Tarjan (iterative)",
+                StronglyConnectedComponentsAlgorithm.class);
 
         // Register shortest path algorithm:
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford", BellmanFordAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra", DijkstraAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional Dijkstra",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional A*",
+                BidirectionalAStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction Hierarchies",
+                ContractionHierarchiesAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (landmarks)",
+                AStarLandmarksAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Delta-stepping (parallel)",
+                DeltaSteppingAlgorithm.class);
+
+        // Register distance matrix algorithm:
+        registerAlgorithm(DistanceMatrixAlgorithm.class, "Parallel one-to-many Dijkstra",
+                DistanceMatrixAlgorithm.class);
+
+        // Register isochrone algorithm:
+        registerAlgorithm(IsochroneAlgorithm.class, "Bounded Dijkstra", IsochroneAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
@@ -1,6 +1,7 @@
 package org.insa.graphs.algorithm;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -9,6 +10,7 @@ import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.GraphStatistics;
 import org.insa.graphs.model.AccessRestrictions.AccessMode;
 import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.AccessRestrictions.Mask;
 
 public class ArcInspectorFactory {
 
@@ -27,10 +29,58 @@ public class ArcInspectorFactory {
         }
     }
 
+    // Restrictions of the roads open to the public, for cars and pedestrians
+    // (precomputed since filters are evaluated for every arc).
+    private static final EnumSet<AccessRestriction> PUBLIC_RESTRICTIONS = EnumSet
+            .complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE));
+    private static final Mask PUBLIC_FOR_CARS = Mask.of(AccessMode.MOTORCAR,
+            PUBLIC_RESTRICTIONS);
+    private static final Mask PUBLIC_FOR_PEDESTRIANS = Mask.of(AccessMode.FOOT,
+            PUBLIC_RESTRICTIONS);
+
     /**
-     * @return List of all arc filters in this factory.
+     * Inspector allowing the arcs whose access restrictions match a mask, so that
+     * the mask can be evaluated once per road information instead of once per arc
+     * when the inspector is compiled (see {@link CompiledArcInspector}).
+     */
+    abstract static class AccessRestrictedInspector implements ArcInspector {
+
+        // Mask of the allowed access restrictions.
+        private final Mask mask;
+
+        AccessRestrictedInspector(Mask mask) {
+            this.mask = mask;
+        }
+
+        /**
+         * @return Mask of the allowed access restrictions.
+         */
+        Mask getAccessMask() {
+            return mask;
+        }
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return arc.getRoadInformation().getAccessRestrictions().isAllowedFor(mask);
+        }
+
+    }
+
+    // Filters of this factory, created once so that data cached by inspector (e.g.
+    // compiled inspectors, contraction hierarchies or component labels) is shared
+    // between callers.
+    private static final List<ArcInspector> FILTERS = Collections
+            .unmodifiableList(createFilters());
+
+    /**
+     * @return List of all arc filters in this factory. The inspectors are the same
+     *         instances for every call.
      */
     public static List<ArcInspector> getAllFilters() {
+        return new ArrayList<>(FILTERS);
+    }
+
+    private static List<ArcInspector> createFilters() {
         List<ArcInspector> filters = new ArrayList<>();
 
         // Common filters:
@@ -64,13 +114,7 @@ public class ArcInspectorFactory {
         });
 
         // Only road allowed for cars and length:
-        filters.add(new ArcInspector() {
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions().isAllowedForAny(AccessMode.MOTORCAR,
-                        EnumSet.complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
-            }
-
+        filters.add(new AccessRestrictedInspector(PUBLIC_FOR_CARS) {
             @Override
             public double getCost(Arc arc) {
                 return arc.getLength();
@@ -121,13 +165,7 @@ public class ArcInspectorFactory {
         });
 
         // Only road allowed for cars and time:
-        filters.add(new ArcInspector() {
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions().isAllowedForAny(AccessMode.MOTORCAR,
-                        EnumSet.complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
-            }
-
+        filters.add(new AccessRestrictedInspector(PUBLIC_FOR_CARS) {
             @Override
             public double getCost(Arc arc) {
                 return arc.getMinimumTravelTime();
@@ -150,13 +188,7 @@ public class ArcInspectorFactory {
         });
 
         // Non-private roads for pedestrian and bicycle and time:
-        filters.add(new ArcInspector() {
-
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions().isAllowedForAny(AccessMode.FOOT,
-                        EnumSet.complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
-            }
+        filters.add(new AccessRestrictedInspector(PUBLIC_FOR_PEDESTRIANS) {
 
             @Override
             public double getCost(Arc arc) {
@@ -182,6 +214,11 @@ public class ArcInspectorFactory {
         // Add your own filters here (do not forget to implement toString()
         // to get an understandable output!):
 
+        // Filters are used by many queries, compile them.
+        for (ArcInspector filter: filters) {
+            CompiledArcInspector.register(filter);
+        }
+
         return filters;
     }
 
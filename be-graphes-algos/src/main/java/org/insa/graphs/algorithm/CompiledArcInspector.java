@@ -0,0 +1,263 @@
+package org.insa.graphs.algorithm;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * An {@link ArcInspector} evaluated once for every arc of a graph: the allowed
+ * arcs are stored in a bitset and the costs in a dense array, both indexed by
+ * arc ID in the {@link CompactGraph} of the graph.
+ * </p>
+ *
+ * <p>
+ * Search loops should use {@link #isAllowed(int)} and {@link #getCost(int)}
+ * instead of calling the inspector for each relaxed arc, which avoids virtual
+ * calls, allocations and divisions (e.g. for travel times) in the innermost loop
+ * of every query. Compiled inspectors are cached by graph and inspector (see
+ * {@link #get(Graph, ArcInspector)}), so the inspectors should be reused between
+ * queries (the inspectors of {@link ArcInspectorFactory} are). A compiled
+ * inspector only holds a weak reference to its inspector, so that entries of the
+ * cache are released with their inspector.
+ * </p>
+ *
+ * <p>
+ * Compiling an inspector costs <i>O(m)</i>, so only the inspectors registered
+ * with {@link #register(ArcInspector)} (e.g. the filters of
+ * {@link ArcInspectorFactory}) are compiled by {@link #get(Graph, ArcInspector)}.
+ * Other inspectors, e.g. created for a single query, are wrapped without being
+ * compiled and called for each arc, so the cost of a query still only depends on
+ * the arcs it relaxes.
+ * </p>
+ */
+public final class CompiledArcInspector {
+
+    // Inspectors already compiled, by graph and inspector.
+    private static final Map<Graph, Map<ArcInspector, CompiledArcInspector>> CACHE = new WeakHashMap<>();
+
+    // Inspectors compiled by get(Graph, ArcInspector).
+    private static final Set<ArcInspector> REGISTERED = Collections
+            .newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Register the given inspector, so that it is compiled (once per graph) by
+     * {@link #get(Graph, ArcInspector)}. Inspectors used by many queries should be
+     * registered, the registration is released with the inspector.
+     *
+     * @param inspector Inspector to register.
+     */
+    public static void register(ArcInspector inspector) {
+        synchronized (REGISTERED) {
+            REGISTERED.add(inspector);
+        }
+    }
+
+    /**
+     * @param inspector Inspector to check.
+     *
+     * @return true if the given inspector has been registered (see
+     *         {@link #register(ArcInspector)}).
+     */
+    public static boolean isRegistered(ArcInspector inspector) {
+        synchronized (REGISTERED) {
+            return REGISTERED.contains(inspector);
+        }
+    }
+
+    /**
+     * Retrieve the compiled version of the given inspector for the given graph,
+     * compiling it if it has not been compiled yet. If the inspector has not been
+     * registered (see {@link #register(ArcInspector)}), it is not compiled and a
+     * new object calling the inspector for each arc is returned.
+     *
+     * @param graph Graph whose arcs should be inspected.
+     * @param inspector Inspector to compile.
+     *
+     * @return Compiled inspector for the given graph and inspector.
+     */
+    public static CompiledArcInspector get(Graph graph, ArcInspector inspector) {
+        if (!isRegistered(inspector)) {
+            return new CompiledArcInspector(inspector, graph.getCompactGraph());
+        }
+        Map<ArcInspector, CompiledArcInspector> compiled;
+        synchronized (CACHE) {
+            compiled = CACHE.get(graph);
+            if (compiled == null) {
+                compiled = new WeakHashMap<>();
+                CACHE.put(graph, compiled);
+            }
+        }
+        synchronized (compiled) {
+            CompiledArcInspector result = compiled.get(inspector);
+            if (result == null) {
+                result = compile(graph, inspector);
+                compiled.put(inspector, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Compile the given inspector for the given graph, without caching the result.
+     *
+     * @param graph Graph whose arcs should be inspected.
+     * @param inspector Inspector to compile.
+     *
+     * @return A new compiled inspector.
+     */
+    public static CompiledArcInspector compile(Graph graph, ArcInspector inspector) {
+        CompactGraph compact = graph.getCompactGraph();
+        final int nbArcs = compact.getArcCount();
+        long[] allowed = new long[(nbArcs + 63) >>> 6];
+        double[] costs = new double[nbArcs];
+
+        // Access masks are evaluated once per road information rather than per arc.
+        boolean[] roadAllowed = null;
+        if (inspector instanceof ArcInspectorFactory.AccessRestrictedInspector) {
+            roadAllowed = ((ArcInspectorFactory.AccessRestrictedInspector) inspector)
+                    .getAccessMask().evaluate(compact);
+        }
+
+        for (int arcId = 0; arcId < nbArcs; ++arcId) {
+            Arc arc = compact.getArc(arcId);
+            boolean isAllowed = roadAllowed == null ? inspector.isAllowed(arc)
+                    : roadAllowed[compact.getRoadInformationIndex(arcId)];
+            if (isAllowed) {
+                allowed[arcId >>> 6] |= 1L << arcId;
+                costs[arcId] = inspector.getCost(arc);
+            }
+            else {
+                costs[arcId] = Double.POSITIVE_INFINITY;
+            }
+        }
+        return new CompiledArcInspector(inspector, allowed, costs);
+    }
+
+    // Original inspector, weakly referenced since it is the key of this object in
+    // the cache.
+    private final WeakReference<ArcInspector> inspector;
+
+    // Bitset of the allowed arcs, and cost of each arc, null if the inspector is
+    // not compiled.
+    private final long[] allowed;
+    private final double[] costs;
+
+    // Inspector called for each arc and graph of the arcs, if the inspector is not
+    // compiled (strongly referenced since such objects are not cached).
+    private final ArcInspector direct;
+    private final CompactGraph compact;
+
+    private CompiledArcInspector(ArcInspector inspector, long[] allowed, double[] costs) {
+        this.inspector = new WeakReference<>(inspector);
+        this.allowed = allowed;
+        this.costs = costs;
+        this.direct = null;
+        this.compact = null;
+    }
+
+    private CompiledArcInspector(ArcInspector inspector, CompactGraph compact) {
+        this.inspector = new WeakReference<>(inspector);
+        this.allowed = null;
+        this.costs = null;
+        this.direct = inspector;
+        this.compact = compact;
+    }
+
+    /**
+     * @return The inspector this object was compiled from, or null if it has been
+     *         garbage collected.
+     */
+    public ArcInspector getInspector() {
+        return inspector.get();
+    }
+
+    /**
+     * @return true if the inspector has been compiled, false if it is called for
+     *         each arc (see {@link #get(Graph, ArcInspector)}).
+     */
+    public boolean isCompiled() {
+        return direct == null;
+    }
+
+    /**
+     * @return Number of arcs of the compiled graph.
+     */
+    public int getArcCount() {
+        return direct == null ? costs.length : compact.getArcCount();
+    }
+
+    /**
+     * @param arc ID of the arc in the compact graph.
+     *
+     * @return true if the given arc is allowed.
+     */
+    public boolean isAllowed(int arc) {
+        if (direct != null) {
+            return direct.isAllowed(compact.getArc(arc));
+        }
+        return (allowed[arc >>> 6] & (1L << arc)) != 0;
+    }
+
+    /**
+     * @param arc ID of the arc in the compact graph.
+     *
+     * @return Cost of the given arc, {@link Double#POSITIVE_INFINITY} if the arc
+     *         is not allowed.
+     */
+    public double getCost(int arc) {
+        if (direct != null) {
+            Arc current = compact.getArc(arc);
+            return direct.isAllowed(current) ? direct.getCost(current)
+                    : Double.POSITIVE_INFINITY;
+        }
+        return costs[arc];
+    }
+
+    /**
+     * @return Cost of each arc, indexed by arc ID, with
+     *         {@link Double#POSITIVE_INFINITY} for arcs that are not allowed. The
+     *         returned array is not copied and must not be modified. If the
+     *         inspector is not compiled, a new array is computed for each call.
+     */
+    public double[] getCosts() {
+        if (direct != null) {
+            double[] result = new double[compact.getArcCount()];
+            for (int arc = 0; arc < result.length; ++arc) {
+                result[arc] = getCost(arc);
+            }
+            return result;
+        }
+        return costs;
+    }
+
+    /**
+     * @return Number of allowed arcs.
+     */
+    public int getAllowedArcCount() {
+        int count = 0;
+        if (direct != null) {
+            for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+                count += isAllowed(arc) ? 1 : 0;
+            }
+            return count;
+        }
+        for (long word: allowed) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return (isCompiled() ? "Compiled " : "Uncompiled ") + inspector.get() + " ("
+                + getAllowedArcCount() + "/" + getArcCount() + " arcs allowed)";
+    }
+
+}
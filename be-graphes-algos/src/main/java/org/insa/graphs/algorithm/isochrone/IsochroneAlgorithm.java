@@ -0,0 +1,137 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.SearchWorkspace;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Algorithm computing the nodes reachable from an origin within a cost budget
+ * (in seconds or in meters, depending on the arc inspector).
+ * </p>
+ *
+ * <p>
+ * The search is a Dijkstra bounded by the budget: nodes whose cost would exceed
+ * the budget are never inserted in the heap, so the search stops as soon as all
+ * the nodes within the budget are settled and its cost is proportional to the
+ * size of the isochrone, not to the size of the graph. The search state is
+ * borrowed from the {@link SearchWorkspace} pool of the current thread, so
+ * successive runs on the same thread do not allocate per-node arrays.
+ * </p>
+ */
+public class IsochroneAlgorithm extends AbstractAlgorithm<IsochroneObserver> {
+
+    /**
+     * Create a new isochrone algorithm.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public IsochroneAlgorithm(IsochroneData data) {
+        super(data);
+    }
+
+    @Override
+    public IsochroneSolution run() {
+        return (IsochroneSolution) super.run();
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyOriginProcessed(node);
+        }
+    }
+
+    /**
+     * Notify all observers that a node can be reached within the budget.
+     *
+     * @param node Node that can be reached.
+     * @param cost Cost from the origin to the node.
+     */
+    public void notifyNodeReached(Node node, double cost) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyNodeReached(node, cost);
+        }
+    }
+
+    @Override
+    protected IsochroneSolution doRun() {
+        final IsochroneData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final CompiledArcInspector inspector = data.getCompiledArcInspector();
+        final double budget = data.getBudget();
+        final boolean notify = !getObservers().isEmpty();
+
+        int[] nodeIds = new int[16];
+        double[] costs = new double[16];
+        int nbNodes = 0;
+
+        SearchWorkspace workspace = SearchWorkspace.acquire(compact.size());
+        try {
+            workspace.reach(data.getOrigin().getId(), 0, 0, SearchWorkspace.NO_ARC);
+            notifyOriginProcessed(data.getOrigin());
+
+            // Every node in the heap is within the budget, so all of them end up
+            // in the isochrone.
+            while (!workspace.isHeapEmpty()) {
+                int current = workspace.settleMin();
+                double currentCost = workspace.getCost(current);
+
+                if (nbNodes == nodeIds.length) {
+                    nodeIds = Arrays.copyOf(nodeIds, 2 * nbNodes);
+                    costs = Arrays.copyOf(costs, 2 * nbNodes);
+                }
+                nodeIds[nbNodes] = current;
+                costs[nbNodes] = currentCost;
+                nbNodes += 1;
+                if (notify) {
+                    notifyNodeReached(graph.get(current), currentCost);
+                }
+
+                int lastArc = compact.getFirstArc(current + 1);
+                for (int arcId = compact.getFirstArc(current); arcId < lastArc; ++arcId) {
+                    int next = compact.getHead(arcId);
+                    if (workspace.isSettled(next)) {
+                        continue;
+                    }
+                    if (!inspector.isAllowed(arcId)) {
+                        continue;
+                    }
+                    double newCost = currentCost + inspector.getCost(arcId);
+                    if (newCost > budget) {
+                        continue;
+                    }
+                    if (!workspace.isReached(next)) {
+                        workspace.reach(next, newCost, 0, arcId);
+                    }
+                    else if (newCost < workspace.getCost(next)) {
+                        workspace.decreaseCost(next, newCost, arcId);
+                    }
+                }
+            }
+        }
+        finally {
+            workspace.release();
+        }
+
+        return new IsochroneSolution(data, Status.OPTIMAL, Arrays.copyOf(nodeIds, nbNodes),
+                Arrays.copyOf(costs, nbNodes));
+    }
+
+}
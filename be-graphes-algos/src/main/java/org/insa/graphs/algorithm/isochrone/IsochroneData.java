@@ -0,0 +1,58 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class IsochroneData extends AbstractInputData {
+
+    // Origin of the search.
+    private final Node origin;
+
+    // Maximum cost of the reachable nodes.
+    private final double budget;
+
+    /**
+     * Create a new input for the nodes reachable from the given origin within the
+     * given budget.
+     * 
+     * @param graph Graph in which the nodes should be searched.
+     * @param origin Origin of the search.
+     * @param budget Maximum cost from the origin, in seconds or in meters
+     *        depending on the mode of the arc inspector.
+     * @param arcInspector Filter and costs of the arcs.
+     * 
+     * @throws IllegalArgumentException if the budget is negative or NaN.
+     */
+    public IsochroneData(Graph graph, Node origin, double budget, ArcInspector arcInspector) {
+        super(graph, arcInspector);
+        if (!(budget >= 0)) {
+            throw new IllegalArgumentException("Invalid budget: " + budget + ".");
+        }
+        this.origin = origin;
+        this.budget = budget;
+    }
+
+    /**
+     * @return Origin of the search.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Maximum cost from the origin of the reachable nodes.
+     */
+    public double getBudget() {
+        return budget;
+    }
+
+    @Override
+    public String toString() {
+        return "Isochrone from #" + origin.getId() + " within " + budget
+                + (getMode() == Mode.TIME ? " s" : " m") + " ["
+                + this.arcInspector.toString().toLowerCase() + "]";
+    }
+
+}
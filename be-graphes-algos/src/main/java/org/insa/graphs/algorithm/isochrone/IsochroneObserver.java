@@ -0,0 +1,23 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.model.Node;
+
+public interface IsochroneObserver {
+
+    /**
+     * Notify the observer that the origin has been processed.
+     * 
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node);
+
+    /**
+     * Notify the observer that a node can be reached within the budget. Nodes are
+     * notified by increasing cost.
+     * 
+     * @param node Node that can be reached.
+     * @param cost Cost of the shortest path from the origin to the node.
+     */
+    public void notifyNodeReached(Node node, double cost);
+
+}
@@ -0,0 +1,155 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+public class IsochroneSolution extends AbstractSolution {
+
+    // IDs of the reachable nodes by increasing cost, and cost of each of them.
+    private final int[] nodeIds;
+    private final double[] costs;
+
+    /**
+     * Create a new isochrone solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param nodeIds IDs of the reachable nodes, by increasing cost.
+     * @param costs Cost from the origin to each of the reachable nodes.
+     */
+    protected IsochroneSolution(IsochroneData data, Status status, int[] nodeIds,
+            double[] costs) {
+        super(data, status);
+        this.nodeIds = nodeIds;
+        this.costs = costs;
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * @return Number of nodes reachable within the budget, including the origin.
+     */
+    public int size() {
+        return nodeIds.length;
+    }
+
+    /**
+     * @return IDs of the reachable nodes, by increasing cost. The returned array is
+     *         not copied.
+     */
+    public int[] getNodeIds() {
+        return nodeIds;
+    }
+
+    /**
+     * @return Costs from the origin to the reachable nodes, {@code getCosts()[i]}
+     *         is the cost of node {@code getNodeIds()[i]}. The returned array is
+     *         not copied.
+     */
+    public double[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @return Reachable nodes, by increasing cost (unmodifiable list).
+     */
+    public List<Node> getNodes() {
+        final Graph graph = getInputData().getGraph();
+        return new AbstractList<Node>() {
+
+            @Override
+            public Node get(int index) {
+                return graph.get(nodeIds[index]);
+            }
+
+            @Override
+            public int size() {
+                return nodeIds.length;
+            }
+
+        };
+    }
+
+    /**
+     * @return Cost of the farthest reachable node, which is at most the budget.
+     */
+    public double getMaximumCost() {
+        return costs.length == 0 ? 0 : costs[costs.length - 1];
+    }
+
+    /**
+     * <p>
+     * Compute the boundary of the isochrone as the convex hull of the reachable
+     * nodes.
+     * </p>
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(n log n)</i> where <i>n</i> is the number of
+     * reachable nodes.
+     * </p>
+     * 
+     * @return Vertices of the convex hull in counter-clockwise order (as seen on a
+     *         map), without repeating the first vertex.
+     */
+    public List<Point> getBoundary() {
+        final Graph graph = getInputData().getGraph();
+        Point[] points = new Point[nodeIds.length];
+        for (int i = 0; i < nodeIds.length; ++i) {
+            points[i] = graph.get(nodeIds[i]).getPoint();
+        }
+        Arrays.sort(points, (p1, p2) -> {
+            int cmp = Float.compare(p1.getLongitude(), p2.getLongitude());
+            return cmp != 0 ? cmp : Float.compare(p1.getLatitude(), p2.getLatitude());
+        });
+        if (points.length < 3) {
+            return Collections.unmodifiableList(Arrays.asList(points));
+        }
+
+        // Andrew's monotone chain: lower hull, then upper hull.
+        Point[] hull = new Point[2 * points.length];
+        int k = 0;
+        for (int i = 0; i < points.length; ++i) {
+            while (k >= 2 && cross(hull[k - 2], hull[k - 1], points[i]) <= 0) {
+                k -= 1;
+            }
+            hull[k++] = points[i];
+        }
+        for (int i = points.length - 2, lower = k + 1; i >= 0; --i) {
+            while (k >= lower && cross(hull[k - 2], hull[k - 1], points[i]) <= 0) {
+                k -= 1;
+            }
+            hull[k++] = points[i];
+        }
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(hull).subList(0, k - 1)));
+    }
+
+    /**
+     * @return Cross product of (a, b) and (a, c), positive if a, b, c is a
+     *         counter-clockwise turn.
+     */
+    private static double cross(Point a, Point b, Point c) {
+        return ((double) b.getLongitude() - a.getLongitude())
+                * ((double) c.getLatitude() - a.getLatitude())
+                - ((double) b.getLatitude() - a.getLatitude())
+                        * ((double) c.getLongitude() - a.getLongitude());
+    }
+
+    @Override
+    public String toString() {
+        return "Found " + nodeIds.length + " nodes within " + getInputData().getBudget()
+                + " (farthest at " + getMaximumCost() + ") in "
+                + getSolvingTime().toMillis() + " ms.";
+    }
+
+}
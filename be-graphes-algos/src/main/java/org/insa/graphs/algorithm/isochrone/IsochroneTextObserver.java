@@ -0,0 +1,32 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.io.PrintStream;
+
+import org.insa.graphs.model.Node;
+
+public class IsochroneTextObserver implements IsochroneObserver {
+
+    // Number of nodes reached so far.
+    private int nbReachedNodes = 0;
+
+    // Output stream
+    private final PrintStream stream;
+
+    public IsochroneTextObserver(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void notifyOriginProcessed(Node node) {
+        stream.println("Starting isochrone from node #" + node.getId() + "...");
+    }
+
+    @Override
+    public void notifyNodeReached(Node node, double cost) {
+        nbReachedNodes += 1;
+        if (nbReachedNodes % 10000 == 0) {
+            stream.println(nbReachedNodes + " nodes reached (cost: " + cost + ").");
+        }
+    }
+
+}
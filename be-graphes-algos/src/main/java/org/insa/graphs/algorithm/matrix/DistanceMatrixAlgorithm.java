@@ -0,0 +1,236 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.SearchWorkspace;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Algorithm computing the costs of the shortest paths from a set of sources to a
+ * set of targets.
+ * </p>
+ *
+ * <p>
+ * Each row of the matrix is computed by a one-to-many Dijkstra from its source,
+ * which stops as soon as all the targets are settled. Rows are independent and
+ * are computed in parallel on a {@link ForkJoinPool}, the workers borrowing their
+ * {@link SearchWorkspace} from a pool bounded by the parallelism of the
+ * fork-join pool and released with the matrix.
+ * </p>
+ */
+public class DistanceMatrixAlgorithm extends AbstractAlgorithm<DistanceMatrixObserver> {
+
+    // Pool used to compute the rows.
+    private final ForkJoinPool pool;
+
+    // Number of rows computed so far.
+    private final AtomicInteger nbComputedRows = new AtomicInteger();
+
+    /**
+     * Create a new distance matrix algorithm using the common fork-join pool.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public DistanceMatrixAlgorithm(DistanceMatrixData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new distance matrix algorithm using the given pool.
+     *
+     * @param data Input data for this algorithm.
+     * @param pool Pool used to compute the rows of the matrix.
+     */
+    public DistanceMatrixAlgorithm(DistanceMatrixData data, ForkJoinPool pool) {
+        super(data);
+        this.pool = pool;
+    }
+
+    @Override
+    public DistanceMatrixSolution run() {
+        return (DistanceMatrixSolution) super.run();
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the row of the given source has been computed.
+     *
+     * @param source Source whose row has been computed.
+     */
+    protected void notifyRowComputed(Node source) {
+        int count = nbComputedRows.incrementAndGet();
+        synchronized (observers) {
+            for (DistanceMatrixObserver obs: getObservers()) {
+                obs.notifyRowComputed(source, count);
+            }
+        }
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        final DistanceMatrixData data = getInputData();
+        final CompactGraph compact = data.getGraph().getCompactGraph();
+        final List<Node> sources = data.getSources(), targets = data.getTargets();
+
+        // Number of columns of each node, so that a search can stop once all the
+        // distinct targets are settled.
+        final int[] targetIds = new int[targets.size()];
+        final int[] columnCounts = new int[compact.size()];
+        int nbDistinctTargets = 0;
+        for (int column = 0; column < targetIds.length; ++column) {
+            targetIds[column] = targets.get(column).getId();
+            if (columnCounts[targetIds[column]]++ == 0) {
+                nbDistinctTargets += 1;
+            }
+        }
+
+        final double[][] costs = new double[sources.size()][];
+        final Path[][] paths = data.isWithPaths() ? new Path[sources.size()][] : null;
+
+        nbComputedRows.set(0);
+        final int copyNbDistinctTargets = nbDistinctTargets;
+        final SearchWorkspace.Pool workspaces = new SearchWorkspace.Pool(pool.getParallelism());
+        pool.invoke(new RowsTask(0, sources.size(),
+                (row) -> SearchWorkspace.callWithPool(workspaces, () -> {
+                    computeRow(compact, row, targetIds, columnCounts, copyNbDistinctTargets,
+                            costs, paths);
+                    return null;
+                })));
+
+        return new DistanceMatrixSolution(data, Status.OPTIMAL, costs, paths);
+    }
+
+    /**
+     * Compute the costs (and paths if requested) from the given source to all the
+     * targets.
+     */
+    private void computeRow(CompactGraph compact, int row, int[] targetIds, int[] columnCounts,
+            int nbDistinctTargets, double[][] costs, Path[][] paths) {
+        final DistanceMatrixData data = getInputData();
+        final Node source = data.getSources().get(row);
+        final CompiledArcInspector inspector = data.getCompiledArcInspector();
+
+        SearchWorkspace workspace = SearchWorkspace.acquire(compact.size());
+        try {
+            workspace.reach(source.getId(), 0, 0, SearchWorkspace.NO_ARC);
+            int nbRemainingTargets = nbDistinctTargets;
+            while (nbRemainingTargets > 0 && !workspace.isHeapEmpty()) {
+                int current = workspace.settleMin();
+                if (columnCounts[current] > 0) {
+                    nbRemainingTargets -= 1;
+                }
+                double currentCost = workspace.getCost(current);
+
+                int lastArc = compact.getFirstArc(current + 1);
+                for (int arcId = compact.getFirstArc(current); arcId < lastArc; ++arcId) {
+                    if (!inspector.isAllowed(arcId)) {
+                        continue;
+                    }
+                    int next = compact.getHead(arcId);
+                    if (workspace.isSettled(next)) {
+                        continue;
+                    }
+                    double newCost = currentCost + inspector.getCost(arcId);
+                    if (!workspace.isReached(next)) {
+                        workspace.reach(next, newCost, 0, arcId);
+                    }
+                    else if (newCost < workspace.getCost(next)) {
+                        workspace.decreaseCost(next, newCost, arcId);
+                    }
+                }
+            }
+
+            // Targets that are not settled cannot be reached.
+            double[] rowCosts = new double[targetIds.length];
+            for (int column = 0; column < targetIds.length; ++column) {
+                rowCosts[column] = workspace.isSettled(targetIds[column])
+                        ? workspace.getCost(targetIds[column])
+                        : Double.POSITIVE_INFINITY;
+            }
+            costs[row] = rowCosts;
+
+            if (paths != null) {
+                Path[] rowPaths = new Path[targetIds.length];
+                for (int column = 0; column < targetIds.length; ++column) {
+                    if (workspace.isSettled(targetIds[column])) {
+                        rowPaths[column] = createPath(data.getGraph(), compact, workspace,
+                                source, targetIds[column]);
+                    }
+                }
+                paths[row] = rowPaths;
+            }
+        }
+        finally {
+            workspace.release();
+        }
+
+        notifyRowComputed(source);
+    }
+
+    /**
+     * Create the path from the source of the search to the given settled target,
+     * using the parent arcs stored in the workspace.
+     */
+    private static Path createPath(Graph graph, CompactGraph compact, SearchWorkspace workspace,
+            Node source, int target) {
+        if (source.getId() == target) {
+            return new Path(graph, source);
+        }
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arcId = workspace.getParentArc(target); arcId != SearchWorkspace.NO_ARC;
+                arcId = workspace.getParentArc(compact.getTail(arcId))) {
+            arcs.add(compact.getArc(arcId));
+        }
+        Collections.reverse(arcs);
+        return new Path(graph, arcs);
+    }
+
+    /**
+     * Task computing a range of rows, split in halves until a single row remains.
+     */
+    private static final class RowsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final IntConsumer computer;
+
+        RowsTask(int from, int to, IntConsumer computer) {
+            this.from = from;
+            this.to = to;
+            this.computer = computer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    computer.accept(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowsTask(from, middle, computer), new RowsTask(middle, to, computer));
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixData extends AbstractInputData {
+
+    // Sources (rows) and targets (columns) of the matrix.
+    private final List<Node> sources, targets;
+
+    // true if the paths should be computed in addition to the costs.
+    private final boolean withPaths;
+
+    /**
+     * Create a new input for the matrix of costs from the given sources to the
+     * given targets, without paths.
+     * 
+     * @param graph Graph in which the costs should be computed.
+     * @param sources Sources of the matrix (rows).
+     * @param targets Targets of the matrix (columns).
+     * @param arcInspector Filter and costs of the arcs.
+     */
+    public DistanceMatrixData(Graph graph, List<Node> sources, List<Node> targets,
+            ArcInspector arcInspector) {
+        this(graph, sources, targets, arcInspector, false);
+    }
+
+    /**
+     * Create a new input for the matrix of costs from the given sources to the
+     * given targets.
+     * 
+     * @param graph Graph in which the costs should be computed.
+     * @param sources Sources of the matrix (rows).
+     * @param targets Targets of the matrix (columns).
+     * @param arcInspector Filter and costs of the arcs.
+     * @param withPaths true if the paths corresponding to the costs should also be
+     *        computed.
+     */
+    public DistanceMatrixData(Graph graph, List<Node> sources, List<Node> targets,
+            ArcInspector arcInspector, boolean withPaths) {
+        super(graph, arcInspector);
+        this.sources = Collections.unmodifiableList(new ArrayList<>(sources));
+        this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+        this.withPaths = withPaths;
+    }
+
+    /**
+     * @return Sources of the matrix, i.e. the rows (unmodifiable list).
+     */
+    public List<Node> getSources() {
+        return sources;
+    }
+
+    /**
+     * @return Targets of the matrix, i.e. the columns (unmodifiable list).
+     */
+    public List<Node> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return true if the paths should be computed in addition to the costs.
+     */
+    public boolean isWithPaths() {
+        return withPaths;
+    }
+
+    @Override
+    public String toString() {
+        return "Distance matrix from " + sources.size() + " sources to " + targets.size()
+                + " targets [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+
+}
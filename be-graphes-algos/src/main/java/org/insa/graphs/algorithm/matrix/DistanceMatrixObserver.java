@@ -0,0 +1,17 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.model.Node;
+
+public interface DistanceMatrixObserver {
+
+    /**
+     * Notify the observer that the costs from a source have been computed. Rows
+     * are computed in parallel, so this method may be called from several threads
+     * and in any order.
+     * 
+     * @param source Source whose row has been computed.
+     * @param nbComputedRows Number of rows computed so far, including this one.
+     */
+    public void notifyRowComputed(Node source, int nbComputedRows);
+
+}
@@ -0,0 +1,92 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Path;
+
+public class DistanceMatrixSolution extends AbstractSolution {
+
+    // Costs and paths (if requested), indexed by [source][target].
+    private final double[][] costs;
+    private final Path[][] paths;
+
+    /**
+     * Create a new distance matrix solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param costs Costs from each source to each target.
+     * @param paths Paths from each source to each target, or null if paths were
+     *        not requested.
+     */
+    protected DistanceMatrixSolution(DistanceMatrixData data, Status status, double[][] costs,
+            Path[][] paths) {
+        super(data, status);
+        this.costs = costs;
+        this.paths = paths;
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @return Costs of the shortest paths, {@code getCosts()[i][j]} is the cost
+     *         from the i-th source to the j-th target, or
+     *         {@link Double#POSITIVE_INFINITY} if the target cannot be reached.
+     *         The returned array is not copied.
+     */
+    public double[][] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @param source Index of the source.
+     * @param target Index of the target.
+     * 
+     * @return Cost of the shortest path from the given source to the given target,
+     *         or {@link Double#POSITIVE_INFINITY} if the target cannot be reached.
+     */
+    public double getCost(int source, int target) {
+        return costs[source][target];
+    }
+
+    /**
+     * @return true if the paths have been computed.
+     */
+    public boolean hasPaths() {
+        return paths != null;
+    }
+
+    /**
+     * @param source Index of the source.
+     * @param target Index of the target.
+     * 
+     * @return Shortest path from the given source to the given target, or null if
+     *         the target cannot be reached.
+     * 
+     * @throws IllegalStateException if the paths have not been computed.
+     */
+    public Path getPath(int source, int target) {
+        if (paths == null) {
+            throw new IllegalStateException("Paths have not been requested.");
+        }
+        return paths[source][target];
+    }
+
+    @Override
+    public String toString() {
+        int nbUnreachable = 0;
+        for (double[] row: costs) {
+            for (double cost: row) {
+                if (Double.isInfinite(cost)) {
+                    nbUnreachable += 1;
+                }
+            }
+        }
+        return "Computed " + costs.length + "x"
+                + getInputData().getTargets().size() + " matrix (" + nbUnreachable
+                + " unreachable pairs) in " + getSolvingTime().toMillis() + " ms.";
+    }
+
+}
@@ -5,29 +5,62 @@ import static org.insa.graphs.algorithm.AbstractInputData.*;
 
 public class AStarAlgorithm extends DijkstraAlgorithm {
 
+    /* Coordinates of the destination */
+    private final double destinationLongitude, destinationLatitude;
+
+    /* Maximum speed (in m/s) used to turn distances into times, 1 in length mode */
+    private final double speed;
+
     public AStarAlgorithm(ShortestPathData data) {
         super(data);
+        Point destination = data.getDestination().getPoint();
+        this.destinationLongitude = destination.getLongitude();
+        this.destinationLatitude = destination.getLatitude();
+        this.speed = getEstimateSpeed(data);
     }
 
     /**
-     * Rewriting existing method in DijkstraAlgorithm
+     * Speed used to turn distances as the crow flies into lower bounds of the cost
+     * of the given data: 1 in length mode, or the maximum speed (in m/s) in time
+     * mode. If no usable speed is known, the speed is infinite (null estimate).
      */
-    @Override
-    public Label[] initTabLabel(int nbNode, ShortestPathData data) {
-
-        /* Init LabelStar label list */
-        LabelStar[] labels = new LabelStar[nbNode];
-
-        /* Parameters */
-        double cost = Double.POSITIVE_INFINITY;
-        Node destNode = data.getDestination();
-        boolean LengthMode = data.getMode() == Mode.LENGTH;
+    static double getEstimateSpeed(ShortestPathData data) {
+        if (data.getMode() == Mode.LENGTH) {
+            return 1;
+        }
+        double maximumSpeed = getMaximumSpeed(data);
+        return maximumSpeed > 0 ? maximumSpeed / 3.6 : Double.POSITIVE_INFINITY;
+    }
 
-        /* Add LabelStar labels to the list */
-        for (int i = 0; i < nbNode; i++) {
-            labels[i] = new LabelStar(data.getGraph().get(i), false, cost, -1, destNode, LengthMode);
+    /**
+     * Maximum speed (in km/h) on the allowed arcs: the speed of the filter if any,
+     * otherwise the maximum speed of the graph.
+     */
+    private static double getMaximumSpeed(ShortestPathData data) {
+        if (data.getMaximumSpeed() != GraphStatistics.NO_MAXIMUM_SPEED) {
+            return data.getMaximumSpeed();
+        }
+        GraphStatistics statistics = data.getGraph().getGraphInformation();
+        if (statistics != null && statistics.getMaximumSpeed() != GraphStatistics.NO_MAXIMUM_SPEED) {
+            return statistics.getMaximumSpeed();
         }
-        return labels;
+        CompactGraph compact = data.getGraph().getCompactGraph();
+        int maximumSpeed = 0;
+        for (int i = 0; i < compact.getRoadInformationCount(); ++i) {
+            maximumSpeed = Math.max(maximumSpeed, compact.getRoadInformationAt(i).getMaximumSpeed());
+        }
+        return maximumSpeed;
+    }
+
+    /**
+     * Rewriting existing method in DijkstraAlgorithm: the estimate is the
+     * distance as the crow flies to the destination, divided by the maximum speed
+     * in time mode.
+     */
+    @Override
+    protected double getEstimateCost(CompactGraph graph, int node) {
+        return Point.distance(graph.getLongitude(node), graph.getLatitude(node),
+                destinationLongitude, destinationLatitude) / speed;
     }
 
 }
@@ -0,0 +1,46 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.model.*;
+
+/**
+ * A* using the ALT heuristic: the estimate of a node is the best lower bound
+ * given by the landmarks of the {@link LandmarkTable} of the graph (computed on
+ * the first query for a graph and an arc inspector, unless a table has been
+ * loaded and registered before).
+ *
+ * Only the landmarks that give the best bounds between the origin and the
+ * destination are used during the search.
+ */
+public class AStarLandmarksAlgorithm extends AStarAlgorithm {
+
+    /* Number of landmarks used for each query */
+    private static final int NB_ACTIVE_LANDMARKS = 4;
+
+    /* Landmark table and landmarks used for this query */
+    private LandmarkTable table;
+    private int[] activeLandmarks;
+
+    public AStarLandmarksAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        this.table = LandmarkTable.get(data.getGraph(), data.getArcInspector());
+        this.activeLandmarks = table.selectActiveLandmarks(data.getOrigin().getId(),
+                data.getDestination().getId(), NB_ACTIVE_LANDMARKS);
+        return super.doRun();
+    }
+
+    /**
+     * Rewriting existing method in AStarAlgorithm: the estimate is the best of the
+     * landmark bounds and of the distance as the crow flies.
+     */
+    @Override
+    protected double getEstimateCost(CompactGraph graph, int node) {
+        return Math.max(super.getEstimateCost(graph, node),
+                table.getLowerBound(activeLandmarks, node, getInputData().getDestination().getId()));
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.model.*;
+
+/**
+ * Bidirectional A*, using the average of the forward A* estimate (distance to
+ * the destination) and of the backward one (distance from the origin) as
+ * potential, which is consistent for both searches.
+ */
+public class BidirectionalAStarAlgorithm extends BidirectionalDijkstraAlgorithm {
+
+    /* Coordinates of the origin and of the destination */
+    private final double originLongitude, originLatitude;
+    private final double destinationLongitude, destinationLatitude;
+
+    /* Speed used to turn distances into costs (see AStarAlgorithm) */
+    private final double speed;
+
+    public BidirectionalAStarAlgorithm(ShortestPathData data) {
+        super(data);
+        Point origin = data.getOrigin().getPoint(), destination = data.getDestination().getPoint();
+        this.originLongitude = origin.getLongitude();
+        this.originLatitude = origin.getLatitude();
+        this.destinationLongitude = destination.getLongitude();
+        this.destinationLatitude = destination.getLatitude();
+        this.speed = AStarAlgorithm.getEstimateSpeed(data);
+    }
+
+    @Override
+    protected double getPotential(CompactGraph graph, int node) {
+        double longitude = graph.getLongitude(node), latitude = graph.getLatitude(node);
+        double toDestination = Point.distance(longitude, latitude, destinationLongitude,
+                destinationLatitude);
+        double fromOrigin = Point.distance(originLongitude, originLatitude, longitude, latitude);
+        return (toDestination - fromOrigin) / (2 * speed);
+    }
+
+}
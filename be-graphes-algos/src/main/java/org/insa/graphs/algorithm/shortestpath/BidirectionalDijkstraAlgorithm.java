@@ -0,0 +1,171 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.model.*;
+
+/**
+ * Bidirectional Dijkstra: a forward search from the origin and a backward
+ * search from the destination (on incoming arcs) are run alternately until they
+ * meet, which settles roughly half as many nodes as Dijkstra on long queries.
+ *
+ * The searches can be guided by a potential (see
+ * {@link #getPotential(CompactGraph, int)}): the forward search uses the
+ * potential as its estimate, and the backward search uses its opposite, which
+ * keeps the stopping criterion of bidirectional Dijkstra valid.
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    /**
+     * Potential of the given node. The potential must be consistent for both
+     * searches, i.e. for every allowed arc (u, v), {@code cost(u, v) -
+     * getPotential(u) + getPotential(v)} must be non-negative. Bidirectional
+     * Dijkstra uses a null potential.
+     *
+     * @param graph Compact graph in which the search is done.
+     * @param node ID of the node.
+     *
+     * @return Potential of the given node.
+     */
+    protected double getPotential(CompactGraph graph, int node) {
+        return 0;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+
+        final ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        CompiledArcInspector inspector = data.getCompiledArcInspector();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        SearchWorkspace forward = SearchWorkspace.acquire(compact.size());
+        SearchWorkspace backward = SearchWorkspace.acquire(compact.size());
+        try {
+
+            /* Initialize both searches */
+            forward.reach(origin, 0, getPotential(compact, origin), SearchWorkspace.NO_ARC);
+            backward.reach(destination, 0, -getPotential(compact, destination), SearchWorkspace.NO_ARC);
+
+            notifyOriginProcessed(data.getOrigin());
+
+            /* Best path found so far, and node where both searches met on this path */
+            double bestCost = origin == destination ? 0 : Double.POSITIVE_INFINITY;
+            int meetingNode = origin == destination ? origin : -1;
+
+            /* Main algorithm, stops when no path through unsettled nodes can be better */
+            while (!forward.isHeapEmpty() && !backward.isHeapEmpty()
+                    && forward.peekMinKey() + backward.peekMinKey() < bestCost) {
+
+                if (forward.peekMinKey() <= backward.peekMinKey()) {
+                    int current = forward.settleMin();
+                    double currentCost = forward.getCost(current);
+
+                    int lastArc = compact.getFirstArc(current + 1);
+                    for (int arcId = compact.getFirstArc(current); arcId < lastArc; ++arcId) {
+                        if (!inspector.isAllowed(arcId))
+                            continue;
+
+                        int next = compact.getHead(arcId);
+                        if (!forward.isSettled(next)) {
+                            double newCost = currentCost + inspector.getCost(arcId);
+                            if (!forward.isReached(next)) {
+                                if (!backward.isReached(next)) {
+                                    notifyNodeReached(graph.get(next));
+                                }
+                                forward.reach(next, newCost, getPotential(compact, next), arcId);
+                            } else if (newCost < forward.getCost(next)) {
+                                forward.decreaseCost(next, newCost, arcId);
+                            }
+                        }
+
+                        /* Check if the searches meet on a better path */
+                        if (backward.isReached(next)
+                                && forward.getCost(next) + backward.getCost(next) < bestCost) {
+                            bestCost = forward.getCost(next) + backward.getCost(next);
+                            meetingNode = next;
+                        }
+                    }
+                } else {
+                    int current = backward.settleMin();
+                    double currentCost = backward.getCost(current);
+
+                    int lastArc = compact.getFirstIncomingArc(current + 1);
+                    for (int i = compact.getFirstIncomingArc(current); i < lastArc; ++i) {
+                        int arcId = compact.getIncomingArc(i);
+                        if (!inspector.isAllowed(arcId))
+                            continue;
+
+                        int previous = compact.getIncomingArcTail(i);
+                        if (!backward.isSettled(previous)) {
+                            double newCost = currentCost + inspector.getCost(arcId);
+                            if (!backward.isReached(previous)) {
+                                if (!forward.isReached(previous)) {
+                                    notifyNodeReached(graph.get(previous));
+                                }
+                                backward.reach(previous, newCost, -getPotential(compact, previous), arcId);
+                            } else if (newCost < backward.getCost(previous)) {
+                                backward.decreaseCost(previous, newCost, arcId);
+                            }
+                        }
+
+                        if (forward.isReached(previous)
+                                && forward.getCost(previous) + backward.getCost(previous) < bestCost) {
+                            bestCost = forward.getCost(previous) + backward.getCost(previous);
+                            meetingNode = previous;
+                        }
+                    }
+                }
+            }
+
+            if (meetingNode == -1) {
+                return new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
+            }
+
+            /* The destination has been found, notify the observers. */
+            notifyDestinationReached(data.getDestination());
+
+            if (origin == destination) {
+                return new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                        new CompactPath(graph, origin));
+            }
+
+            /* Arcs from the origin to the meeting node, then to the destination */
+            int nbForwardArcs = 0, nbArcs = 0;
+            for (int arcId = forward.getParentArc(meetingNode); arcId != SearchWorkspace.NO_ARC;
+                    arcId = forward.getParentArc(compact.getTail(arcId))) {
+                nbForwardArcs += 1;
+            }
+            for (int arcId = backward.getParentArc(meetingNode); arcId != SearchWorkspace.NO_ARC;
+                    arcId = backward.getParentArc(compact.getHead(arcId))) {
+                nbArcs += 1;
+            }
+            int[] pathArcs = new int[nbForwardArcs + nbArcs];
+            nbArcs = nbForwardArcs;
+            for (int arcId = forward.getParentArc(meetingNode); arcId != SearchWorkspace.NO_ARC;
+                    arcId = forward.getParentArc(compact.getTail(arcId))) {
+                pathArcs[--nbArcs] = arcId;
+            }
+            nbArcs = nbForwardArcs;
+            for (int arcId = backward.getParentArc(meetingNode); arcId != SearchWorkspace.NO_ARC;
+                    arcId = backward.getParentArc(compact.getHead(arcId))) {
+                pathArcs[nbArcs++] = arcId;
+            }
+
+            return new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                    new CompactPath(graph, pathArcs));
+        }
+        finally {
+            backward.release();
+            forward.release();
+        }
+    }
+
+}
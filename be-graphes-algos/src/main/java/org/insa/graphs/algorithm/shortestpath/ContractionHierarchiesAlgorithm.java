@@ -0,0 +1,123 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest-path queries on a {@link ContractionHierarchy}: a forward search
+ * from the origin on upward edges and a backward search from the destination on
+ * downward edges, the best path going through the node where both searches meet
+ * with the lowest cost. The path found is unpacked into the original arcs of the
+ * graph.
+ *
+ * The hierarchy is built on the first query for a graph and an arc inspector,
+ * and reused by the following queries.
+ */
+public class ContractionHierarchiesAlgorithm extends ShortestPathAlgorithm {
+
+    public ContractionHierarchiesAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+
+        final ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        ContractionHierarchy hierarchy = ContractionHierarchy.get(graph, data.getArcInspector());
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        SearchWorkspace forward = SearchWorkspace.acquire(hierarchy.size());
+        SearchWorkspace backward = SearchWorkspace.acquire(hierarchy.size());
+        try {
+
+            forward.reach(origin, 0, 0, SearchWorkspace.NO_ARC);
+            backward.reach(destination, 0, 0, SearchWorkspace.NO_ARC);
+
+            notifyOriginProcessed(data.getOrigin());
+
+            double bestCost = origin == destination ? 0 : Double.POSITIVE_INFINITY;
+            int meetingNode = origin == destination ? origin : -1;
+
+            /* Each search stops once its minimum is not lower than the best cost */
+            while (forward.peekMinKey() < bestCost || backward.peekMinKey() < bestCost) {
+                boolean isForward = forward.peekMinKey() <= backward.peekMinKey();
+                SearchWorkspace search = isForward ? forward : backward;
+                SearchWorkspace other = isForward ? backward : forward;
+
+                int current = search.settleMin();
+                double currentCost = search.getCost(current);
+
+                int first = isForward ? hierarchy.getFirstUpwardEdge(current)
+                        : hierarchy.getFirstDownwardEdge(current);
+                int last = isForward ? hierarchy.getFirstUpwardEdge(current + 1)
+                        : hierarchy.getFirstDownwardEdge(current + 1);
+                for (int i = first; i < last; ++i) {
+                    int edge = isForward ? hierarchy.getUpwardEdge(i) : hierarchy.getDownwardEdge(i);
+                    int next = isForward ? hierarchy.getHead(edge) : hierarchy.getTail(edge);
+                    if (search.isSettled(next))
+                        continue;
+
+                    double newCost = currentCost + hierarchy.getCost(edge);
+                    if (!search.isReached(next)) {
+                        if (!other.isReached(next)) {
+                            notifyNodeReached(graph.get(next));
+                        }
+                        search.reach(next, newCost, 0, edge);
+                    } else if (newCost < search.getCost(next)) {
+                        search.decreaseCost(next, newCost, edge);
+                    }
+
+                    if (other.isReached(next)
+                            && forward.getCost(next) + backward.getCost(next) < bestCost) {
+                        bestCost = forward.getCost(next) + backward.getCost(next);
+                        meetingNode = next;
+                    }
+                }
+            }
+
+            if (meetingNode == -1) {
+                return new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
+            }
+
+            notifyDestinationReached(data.getDestination());
+
+            if (origin == destination) {
+                return new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                        new CompactPath(graph, origin));
+            }
+
+            /* Edges from the origin to the meeting node, then to the destination */
+            ArrayList<Integer> edges = new ArrayList<>();
+            for (int edge = forward.getParentArc(meetingNode); edge != SearchWorkspace.NO_ARC;
+                    edge = forward.getParentArc(hierarchy.getTail(edge))) {
+                edges.add(edge);
+            }
+            Collections.reverse(edges);
+            for (int edge = backward.getParentArc(meetingNode); edge != SearchWorkspace.NO_ARC;
+                    edge = backward.getParentArc(hierarchy.getHead(edge))) {
+                edges.add(edge);
+            }
+
+            /* Unpack shortcuts into the original arcs */
+            IntStream.Builder pathArcs = IntStream.builder();
+            for (int edge: edges) {
+                hierarchy.unpack(edge, pathArcs);
+            }
+
+            return new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                    new CompactPath(graph, pathArcs.build().toArray()));
+        }
+        finally {
+            backward.release();
+            forward.release();
+        }
+    }
+
+}
@@ -0,0 +1,543 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Contraction hierarchy of a graph for a given cost model (arc inspector).
+ * </p>
+ *
+ * <p>
+ * During preprocessing, nodes are contracted one by one, from the least to the
+ * most important one (ordered by edge difference and number of contracted
+ * neighbors, with lazy updates). Contracting a node v removes it from the
+ * remaining graph and adds a <i>shortcut</i> (u, w) for each pair of arcs (u,
+ * v), (v, w) whose path u - v - w is the only shortest path from u to w, as
+ * checked by a bounded local search (<i>witness search</i>).
+ * </p>
+ *
+ * <p>
+ * Each edge of the hierarchy is either an arc of the original graph, or a
+ * shortcut made of two child edges, so that a shortcut can be unpacked into the
+ * original arcs it stands for without storing full arc sequences. The edges are
+ * then split into an upward graph (edges toward more important nodes) and a
+ * downward graph (edges from more important nodes, stored at their head), which
+ * are searched by {@link ContractionHierarchiesAlgorithm}.
+ * </p>
+ *
+ * <p>
+ * Hierarchies only depend on the graph and on the arc inspector, and are cached
+ * (see {@link #get(Graph, ArcInspector)}) so that preprocessing is done once per
+ * cost model. A hierarchy does not reference its graph.
+ * </p>
+ */
+public final class ContractionHierarchy {
+
+    // Maximum number of nodes settled by a witness search, shortcuts are added if
+    // no witness is found within this limit.
+    private static final int WITNESS_SEARCH_LIMIT = 500;
+
+    // Value of the original arc of shortcut edges.
+    private static final int SHORTCUT = -1;
+
+    // Hierarchies already computed, by graph and inspector.
+    private static final Map<Graph, Map<ArcInspector, ContractionHierarchy>> CACHE = new WeakHashMap<>();
+
+    /**
+     * Retrieve the contraction hierarchy of the given graph for the given
+     * inspector, building it if it has not been built yet.
+     *
+     * @param graph Graph for the hierarchy.
+     * @param inspector Inspector defining the allowed arcs and their costs.
+     *
+     * @return Contraction hierarchy of the given graph for the given inspector.
+     */
+    public static ContractionHierarchy get(Graph graph, ArcInspector inspector) {
+        Map<ArcInspector, ContractionHierarchy> hierarchies;
+        synchronized (CACHE) {
+            hierarchies = CACHE.get(graph);
+            if (hierarchies == null) {
+                hierarchies = new WeakHashMap<>();
+                CACHE.put(graph, hierarchies);
+            }
+        }
+        // Build outside of the global lock so that different graphs can be processed
+        // concurrently, but only once per graph and inspector.
+        synchronized (hierarchies) {
+            ContractionHierarchy hierarchy = hierarchies.get(inspector);
+            if (hierarchy == null) {
+                hierarchy = build(graph, inspector);
+                hierarchies.put(inspector, hierarchy);
+            }
+            return hierarchy;
+        }
+    }
+
+    /**
+     * Build a new contraction hierarchy for the given graph and inspector.
+     *
+     * @param graph Graph for the hierarchy.
+     * @param inspector Inspector defining the allowed arcs and their costs.
+     *
+     * @return A new contraction hierarchy.
+     */
+    public static ContractionHierarchy build(Graph graph, ArcInspector inspector) {
+        return new Builder(graph.getCompactGraph(), inspector).build();
+    }
+
+    // Rank (contraction order) of each node.
+    private final int[] ranks;
+
+    // Edges of the hierarchy: endpoints, cost, and either the original arc or the
+    // two children.
+    private final int[] edgeTails, edgeHeads;
+    private final double[] edgeCosts;
+    private final int[] edgeArcs, edgeFirstChildren, edgeSecondChildren;
+
+    // Upward edges, indexed by tail, and downward edges, indexed by head.
+    private final int[] upOffsets, upEdges;
+    private final int[] downOffsets, downEdges;
+
+    private ContractionHierarchy(int[] ranks, int nbEdges, int[] edgeTails, int[] edgeHeads,
+            double[] edgeCosts, int[] edgeArcs, int[] edgeFirstChildren, int[] edgeSecondChildren) {
+        final int nbNodes = ranks.length;
+        this.ranks = ranks;
+        this.edgeTails = Arrays.copyOf(edgeTails, nbEdges);
+        this.edgeHeads = Arrays.copyOf(edgeHeads, nbEdges);
+        this.edgeCosts = Arrays.copyOf(edgeCosts, nbEdges);
+        this.edgeArcs = Arrays.copyOf(edgeArcs, nbEdges);
+        this.edgeFirstChildren = Arrays.copyOf(edgeFirstChildren, nbEdges);
+        this.edgeSecondChildren = Arrays.copyOf(edgeSecondChildren, nbEdges);
+
+        this.upOffsets = new int[nbNodes + 1];
+        this.downOffsets = new int[nbNodes + 1];
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            if (isUpward(edge)) {
+                this.upOffsets[edgeTails[edge] + 1] += 1;
+            }
+            else {
+                this.downOffsets[edgeHeads[edge] + 1] += 1;
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            this.upOffsets[node + 1] += this.upOffsets[node];
+            this.downOffsets[node + 1] += this.downOffsets[node];
+        }
+        this.upEdges = new int[this.upOffsets[nbNodes]];
+        this.downEdges = new int[this.downOffsets[nbNodes]];
+        int[] upCursors = Arrays.copyOf(this.upOffsets, nbNodes);
+        int[] downCursors = Arrays.copyOf(this.downOffsets, nbNodes);
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            if (isUpward(edge)) {
+                this.upEdges[upCursors[edgeTails[edge]]++] = edge;
+            }
+            else {
+                this.downEdges[downCursors[edgeHeads[edge]]++] = edge;
+            }
+        }
+    }
+
+    private boolean isUpward(int edge) {
+        return ranks[edgeTails[edge]] < ranks[edgeHeads[edge]];
+    }
+
+    /**
+     * @return Number of nodes in this hierarchy.
+     */
+    public int size() {
+        return ranks.length;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Rank of the given node, i.e. its position in the contraction order.
+     */
+    public int getRank(int node) {
+        return ranks[node];
+    }
+
+    /**
+     * @return Number of edges (original arcs and shortcuts) in this hierarchy.
+     */
+    public int getEdgeCount() {
+        return edgeTails.length;
+    }
+
+    /**
+     * @return Number of shortcuts in this hierarchy.
+     */
+    public int getShortcutCount() {
+        int count = 0;
+        for (int arc: edgeArcs) {
+            if (arc == SHORTCUT) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param edge ID of the edge.
+     *
+     * @return Origin of the given edge.
+     */
+    public int getTail(int edge) {
+        return edgeTails[edge];
+    }
+
+    /**
+     * @param edge ID of the edge.
+     *
+     * @return Destination of the given edge.
+     */
+    public int getHead(int edge) {
+        return edgeHeads[edge];
+    }
+
+    /**
+     * @param edge ID of the edge.
+     *
+     * @return Cost of the given edge.
+     */
+    public double getCost(int edge) {
+        return edgeCosts[edge];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Position of the first upward edge leaving the given node, the upward
+     *         edges of node are in {@code [getFirstUpwardEdge(node),
+     *         getFirstUpwardEdge(node + 1))}.
+     *
+     * @see #getUpwardEdge(int)
+     */
+    public int getFirstUpwardEdge(int node) {
+        return upOffsets[node];
+    }
+
+    /**
+     * @param position Position of the upward edge.
+     *
+     * @return ID of the edge.
+     */
+    public int getUpwardEdge(int position) {
+        return upEdges[position];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Position of the first downward edge entering the given node, the
+     *         downward edges of node are in {@code [getFirstDownwardEdge(node),
+     *         getFirstDownwardEdge(node + 1))}.
+     *
+     * @see #getDownwardEdge(int)
+     */
+    public int getFirstDownwardEdge(int node) {
+        return downOffsets[node];
+    }
+
+    /**
+     * @param position Position of the downward edge.
+     *
+     * @return ID of the edge.
+     */
+    public int getDownwardEdge(int position) {
+        return downEdges[position];
+    }
+
+    /**
+     * Unpack the given edge into the original arcs it stands for.
+     *
+     * @param edge ID of the edge to unpack.
+     * @param consumer Consumer called with the ID (in the compact graph) of each
+     *        original arc of the edge, in order.
+     */
+    public void unpack(int edge, IntConsumer consumer) {
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = edge;
+        while (top > 0) {
+            int current = stack[--top];
+            if (edgeArcs[current] != SHORTCUT) {
+                consumer.accept(edgeArcs[current]);
+            }
+            else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[top++] = edgeSecondChildren[current];
+                stack[top++] = edgeFirstChildren[current];
+            }
+        }
+    }
+
+    /**
+     * Contract the nodes of a compact graph.
+     */
+    private static final class Builder {
+
+        private final CompactGraph graph;
+        private final int nbNodes;
+
+        // Edges, growing as shortcuts are added.
+        private int nbEdges = 0;
+        private int[] tails, heads, arcs, firstChildren, secondChildren;
+        private double[] costs;
+
+        // Outgoing and incoming edges of each node (including edges toward
+        // contracted nodes, which are skipped).
+        private final int[][] outEdges, inEdges;
+        private final int[] outDegrees, inDegrees;
+
+        // Contraction state.
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] ranks;
+
+        // Workspace for witness searches.
+        private final SearchWorkspace workspace;
+
+        // Candidate shortcuts (in, out edges) of the node being contracted.
+        private int nbCandidates;
+        private int[] candidateIns = new int[16], candidateOuts = new int[16];
+
+        Builder(CompactGraph graph, ArcInspector inspector) {
+            this.graph = graph;
+            this.nbNodes = graph.size();
+            int capacity = Math.max(16, graph.getArcCount());
+            this.tails = new int[capacity];
+            this.heads = new int[capacity];
+            this.arcs = new int[capacity];
+            this.firstChildren = new int[capacity];
+            this.secondChildren = new int[capacity];
+            this.costs = new double[capacity];
+            this.outEdges = new int[nbNodes][];
+            this.inEdges = new int[nbNodes][];
+            this.outDegrees = new int[nbNodes];
+            this.inDegrees = new int[nbNodes];
+            this.contracted = new boolean[nbNodes];
+            this.contractedNeighbors = new int[nbNodes];
+            this.ranks = new int[nbNodes];
+            this.workspace = new SearchWorkspace(nbNodes);
+
+            // Keep the cheapest allowed arc between each pair of nodes.
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arcId = graph.getFirstArc(node); arcId < graph
+                        .getFirstArc(node + 1); ++arcId) {
+                    Arc arc = graph.getArc(arcId);
+                    int head = graph.getHead(arcId);
+                    if (head == node || !inspector.isAllowed(arc)) {
+                        continue;
+                    }
+                    double cost = inspector.getCost(arc);
+                    int edge = findEdge(node, head);
+                    if (edge == -1) {
+                        addEdge(node, head, cost, arcId, -1, -1);
+                    }
+                    else if (cost < costs[edge]) {
+                        costs[edge] = cost;
+                        arcs[edge] = arcId;
+                    }
+                }
+            }
+        }
+
+        private static void append(int[][] lists, int[] degrees, int node, int value) {
+            if (lists[node] == null) {
+                lists[node] = new int[4];
+            }
+            else if (degrees[node] == lists[node].length) {
+                lists[node] = Arrays.copyOf(lists[node], 2 * degrees[node]);
+            }
+            lists[node][degrees[node]++] = value;
+        }
+
+        /**
+         * @return Cheapest edge from tail to head, or -1 if there is none.
+         */
+        private int findEdge(int tail, int head) {
+            int best = -1;
+            for (int i = 0; i < outDegrees[tail]; ++i) {
+                int edge = outEdges[tail][i];
+                if (heads[edge] == head && (best == -1 || costs[edge] < costs[best])) {
+                    best = edge;
+                }
+            }
+            return best;
+        }
+
+        private void addEdge(int tail, int head, double cost, int arc, int firstChild,
+                int secondChild) {
+            if (nbEdges == tails.length) {
+                int capacity = 2 * nbEdges;
+                tails = Arrays.copyOf(tails, capacity);
+                heads = Arrays.copyOf(heads, capacity);
+                arcs = Arrays.copyOf(arcs, capacity);
+                firstChildren = Arrays.copyOf(firstChildren, capacity);
+                secondChildren = Arrays.copyOf(secondChildren, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+            }
+            tails[nbEdges] = tail;
+            heads[nbEdges] = head;
+            costs[nbEdges] = cost;
+            arcs[nbEdges] = arc;
+            firstChildren[nbEdges] = firstChild;
+            secondChildren[nbEdges] = secondChild;
+            append(outEdges, outDegrees, tail, nbEdges);
+            append(inEdges, inDegrees, head, nbEdges);
+            ++nbEdges;
+        }
+
+        /**
+         * Find the shortcuts required to contract the given node, and store them as
+         * candidates.
+         */
+        private void findShortcuts(int node) {
+            nbCandidates = 0;
+            for (int i = 0; i < inDegrees[node]; ++i) {
+                int inEdge = inEdges[node][i];
+                int source = tails[inEdge];
+                if (contracted[source]) {
+                    continue;
+                }
+
+                // Largest cost of a path through node, to bound the witness search.
+                double maxCost = -1;
+                for (int j = 0; j < outDegrees[node]; ++j) {
+                    int outEdge = outEdges[node][j];
+                    if (!contracted[heads[outEdge]] && heads[outEdge] != source) {
+                        maxCost = Math.max(maxCost, costs[inEdge] + costs[outEdge]);
+                    }
+                }
+                if (maxCost < 0) {
+                    continue;
+                }
+
+                witnessSearch(source, node, maxCost);
+
+                for (int j = 0; j < outDegrees[node]; ++j) {
+                    int outEdge = outEdges[node][j];
+                    int target = heads[outEdge];
+                    if (contracted[target] || target == source) {
+                        continue;
+                    }
+                    if (workspace.getCost(target) > costs[inEdge] + costs[outEdge]) {
+                        if (nbCandidates == candidateIns.length) {
+                            candidateIns = Arrays.copyOf(candidateIns, 2 * nbCandidates);
+                            candidateOuts = Arrays.copyOf(candidateOuts, 2 * nbCandidates);
+                        }
+                        candidateIns[nbCandidates] = inEdge;
+                        candidateOuts[nbCandidates] = outEdge;
+                        ++nbCandidates;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Run a bounded Dijkstra from source in the remaining graph, avoiding the
+         * given node.
+         */
+        private void witnessSearch(int source, int avoided, double maxCost) {
+            workspace.reset();
+            workspace.reach(source, 0, 0, SearchWorkspace.NO_ARC);
+            int nbSettled = 0;
+            while (!workspace.isHeapEmpty() && workspace.peekMinKey() <= maxCost
+                    && nbSettled < WITNESS_SEARCH_LIMIT) {
+                int current = workspace.settleMin();
+                ++nbSettled;
+                for (int i = 0; i < outDegrees[current]; ++i) {
+                    int edge = outEdges[current][i];
+                    int next = heads[edge];
+                    if (next == avoided || contracted[next] || workspace.isSettled(next)) {
+                        continue;
+                    }
+                    double cost = workspace.getCost(current) + costs[edge];
+                    if (!workspace.isReached(next)) {
+                        workspace.reach(next, cost, 0, SearchWorkspace.NO_ARC);
+                    }
+                    else if (cost < workspace.getCost(next)) {
+                        workspace.decreaseCost(next, cost, SearchWorkspace.NO_ARC);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return Priority of the given node (lower is contracted first).
+         */
+        private int getPriority(int node) {
+            findShortcuts(node);
+            int nbRemoved = 0;
+            for (int i = 0; i < inDegrees[node]; ++i) {
+                nbRemoved += contracted[tails[inEdges[node][i]]] ? 0 : 1;
+            }
+            for (int i = 0; i < outDegrees[node]; ++i) {
+                nbRemoved += contracted[heads[outEdges[node][i]]] ? 0 : 1;
+            }
+            return 2 * (nbCandidates - nbRemoved) + contractedNeighbors[node];
+        }
+
+        private void contract(int node) {
+            findShortcuts(node);
+            for (int i = 0; i < nbCandidates; ++i) {
+                int inEdge = candidateIns[i], outEdge = candidateOuts[i];
+                int source = tails[inEdge], target = heads[outEdge];
+                double cost = costs[inEdge] + costs[outEdge];
+                // Existing edges are never modified since they may be children of
+                // other shortcuts, a cheaper shortcut is added as a parallel edge.
+                int edge = findEdge(source, target);
+                if (edge == -1 || cost < costs[edge]) {
+                    addEdge(source, target, cost, SHORTCUT, inEdge, outEdge);
+                }
+            }
+            contracted[node] = true;
+            for (int i = 0; i < inDegrees[node]; ++i) {
+                contractedNeighbors[tails[inEdges[node][i]]] += 1;
+            }
+            for (int i = 0; i < outDegrees[node]; ++i) {
+                contractedNeighbors[heads[outEdges[node][i]]] += 1;
+            }
+        }
+
+        ContractionHierarchy build() {
+            // Priority queue of (priority, node), with lazy updates: when a node is
+            // popped, its priority is recomputed and the node is pushed back if it is
+            // no longer the minimum.
+            PriorityQueue<long[]> queue = new PriorityQueue<>(
+                    Math.max(1, nbNodes), (a, b) -> Long.compare(a[0], b[0]));
+            for (int node = 0; node < nbNodes; ++node) {
+                queue.add(new long[] { getPriority(node), node });
+            }
+            int rank = 0;
+            while (!queue.isEmpty()) {
+                long[] entry = queue.poll();
+                int node = (int) entry[1];
+                int priority = getPriority(node);
+                if (!queue.isEmpty() && priority > queue.peek()[0]) {
+                    entry[0] = priority;
+                    queue.add(entry);
+                    continue;
+                }
+                contract(node);
+                ranks[node] = rank++;
+            }
+            return new ContractionHierarchy(ranks, nbEdges, tails, heads, costs, arcs,
+                    firstChildren, secondChildren);
+        }
+
+    }
+
+}
@@ -0,0 +1,409 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Parallel single-source shortest-path algorithm (Δ-stepping, Meyer and
+ * Sanders), computing the full shortest-path tree from the origin on all the
+ * threads of a {@link ForkJoinPool}.
+ * </p>
+ *
+ * <p>
+ * Nodes are grouped in buckets of width Δ according to their tentative cost.
+ * Buckets are processed in increasing order: the arcs of cost at most Δ (light
+ * arcs) of the nodes in the current bucket are relaxed in parallel until the
+ * bucket stays empty, then the other (heavy) arcs of all the nodes removed from
+ * the bucket are relaxed once. Tentative costs are stored as the bits of
+ * non-negative doubles in an {@link AtomicLongArray}, whose order is the same as
+ * the order of the doubles, and are decreased without locks using
+ * compare-and-set. The parent arcs are chosen once the costs are final, so the
+ * costs are exactly the ones computed by {@link DijkstraAlgorithm}.
+ * </p>
+ *
+ * <p>
+ * Since nodes are relaxed concurrently, observers are only notified when the
+ * origin is processed and when the destination is reached.
+ * </p>
+ */
+public class DeltaSteppingAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes (resp. arcs) below which a parallel task is not split.
+    private static final int NODES_PER_TASK = 128, ARCS_PER_TASK = 4096;
+
+    // Bits of an infinite cost, greater than the bits of any finite cost.
+    private static final long INFINITE_COST = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    // Pool running the relaxations.
+    private final ForkJoinPool pool;
+
+    // Width of the buckets, or NaN to use the average cost of the arcs.
+    private final double delta;
+
+    /**
+     * Create a new Δ-stepping algorithm using the common fork-join pool and the
+     * average cost of the allowed arcs as bucket width.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new Δ-stepping algorithm using the given pool and the average cost
+     * of the allowed arcs as bucket width.
+     *
+     * @param data Input data for this algorithm.
+     * @param pool Pool running the relaxations.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data, ForkJoinPool pool) {
+        this(data, pool, Double.NaN);
+    }
+
+    /**
+     * Create a new Δ-stepping algorithm using the given pool and bucket width.
+     *
+     * @param data Input data for this algorithm.
+     * @param pool Pool running the relaxations.
+     * @param delta Width of the buckets, in the unit of the costs of the arcs.
+     *
+     * @throws IllegalArgumentException if delta is not strictly positive.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data, ForkJoinPool pool, double delta) {
+        super(data);
+        if (!Double.isNaN(delta) && !(delta > 0 && delta < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Invalid bucket width: " + delta + ".");
+        }
+        this.pool = pool;
+        this.delta = delta;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+
+        notifyOriginProcessed(data.getOrigin());
+        ShortestPathTree tree = computeTree();
+
+        if (!tree.isReachable(data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        notifyDestinationReached(data.getDestination());
+
+        return new ShortestPathSolution(data, Status.OPTIMAL,
+                tree.getCompactPath(data.getDestination()));
+    }
+
+    /**
+     * Compute the shortest paths from the origin of the input data to all the
+     * nodes of the graph. The destination of the input data is ignored.
+     *
+     * @return Shortest-path tree from the origin.
+     */
+    public ShortestPathTree computeTree() {
+        final ShortestPathData data = getInputData();
+        final CompactGraph compact = data.getGraph().getCompactGraph();
+        final int nbNodes = compact.size();
+        final int origin = data.getOrigin().getId();
+
+        // Cost of each arc, infinite for the arcs that are not allowed.
+        final double[] arcCosts = data.getCompiledArcInspector().getCosts();
+        final double width = Double.isNaN(this.delta) ? averageCost(arcCosts) : this.delta;
+
+        // Tentative cost of each node, and cost at which each node was last
+        // expanded through its light arcs or queued in a bucket.
+        final AtomicLongArray costs = new AtomicLongArray(nbNodes);
+        final long[] expanded = new long[nbNodes], queued = new long[nbNodes];
+        pool.invoke(new RangeTask(0, nbNodes, ARCS_PER_TASK, (node) -> {
+            costs.set(node, INFINITE_COST);
+            expanded[node] = INFINITE_COST;
+            queued[node] = INFINITE_COST;
+        }));
+
+        // Buckets of nodes, indexed by floor(cost / width). Entries whose cost has
+        // changed since they were queued are skipped.
+        final ArrayList<IntList> buckets = new ArrayList<>();
+        final int[] removedStamps = new int[nbNodes];
+
+        costs.set(origin, 0);
+        IntList initial = new IntList();
+        initial.add(origin);
+        distribute(initial, costs, queued, buckets, width);
+
+        for (int bucket = 0; bucket < buckets.size(); ++bucket) {
+            IntList removed = new IntList();
+            for (IntList nodes = buckets.get(bucket); nodes != null; nodes = buckets
+                    .get(bucket)) {
+                buckets.set(bucket, null);
+
+                IntList frontier = new IntList();
+                for (int i = 0; i < nodes.size; ++i) {
+                    int node = nodes.values[i];
+                    long cost = costs.get(node);
+                    if (bucketOf(cost, width) != bucket || expanded[node] == cost) {
+                        continue;
+                    }
+                    expanded[node] = cost;
+                    frontier.add(node);
+                    if (removedStamps[node] != bucket + 1) {
+                        removedStamps[node] = bucket + 1;
+                        removed.add(node);
+                    }
+                }
+                distribute(pool.invoke(new RelaxTask(compact, arcCosts, costs, frontier.values,
+                        0, frontier.size, width, true)), costs, queued, buckets, width);
+            }
+            if (removed.size > 0) {
+                distribute(pool.invoke(new RelaxTask(compact, arcCosts, costs, removed.values, 0,
+                        removed.size, width, false)), costs, queued, buckets, width);
+            }
+        }
+
+        // Final costs, and parent arcs chosen among the arcs coming from a node with a
+        // strictly lower cost, which cannot form a cycle.
+        final double[] finalCosts = new double[nbNodes];
+        final int[] parentArcs = new int[nbNodes];
+        pool.invoke(new RangeTask(0, nbNodes, ARCS_PER_TASK,
+                (node) -> finalCosts[node] = Double.longBitsToDouble(costs.get(node))));
+        pool.invoke(new RangeTask(0, nbNodes, ARCS_PER_TASK, (node) -> {
+            parentArcs[node] = SearchWorkspace.NO_ARC;
+            double cost = finalCosts[node];
+            if (node == origin || cost == Double.POSITIVE_INFINITY) {
+                return;
+            }
+            int last = compact.getFirstIncomingArc(node + 1);
+            for (int position = compact.getFirstIncomingArc(node); position < last; ++position) {
+                int tail = compact.getIncomingArcTail(position), arcId = compact
+                        .getIncomingArc(position);
+                if (finalCosts[tail] < cost && finalCosts[tail] + arcCosts[arcId] == cost) {
+                    parentArcs[node] = arcId;
+                    return;
+                }
+            }
+        }));
+        resolveZeroCostParents(compact, origin, arcCosts, finalCosts, parentArcs);
+
+        return new ShortestPathTree(data.getGraph(), data.getOrigin(), finalCosts, parentArcs);
+    }
+
+    /**
+     * Assign the parent of the nodes that can only be reached at their final cost
+     * through arcs of null cost, by propagating from the nodes whose parent is
+     * already known. Such nodes are rare, so this is done sequentially.
+     */
+    private static void resolveZeroCostParents(CompactGraph compact, int origin,
+            double[] arcCosts, double[] costs, int[] parentArcs) {
+        IntList unresolved = new IntList();
+        for (int node = 0; node < costs.length; ++node) {
+            if (node != origin && costs[node] != Double.POSITIVE_INFINITY
+                    && parentArcs[node] == SearchWorkspace.NO_ARC) {
+                unresolved.add(node);
+            }
+        }
+        while (unresolved.size > 0) {
+            IntList remaining = new IntList();
+            for (int i = 0; i < unresolved.size; ++i) {
+                int node = unresolved.values[i];
+                int last = compact.getFirstIncomingArc(node + 1);
+                for (int position = compact.getFirstIncomingArc(node); position < last;
+                        ++position) {
+                    int tail = compact.getIncomingArcTail(position), arcId = compact
+                            .getIncomingArc(position);
+                    if ((tail == origin || parentArcs[tail] != SearchWorkspace.NO_ARC)
+                            && costs[tail] + arcCosts[arcId] == costs[node]) {
+                        parentArcs[node] = arcId;
+                        break;
+                    }
+                }
+                if (parentArcs[node] == SearchWorkspace.NO_ARC) {
+                    remaining.add(node);
+                }
+            }
+            if (remaining.size == unresolved.size) {
+                throw new IllegalStateException("Inconsistent shortest-path costs.");
+            }
+            unresolved = remaining;
+        }
+    }
+
+    /**
+     * @return Average finite cost of the given arcs, or 1 if there is none.
+     */
+    private static double averageCost(double[] arcCosts) {
+        double sum = 0;
+        int count = 0;
+        for (double cost: arcCosts) {
+            if (cost != Double.POSITIVE_INFINITY) {
+                sum += cost;
+                count += 1;
+            }
+        }
+        return sum > 0 ? sum / count : 1;
+    }
+
+    /**
+     * @return Index of the bucket of the given cost (as bits).
+     */
+    private static int bucketOf(long cost, double width) {
+        return (int) Math.min(Double.longBitsToDouble(cost) / width, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Queue the given nodes in the buckets of their current cost.
+     */
+    private static void distribute(IntList nodes, AtomicLongArray costs, long[] queued,
+            ArrayList<IntList> buckets, double width) {
+        for (int i = 0; i < nodes.size; ++i) {
+            int node = nodes.values[i];
+            long cost = costs.get(node);
+            if (queued[node] == cost) {
+                continue;
+            }
+            queued[node] = cost;
+            int bucket = bucketOf(cost, width);
+            while (buckets.size() <= bucket) {
+                buckets.add(null);
+            }
+            if (buckets.get(bucket) == null) {
+                buckets.set(bucket, new IntList());
+            }
+            buckets.get(bucket).add(node);
+        }
+    }
+
+    /**
+     * Growable list of integers.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        IntList addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+    }
+
+    /**
+     * Task relaxing the light or heavy arcs of a range of nodes, returning the
+     * nodes whose cost has decreased (possibly more than once).
+     */
+    private static final class RelaxTask extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompactGraph compact;
+        private final double[] arcCosts;
+        private final AtomicLongArray costs;
+        private final int[] nodes;
+        private final int from, to;
+        private final double width;
+        private final boolean light;
+
+        RelaxTask(CompactGraph compact, double[] arcCosts, AtomicLongArray costs, int[] nodes,
+                int from, int to, double width, boolean light) {
+            this.compact = compact;
+            this.arcCosts = arcCosts;
+            this.costs = costs;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.width = width;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > NODES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(compact, arcCosts, costs, nodes, from, middle,
+                        width, light);
+                left.fork();
+                IntList right = new RelaxTask(compact, arcCosts, costs, nodes, middle, to, width,
+                        light).compute();
+                return left.join().addAll(right);
+            }
+
+            IntList improved = new IntList();
+            for (int i = from; i < to; ++i) {
+                int node = nodes[i];
+                double cost = Double.longBitsToDouble(costs.get(node));
+                int lastArc = compact.getFirstArc(node + 1);
+                for (int arcId = compact.getFirstArc(node); arcId < lastArc; ++arcId) {
+                    double arcCost = arcCosts[arcId];
+                    if (arcCost == Double.POSITIVE_INFINITY || (arcCost <= width) != light) {
+                        continue;
+                    }
+                    int head = compact.getHead(arcId);
+                    long newCost = Double.doubleToRawLongBits(cost + arcCost);
+                    for (long current = costs.get(head); newCost < current; current = costs
+                            .get(head)) {
+                        if (costs.compareAndSet(head, current, newCost)) {
+                            improved.add(head);
+                            break;
+                        }
+                    }
+                }
+            }
+            return improved;
+        }
+
+    }
+
+    /**
+     * Task applying an action to a range of indices, split in halves until the
+     * range is small enough.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, threshold;
+        private final IntConsumer action;
+
+        RangeTask(int from, int to, int threshold, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; ++i) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, threshold, action),
+                    new RangeTask(middle, to, threshold, action));
+        }
+
+    }
+
+}
@@ -1,28 +1,26 @@
 package org.insa.graphs.algorithm.shortestpath;
 
-import org.insa.graphs.algorithm.AbstractInputData;
 import org.insa.graphs.algorithm.AbstractSolution;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-import org.insa.graphs.algorithm.utils.ElementNotFoundException;
-import org.insa.graphs.algorithm.utils.EmptyPriorityQueueException;
+import org.insa.graphs.algorithm.CompiledArcInspector;
 import org.insa.graphs.model.*;
 
-import java.util.ArrayList;
-import java.util.Collections;
-
 public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
     public DijkstraAlgorithm(ShortestPathData data) {
         super(data);
     }
 
-    public Label[] initTabLabel(int nbNode, ShortestPathData data) {
-        Label[] labelTab = new Label[nbNode];
-        Graph graph = data.getGraph();
-        for (int i = 0; i < nbNode; i++) {
-            labelTab[i] = new Label(graph.get(i), false, Double.POSITIVE_INFINITY, -1);
-        }
-        return labelTab;
+    /**
+     * Estimated cost from the given node to the destination, used to order the
+     * nodes in the heap. Dijkstra does not use any estimate.
+     *
+     * @param graph Compact graph in which the search is done.
+     * @param node ID of the node.
+     *
+     * @return Lower bound of the cost from the given node to the destination.
+     */
+    protected double getEstimateCost(CompactGraph graph, int node) {
+        return 0;
     }
 
     @Override
@@ -30,109 +28,72 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
         final ShortestPathData data = getInputData();
         Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        CompiledArcInspector inspector = data.getCompiledArcInspector();
 
-        /* Init the table of labels */
-        Label[] labels = initTabLabel(graph.size(),  data);
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
 
-        /* Initialize the origin */
-        labels[data.getOrigin().getId()].setCost(0);
+        /* Borrow a workspace, nodes that are not reached yet are never touched */
+        SearchWorkspace workspace = SearchWorkspace.acquire(compact.size());
+        try {
 
-        /* Initialise binaryHeap for min of each event */
-        BinaryHeap<Label> binaryHeap = new BinaryHeap<Label>();
+            /* Initialize the origin */
+            workspace.reach(origin, 0, getEstimateCost(compact, origin), SearchWorkspace.NO_ARC);
 
-        /* Add the origin into binaryHeap */
-        binaryHeap.insert(labels[data.getOrigin().getId()]);
+            /* Notify to the Observer */
+            notifyOriginProcessed(data.getOrigin());
 
-        /* Notify to the Observer */
-        notifyOriginProcessed(data.getOrigin());
+            /* Main algorithm */
+            while (!workspace.isSettled(destination) && !workspace.isHeapEmpty()) {
 
-        /* Main algorithm */
-        while (!labels[data.getDestination().getId()].isMark()) {
-            Label currentNodeLabel;
-            try {
-                currentNodeLabel = binaryHeap.findMin();
-            } catch (EmptyPriorityQueueException e) {
-                /**
-                 * Try if a new node is marked after the last, although it is the only one
-                 * visited but not marked So We reach and mark all nodes
-                 */
-                break;
-            }
+                /* Mark the node with the minimum cost */
+                int current = workspace.settleMin();
+                double currentCost = workspace.getCost(current);
 
-            /* Mark the node */
-            try {
-                binaryHeap.remove(currentNodeLabel);
-            } catch (ElementNotFoundException ignored) {
-            }
-            labels[currentNodeLabel.getNode().getId()].setMark(true);
+                int lastArc = compact.getFirstArc(current + 1);
+                for (int arcId = compact.getFirstArc(current); arcId < lastArc; ++arcId) {
+                    /* Verify if the road is allowed */
+                    if (!inspector.isAllowed(arcId))
+                        continue;
 
-            for (Arc successor : graph.get(currentNodeLabel.getNode().getId()).getSuccessors()) {
+                    int next = compact.getHead(arcId);
+                    if (workspace.isSettled(next))
+                        continue;
 
-                /* Verify if the road is allowed */
-                if (!data.isAllowed(successor))
-                    continue;
+                    double newCost = currentCost + inspector.getCost(arcId);
 
-                int currentNodeId = successor.getOrigin().getId();
-                int nextNodeId = successor.getDestination().getId();
-                if (!labels[nextNodeId].isMark()) {
-                    double oldCost = labels[nextNodeId].getTotalCost();
-                    double trans = data.getCost(successor) + labels[nextNodeId].getEstimateCost();
-                    double newCost = labels[currentNodeId].getCost() + trans;
-
-                    if (Double.isInfinite(oldCost) && Double.isFinite(newCost)) {
-                        notifyNodeReached(successor.getDestination());
-                    }
-
-                    /* Check if new distances would be better, if so update */
-                    if (newCost < oldCost) {
-                        labels[nextNodeId].setCost(labels[currentNodeId].getCost() + data.getCost(successor));
-                        labels[nextNodeId].setFatherId(currentNodeLabel.getNode().getId());
-
-                        try {
-
-                            /* Update the node in the binaryHeap */
-                            binaryHeap.remove(labels[nextNodeId]);
-                            binaryHeap.insert(labels[nextNodeId]);
-                        } catch (ElementNotFoundException e) {
-
-                            /* If the node is not in the binaryHeap, insert it */
-                            binaryHeap.insert(labels[nextNodeId]);
-                        }
+                    /* Reach the node for the first time, or check if the new distance
+                     * would be better, if so update */
+                    if (!workspace.isReached(next)) {
+                        notifyNodeReached(graph.get(next));
+                        workspace.reach(next, newCost, getEstimateCost(compact, next), arcId);
+                    } else if (newCost < workspace.getCost(next)) {
+                        workspace.decreaseCost(next, newCost, arcId);
                     }
                 }
             }
-        }
 
-        ShortestPathSolution solution;
-
-        if (!labels[data.getDestination().getId()].isMark()) {
-            solution = new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
-        } else {
-            /* The destination has been found, notify the observers. */
-            notifyDestinationReached(data.getDestination());
-
-            ArrayList<Node> pathNodes = new ArrayList<>();
-            pathNodes.add(data.getDestination());
-            Node node = data.getDestination();
-            while (!node.equals(data.getOrigin())) {
-                Node fatherNode = graph.getNodes().get(labels[node.getId()].getFatherId());
-                pathNodes.add(fatherNode);
-                node = fatherNode;
-            }
-            Collections.reverse(pathNodes);
+            ShortestPathSolution solution;
 
-            /* Create the final solution. */
-            Path solutionPath;
-            if (data.getMode().equals(AbstractInputData.Mode.LENGTH)) {
-                solutionPath = Path.createShortestPathFromNodes(graph, pathNodes);
+            if (!workspace.isSettled(destination)) {
+                solution = new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
             } else {
-                solutionPath = Path.createFastestPathFromNodes(graph, pathNodes);
+                /* The destination has been found, notify the observers. */
+                notifyDestinationReached(data.getDestination());
+
+                /* Create the final solution from the arcs used to reach the nodes. */
+                CompactPath solutionPath = CompactPath.fromParentArcs(graph, destination,
+                        workspace::getParentArc);
+
+                solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL, solutionPath);
             }
 
-            solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL, solutionPath);
+            return solution;
+        }
+        finally {
+            workspace.release();
         }
-
-        return solution;
     }
 
 }
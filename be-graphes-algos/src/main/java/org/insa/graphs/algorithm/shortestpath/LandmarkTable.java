@@ -0,0 +1,615 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * <p>
+ * Landmark distance tables used by the ALT (A*, Landmarks, Triangle inequality)
+ * heuristic, for a given graph and cost model (arc inspector).
+ * </p>
+ *
+ * <p>
+ * For each landmark L, the table stores the cost of the shortest path from L to
+ * every node and from every node to L. By the triangle inequality, for any
+ * nodes v and t, {@code d(v, t) >= d(L, t) - d(L, v)} and
+ * {@code d(v, t) >= d(v, L) - d(t, L)}, so the maximum of these differences over
+ * the landmarks is a lower bound of the cost from v to t, which is consistent
+ * and usually much tighter than the distance as the crow flies (in particular in
+ * time mode).
+ * </p>
+ *
+ * <p>
+ * Tables are cached by graph and inspector (see
+ * {@link #get(Graph, ArcInspector)}), and can be saved next to the map file so
+ * that they are computed once per map and cost model (see
+ * {@link #loadOrCompute(File, String, Graph, ArcInspector)}).
+ * </p>
+ */
+public final class LandmarkTable {
+
+    /**
+     * Strategies to select landmarks.
+     */
+    public enum Selection {
+
+        /**
+         * Each landmark is the node that is the farthest from the landmarks already
+         * selected.
+         */
+        FARTHEST,
+
+        /**
+         * Each landmark is a leaf of a shortest-path tree (from a random root) in a
+         * region where the current landmarks give bad lower bounds (see Goldberg and
+         * Werneck, <i>Computing Point-to-Point Shortest Paths from External
+         * Memory</i>).
+         */
+        AVOID
+    }
+
+    /**
+     * Default number of landmarks.
+     */
+    public static final int DEFAULT_NB_LANDMARKS = 16;
+
+    // Magic number and version of landmark files (version 2 stores the nodes by
+    // original ID, see write(DataOutputStream, Graph)).
+    private static final int MAGIC_NUMBER = 0x1a4d7a8c;
+    private static final int VERSION = 2;
+
+    // Extension of landmark files.
+    private static final String FILE_EXTENSION = ".landmarks";
+
+    // Tables already computed or loaded, by graph and inspector.
+    private static final Map<Graph, Map<ArcInspector, LandmarkTable>> CACHE = new WeakHashMap<>();
+
+    /**
+     * Retrieve the cached map of tables for the given graph.
+     */
+    private static Map<ArcInspector, LandmarkTable> getTables(Graph graph) {
+        synchronized (CACHE) {
+            Map<ArcInspector, LandmarkTable> tables = CACHE.get(graph);
+            if (tables == null) {
+                tables = new WeakHashMap<>();
+                CACHE.put(graph, tables);
+            }
+            return tables;
+        }
+    }
+
+    /**
+     * Retrieve the landmark table of the given graph for the given inspector,
+     * computing it (with the default parameters) if no table has been computed or
+     * loaded yet.
+     *
+     * @param graph Graph for the table.
+     * @param inspector Inspector defining the allowed arcs and their costs.
+     *
+     * @return Landmark table of the given graph for the given inspector.
+     */
+    public static LandmarkTable get(Graph graph, ArcInspector inspector) {
+        Map<ArcInspector, LandmarkTable> tables = getTables(graph);
+        synchronized (tables) {
+            LandmarkTable table = tables.get(inspector);
+            if (table == null) {
+                table = compute(graph, inspector, DEFAULT_NB_LANDMARKS, Selection.AVOID, 0);
+                tables.put(inspector, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Register the given table as the landmark table of the given graph for the
+     * given inspector, e.g. after loading it from a file.
+     *
+     * @param graph Graph for the table.
+     * @param inspector Inspector defining the allowed arcs and their costs.
+     * @param table Table to register.
+     */
+    public static void register(Graph graph, ArcInspector inspector, LandmarkTable table) {
+        if (table.size() != graph.size()) {
+            throw new IllegalArgumentException("Landmark table does not match the graph.");
+        }
+        Map<ArcInspector, LandmarkTable> tables = getTables(graph);
+        synchronized (tables) {
+            tables.put(inspector, table);
+        }
+    }
+
+    /**
+     * @param mapFile File containing the map.
+     * @param profile Name of the cost model (e.g. the name of the filter).
+     *
+     * @return File in which the landmark table of the given map and profile is
+     *         saved, in the same folder as the map.
+     */
+    public static File getLandmarkFile(File mapFile, String profile) {
+        String name = mapFile.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return new File(mapFile.getAbsoluteFile().getParentFile(),
+                name + "." + profile.replaceAll("[^A-Za-z0-9_-]", "_") + FILE_EXTENSION);
+    }
+
+    /**
+     * Load the landmark table saved next to the given map file for the given
+     * profile, or compute it and save it if there is no valid table. The table is
+     * then registered for the given graph and inspector.
+     *
+     * @param mapFile File containing the map.
+     * @param profile Name of the cost model, used to name the landmark file.
+     * @param graph Graph read from the map file.
+     * @param inspector Inspector corresponding to the profile.
+     *
+     * @return The loaded or computed landmark table.
+     *
+     * @throws IOException if the table cannot be saved.
+     */
+    public static LandmarkTable loadOrCompute(File mapFile, String profile, Graph graph,
+            ArcInspector inspector) throws IOException {
+        File file = getLandmarkFile(mapFile, profile);
+        LandmarkTable table = null;
+        if (file.isFile()) {
+            try (DataInputStream dis = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                table = read(dis, graph);
+            }
+            catch (IOException exception) {
+                // Outdated or corrupted file, compute a new table.
+                table = null;
+            }
+        }
+        if (table == null) {
+            table = compute(graph, inspector, DEFAULT_NB_LANDMARKS, Selection.AVOID, 0);
+            try (DataOutputStream dos = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                table.write(dos, graph);
+            }
+        }
+        register(graph, inspector, table);
+        return table;
+    }
+
+    /**
+     * Compute a new landmark table. Landmarks are selected one after the other,
+     * which requires the distances from the landmarks, while the distances to the
+     * landmarks are computed in parallel.
+     *
+     * @param graph Graph for the table.
+     * @param inspector Inspector defining the allowed arcs and their costs.
+     * @param nbLandmarks Number of landmarks (at most the number of nodes).
+     * @param selection Strategy used to select the landmarks.
+     * @param seed Seed for the random choices of the selection.
+     *
+     * @return A new landmark table.
+     */
+    public static LandmarkTable compute(Graph graph, ArcInspector inspector, int nbLandmarks,
+            Selection selection, long seed) {
+        final CompactGraph compact = graph.getCompactGraph();
+        // Landmarks require full searches, compile the inspector even if it is not
+        // registered.
+        final CompiledArcInspector compiled = CompiledArcInspector.isRegistered(inspector)
+                ? CompiledArcInspector.get(graph, inspector)
+                : CompiledArcInspector.compile(graph, inspector);
+        final int nbNodes = compact.size();
+        nbLandmarks = Math.min(nbLandmarks, nbNodes);
+
+        Random random = new Random(seed);
+        int[] landmarks = new int[nbLandmarks];
+        double[][] fromLandmarks = new double[nbLandmarks][];
+        List<CompletableFuture<double[]>> toLandmarks = new ArrayList<>(nbLandmarks);
+
+        // Workspaces of the backward searches, run on the common fork-join pool.
+        final SearchWorkspace.Pool workspaces = new SearchWorkspace.Pool(
+                Math.max(1, Math.min(nbLandmarks, ForkJoinPool.getCommonPoolParallelism())));
+
+        int[] parents = new int[nbNodes];
+        int[] order = new int[nbNodes];
+        for (int i = 0; i < nbLandmarks; ++i) {
+            int landmark = -1;
+            if (selection == Selection.AVOID && i > 0) {
+                landmark = selectAvoid(compact, compiled, landmarks, fromLandmarks, i,
+                        random.nextInt(nbNodes), parents, order);
+            }
+            if (landmark == -1) {
+                landmark = selectFarthest(compact, compiled, fromLandmarks, i,
+                        random.nextInt(nbNodes), parents, order);
+            }
+            final int source = landmark;
+            landmarks[i] = source;
+            fromLandmarks[i] = computeDistances(compact, compiled, source, false, parents,
+                    order);
+            toLandmarks.add(CompletableFuture.supplyAsync(() -> SearchWorkspace.callWithPool(
+                    workspaces, () -> computeDistances(compact, compiled, source, true,
+                            new int[nbNodes], new int[nbNodes]))));
+        }
+
+        double[][] to = new double[nbLandmarks][];
+        for (int i = 0; i < nbLandmarks; ++i) {
+            to[i] = toLandmarks.get(i).join();
+        }
+        return new LandmarkTable(graph.getMapId(), landmarks, fromLandmarks, to);
+    }
+
+    /**
+     * Select the node that is the farthest from the given landmarks (or from the
+     * given start node if there is no landmark). Nodes that cannot be reached are
+     * ignored, since landmarks in small isolated components would not improve the
+     * bounds of most queries.
+     */
+    private static int selectFarthest(CompactGraph graph, CompiledArcInspector inspector,
+            double[][] fromLandmarks, int nbLandmarks, int start, int[] parents, int[] order) {
+        double[] distances;
+        if (nbLandmarks == 0) {
+            distances = computeDistances(graph, inspector, start, false, parents, order);
+        }
+        else {
+            distances = Arrays.copyOf(fromLandmarks[0], graph.size());
+            for (int i = 1; i < nbLandmarks; ++i) {
+                for (int node = 0; node < distances.length; ++node) {
+                    distances[node] = Math.min(distances[node], fromLandmarks[i][node]);
+                }
+            }
+        }
+        int farthest = start;
+        for (int node = 0; node < distances.length; ++node) {
+            if (!Double.isInfinite(distances[node]) && distances[node] > distances[farthest]) {
+                farthest = node;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Select a landmark using the avoid strategy, or return -1 if all the nodes are
+     * already well covered by the current landmarks.
+     */
+    private static int selectAvoid(CompactGraph graph, CompiledArcInspector inspector, int[] landmarks,
+            double[][] fromLandmarks, int nbLandmarks, int root, int[] parents, int[] order) {
+        final int nbNodes = graph.size();
+        double[] distances = computeDistances(graph, inspector, root, false, parents, order);
+
+        // Weight of a node: difference between its distance from the root and the
+        // lower bound given by the current landmarks.
+        double[] sizes = new double[nbNodes];
+        boolean[] covered = new boolean[nbNodes];
+        for (int i = 0; i < nbLandmarks; ++i) {
+            covered[landmarks[i]] = true;
+        }
+        int nbReached = 0;
+        while (nbReached < nbNodes && order[nbReached] != -1) {
+            int node = order[nbReached++];
+            double bound = 0;
+            for (int i = 0; i < nbLandmarks; ++i) {
+                double difference = fromLandmarks[i][node] - fromLandmarks[i][root];
+                if (!Double.isNaN(difference) && !Double.isInfinite(difference)) {
+                    bound = Math.max(bound, difference);
+                }
+            }
+            sizes[node] = distances[node] - bound;
+        }
+
+        // Size of a node: sum of the weights in its subtree, or 0 if the subtree
+        // contains a landmark. Children are settled after their parent.
+        int[] bestChildren = new int[nbNodes];
+        Arrays.fill(bestChildren, -1);
+        for (int i = nbReached - 1; i >= 0; --i) {
+            int node = order[i];
+            if (covered[node]) {
+                sizes[node] = 0;
+            }
+            int parent = parents[node];
+            if (parent != -1) {
+                if (covered[node]) {
+                    covered[parent] = true;
+                }
+                sizes[parent] += sizes[node];
+                if (bestChildren[parent] == -1 || sizes[node] > sizes[bestChildren[parent]]) {
+                    bestChildren[parent] = node;
+                }
+            }
+        }
+        int node = order[0];
+        for (int i = 0; i < nbReached; ++i) {
+            if (sizes[order[i]] > sizes[node]) {
+                node = order[i];
+            }
+        }
+        if (sizes[node] <= 0) {
+            return -1;
+        }
+        while (bestChildren[node] != -1 && sizes[bestChildren[node]] > 0) {
+            node = bestChildren[node];
+        }
+        return node;
+    }
+
+    /**
+     * Compute the costs of the shortest paths from (or to if backward is true) the
+     * given source to all the nodes of the graph.
+     *
+     * @param parents Filled with the parent of each node in the shortest-path tree
+     *        (-1 for the source and unreachable nodes).
+     * @param order Filled with the reachable nodes in the order they are settled,
+     *        followed by -1 if some nodes are not reachable.
+     *
+     * @return Cost of the shortest paths, {@link Double#POSITIVE_INFINITY} for
+     *         nodes that cannot be reached.
+     */
+    private static double[] computeDistances(CompactGraph graph, CompiledArcInspector inspector,
+            int source, boolean backward, int[] parents, int[] order) {
+        final int nbNodes = graph.size();
+        double[] distances = new double[nbNodes];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+
+        SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes);
+        try {
+            int nbSettled = 0;
+            workspace.reach(source, 0, 0, SearchWorkspace.NO_ARC);
+            while (!workspace.isHeapEmpty()) {
+                int current = workspace.settleMin();
+                double cost = workspace.getCost(current);
+                distances[current] = cost;
+                order[nbSettled++] = current;
+
+                int first = backward ? graph.getFirstIncomingArc(current) : graph.getFirstArc(current);
+                int last = backward ? graph.getFirstIncomingArc(current + 1)
+                        : graph.getFirstArc(current + 1);
+                for (int i = first; i < last; ++i) {
+                    int arcId = backward ? graph.getIncomingArc(i) : i;
+                    int next = backward ? graph.getIncomingArcTail(i) : graph.getHead(arcId);
+                    if (workspace.isSettled(next) || !inspector.isAllowed(arcId)) {
+                        continue;
+                    }
+                    double newCost = cost + inspector.getCost(arcId);
+                    if (!workspace.isReached(next)) {
+                        workspace.reach(next, newCost, 0, arcId);
+                        parents[next] = current;
+                    }
+                    else if (newCost < workspace.getCost(next)) {
+                        workspace.decreaseCost(next, newCost, arcId);
+                        parents[next] = current;
+                    }
+                }
+            }
+            if (nbSettled < nbNodes) {
+                order[nbSettled] = -1;
+            }
+        }
+        finally {
+            workspace.release();
+        }
+        return distances;
+    }
+
+    /**
+     * Read a landmark table written by {@link #write(DataOutputStream, Graph)}.
+     * Since nodes are stored by original ID, the table can be read for any
+     * numbering of the nodes of the map (see {@link Graph#isRenumbered()}).
+     *
+     * @param dis Input stream to read from.
+     * @param graph Graph the table was computed for, or a renumbered copy of it.
+     *
+     * @return The table read.
+     *
+     * @throws IOException if the table cannot be read or does not match the
+     *         graph.
+     */
+    public static LandmarkTable read(DataInputStream dis, Graph graph) throws IOException {
+        int magicNumber = dis.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        String mapId = dis.readUTF();
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        int nbNodes = dis.readInt();
+        if (nbNodes != graph.size()) {
+            throw new BadFormatException("Landmark table does not match the graph size.");
+        }
+        int nbLandmarks = dis.readInt();
+        int[] landmarks = new int[nbLandmarks];
+        double[][] from = new double[nbLandmarks][nbNodes], to = new double[nbLandmarks][nbNodes];
+        int[] nodeIds = getNodeIds(graph);
+        for (int i = 0; i < nbLandmarks; ++i) {
+            int landmark = dis.readInt();
+            if (landmark < 0 || landmark >= nbNodes) {
+                throw new BadFormatException("Invalid landmark: " + landmark + ".");
+            }
+            landmarks[i] = nodeIds[landmark];
+            for (int originalId = 0; originalId < nbNodes; ++originalId) {
+                from[i][nodeIds[originalId]] = dis.readDouble();
+            }
+            for (int originalId = 0; originalId < nbNodes; ++originalId) {
+                to[i][nodeIds[originalId]] = dis.readDouble();
+            }
+        }
+        return new LandmarkTable(mapId, landmarks, from, to);
+    }
+
+    // ID of the map.
+    private final String mapId;
+
+    // Landmarks.
+    private final int[] landmarks;
+
+    // Costs from and to each landmark, by landmark and node.
+    private final double[][] fromLandmarks, toLandmarks;
+
+    private LandmarkTable(String mapId, int[] landmarks, double[][] fromLandmarks,
+            double[][] toLandmarks) {
+        this.mapId = mapId;
+        this.landmarks = landmarks;
+        this.fromLandmarks = fromLandmarks;
+        this.toLandmarks = toLandmarks;
+    }
+
+    /**
+     * @return ID of each node of the given graph, by original ID.
+     */
+    private static int[] getNodeIds(Graph graph) {
+        int[] nodeIds = new int[graph.size()];
+        for (int originalId = 0; originalId < nodeIds.length; ++originalId) {
+            nodeIds[originalId] = graph.getByOriginalId(originalId).getId();
+        }
+        return nodeIds;
+    }
+
+    /**
+     * Write this table to the given output stream. Nodes are written by original
+     * ID (see {@link Graph#getOriginalId(int)}), so that a table computed for a
+     * renumbered graph can be read for another numbering of the same map.
+     *
+     * @param dos Output stream to write to.
+     * @param graph Graph this table was computed for.
+     *
+     * @throws IOException if an error occurs while writing.
+     * @throws IllegalArgumentException if this table does not match the given
+     *         graph.
+     */
+    public void write(DataOutputStream dos, Graph graph) throws IOException {
+        if (!mapId.equals(graph.getMapId()) || size() != graph.size()) {
+            throw new IllegalArgumentException("Landmark table does not match the graph.");
+        }
+        int[] nodeIds = getNodeIds(graph);
+        dos.writeInt(MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+        dos.writeUTF(mapId);
+        dos.writeInt(size());
+        dos.writeInt(landmarks.length);
+        for (int i = 0; i < landmarks.length; ++i) {
+            dos.writeInt(graph.getOriginalId(landmarks[i]));
+            for (int originalId = 0; originalId < nodeIds.length; ++originalId) {
+                dos.writeDouble(fromLandmarks[i][nodeIds[originalId]]);
+            }
+            for (int originalId = 0; originalId < nodeIds.length; ++originalId) {
+                dos.writeDouble(toLandmarks[i][nodeIds[originalId]]);
+            }
+        }
+        dos.flush();
+    }
+
+    /**
+     * @return Number of nodes in the graph of this table.
+     */
+    public int size() {
+        return landmarks.length == 0 ? 0 : fromLandmarks[0].length;
+    }
+
+    /**
+     * @return Number of landmarks in this table.
+     */
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * @param index Index of the landmark.
+     *
+     * @return ID of the node of the given landmark.
+     */
+    public int getLandmark(int index) {
+        return landmarks[index];
+    }
+
+    /**
+     * Compute the lower bound of the cost from a node to another given by a single
+     * landmark.
+     *
+     * @param landmark Index of the landmark.
+     * @param node ID of the origin.
+     * @param target ID of the destination.
+     *
+     * @return Lower bound of the cost from node to target, which can be
+     *         {@link Double#POSITIVE_INFINITY} if target cannot be reached from node.
+     */
+    public double getLowerBound(int landmark, int node, int target) {
+        double bound = 0;
+        // d(node, target) >= d(L, target) - d(L, node)
+        double difference = fromLandmarks[landmark][target] - fromLandmarks[landmark][node];
+        if (difference > bound) {
+            bound = difference;
+        }
+        // d(node, target) >= d(node, L) - d(target, L)
+        difference = toLandmarks[landmark][node] - toLandmarks[landmark][target];
+        if (difference > bound) {
+            bound = difference;
+        }
+        return bound;
+    }
+
+    /**
+     * Compute the lower bound of the cost from a node to another using the given
+     * landmarks.
+     *
+     * @param active Indices of the landmarks to use.
+     * @param node ID of the origin.
+     * @param target ID of the destination.
+     *
+     * @return Lower bound of the cost from node to target.
+     */
+    public double getLowerBound(int[] active, int node, int target) {
+        double bound = 0;
+        for (int landmark: active) {
+            bound = Math.max(bound, getLowerBound(landmark, node, target));
+        }
+        return bound;
+    }
+
+    /**
+     * Select the landmarks that give the best lower bounds for the given query.
+     *
+     * @param origin ID of the origin of the query.
+     * @param target ID of the destination of the query.
+     * @param count Maximum number of landmarks to select.
+     *
+     * @return Indices of the selected landmarks.
+     */
+    public int[] selectActiveLandmarks(int origin, int target, int count) {
+        Integer[] indices = new Integer[landmarks.length];
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> Double.compare(getLowerBound(b, origin, target),
+                getLowerBound(a, origin, target)));
+        int[] active = new int[Math.min(count, indices.length)];
+        for (int i = 0; i < active.length; ++i) {
+            active[i] = indices[i];
+        }
+        return active;
+    }
+
+}
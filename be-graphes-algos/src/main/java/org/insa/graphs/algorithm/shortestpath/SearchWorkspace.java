@@ -0,0 +1,446 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Reusable memory for label-setting shortest-path searches (Dijkstra, A*, ...)
+ * on graphs whose nodes are identified by integers in [0, size).
+ * </p>
+ *
+ * <p>
+ * A workspace stores, for each node, the cost from the origin, the estimated
+ * cost to the destination, the ID of the arc used to reach the node (in the
+ * {@link org.insa.graphs.model.CompactGraph} of the graph) and whether the node
+ * has been reached or settled, in primitive arrays, together with an indexed
+ * binary heap of node IDs (whose keys are read from the cost arrays, so the heap
+ * does not hold any object per node). Instead of clearing these arrays between two
+ * searches, each search is tagged with a generation number and a node entry is
+ * only valid if it has been written during the current generation, so that
+ * {@link #reset()} is <i>O(1)</i> and the cost of a search is proportional to the
+ * number of nodes it reaches, not to the size of the graph.
+ * </p>
+ *
+ * <p>
+ * Workspaces are not thread-safe. They should be borrowed from the pool of the
+ * current thread using {@link #acquire(int)} and given back with
+ * {@link #release()} once the search is over:
+ * </p>
+ *
+ * <pre>
+ * SearchWorkspace workspace = SearchWorkspace.acquire(graph.size());
+ * try {
+ *     // ...
+ * }
+ * finally {
+ *     workspace.release();
+ * }
+ * </pre>
+ *
+ * <p>
+ * The pool of a thread retains at most {@link #MAX_THREAD_POOL_SIZE}
+ * workspaces, and workspaces much larger than the graph being searched are
+ * dropped instead of being reused, so that a thread does not keep memory for a
+ * larger graph it no longer searches. Threads that only run a single search
+ * (e.g. a virtual thread per query) or that are shared with other tasks (e.g.
+ * the workers of the common fork-join pool) should instead run their searches
+ * with {@link #callWithPool(Pool, Supplier)}, so that workspaces are borrowed
+ * from a {@link Pool} whose lifetime is that of the computation.
+ * </p>
+ */
+public final class SearchWorkspace {
+
+    // Value used for parent arcs of nodes without parent.
+    public static final int NO_ARC = -1;
+
+    /**
+     * Maximum number of workspaces retained by the pool of a thread (two, for
+     * bidirectional searches).
+     */
+    public static final int MAX_THREAD_POOL_SIZE = 2;
+
+    // Workspaces whose capacity is more than this factor times the size of the
+    // searched graph are dropped instead of being reused.
+    private static final int MAX_CAPACITY_RATIO = 4;
+
+    // Position used for nodes that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Workspaces available for the current thread, a thread may borrow more than
+    // one workspace at the same time (e.g. for bidirectional or nested searches).
+    private static final ThreadLocal<ArrayDeque<SearchWorkspace>> POOL = ThreadLocal
+            .withInitial(ArrayDeque::new);
+
+    // Shared pool used by the current thread instead of its own pool, if any.
+    private static final ThreadLocal<Pool> SHARED_POOL = new ThreadLocal<>();
+
+    /**
+     * <p>
+     * Bounded pool of workspaces shared between threads.
+     * </p>
+     *
+     * <p>
+     * Workspaces released when the pool is full are dropped, so the pool retains
+     * at most the given number of workspaces whatever the number of threads using
+     * it.
+     * </p>
+     */
+    public static final class Pool {
+
+        // Maximum number of workspaces retained by this pool.
+        private final int maxSize;
+
+        // Available workspaces.
+        private final ArrayDeque<SearchWorkspace> workspaces = new ArrayDeque<>();
+
+        /**
+         * Create a new empty pool.
+         *
+         * @param maxSize Maximum number of workspaces retained by the pool.
+         *
+         * @throws IllegalArgumentException if the given size is not strictly
+         *         positive.
+         */
+        public Pool(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Size of the pool must be strictly positive.");
+            }
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return Number of workspaces currently available in this pool.
+         */
+        public synchronized int size() {
+            return workspaces.size();
+        }
+
+        private synchronized SearchWorkspace poll() {
+            return workspaces.pollFirst();
+        }
+
+        private synchronized void offer(SearchWorkspace workspace) {
+            if (workspaces.size() < maxSize) {
+                workspaces.addFirst(workspace);
+            }
+        }
+
+    }
+
+    /**
+     * Run the given task on the current thread, borrowing workspaces from the given
+     * shared pool instead of the pool of the current thread.
+     *
+     * @param pool Pool from which workspaces are borrowed.
+     * @param task Task to run.
+     *
+     * @return Result of the task.
+     */
+    public static <T> T callWithPool(Pool pool, Supplier<T> task) {
+        Pool previous = SHARED_POOL.get();
+        SHARED_POOL.set(pool);
+        try {
+            return task.get();
+        }
+        finally {
+            if (previous == null) {
+                SHARED_POOL.remove();
+            }
+            else {
+                SHARED_POOL.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Borrow a workspace from the pool of the current thread (or from the shared
+     * pool the current task runs with, see {@link #callWithPool(Pool, Supplier)}),
+     * or create a new one if none is available. A pooled workspace much larger
+     * than the given size is dropped and replaced by a new one. The returned
+     * workspace is reset and can contain at least the given number of nodes.
+     *
+     * @param size Number of nodes of the graph to search.
+     *
+     * @return A workspace ready for a new search.
+     */
+    public static SearchWorkspace acquire(int size) {
+        Pool pool = SHARED_POOL.get();
+        SearchWorkspace workspace = pool == null ? POOL.get().pollFirst() : pool.poll();
+        if (workspace == null || workspace.capacity() / MAX_CAPACITY_RATIO > size) {
+            workspace = new SearchWorkspace(size);
+        }
+        workspace.pool = pool;
+        workspace.ensureCapacity(size);
+        workspace.reset();
+        return workspace;
+    }
+
+    // Shared pool this workspace was borrowed from, null if it was borrowed from
+    // the pool of a thread.
+    private Pool pool;
+
+    // Current generation.
+    private int generation;
+
+    // Generation at which each node was reached / settled.
+    private int[] reached, settled;
+
+    // Cost from the origin and estimated cost to the destination of each node.
+    private double[] costs, estimates;
+
+    // Arc used to reach each node.
+    private int[] parentArcs;
+
+    // Heap of node IDs, ordered by cost + estimate, and position of each node in
+    // the heap.
+    private int[] heap, positions;
+    private int heapSize;
+
+    /**
+     * Create a new workspace for graphs with at most the given number of nodes.
+     * Most users should use {@link #acquire(int)} instead.
+     *
+     * @param size Number of nodes of the graph to search.
+     */
+    public SearchWorkspace(int size) {
+        this.generation = 0;
+        allocate(size);
+    }
+
+    private void allocate(int size) {
+        this.reached = new int[size];
+        this.settled = new int[size];
+        this.costs = new double[size];
+        this.estimates = new double[size];
+        this.parentArcs = new int[size];
+        this.heap = new int[size];
+        this.positions = new int[size];
+        this.heapSize = 0;
+    }
+
+    /**
+     * @return Number of nodes this workspace can handle.
+     */
+    public int capacity() {
+        return this.reached.length;
+    }
+
+    /**
+     * Grow this workspace if it cannot contain the given number of nodes. Growing
+     * the workspace discards the current search.
+     *
+     * @param size Number of nodes of the graph to search.
+     */
+    public void ensureCapacity(int size) {
+        if (size > capacity()) {
+            allocate(size);
+            this.generation = 0;
+            reset();
+        }
+    }
+
+    /**
+     * Start a new search, i.e. mark all the nodes as not reached and clear the
+     * heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> (except once every 2<sup>31</sup> calls).
+     * </p>
+     */
+    public void reset() {
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.reached, 0);
+            Arrays.fill(this.settled, 0);
+            this.generation = 0;
+        }
+        ++this.generation;
+        this.heapSize = 0;
+    }
+
+    /**
+     * Give this workspace back to the pool it was borrowed from, or drop it if
+     * that pool is full. The workspace must not be used after being released.
+     */
+    public void release() {
+        if (this.pool == null) {
+            ArrayDeque<SearchWorkspace> workspaces = POOL.get();
+            if (workspaces.size() < MAX_THREAD_POOL_SIZE) {
+                workspaces.addFirst(this);
+            }
+        }
+        else {
+            this.pool.offer(this);
+        }
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return true if the given node has been reached during the current search.
+     */
+    public boolean isReached(int node) {
+        return this.reached[node] == this.generation;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return true if the given node has been settled during the current search,
+     *         i.e. its cost is final.
+     */
+    public boolean isSettled(int node) {
+        return this.settled[node] == this.generation;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Cost from the origin to the given node, or
+     *         {@link Double#POSITIVE_INFINITY} if the node has not been reached.
+     */
+    public double getCost(int node) {
+        return isReached(node) ? this.costs[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node ID of a reached node.
+     *
+     * @return Estimated cost from the given node to the destination, as given when
+     *         the node was first reached.
+     */
+    public double getEstimate(int node) {
+        return this.estimates[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return ID of the arc used to reach the given node, or {@link #NO_ARC} if the
+     *         node has not been reached or is the origin of the search.
+     */
+    public int getParentArc(int node) {
+        return isReached(node) ? this.parentArcs[node] : NO_ARC;
+    }
+
+    /**
+     * Reach the given node for the first time and insert it in the heap.
+     *
+     * @param node ID of a node that has not been reached yet.
+     * @param cost Cost from the origin to the node.
+     * @param estimate Estimated cost from the node to the destination.
+     * @param parentArc ID of the arc used to reach the node, or {@link #NO_ARC}.
+     */
+    public void reach(int node, double cost, double estimate, int parentArc) {
+        this.reached[node] = this.generation;
+        this.costs[node] = cost;
+        this.estimates[node] = estimate;
+        this.parentArcs[node] = parentArc;
+        this.heap[this.heapSize] = node;
+        this.positions[node] = this.heapSize;
+        percolateUp(this.heapSize++);
+    }
+
+    /**
+     * Decrease the cost of a reached but not settled node, and update its position
+     * in the heap.
+     *
+     * @param node ID of a reached node that is still in the heap.
+     * @param cost New cost from the origin to the node, lower than the current
+     *        one.
+     * @param parentArc ID of the arc used to reach the node.
+     */
+    public void decreaseCost(int node, double cost, int parentArc) {
+        this.costs[node] = cost;
+        this.parentArcs[node] = parentArc;
+        percolateUp(this.positions[node]);
+    }
+
+    /**
+     * @return true if the heap of this workspace is empty.
+     */
+    public boolean isHeapEmpty() {
+        return this.heapSize == 0;
+    }
+
+    /**
+     * @return ID of the node with the minimum cost + estimate in the heap, or -1 if
+     *         the heap is empty.
+     */
+    public int peekMin() {
+        return this.heapSize == 0 ? -1 : this.heap[0];
+    }
+
+    /**
+     * @return Minimum cost + estimate of the nodes in the heap, or
+     *         {@link Double#POSITIVE_INFINITY} if the heap is empty.
+     */
+    public double peekMinKey() {
+        return this.heapSize == 0 ? Double.POSITIVE_INFINITY : key(this.heap[0]);
+    }
+
+    /**
+     * Remove the node with the minimum cost + estimate from the heap and mark it
+     * as settled.
+     *
+     * @return ID of the settled node.
+     *
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int settleMin() {
+        if (this.heapSize == 0) {
+            throw new IllegalStateException("Cannot settle a node from an empty heap.");
+        }
+        int node = this.heap[0];
+        this.positions[node] = NOT_IN_HEAP;
+        this.settled[node] = this.generation;
+        if (--this.heapSize > 0) {
+            this.heap[0] = this.heap[this.heapSize];
+            this.positions[this.heap[0]] = 0;
+            percolateDown(0);
+        }
+        return node;
+    }
+
+    private double key(int node) {
+        return this.costs[node] + this.estimates[node];
+    }
+
+    private void percolateUp(int position) {
+        int node = this.heap[position];
+        double key = key(node);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (key >= key(this.heap[parent])) {
+                break;
+            }
+            this.heap[position] = this.heap[parent];
+            this.positions[this.heap[position]] = position;
+            position = parent;
+        }
+        this.heap[position] = node;
+        this.positions[node] = position;
+    }
+
+    private void percolateDown(int position) {
+        int node = this.heap[position];
+        double key = key(node);
+        int child = 2 * position + 1;
+        while (child < this.heapSize) {
+            if (child + 1 < this.heapSize && key(this.heap[child + 1]) < key(this.heap[child])) {
+                child += 1;
+            }
+            if (key(this.heap[child]) >= key) {
+                break;
+            }
+            this.heap[position] = this.heap[child];
+            this.positions[this.heap[position]] = position;
+            position = child;
+            child = 2 * position + 1;
+        }
+        this.heap[position] = node;
+        this.positions[node] = position;
+    }
+
+}
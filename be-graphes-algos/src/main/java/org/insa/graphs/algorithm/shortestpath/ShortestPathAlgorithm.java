@@ -1,6 +1,8 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.strongconnectivity.ComponentLabels;
 import org.insa.graphs.model.Node;
 
 public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPathObserver> {
@@ -14,6 +16,29 @@ public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPa
         return (ShortestPathSolution) super.run();
     }
 
+    /**
+     * Return an infeasible solution without searching if the destination is known
+     * to be unreachable from the origin according to the component labels of the
+     * graph (see {@link ComponentLabels}). Labels are only used if they have
+     * already been computed for the graph and arc inspector of the query (see
+     * {@link ComponentLabels#precompute(org.insa.graphs.model.Graph)}, called by
+     * {@link ShortestPathBatchExecutor}), since computing them costs more than a
+     * single search.
+     */
+    @Override
+    protected ShortestPathSolution findTrivialSolution() {
+        final ShortestPathData data = getInputData();
+        if (data.getArcInspector() == null) {
+            return null;
+        }
+        ComponentLabels labels = ComponentLabels.getIfPresent(data.getGraph(),
+                data.getArcInspector());
+        if (labels != null && labels.isUnreachable(data.getOrigin(), data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        return null;
+    }
+
     @Override
     protected abstract ShortestPathSolution doRun();
 
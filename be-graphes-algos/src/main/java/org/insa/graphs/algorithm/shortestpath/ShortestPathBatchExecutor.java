@@ -0,0 +1,243 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.insa.graphs.algorithm.strongconnectivity.ComponentLabels;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Executor running shortest-path queries concurrently on a single graph.
+ * </p>
+ *
+ * <p>
+ * The graph is shared between all the queries, which is safe since graphs are
+ * immutable (see {@link Graph}). Each query creates a new algorithm instance, and the
+ * searches borrow their {@link SearchWorkspace} from a bounded pool shared by
+ * all the queries of the executor (see {@link SearchWorkspace.Pool}), so
+ * workspaces are reused between queries whatever the threads running them.
+ * Queries can run on a bounded pool of threads (the default) or on any
+ * {@link ExecutorService}, including executors starting a new thread for each
+ * task such as the one returned by {@link #newVirtualThreadExecutor()}.
+ * </p>
+ *
+ * <p>
+ * The component labels of the graph are computed when the executor is created
+ * for all the filters of {@link org.insa.graphs.algorithm.ArcInspectorFactory}
+ * (see {@link ComponentLabels#precompute(Graph)}), so that queries between
+ * nodes that cannot be connected are answered without searching:
+ * </p>
+ *
+ * <pre>
+ * try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+ *         DijkstraAlgorithm::new)) {
+ *     CompletableFuture&lt;ShortestPathSolution&gt; future = executor.submit(data);
+ *     // ...
+ * }
+ * </pre>
+ */
+public class ShortestPathBatchExecutor implements AutoCloseable {
+
+    // Graph on which the queries are run.
+    private final Graph graph;
+
+    // Factory used to create the algorithm of each query.
+    private final Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory;
+
+    // Executor running the queries, and whether it is owned by this object.
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    // Workspaces shared by the queries.
+    private final SearchWorkspace.Pool workspaces;
+
+    // Whether this object has been closed.
+    private volatile boolean closed;
+
+    /**
+     * Create a new batch executor running the queries on a pool with one thread
+     * per available processor.
+     *
+     * @param graph Graph on which the queries are run.
+     * @param factory Factory creating the algorithm for a query, e.g.
+     *        {@code DijkstraAlgorithm::new}.
+     */
+    public ShortestPathBatchExecutor(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory) {
+        this(graph, factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new batch executor running the queries on a pool with the given
+     * number of threads.
+     *
+     * @param graph Graph on which the queries are run.
+     * @param factory Factory creating the algorithm for a query, e.g.
+     *        {@code DijkstraAlgorithm::new}.
+     * @param nbThreads Number of threads of the pool.
+     */
+    public ShortestPathBatchExecutor(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            int nbThreads) {
+        this(graph, factory, Executors.newFixedThreadPool(nbThreads, new WorkerThreadFactory()),
+                true, nbThreads);
+    }
+
+    /**
+     * Create a new batch executor running the queries on the given executor. The
+     * executor is not shut down when this object is closed. The pool of
+     * workspaces retains the workspaces of one query per available processor.
+     *
+     * @param graph Graph on which the queries are run.
+     * @param factory Factory creating the algorithm for a query, e.g.
+     *        {@code DijkstraAlgorithm::new}.
+     * @param executor Executor running the queries.
+     */
+    public ShortestPathBatchExecutor(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            ExecutorService executor) {
+        this(graph, factory, executor, false, Runtime.getRuntime().availableProcessors());
+    }
+
+    private ShortestPathBatchExecutor(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            ExecutorService executor, boolean ownsExecutor, int nbConcurrentQueries) {
+        this.graph = graph;
+        this.factory = factory;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+
+        // Bidirectional searches use two workspaces per query.
+        this.workspaces = new SearchWorkspace.Pool(2 * Math.max(1, nbConcurrentQueries));
+
+        // Build the compact graph and the component labels once, before they are
+        // shared by the workers.
+        graph.getCompactGraph();
+        ComponentLabels.precompute(graph);
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task. Virtual
+     * threads are only available on Java 21 and later.
+     *
+     * @return A new virtual-thread-per-task executor.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not available
+     *         on the running JVM.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads are not available on this JVM.", e);
+        }
+    }
+
+    /**
+     * @return Graph on which the queries are run.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Submit a query.
+     *
+     * @param data Query to run, on the graph of this executor.
+     *
+     * @return A future completed with the solution of the query, or completed
+     *         exceptionally if the algorithm fails.
+     *
+     * @throws IllegalArgumentException if the query is on another graph.
+     * @throws RejectedExecutionException if this executor has been closed.
+     */
+    public CompletableFuture<ShortestPathSolution> submit(ShortestPathData data) {
+        if (closed) {
+            throw new RejectedExecutionException("Batch executor has been closed.");
+        }
+        if (data.getGraph() != graph) {
+            throw new IllegalArgumentException("Query on a different graph.");
+        }
+        return CompletableFuture.supplyAsync(
+                () -> SearchWorkspace.callWithPool(workspaces, () -> factory.apply(data).run()),
+                executor);
+    }
+
+    /**
+     * Submit all the queries of the given stream.
+     *
+     * @param queries Queries to run, on the graph of this executor.
+     *
+     * @return Futures of the solutions, in the order of the queries.
+     *
+     * @see #submit(ShortestPathData)
+     */
+    public List<CompletableFuture<ShortestPathSolution>> submitAll(
+            Stream<ShortestPathData> queries) {
+        return queries.map(this::submit).collect(Collectors.toList());
+    }
+
+    /**
+     * Stop accepting queries (even if the executor running them is not owned by
+     * this object), and shut down the thread pool if it was created by this
+     * object. Queries already submitted are still run.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Wait for the submitted queries to complete after {@link #close()}, if the
+     * thread pool was created by this object.
+     *
+     * @param timeout Maximum time to wait.
+     * @param unit Unit of the timeout.
+     *
+     * @return true if all the queries have completed, false if the timeout elapsed
+     *         before or if the executor is not owned by this object.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return ownsExecutor && executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Factory creating daemon worker threads, so that an executor that is not
+     * closed does not prevent the JVM from exiting.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+        private final int poolId = POOL_COUNT.incrementAndGet();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "shortest-path-" + poolId + "-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
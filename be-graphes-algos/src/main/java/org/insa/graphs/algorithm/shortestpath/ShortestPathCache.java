@@ -0,0 +1,408 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.CompactPath;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Cache of shortest-path solutions, in front of a shortest-path algorithm.
+ * </p>
+ *
+ * <p>
+ * Solutions are cached by graph, origin, destination and arc inspector, so
+ * queries should reuse the same inspectors (e.g. the ones of
+ * {@link org.insa.graphs.algorithm.ArcInspectorFactory}). The graph is part of
+ * the key rather than its map ID since renumbered graphs share the ID of their
+ * map. Only optimal and infeasible solutions are cached, as compact paths (see
+ * {@link CompactPath}), and a solution returned from the cache has the input
+ * data of the query and the time spent looking it up as solving time.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by a number of entries and an (estimated) number of
+ * bytes, the least recently used entries being evicted first, and entries can
+ * expire after a fixed duration. The entries are split in independently locked
+ * segments so that many threads can use the cache concurrently, the LRU order
+ * and the bounds being enforced per segment. Two threads missing the same query
+ * at the same time both run the algorithm.
+ * </p>
+ *
+ * <pre>
+ * ShortestPathCache cache = new ShortestPathCache(DijkstraAlgorithm::new, 10000);
+ * ShortestPathSolution solution = cache.solve(data);
+ * ShortestPathCache.Statistics statistics = cache.getStatistics();
+ * </pre>
+ */
+public class ShortestPathCache {
+
+    /**
+     * Immutable snapshot of the counters of a cache.
+     */
+    public static final class Statistics {
+
+        private final long hitCount, missCount, evictionCount, expirationCount;
+        private final int size;
+        private final long estimatedBytes;
+
+        private Statistics(long hitCount, long missCount, long evictionCount,
+                long expirationCount, int size, long estimatedBytes) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+            this.size = size;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        /**
+         * @return Number of queries answered from the cache.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return Number of queries for which the algorithm was run (including
+         *         queries whose entry had expired).
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return Ratio of queries answered from the cache, 0 if there has not been
+         *         any query.
+         */
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        /**
+         * @return Number of entries evicted to keep the cache within its bounds.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * @return Number of entries removed because they had expired.
+         */
+        public long getExpirationCount() {
+            return expirationCount;
+        }
+
+        /**
+         * @return Number of entries in the cache.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return Estimated memory used by the entries of the cache, in bytes.
+         */
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "hits=%d, misses=%d (%.1f%% hits), evictions=%d, expirations=%d, size=%d (~%d bytes)",
+                    hitCount, missCount, 100 * getHitRate(), evictionCount, expirationCount, size,
+                    estimatedBytes);
+        }
+
+    }
+
+    // Estimated memory used by an entry, besides the IDs of the arcs of its path
+    // (key, entry of the map, value, compact path and its array).
+    private static final long ENTRY_BYTES = 160;
+
+    // Maximum number of segments.
+    private static final int MAX_NB_SEGMENTS = 16;
+
+    // Factory used to create the algorithm for a query that is not in the cache.
+    private final Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory;
+
+    // Time to live of the entries (in nanoseconds, 0 if entries do not expire),
+    // and source of the current time.
+    private final long timeToLive;
+    private final LongSupplier ticker;
+
+    // Segments, the segment of a key is given by the lowest bits of its hash.
+    private final Segment[] segments;
+
+    // Counters.
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(),
+            evictions = new LongAdder(), expirations = new LongAdder();
+
+    /**
+     * Create a new cache bounded by a number of entries, whose entries do not
+     * expire.
+     *
+     * @param factory Factory creating the algorithm for a query, e.g.
+     *        {@code DijkstraAlgorithm::new}.
+     * @param maxEntries Maximum number of entries in the cache.
+     */
+    public ShortestPathCache(Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            int maxEntries) {
+        this(factory, maxEntries, Long.MAX_VALUE, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param factory Factory creating the algorithm for a query, e.g.
+     *        {@code DijkstraAlgorithm::new}.
+     * @param maxEntries Maximum number of entries in the cache.
+     * @param maxBytes Maximum (estimated) memory used by the entries, in bytes.
+     * @param timeToLive Duration after which an entry expires, 0 if entries should
+     *        not expire.
+     * @param unit Unit of the time to live.
+     *
+     * @throws IllegalArgumentException if a bound is not strictly positive or if
+     *         the time to live is negative.
+     */
+    public ShortestPathCache(Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            int maxEntries, long maxBytes, long timeToLive, TimeUnit unit) {
+        this(factory, maxEntries, maxBytes, unit.toNanos(timeToLive), System::nanoTime);
+    }
+
+    /**
+     * Create a new cache using the given source for the current time (in
+     * nanoseconds).
+     */
+    ShortestPathCache(Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            int maxEntries, long maxBytes, long timeToLive, LongSupplier ticker) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Bounds of the cache must be strictly positive.");
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("Time to live cannot be negative.");
+        }
+        this.factory = factory;
+        this.timeToLive = timeToLive;
+        this.ticker = ticker;
+
+        // Small caches use a single segment, so that the LRU order is exact.
+        int nbSegments = Integer.highestOneBit(Math.max(1, Math.min(MAX_NB_SEGMENTS,
+                maxEntries / (4 * MAX_NB_SEGMENTS))));
+        this.segments = new Segment[nbSegments];
+        for (int i = 0; i < nbSegments; ++i) {
+            this.segments[i] = new Segment(maxEntries / nbSegments, maxBytes / nbSegments);
+        }
+    }
+
+    /**
+     * Solve the given query, from the cache if possible.
+     *
+     * @param data Query to solve.
+     *
+     * @return Solution of the query.
+     */
+    public ShortestPathSolution solve(ShortestPathData data) {
+        Instant start = Instant.now();
+        Key key = new Key(data);
+        Segment segment = segmentFor(key);
+
+        Entry entry = segment.get(key);
+        if (entry != null) {
+            hits.increment();
+            return new CachedSolution(data, entry.status, entry.path,
+                    Duration.between(start, Instant.now()));
+        }
+
+        misses.increment();
+        ShortestPathSolution solution = factory.apply(data).run();
+        if (solution.getStatus() == Status.OPTIMAL || solution.getStatus() == Status.INFEASIBLE) {
+            segment.put(key, new Entry(solution.getStatus(), solution.getCompactPath(),
+                    ticker.getAsLong()));
+        }
+        return solution;
+    }
+
+    /**
+     * Remove all the entries from the cache. The counters are not reset.
+     */
+    public void clear() {
+        for (Segment segment: segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return Snapshot of the counters and size of this cache.
+     */
+    public Statistics getStatistics() {
+        int size = 0;
+        long bytes = 0;
+        for (Segment segment: segments) {
+            size += segment.size();
+            bytes += segment.bytes();
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size,
+                bytes);
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * Key of a query.
+     */
+    private static final class Key {
+
+        private final Graph graph;
+        private final int origin, destination;
+        private final ArcInspector inspector;
+        private final int hash;
+
+        Key(ShortestPathData data) {
+            this.graph = data.getGraph();
+            this.origin = data.getOrigin().getId();
+            this.destination = data.getDestination().getId();
+            this.inspector = data.getArcInspector();
+            int hash = System.identityHashCode(graph);
+            hash = 31 * hash + origin;
+            hash = 31 * hash + destination;
+            hash = 31 * hash + (inspector == null ? 0 : inspector.hashCode());
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return graph == key.graph && origin == key.origin && destination == key.destination
+                    && (inspector == null ? key.inspector == null
+                            : inspector.equals(key.inspector));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Cached solution of a query.
+     */
+    private static final class Entry {
+
+        private final Status status;
+        private final CompactPath path;
+        private final long creationTime;
+        private final long bytes;
+
+        Entry(Status status, CompactPath path, long creationTime) {
+            this.status = status;
+            this.path = path;
+            this.creationTime = creationTime;
+            this.bytes = ENTRY_BYTES + (path == null ? 0 : 4L * path.getArcCount());
+        }
+
+    }
+
+    /**
+     * Segment of the cache, a map in access order whose eldest entries are evicted
+     * when the segment exceeds its bounds. All the accesses are synchronized on the
+     * segment.
+     */
+    private final class Segment {
+
+        private final int maxEntries;
+        private final long maxBytes;
+
+        // Entries, from the least to the most recently used.
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        // Estimated memory used by the entries of this segment.
+        private long bytes;
+
+        Segment(int maxEntries, long maxBytes) {
+            this.maxEntries = Math.max(1, maxEntries);
+            this.maxBytes = Math.max(1, maxBytes);
+        }
+
+        /**
+         * @return The entry of the given key, or null if there is none or if it has
+         *         expired (in which case it is removed).
+         */
+        synchronized Entry get(Key key) {
+            Entry entry = entries.get(key);
+            if (entry != null && timeToLive > 0
+                    && ticker.getAsLong() - entry.creationTime >= timeToLive) {
+                entries.remove(key);
+                bytes -= entry.bytes;
+                expirations.increment();
+                return null;
+            }
+            return entry;
+        }
+
+        synchronized void put(Key key, Entry entry) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.bytes;
+            }
+            bytes += entry.bytes;
+
+            // Evict the least recently used entries, possibly the new one if it
+            // does not fit in the segment.
+            Iterator<Entry> iterator = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                iterator.remove();
+                bytes -= eldest.bytes;
+                evictions.increment();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            bytes = 0;
+        }
+
+    }
+
+    /**
+     * Solution returned from the cache, whose solving time is the time spent
+     * looking it up.
+     */
+    private static final class CachedSolution extends ShortestPathSolution {
+
+        CachedSolution(ShortestPathData data, Status status, CompactPath path,
+                Duration solvingTime) {
+            super(data, status, path);
+            setSolvingTime(solvingTime);
+        }
+
+    }
+
+}
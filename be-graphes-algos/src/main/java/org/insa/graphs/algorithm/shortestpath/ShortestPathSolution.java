@@ -2,13 +2,17 @@ package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.CompactPath;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.algorithm.AbstractSolution;
 
 public class ShortestPathSolution extends AbstractSolution {
 
-    // Optimal solution.
-    private final Path path;
+    // Optimal solution, as a path or a compact path (the other one is created on
+    // demand).
+    private Path path;
+    private CompactPath compactPath;
 
     /**
      * Create a new infeasible shortest-path solution for the given input and
@@ -20,6 +24,7 @@ public class ShortestPathSolution extends AbstractSolution {
     public ShortestPathSolution(ShortestPathData data, Status status) {
         super(data, status);
         this.path = null;
+        this.compactPath = null;
     }
 
     /**
@@ -32,6 +37,21 @@ public class ShortestPathSolution extends AbstractSolution {
     public ShortestPathSolution(ShortestPathData data, Status status, Path path) {
         super(data, status);
         this.path = path;
+        this.compactPath = null;
+    }
+
+    /**
+     * Create a new shortest-path solution from a compact path, which is only
+     * converted to a {@link Path} if {@link #getPath()} is called.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (FEASIBLE / OPTIMAL).
+     * @param path Path corresponding to the solution.
+     */
+    public ShortestPathSolution(ShortestPathData data, Status status, CompactPath path) {
+        super(data, status);
+        this.path = null;
+        this.compactPath = path;
     }
 
     @Override
@@ -42,10 +62,44 @@ public class ShortestPathSolution extends AbstractSolution {
     /**
      * @return The path of this solution, if any.
      */
-    public Path getPath() {
+    public synchronized Path getPath() {
+        if (path == null && compactPath != null) {
+            path = compactPath.toPath();
+        }
         return path;
     }
 
+    /**
+     * @return The path of this solution as a compact path, if any.
+     */
+    public synchronized CompactPath getCompactPath() {
+        if (compactPath == null && path != null) {
+            compactPath = CompactPath.fromPath(path);
+        }
+        return compactPath;
+    }
+
+    /**
+     * @return Cost of the path of this solution, computed with the arc inspector of
+     *         the input data (without compiling it, see
+     *         {@link org.insa.graphs.algorithm.CompiledArcInspector}).
+     */
+    private synchronized double computeCost() {
+        double cost = 0;
+        if (path != null) {
+            for (Arc arc: path.getArcs()) {
+                cost += getInputData().getCost(arc);
+            }
+        }
+        else {
+            final CompactGraph compact = compactPath.getGraph().getCompactGraph();
+            for (int i = 0; i < compactPath.getArcCount(); ++i) {
+                cost += getInputData().getCost(compact.getArc(compactPath.getArcId(i)));
+            }
+        }
+        return cost;
+    }
+
     @Override
     public String toString() {
         String info = null;
@@ -54,10 +108,7 @@ public class ShortestPathSolution extends AbstractSolution {
                     getInputData().getOrigin().getId(), getInputData().getDestination().getId());
         }
         else {
-            double cost = 0;
-            for (Arc arc: getPath().getArcs()) {
-                cost += getInputData().getCost(arc);
-            }
+            double cost = computeCost();
             info = String.format("Found a path from node #%d to node #%d",
                     getInputData().getOrigin().getId(), getInputData().getDestination().getId());
             if (getInputData().getMode() == Mode.LENGTH) {
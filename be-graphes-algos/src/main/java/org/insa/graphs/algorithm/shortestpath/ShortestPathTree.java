@@ -0,0 +1,130 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.CompactPath;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * Shortest paths from an origin to all the nodes of a graph, stored as primitive
+ * arrays indexed by node ID.
+ */
+public final class ShortestPathTree {
+
+    // Graph of the tree and compact graph whose arc IDs are used.
+    private final Graph graph;
+    private final CompactGraph compact;
+
+    // Origin of the tree.
+    private final Node origin;
+
+    // Cost from the origin and arc used to reach each node.
+    private final double[] costs;
+    private final int[] parentArcs;
+
+    /**
+     * Create a new shortest-path tree.
+     *
+     * @param graph Graph of the tree.
+     * @param origin Origin of the tree.
+     * @param costs Cost from the origin to each node,
+     *        {@link Double#POSITIVE_INFINITY} for unreachable nodes.
+     * @param parentArcs ID (in the compact graph of the graph) of the arc used to
+     *        reach each node, or {@link SearchWorkspace#NO_ARC} for the origin and
+     *        unreachable nodes.
+     */
+    public ShortestPathTree(Graph graph, Node origin, double[] costs, int[] parentArcs) {
+        this.graph = graph;
+        this.compact = graph.getCompactGraph();
+        this.origin = origin;
+        this.costs = costs;
+        this.parentArcs = parentArcs;
+    }
+
+    /**
+     * @return Graph of this tree.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Origin of this tree.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Costs from the origin, indexed by node ID. The returned array is not
+     *         copied.
+     */
+    public double[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @return IDs of the arcs used to reach each node, indexed by node ID. The
+     *         returned array is not copied.
+     */
+    public int[] getParentArcs() {
+        return parentArcs;
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return Cost from the origin to the given node, or
+     *         {@link Double#POSITIVE_INFINITY} if it cannot be reached.
+     */
+    public double getCost(Node node) {
+        return costs[node.getId()];
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return true if the given node can be reached from the origin.
+     */
+    public boolean isReachable(Node node) {
+        return costs[node.getId()] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return Arc used to reach the given node, or null if the node is the origin
+     *         or cannot be reached.
+     */
+    public Arc getParentArc(Node node) {
+        int arcId = parentArcs[node.getId()];
+        return arcId == SearchWorkspace.NO_ARC ? null : compact.getArc(arcId);
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return Shortest path from the origin to the given node, or null if the node
+     *         cannot be reached.
+     */
+    public Path getPath(Node node) {
+        CompactPath path = getCompactPath(node);
+        return path == null ? null : path.toPath();
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return Shortest path from the origin to the given node as a compact path,
+     *         or null if the node cannot be reached.
+     */
+    public CompactPath getCompactPath(Node node) {
+        if (!isReachable(node)) {
+            return null;
+        }
+        return CompactPath.fromParentArcs(graph, node.getId(), parentArcs);
+    }
+
+}
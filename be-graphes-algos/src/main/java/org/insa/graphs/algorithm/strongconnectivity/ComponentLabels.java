@@ -0,0 +1,238 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Component labels of the nodes of a graph for an arc inspector, used to detect
+ * in <i>O(1)</i> most of the pairs of nodes that cannot be connected by a path.
+ * </p>
+ *
+ * <p>
+ * Each node is labelled with its strongly-connected component, and each
+ * strongly-connected component with its weakly-connected component (using only
+ * the allowed arcs). A destination cannot be reached from an origin in another
+ * strongly-connected component if both are in different weakly-connected
+ * components, if no allowed arc leaves the component of the origin (e.g. the end
+ * of a one-way street), or if no allowed arc enters the component of the
+ * destination. Other pairs may still be unreachable, so the check is only
+ * conservative.
+ * </p>
+ *
+ * <p>
+ * Labels only depend on the graph and on the arcs allowed by the inspector, and
+ * are cached (see {@link #get(Graph, ArcInspector)}). Shortest-path algorithms
+ * only use labels that have already been computed, so labels should be computed
+ * explicitly for the inspectors used by many queries, e.g. with
+ * {@link #precompute(Graph)} for the filters of {@link ArcInspectorFactory}.
+ * </p>
+ */
+public final class ComponentLabels {
+
+    // Flags of the strongly-connected components.
+    private static final byte HAS_OUTGOING_ARC = 1, HAS_INCOMING_ARC = 2;
+
+    // Labels already computed, by graph and inspector.
+    private static final Map<Graph, Map<ArcInspector, ComponentLabels>> CACHE = new WeakHashMap<>();
+
+    /**
+     * Retrieve the labels of the given graph for the given inspector, computing
+     * them if they have not been computed yet.
+     *
+     * @param graph Graph for the labels.
+     * @param inspector Inspector defining the allowed arcs.
+     *
+     * @return Component labels of the given graph for the given inspector.
+     */
+    public static ComponentLabels get(Graph graph, ArcInspector inspector) {
+        Map<ArcInspector, ComponentLabels> labels;
+        synchronized (CACHE) {
+            labels = CACHE.get(graph);
+            if (labels == null) {
+                labels = new WeakHashMap<>();
+                CACHE.put(graph, labels);
+            }
+        }
+        synchronized (labels) {
+            ComponentLabels label = labels.get(inspector);
+            if (label == null) {
+                label = compute(new StronglyConnectedComponentsAlgorithm(
+                        new StronglyConnectedComponentsData(graph, inspector)).run());
+                labels.put(inspector, label);
+            }
+            return label;
+        }
+    }
+
+    /**
+     * Compute (if needed) the labels of the given graph for all the filters of
+     * {@link ArcInspectorFactory}, so that shortest-path queries using these
+     * filters can detect unreachable destinations without searching.
+     *
+     * @param graph Graph for the labels.
+     */
+    public static void precompute(Graph graph) {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            get(graph, inspector);
+        }
+    }
+
+    /**
+     * Retrieve the labels of the given graph for the given inspector if they have
+     * already been computed (see {@link #get(Graph, ArcInspector)}).
+     *
+     * @param graph Graph for the labels.
+     * @param inspector Inspector defining the allowed arcs.
+     *
+     * @return Component labels of the given graph for the given inspector, or null
+     *         if they have not been computed.
+     */
+    public static ComponentLabels getIfPresent(Graph graph, ArcInspector inspector) {
+        Map<ArcInspector, ComponentLabels> labels;
+        synchronized (CACHE) {
+            labels = CACHE.get(graph);
+        }
+        if (labels == null) {
+            return null;
+        }
+        synchronized (labels) {
+            return labels.get(inspector);
+        }
+    }
+
+    /**
+     * Compute the labels corresponding to the given strongly-connected components.
+     *
+     * @param solution Strongly-connected components of a graph.
+     *
+     * @return Component labels of the graph of the given solution.
+     */
+    public static ComponentLabels compute(StronglyConnectedComponentsSolution solution) {
+        final CompactGraph compact = solution.getInputData().getGraph().getCompactGraph();
+        final CompiledArcInspector inspector = solution.getInputData().getCompiledArcInspector();
+        final int[] strongIds = solution.getComponentIds();
+        final int nbComponents = solution.getComponentCount();
+
+        // Union-find over the strongly-connected components, with path compression
+        // and union by rank.
+        final int[] parents = new int[nbComponents];
+        final byte[] ranks = new byte[nbComponents];
+        final byte[] flags = new byte[nbComponents];
+        for (int component = 0; component < nbComponents; ++component) {
+            parents[component] = component;
+        }
+        for (int node = 0; node < compact.size(); ++node) {
+            int lastArc = compact.getFirstArc(node + 1);
+            for (int arcId = compact.getFirstArc(node); arcId < lastArc; ++arcId) {
+                int tail = strongIds[node], head = strongIds[compact.getHead(arcId)];
+                if (tail == head || !inspector.isAllowed(arcId)) {
+                    continue;
+                }
+                flags[tail] |= HAS_OUTGOING_ARC;
+                flags[head] |= HAS_INCOMING_ARC;
+
+                int root1 = find(parents, tail), root2 = find(parents, head);
+                if (root1 == root2) {
+                    continue;
+                }
+                if (ranks[root1] < ranks[root2]) {
+                    parents[root1] = root2;
+                }
+                else {
+                    parents[root2] = root1;
+                    if (ranks[root1] == ranks[root2]) {
+                        ranks[root1] += 1;
+                    }
+                }
+            }
+        }
+
+        final int[] weakIds = new int[nbComponents];
+        for (int component = 0; component < nbComponents; ++component) {
+            weakIds[component] = find(parents, component);
+        }
+        return new ComponentLabels(strongIds, weakIds, flags);
+    }
+
+    private static int find(int[] parents, int component) {
+        int root = component;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        while (parents[component] != root) {
+            int next = parents[component];
+            parents[component] = root;
+            component = next;
+        }
+        return root;
+    }
+
+    // Strongly-connected component of each node.
+    private final int[] strongIds;
+
+    // Weakly-connected component and flags of each strongly-connected component.
+    private final int[] weakIds;
+    private final byte[] flags;
+
+    private ComponentLabels(int[] strongIds, int[] weakIds, byte[] flags) {
+        this.strongIds = strongIds;
+        this.weakIds = weakIds;
+        this.flags = flags;
+    }
+
+    /**
+     * @return Number of nodes labelled.
+     */
+    public int size() {
+        return strongIds.length;
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return ID of the strongly-connected component of the given node.
+     */
+    public int getStrongComponent(Node node) {
+        return strongIds[node.getId()];
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return ID of the weakly-connected component of the given node (the ID of
+     *         one of its strongly-connected components).
+     */
+    public int getWeakComponent(Node node) {
+        return weakIds[strongIds[node.getId()]];
+    }
+
+    /**
+     * <p>
+     * Check if the given destination is known to be unreachable from the given
+     * origin. A false result does not mean that the destination can be reached.
+     * </p>
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param origin Origin node.
+     * @param destination Destination node.
+     *
+     * @return true if there is no path from the origin to the destination.
+     */
+    public boolean isUnreachable(Node origin, Node destination) {
+        int from = strongIds[origin.getId()], to = strongIds[destination.getId()];
+        return from != to && (weakIds[from] != weakIds[to]
+                || (flags[from] & HAS_OUTGOING_ARC) == 0 || (flags[to] & HAS_INCOMING_ARC) == 0);
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Largest strongly-connected component of a graph for an arc inspector, as a new
+ * graph with nodes numbered from 0, together with the mapping between the nodes
+ * of both graphs.
+ * </p>
+ *
+ * <p>
+ * Every node of the core can reach every other node using the arcs allowed by
+ * the inspector, so a query between two nodes of the core is never infeasible.
+ * The core contains the arcs allowed by the inspector between its nodes (both
+ * arcs of a two-ways road are kept together).
+ * </p>
+ */
+public final class RoutableCore {
+
+    // Original graph and core graph.
+    private final Graph graph, core;
+
+    // ID in the original graph of each node of the core, and ID in the core of each
+    // node of the original graph (or -1).
+    private final int[] originalIds, coreIds;
+
+    /**
+     * Extract the largest strongly-connected component of the given graph.
+     * 
+     * @param graph Graph from which the core should be extracted.
+     * @param inspector Filter of the arcs that can be used.
+     * 
+     * @return The core of the given graph.
+     */
+    public static RoutableCore extract(Graph graph, ArcInspector inspector) {
+        return extract(new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(graph, inspector)).run());
+    }
+
+    /**
+     * Extract the largest component of the given solution.
+     * 
+     * @param solution Strongly-connected components of a graph.
+     * 
+     * @return The core of the graph of the given solution.
+     */
+    public static RoutableCore extract(StronglyConnectedComponentsSolution solution) {
+        return new RoutableCore(solution);
+    }
+
+    private RoutableCore(StronglyConnectedComponentsSolution solution) {
+        this.graph = solution.getInputData().getGraph();
+        final ArcInspector inspector = solution.getInputData().getArcInspector();
+        final int largest = solution.getLargestComponent();
+
+        this.coreIds = new int[graph.size()];
+        Arrays.fill(coreIds, -1);
+        this.originalIds = new int[largest == -1 ? 0 : solution.getComponentSize(largest)];
+
+        List<Node> nodes = new ArrayList<>(originalIds.length);
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (Node node: graph.getNodes()) {
+            if (solution.getComponentId(node) != largest) {
+                continue;
+            }
+            Point point = node.getPoint();
+            coreIds[node.getId()] = nodes.size();
+            originalIds[nodes.size()] = node.getId();
+            nodes.add(new Node(nodes.size(), point));
+            minLongitude = Math.min(minLongitude, point.getLongitude());
+            minLatitude = Math.min(minLatitude, point.getLatitude());
+            maxLongitude = Math.max(maxLongitude, point.getLongitude());
+            maxLatitude = Math.max(maxLatitude, point.getLatitude());
+        }
+
+        // Link each road once, from its forward arc (or from any arc of a one-way
+        // road, e.g. in transpose graphs).
+        int nbOneWay = 0, nbTwoWays = 0;
+        float maxLength = 0;
+        for (int id: originalIds) {
+            for (Arc arc: graph.get(id).getSuccessors()) {
+                int destination = coreIds[arc.getDestination().getId()];
+                if (destination == -1 || !inspector.isAllowed(arc)
+                        || (arc.isBackward() && !arc.getRoadInformation().isOneWay())) {
+                    continue;
+                }
+                Node.linkNodes(nodes.get(coreIds[id]), nodes.get(destination), arc.getLength(),
+                        arc.getRoadInformation(), new ArrayList<>(arc.getPoints()));
+                if (arc.getRoadInformation().isOneWay()) {
+                    nbOneWay += 1;
+                }
+                else {
+                    nbTwoWays += 1;
+                }
+                maxLength = Math.max(maxLength, arc.getLength());
+            }
+        }
+
+        GraphStatistics statistics = new GraphStatistics(
+                new BoundingBox(new Point(minLongitude, maxLatitude),
+                        new Point(maxLongitude, minLatitude)),
+                nbOneWay, nbTwoWays, graph.getGraphInformation() == null
+                        ? GraphStatistics.NO_MAXIMUM_SPEED
+                        : graph.getGraphInformation().getMaximumSpeed(),
+                maxLength);
+        this.core = new Graph("C/" + graph.getMapId(), graph.getMapName(), nodes, statistics);
+    }
+
+    /**
+     * @return The original graph.
+     */
+    public Graph getOriginalGraph() {
+        return graph;
+    }
+
+    /**
+     * @return The core, as a graph with nodes numbered from 0.
+     */
+    public Graph getGraph() {
+        return core;
+    }
+
+    /**
+     * @param node Node of the original graph.
+     * 
+     * @return true if the given node belongs to the core.
+     */
+    public boolean contains(Node node) {
+        return coreIds[node.getId()] != -1;
+    }
+
+    /**
+     * @param node Node of the original graph.
+     * 
+     * @return The corresponding node of the core, or null if the given node does
+     *         not belong to the core.
+     */
+    public Node getCoreNode(Node node) {
+        int id = coreIds[node.getId()];
+        return id == -1 ? null : core.get(id);
+    }
+
+    /**
+     * @param node Node of the core.
+     * 
+     * @return The corresponding node of the original graph.
+     */
+    public Node getOriginalNode(Node node) {
+        return graph.get(originalIds[node.getId()]);
+    }
+
+    @Override
+    public String toString() {
+        return "Routable core with " + core.size() + " of the " + graph.size() + " nodes of "
+                + graph.getMapId();
+    }
+
+}
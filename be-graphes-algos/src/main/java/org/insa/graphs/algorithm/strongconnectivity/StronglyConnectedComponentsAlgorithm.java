@@ -0,0 +1,154 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Strongly-connected components algorithm (Tarjan), restricted to the arcs
+ * allowed by the arc inspector of the input data.
+ * </p>
+ *
+ * <p>
+ * The depth-first search is iterative, with an explicit stack of nodes and arc
+ * positions, so that it does not overflow the call stack on long roads. All the
+ * state is stored in primitive arrays indexed by node ID.
+ * </p>
+ */
+public class StronglyConnectedComponentsAlgorithm
+        extends AbstractAlgorithm<StronglyConnectedComponentsObserver> {
+
+    /**
+     * @param data Input data for this algorithm.
+     */
+    public StronglyConnectedComponentsAlgorithm(StronglyConnectedComponentsData data) {
+        super(data);
+    }
+
+    @Override
+    public StronglyConnectedComponentsSolution run() {
+        return (StronglyConnectedComponentsSolution) super.run();
+    }
+
+    @Override
+    public StronglyConnectedComponentsData getInputData() {
+        return (StronglyConnectedComponentsData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that a new component has been found.
+     * 
+     * @param component ID of the component.
+     * @param nodes Nodes of the component.
+     */
+    protected void notifyNewComponent(int component, List<Node> nodes) {
+        for (StronglyConnectedComponentsObserver obs: getObservers()) {
+            obs.notifyNewComponent(component, nodes);
+        }
+    }
+
+    @Override
+    protected StronglyConnectedComponentsSolution doRun() {
+        final StronglyConnectedComponentsData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final CompiledArcInspector inspector = data.getCompiledArcInspector();
+        final int nbNodes = compact.size();
+
+        // Discovery order (starting at 1, 0 if not visited yet) and lowest discovery
+        // order reachable from the subtree of each node.
+        final int[] orders = new int[nbNodes], lowLinks = new int[nbNodes];
+
+        // Component of each node, -1 for visited nodes still on the stack.
+        final int[] componentIds = new int[nbNodes];
+        Arrays.fill(componentIds, -1);
+        int[] sizes = new int[16];
+        int nbComponents = 0;
+
+        // Stack of visited nodes without component, and stack of the depth-first
+        // search (node and position of its next arc).
+        final int[] stack = new int[nbNodes];
+        final int[] searchNodes = new int[nbNodes], searchArcs = new int[nbNodes];
+        int stackSize = 0, searchSize = 0, order = 0;
+
+        for (int root = 0; root < nbNodes; ++root) {
+            if (orders[root] != 0) {
+                continue;
+            }
+            orders[root] = lowLinks[root] = ++order;
+            stack[stackSize++] = root;
+            searchNodes[searchSize] = root;
+            searchArcs[searchSize++] = compact.getFirstArc(root);
+
+            while (searchSize > 0) {
+                final int node = searchNodes[searchSize - 1];
+                final int lastArc = compact.getFirstArc(node + 1);
+
+                // Look for the next unvisited successor of the node.
+                int arcId = searchArcs[searchSize - 1];
+                int next = -1;
+                for (; next == -1 && arcId < lastArc; ++arcId) {
+                    if (!inspector.isAllowed(arcId)) {
+                        continue;
+                    }
+                    int head = compact.getHead(arcId);
+                    if (orders[head] == 0) {
+                        next = head;
+                    }
+                    else if (componentIds[head] == -1) {
+                        lowLinks[node] = Math.min(lowLinks[node], orders[head]);
+                    }
+                }
+                searchArcs[searchSize - 1] = arcId;
+
+                if (next != -1) {
+                    orders[next] = lowLinks[next] = ++order;
+                    stack[stackSize++] = next;
+                    searchNodes[searchSize] = next;
+                    searchArcs[searchSize++] = compact.getFirstArc(next);
+                    continue;
+                }
+
+                // All the successors have been visited, the node is the root of a
+                // component if it cannot reach an earlier node still on the stack.
+                searchSize -= 1;
+                if (lowLinks[node] == orders[node]) {
+                    int first = stackSize;
+                    do {
+                        componentIds[stack[--first]] = nbComponents;
+                    } while (stack[first] != node);
+
+                    if (nbComponents == sizes.length) {
+                        sizes = Arrays.copyOf(sizes, 2 * nbComponents);
+                    }
+                    sizes[nbComponents] = stackSize - first;
+                    if (!getObservers().isEmpty()) {
+                        List<Node> nodes = new ArrayList<>(stackSize - first);
+                        for (int i = first; i < stackSize; ++i) {
+                            nodes.add(graph.get(stack[i]));
+                        }
+                        notifyNewComponent(nbComponents, nodes);
+                    }
+                    nbComponents += 1;
+                    stackSize = first;
+                }
+                if (searchSize > 0) {
+                    int parent = searchNodes[searchSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+                }
+            }
+        }
+
+        return new StronglyConnectedComponentsSolution(data, Status.OPTIMAL, componentIds,
+                Arrays.copyOf(sizes, nbComponents));
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+public class StronglyConnectedComponentsData extends AbstractInputData {
+
+    /**
+     * @param graph Graph for which components should be retrieved.
+     * @param arcInspector Filter of the arcs that can be used.
+     */
+    public StronglyConnectedComponentsData(Graph graph, ArcInspector arcInspector) {
+        super(graph, arcInspector);
+    }
+
+    @Override
+    public String toString() {
+        return "Strongly-connected components [" + this.arcInspector.toString().toLowerCase()
+                + "]";
+    }
+
+}
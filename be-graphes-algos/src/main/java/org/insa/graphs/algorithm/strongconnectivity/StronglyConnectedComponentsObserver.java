@@ -0,0 +1,19 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.List;
+
+import org.insa.graphs.model.Node;
+
+public interface StronglyConnectedComponentsObserver {
+
+    /**
+     * Notify that the algorithm has found a new component. Components are found in
+     * reverse topological order, i.e. a component can only be reached from
+     * components found after it.
+     * 
+     * @param component ID of the component.
+     * @param nodes Nodes of the component.
+     */
+    public void notifyNewComponent(int component, List<Node> nodes);
+
+}
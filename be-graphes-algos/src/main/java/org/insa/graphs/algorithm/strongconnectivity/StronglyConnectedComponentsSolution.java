@@ -0,0 +1,132 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Node;
+
+public class StronglyConnectedComponentsSolution extends AbstractSolution {
+
+    // Component of each node, and size of each component.
+    private final int[] componentIds;
+    private final int[] sizes;
+
+    // ID of the largest component, or -1 if there is none.
+    private final int largestComponent;
+
+    /**
+     * Create a new solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param componentIds ID of the component of each node, in [0, number of
+     *        components).
+     * @param sizes Number of nodes of each component.
+     */
+    protected StronglyConnectedComponentsSolution(StronglyConnectedComponentsData data,
+            Status status, int[] componentIds, int[] sizes) {
+        super(data, status);
+        this.componentIds = componentIds;
+        this.sizes = sizes;
+        int largest = -1;
+        for (int component = 0; component < sizes.length; ++component) {
+            if (largest == -1 || sizes[component] > sizes[largest]) {
+                largest = component;
+            }
+        }
+        this.largestComponent = largest;
+    }
+
+    @Override
+    public StronglyConnectedComponentsData getInputData() {
+        return (StronglyConnectedComponentsData) super.getInputData();
+    }
+
+    /**
+     * @return Number of components.
+     */
+    public int getComponentCount() {
+        return sizes.length;
+    }
+
+    /**
+     * @param node Node of the graph.
+     * 
+     * @return ID of the component of the given node.
+     */
+    public int getComponentId(Node node) {
+        return componentIds[node.getId()];
+    }
+
+    /**
+     * @return ID of the component of each node, indexed by node ID. The returned
+     *         array is not copied.
+     */
+    public int[] getComponentIds() {
+        return componentIds;
+    }
+
+    /**
+     * @param component ID of a component.
+     * 
+     * @return Number of nodes in the given component.
+     */
+    public int getComponentSize(int component) {
+        return sizes[component];
+    }
+
+    /**
+     * @return ID of the component with the most nodes, or -1 if the graph is
+     *         empty.
+     */
+    public int getLargestComponent() {
+        return largestComponent;
+    }
+
+    /**
+     * <p>
+     * Check if each of the given nodes can be reached from the other one.
+     * </p>
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @param first First node.
+     * @param second Second node.
+     * 
+     * @return true if the two nodes are in the same component.
+     */
+    public boolean areStronglyConnected(Node first, Node second) {
+        return componentIds[first.getId()] == componentIds[second.getId()];
+    }
+
+    /**
+     * @return Nodes of each component, indexed by component ID, with the nodes
+     *         sorted by ID. The lists are created by each call.
+     */
+    public ArrayList<ArrayList<Node>> getComponents() {
+        ArrayList<ArrayList<Node>> components = new ArrayList<>(sizes.length);
+        for (int size: sizes) {
+            components.add(new ArrayList<>(size));
+        }
+        for (Node node: getInputData().getGraph().getNodes()) {
+            components.get(componentIds[node.getId()]).add(node);
+        }
+        return components;
+    }
+
+    @Override
+    public String toString() {
+        int nIsolated = 0;
+        for (int size: sizes) {
+            if (size == 1) {
+                nIsolated += 1;
+            }
+        }
+        return "Found " + sizes.length + " components (largest with "
+                + (largestComponent == -1 ? 0 : sizes[largestComponent]) + " nodes, "
+                + nIsolated + " isolated nodes) in " + getSolvingTime().toMillis() + " ms.";
+    }
+
+}
@@ -131,63 +131,46 @@ public class BinaryHeap<E extends Comparable<E>> implements PriorityQueue<E> {
         this.percolateUp(index);
     }
 
+    /**
+     * Find the index of the given element in the subtree rooted at the given
+     * index. Subtrees whose root is greater than x are not explored since x cannot
+     * be in them, but elements with the same key as x may have to be checked.
+     * 
+     * @param x Element to find.
+     * @param currentIndex Index of the root of the subtree to explore.
+     * 
+     * @return Index of the given element.
+     * 
+     * @throws ElementNotFoundException if the element is not in the subtree.
+     */
     public int findIndexOf(E x, int currentIndex) throws ElementNotFoundException {
-        /*
-         * (1) On teste si l'élément est au currentIndex (2) On teste si l'élément est
-         * au fils gauche du currentIndex (3) On teste si l'élément est au fils droit du
-         * currentIndex (4) On teste si l'élément peut être dans le sous arbre gauche
-         * (5) On teste si l'élément peut être dans le sous arbre droit
-         */
-
-        /* If the heap is empty, ElementNotFoundException raised */
-        if (this.currentSize == 0) {
+        int index = searchIndexOf(x, currentIndex);
+        if (index == -1) {
             throw new ElementNotFoundException(x);
         }
+        return index;
+    }
 
-        /* The element can be the first element of the heap */
-        if (x.compareTo(this.array.get(currentIndex)) == 0) {
+    /**
+     * @return Index of the given element in the subtree rooted at the given index,
+     *         or -1 if it was not found.
+     */
+    private int searchIndexOf(E x, int currentIndex) {
+        if (currentIndex >= this.currentSize) {
+            return -1;
+        }
+        E current = this.array.get(currentIndex);
+        if (current.equals(x)) {
             return currentIndex;
         }
-
-        /* The element can be on the right side of the tree */
-        int indRight = indexLeft(currentIndex) + 1;
-        boolean hasRight = indRight < this.currentSize;
-
-        if (hasRight) {
-            // The element can be the root of the right tree
-            if (x.compareTo(this.array.get(indRight)) == 0) {
-                return indRight;
-            }
-
-            else if (x.compareTo(this.array.get(indRight)) > 0) {
-                return findIndexOf(x, indRight);
-            }
-
-            else {
-                throw new ElementNotFoundException(x);
-            }
-
+        if (x.compareTo(current) < 0) {
+            return -1;
         }
-
-        /* The element can be on the left side of the tree */
-        int indLeft = indexLeft(currentIndex);
-        boolean hasLeft = indLeft < this.currentSize;
-
-        if (hasLeft) {
-            if (x.compareTo(this.array.get(indLeft)) == 0) {
-                return indLeft;
-            }
-
-            else if (x.compareTo(this.array.get(indLeft)) > 0) {
-                return findIndexOf(x, indLeft);
-            }
-
-            else {
-                throw new ElementNotFoundException(x);
-            }
+        int index = searchIndexOf(x, indexLeft(currentIndex));
+        if (index == -1) {
+            index = searchIndexOf(x, indexLeft(currentIndex) + 1);
         }
-
-        throw new ElementNotFoundException(x);
+        return index;
     }
 
     @Override
@@ -197,9 +180,6 @@ public class BinaryHeap<E extends Comparable<E>> implements PriorityQueue<E> {
         }
 
         int index = findIndexOf(x, 0);
-        if (index == -1) {
-            throw new ElementNotFoundException(x);
-        }
 
         E previousElement = this.array.get(--this.currentSize);
         this.arraySet(index, previousElement);
@@ -0,0 +1,273 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a binary heap containing elements of type E that keeps track of
+ * the position of each element in the heap.
+ * </p>
+ *
+ * <p>
+ * Each element is associated to a non-negative index by the indexer given at
+ * construction (e.g., the ID of the node of a label), and the position of the
+ * element in the heap is stored in an array indexed by this index. Two
+ * different elements in the heap must not have the same index. This allows
+ * {@link #remove(Comparable)}, {@link #contains(Comparable)} and
+ * {@link #decreaseKey(Comparable)} to find an element in constant time, instead
+ * of searching the heap.
+ * </p>
+ *
+ * <p>
+ * As for {@link BinaryHeap}, all comparisons are based on the compareTo
+ * method.
+ * </p>
+ */
+public class IndexedBinaryHeap<E extends Comparable<E>> implements PriorityQueue<E> {
+
+    // Position used for elements not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Indexer for the elements.
+    private final ToIntFunction<? super E> indexer;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array.
+    private E[] array;
+
+    // Position in the heap array of each element, by index.
+    private int[] positions;
+
+    /**
+     * Construct a new empty indexed binary heap.
+     *
+     * @param indexer Function associating each element to its index.
+     */
+    public IndexedBinaryHeap(ToIntFunction<? super E> indexer) {
+        this(indexer, 16);
+    }
+
+    /**
+     * Construct a new empty indexed binary heap that can contain elements whose
+     * index is lower than the given capacity without growing.
+     *
+     * @param indexer Function associating each element to its index.
+     * @param capacity Initial capacity of the heap (e.g., number of nodes in the
+     *        graph).
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedBinaryHeap(ToIntFunction<? super E> indexer, int capacity) {
+        this.indexer = indexer;
+        this.currentSize = 0;
+        this.array = (E[]) new Comparable<?>[Math.max(capacity, 1)];
+        this.positions = new int[Math.max(capacity, 1)];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Indexed binary heap to copy.
+     */
+    public IndexedBinaryHeap(IndexedBinaryHeap<E> heap) {
+        this.indexer = heap.indexer;
+        this.currentSize = heap.currentSize;
+        this.array = Arrays.copyOf(heap.array, heap.array.length);
+        this.positions = Arrays.copyOf(heap.positions, heap.positions.length);
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    protected int indexParent(int index) {
+        return (index - 1) / 2;
+    }
+
+    /**
+     * @return Index of the left child of the given index.
+     */
+    protected int indexLeft(int index) {
+        return index * 2 + 1;
+    }
+
+    /**
+     * Set an element at the given position and update its position.
+     *
+     * @param position Position at which the element should be set.
+     * @param value Element to set.
+     */
+    private void arraySet(int position, E value) {
+        this.array[position] = value;
+        this.positions[indexer.applyAsInt(value)] = position;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param position Position at which the percolate begins.
+     */
+    private void percolateUp(int position) {
+        E x = this.array[position];
+        for (; position > 0
+                && x.compareTo(this.array[indexParent(position)]) < 0; position = indexParent(
+                        position)) {
+            this.arraySet(position, this.array[indexParent(position)]);
+        }
+        this.arraySet(position, x);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param position Position at which the percolate begins.
+     */
+    private void percolateDown(int position) {
+        E x = this.array[position];
+        int child = indexLeft(position);
+        while (child < this.currentSize) {
+            if (child + 1 < this.currentSize
+                    && this.array[child + 1].compareTo(this.array[child]) < 0) {
+                child += 1;
+            }
+            if (this.array[child].compareTo(x) >= 0) {
+                break;
+            }
+            this.arraySet(position, this.array[child]);
+            position = child;
+            child = indexLeft(position);
+        }
+        this.arraySet(position, x);
+    }
+
+    /**
+     * @param x Element to look for.
+     *
+     * @return Position of the given element in the heap, or -1 if the element is
+     *         not in the heap.
+     */
+    private int positionOf(E x) {
+        int index = indexer.applyAsInt(x);
+        if (index < 0 || index >= this.positions.length) {
+            return NOT_IN_HEAP;
+        }
+        int position = this.positions[index];
+        if (position == NOT_IN_HEAP || this.array[position] != x) {
+            return NOT_IN_HEAP;
+        }
+        return position;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * Check if the given element is in this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to look for.
+     *
+     * @return true if the given element is in this heap.
+     */
+    public boolean contains(E x) {
+        return positionOf(x) != NOT_IN_HEAP;
+    }
+
+    @Override
+    public void insert(E x) {
+        int index = indexer.applyAsInt(x);
+        if (index >= this.positions.length) {
+            int oldLength = this.positions.length;
+            this.positions = Arrays.copyOf(this.positions, Math.max(index + 1, 2 * oldLength));
+            Arrays.fill(this.positions, oldLength, this.positions.length, NOT_IN_HEAP);
+        }
+        if (this.currentSize == this.array.length) {
+            this.array = Arrays.copyOf(this.array, 2 * this.array.length);
+        }
+        this.arraySet(this.currentSize, x);
+        this.percolateUp(this.currentSize++);
+    }
+
+    /**
+     * Notify the heap that the key of the given element has decreased, i.e. that
+     * the element must be moved up in the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element whose key has decreased.
+     *
+     * @throws ElementNotFoundException if the element is not in this heap.
+     */
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int position = positionOf(x);
+        if (position == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        this.percolateUp(position);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        int position = positionOf(x);
+        if (position == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        this.positions[indexer.applyAsInt(x)] = NOT_IN_HEAP;
+        E last = this.array[--this.currentSize];
+        this.array[this.currentSize] = null;
+        if (position != this.currentSize) {
+            this.arraySet(position, last);
+            if (position > 0 && last.compareTo(this.array[indexParent(position)]) < 0) {
+                this.percolateUp(position);
+            }
+            else {
+                this.percolateDown(position);
+            }
+        }
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.array[0];
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        remove(minItem);
+        return minItem;
+    }
+
+    /**
+     * Remove all the elements from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i>, where n is the current size of the heap.
+     * </p>
+     */
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.positions[indexer.applyAsInt(this.array[i])] = NOT_IN_HEAP;
+            this.array[i] = null;
+        }
+        this.currentSize = 0;
+    }
+
+}
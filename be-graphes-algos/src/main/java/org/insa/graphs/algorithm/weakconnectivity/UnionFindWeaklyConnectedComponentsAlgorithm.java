@@ -0,0 +1,179 @@
+package org.insa.graphs.algorithm.weakconnectivity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Weakly-connected components algorithm based on a concurrent union-find
+ * structure, without building an undirected copy of the graph.
+ * </p>
+ *
+ * <p>
+ * The arcs of the {@link CompactGraph} are split in ranges of nodes and merged
+ * in parallel on a {@link ForkJoinPool}. Unions are lock-free: the root with the
+ * greatest ID is attached under the other one with a compare-and-set, and finds
+ * use path halving. Since a root is always the smallest ID of its set, the
+ * components are found in the same order as by
+ * {@link WeaklyConnectedComponentsAlgorithm} (by smallest node ID), with the
+ * nodes of each component sorted by ID.
+ * </p>
+ */
+public class UnionFindWeaklyConnectedComponentsAlgorithm
+        extends WeaklyConnectedComponentsAlgorithm {
+
+    // Number of nodes below which a range of nodes is not split.
+    private static final int NODES_PER_TASK = 4096;
+
+    // Pool used to merge the arcs.
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new union-find algorithm using the common fork-join pool.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public UnionFindWeaklyConnectedComponentsAlgorithm(WeaklyConnectedComponentsData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new union-find algorithm using the given pool.
+     *
+     * @param data Input data for this algorithm.
+     * @param pool Pool used to merge the arcs.
+     */
+    public UnionFindWeaklyConnectedComponentsAlgorithm(WeaklyConnectedComponentsData data,
+            ForkJoinPool pool) {
+        super(data);
+        this.pool = pool;
+    }
+
+    @Override
+    protected WeaklyConnectedComponentsSolution doRun() {
+        final List<Node> nodes = getInputData().getGraph().getNodes();
+        final CompactGraph compact = getInputData().getGraph().getCompactGraph();
+        final int nbNodes = compact.size();
+
+        final AtomicIntegerArray parents = new AtomicIntegerArray(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            parents.set(node, node);
+        }
+        pool.invoke(new UnionTask(compact, parents, 0, nbNodes));
+
+        // Component of each node, numbered by smallest node ID. Roots are smaller
+        // than the other nodes of their set, so they are numbered first.
+        final int[] components = new int[nbNodes];
+        final int[] sizes = new int[nbNodes];
+        int nbComponents = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            int root = find(parents, node);
+            components[node] = root == node ? nbComponents++ : components[root];
+            sizes[components[node]] += 1;
+        }
+
+        ArrayList<ArrayList<Node>> result = new ArrayList<>(nbComponents);
+        for (int component = 0; component < nbComponents; ++component) {
+            result.add(new ArrayList<>(sizes[component]));
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            result.get(components[node]).add(nodes.get(node));
+        }
+
+        if (!getObservers().isEmpty()) {
+            for (ArrayList<Node> component: result) {
+                notifyStartComponent(component.get(0));
+                for (Node node: component) {
+                    notifyNewNodeInComponent(node);
+                }
+                notifyEndComponent(component);
+            }
+        }
+
+        return new WeaklyConnectedComponentsSolution(getInputData(), Status.OPTIMAL, result);
+    }
+
+    /**
+     * Find the root of the set of the given node, halving the path on the way.
+     */
+    private static int find(AtomicIntegerArray parents, int node) {
+        int parent = parents.get(node);
+        while (parent != node) {
+            int grandParent = parents.get(parent);
+            if (grandParent != parent) {
+                // May fail if another thread has changed the parent, which is fine.
+                parents.compareAndSet(node, parent, grandParent);
+            }
+            node = grandParent;
+            parent = parents.get(node);
+        }
+        return node;
+    }
+
+    /**
+     * Merge the sets of the two given nodes, attaching the root with the greatest
+     * ID under the other one.
+     */
+    private static void union(AtomicIntegerArray parents, int first, int second) {
+        while (true) {
+            int root1 = find(parents, first), root2 = find(parents, second);
+            if (root1 == root2) {
+                return;
+            }
+            if (root1 < root2) {
+                int tmp = root1;
+                root1 = root2;
+                root2 = tmp;
+            }
+            // Fails if root1 is not a root anymore, in which case we retry.
+            if (parents.compareAndSet(root1, root1, root2)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Task merging the extremities of the arcs of a range of nodes, split in
+     * halves until the range is small enough.
+     */
+    private static final class UnionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompactGraph compact;
+        private final AtomicIntegerArray parents;
+        private final int from, to;
+
+        UnionTask(CompactGraph compact, AtomicIntegerArray parents, int from, int to) {
+            this.compact = compact;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > NODES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new UnionTask(compact, parents, from, middle),
+                        new UnionTask(compact, parents, middle, to));
+                return;
+            }
+            for (int node = from; node < to; ++node) {
+                int lastArc = compact.getFirstArc(node + 1);
+                for (int arcId = compact.getFirstArc(node); arcId < lastArc; ++arcId) {
+                    union(parents, node, compact.getHead(arcId));
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompiledArcInspectorTest {
+
+    // Graph used for tests, with one-way and restricted roads.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RoadNetworkGenerator(2000, 7, 0.2, 0.2, 0.05).generate();
+    }
+
+    @Test
+    public void testSameAsInspector() {
+        CompactGraph compact = graph.getCompactGraph();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            CompiledArcInspector compiled = CompiledArcInspector.compile(graph, inspector);
+            assertSame(inspector, compiled.getInspector());
+            assertEquals(compact.getArcCount(), compiled.getArcCount());
+            int nbAllowed = 0;
+            for (int arcId = 0; arcId < compact.getArcCount(); ++arcId) {
+                boolean allowed = inspector.isAllowed(compact.getArc(arcId));
+                assertEquals(allowed, compiled.isAllowed(arcId));
+                if (allowed) {
+                    nbAllowed += 1;
+                    assertEquals(inspector.getCost(compact.getArc(arcId)), compiled.getCost(arcId),
+                            0);
+                }
+                else {
+                    assertEquals(Double.POSITIVE_INFINITY, compiled.getCost(arcId), 0);
+                }
+                assertEquals(compiled.getCost(arcId), compiled.getCosts()[arcId], 0);
+            }
+            assertEquals(nbAllowed, compiled.getAllowedArcCount());
+        }
+    }
+
+    @Test
+    public void testAccessRestrictedFilters() {
+        // Filters restricted to cars or pedestrians are compiled using their mask.
+        int nbRestricted = 0;
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            if (inspector instanceof ArcInspectorFactory.AccessRestrictedInspector) {
+                nbRestricted += 1;
+            }
+        }
+        assertEquals(3, nbRestricted);
+
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(1);
+        CompiledArcInspector compiled = CompiledArcInspector.compile(graph, inspector);
+        assertTrue(compiled.getAllowedArcCount() < graph.getCompactGraph().getArcCount());
+    }
+
+    @Test
+    public void testCached() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        CompiledArcInspector compiled = CompiledArcInspector.get(graph, inspector);
+        assertSame(compiled, CompiledArcInspector.get(graph, inspector));
+        assertNotSame(compiled,
+                CompiledArcInspector.get(graph, ArcInspectorFactory.getAllFilters().get(1)));
+
+        AbstractInputData data = new AbstractInputData(graph, inspector) {
+        };
+        assertSame(compiled, data.getCompiledArcInspector());
+    }
+
+    /**
+     * @return A new inspector delegating to the given one.
+     */
+    private static ArcInspector wrap(final ArcInspector base) {
+        return new ArcInspector() {
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return base.isAllowed(arc);
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return base.getCost(arc);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return base.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return base.getMode();
+            }
+        };
+    }
+
+    @Test
+    public void testUnregisteredNotCompiled() {
+        CompactGraph compact = graph.getCompactGraph();
+        ArcInspector base = ArcInspectorFactory.getAllFilters().get(3);
+        assertTrue(CompiledArcInspector.get(graph, base).isCompiled());
+
+        ArcInspector inspector = wrap(base);
+        CompiledArcInspector direct = CompiledArcInspector.get(graph, inspector);
+        assertFalse(direct.isCompiled());
+        assertNotSame(direct, CompiledArcInspector.get(graph, inspector));
+
+        CompiledArcInspector compiled = CompiledArcInspector.get(graph, base);
+        for (int arcId = 0; arcId < compact.getArcCount(); ++arcId) {
+            assertEquals(compiled.isAllowed(arcId), direct.isAllowed(arcId));
+            assertEquals(compiled.getCost(arcId), direct.getCost(arcId), 0);
+        }
+        assertEquals(compiled.getAllowedArcCount(), direct.getAllowedArcCount());
+    }
+
+    /**
+     * Register and compile (and cache) a new inspector that is not referenced
+     * anywhere else.
+     *
+     * @return Weak reference to the compiled inspector.
+     */
+    private static WeakReference<CompiledArcInspector> compileThrowawayInspector() {
+        ArcInspector inspector = wrap(ArcInspectorFactory.getAllFilters().get(0));
+        CompiledArcInspector.register(inspector);
+        CompiledArcInspector compiled = CompiledArcInspector.get(graph, inspector);
+        assertTrue(compiled.isCompiled());
+        assertSame(compiled, CompiledArcInspector.get(graph, inspector));
+        return new WeakReference<>(compiled);
+    }
+
+    @Test
+    public void testReleasedWithInspector() throws InterruptedException {
+        WeakReference<CompiledArcInspector> compiled = compileThrowawayInspector();
+        for (int i = 0; i < 100 && compiled.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+
+            // Stale entries of the cache are removed when it is accessed.
+            CompiledArcInspector.get(graph, ArcInspectorFactory.getAllFilters().get(0));
+        }
+        assertNull(compiled.get());
+    }
+
+}
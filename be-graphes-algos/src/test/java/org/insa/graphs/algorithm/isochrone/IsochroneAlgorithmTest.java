@@ -0,0 +1,135 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixData;
+import org.insa.graphs.algorithm.shortestpath.RegisteredShortestPathAlgorithmsTest;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IsochroneAlgorithmTest {
+
+    // Graph and origins used for tests.
+    private static Graph graph;
+    private static List<Node> origins;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(15, 20, 5);
+        origins = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i += 37) {
+            origins.add(graph.get(i));
+        }
+    }
+
+    @Test
+    public void testSameNodesAsFullDijkstra() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            double[][] expected = new DistanceMatrixAlgorithm(
+                    new DistanceMatrixData(graph, origins, graph.getNodes(), inspector)).run()
+                            .getCosts();
+            for (int i = 0; i < origins.size(); ++i) {
+                // Largest finite cost, so that the last budget covers all the
+                // reachable nodes.
+                double maxCost = 0;
+                for (double cost: expected[i]) {
+                    if (!Double.isInfinite(cost)) {
+                        maxCost = Math.max(maxCost, cost);
+                    }
+                }
+                for (double ratio: new double[] { 0, 0.1, 0.5, 1 }) {
+                    double budget = ratio * maxCost;
+                    IsochroneSolution solution = new IsochroneAlgorithm(
+                            new IsochroneData(graph, origins.get(i), budget, inspector)).run();
+
+                    int nbExpected = 0;
+                    for (double cost: expected[i]) {
+                        if (cost <= budget) {
+                            nbExpected += 1;
+                        }
+                    }
+                    assertEquals(nbExpected, solution.size());
+                    assertEquals(origins.get(i).getId(), solution.getNodeIds()[0]);
+                    for (int j = 0; j < solution.size(); ++j) {
+                        int node = solution.getNodeIds()[j];
+                        assertEquals(expected[i][node], solution.getCosts()[j], 1e-6);
+                        assertEquals(node, solution.getNodes().get(j).getId());
+                        if (j > 0) {
+                            assertTrue(solution.getCosts()[j - 1] <= solution.getCosts()[j]);
+                        }
+                    }
+                    assertTrue(solution.getMaximumCost() <= budget);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBoundary() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        for (Node origin: origins) {
+            IsochroneSolution solution = new IsochroneAlgorithm(
+                    new IsochroneData(graph, origin, 400, inspector)).run();
+            List<Point> hull = solution.getBoundary();
+            if (solution.size() < 3) {
+                continue;
+            }
+            // Collinear nodes give a degenerate boundary with only two vertices.
+            assertTrue(hull.size() >= 2);
+            // All the reachable nodes are inside or on the boundary.
+            for (Node node: solution.getNodes()) {
+                Point point = node.getPoint();
+                for (int k = 0; k < hull.size(); ++k) {
+                    Point a = hull.get(k), b = hull.get((k + 1) % hull.size());
+                    double cross = ((double) b.getLongitude() - a.getLongitude())
+                            * ((double) point.getLatitude() - a.getLatitude())
+                            - ((double) b.getLatitude() - a.getLatitude())
+                                    * ((double) point.getLongitude() - a.getLongitude());
+                    assertTrue(cross >= -1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testObserver() {
+        final List<Double> costs = new ArrayList<>();
+        IsochroneAlgorithm algorithm = new IsochroneAlgorithm(new IsochroneData(graph,
+                origins.get(1), 1000, ArcInspectorFactory.getAllFilters().get(2)));
+        algorithm.addObserver(new IsochroneObserver() {
+
+            @Override
+            public void notifyOriginProcessed(Node node) {
+                assertEquals(origins.get(1), node);
+            }
+
+            @Override
+            public void notifyNodeReached(Node node, double cost) {
+                costs.add(cost);
+            }
+
+        });
+        IsochroneSolution solution = algorithm.run();
+        assertEquals(solution.size(), costs.size());
+        List<Double> sorted = new ArrayList<>(costs);
+        Collections.sort(sorted);
+        assertEquals(sorted, costs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        new IsochroneData(graph, origins.get(0), -1, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.insa.graphs.algorithm.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.RegisteredShortestPathAlgorithmsTest;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DistanceMatrixAlgorithmTest {
+
+    // Graph, sources and targets used for tests.
+    private static Graph graph;
+    private static List<Node> sources, targets;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(12, 15, 7);
+        Random random = new Random(17);
+        sources = new ArrayList<>();
+        targets = new ArrayList<>();
+        for (int i = 0; i < 9; ++i) {
+            sources.add(graph.get(random.nextInt(graph.size())));
+        }
+        for (int i = 0; i < 13; ++i) {
+            targets.add(graph.get(random.nextInt(graph.size())));
+        }
+        // Duplicated target, and a source that is also a target.
+        targets.add(targets.get(0));
+        targets.add(sources.get(0));
+    }
+
+    private static double getCost(Path path, ArcInspector inspector) {
+        double cost = 0;
+        for (Arc arc: path.getArcs()) {
+            cost += inspector.getCost(arc);
+        }
+        return cost;
+    }
+
+    @Test
+    public void testSameCostsAsDijkstra() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+                DistanceMatrixSolution solution = new DistanceMatrixAlgorithm(
+                        new DistanceMatrixData(graph, sources, targets, inspector, true), pool)
+                                .run();
+                assertTrue(solution.isFeasible());
+                assertTrue(solution.hasPaths());
+                for (int i = 0; i < sources.size(); ++i) {
+                    for (int j = 0; j < targets.size(); ++j) {
+                        ShortestPathSolution expected = new DijkstraAlgorithm(
+                                new ShortestPathData(graph, sources.get(i), targets.get(j),
+                                        inspector)).run();
+                        Path path = solution.getPath(i, j);
+                        if (expected.isFeasible()) {
+                            double cost = getCost(expected.getPath(), inspector);
+                            assertEquals(cost, solution.getCost(i, j), 1e-6);
+                            assertEquals(cost, getCost(path, inspector), 1e-6);
+                            assertEquals(sources.get(i), path.getOrigin());
+                            if (!path.getArcs().isEmpty()) {
+                                assertEquals(targets.get(j), path.getDestination());
+                            }
+                        }
+                        else {
+                            assertEquals(Double.POSITIVE_INFINITY, solution.getCost(i, j), 0);
+                            assertNull(path);
+                        }
+                    }
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testObserverAndWithoutPaths() {
+        final List<Node> computed = new ArrayList<>();
+        DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(new DistanceMatrixData(
+                graph, sources, Arrays.asList(graph.get(0)),
+                ArcInspectorFactory.getAllFilters().get(0)));
+        algorithm.addObserver((source, nbComputedRows) -> {
+            computed.add(source);
+            assertEquals(computed.size(), nbComputedRows);
+        });
+        DistanceMatrixSolution solution = algorithm.run();
+        assertFalse(solution.hasPaths());
+        assertEquals(sources.size(), solution.getCosts().length);
+        assertEquals(1, solution.getCosts()[0].length);
+        assertEquals(sources.size(), computed.size());
+        assertTrue(computed.containsAll(sources));
+    }
+
+}
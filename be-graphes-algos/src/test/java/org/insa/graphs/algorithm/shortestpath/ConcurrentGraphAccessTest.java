@@ -0,0 +1,130 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Stress tests running many searches concurrently on a single shared graph.
+ */
+public class ConcurrentGraphAccessTest {
+
+    // Number of threads and number of queries run by each thread.
+    private static final int NB_THREADS = 16, NB_QUERIES_PER_THREAD = 40;
+
+    private static ExecutorService executor;
+
+    // Graph published to the threads without any synchronization.
+    private static Graph sharedGraph;
+
+    @BeforeClass
+    public static void initAll() {
+        executor = Executors.newFixedThreadPool(NB_THREADS);
+    }
+
+    @AfterClass
+    public static void closeAll() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run the given tasks on all the threads at the same time.
+     */
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(NB_THREADS);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < NB_THREADS; ++i) {
+            futures.add(executor.submit(() -> {
+                barrier.await();
+                return task.call();
+            }));
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future: futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    @Test
+    public void testCompactGraphCreatedOnce() throws Exception {
+        for (int i = 0; i < 5; ++i) {
+            Graph graph = new RoadNetworkGenerator(5000, i).generate();
+            List<CompactGraph> compacts = runConcurrently(graph::getCompactGraph);
+            for (CompactGraph compact: compacts) {
+                assertSame(graph.getCompactGraph(), compact);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentDijkstra() throws Exception {
+        // The graph is created on another thread and read through a plain static
+        // field, its nodes are safely published by the final fields of the graph.
+        executor.submit(() -> {
+            sharedGraph = new RoadNetworkGenerator(20000, 17).generate();
+        }).get();
+        final Graph graph = sharedGraph;
+
+        final List<ShortestPathData> queries = new ArrayList<>();
+        Random random = new Random(23);
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        for (int i = 0; i < NB_QUERIES_PER_THREAD; ++i) {
+            queries.add(new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())),
+                    inspectors.get(i % inspectors.size())));
+        }
+
+        // Every thread runs the same queries in a different order, while reading
+        // the geometry of the arcs (decoded on demand).
+        List<double[]> results = runConcurrently(() -> {
+            double[] costs = new double[queries.size()];
+            int offset = (int) (Thread.currentThread().getId() % queries.size());
+            for (int i = 0; i < queries.size(); ++i) {
+                int index = (i + offset) % queries.size();
+                ShortestPathSolution solution = new DijkstraAlgorithm(queries.get(index)).run();
+                costs[index] = Double.POSITIVE_INFINITY;
+                if (solution.getStatus() == Status.OPTIMAL) {
+                    costs[index] = solution.getPath().getLength();
+                    for (Arc arc: solution.getPath().getArcs()) {
+                        List<Point> points = arc.getPoints();
+                        assertEquals(arc.getOrigin().getPoint().getLongitude(),
+                                points.get(0).getLongitude(), 1e-5);
+                    }
+                }
+            }
+            return costs;
+        });
+
+        for (int i = 0; i < queries.size(); ++i) {
+            ShortestPathSolution expected = new DijkstraAlgorithm(queries.get(i)).run();
+            double cost = expected.getStatus() == Status.OPTIMAL
+                    ? expected.getPath().getLength()
+                    : Double.POSITIVE_INFINITY;
+            for (double[] costs: results) {
+                assertEquals(cost, costs[i], 1e-6);
+            }
+        }
+    }
+
+}
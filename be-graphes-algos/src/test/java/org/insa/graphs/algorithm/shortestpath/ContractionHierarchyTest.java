@@ -0,0 +1,87 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ContractionHierarchyTest {
+
+    // Synthetic graph used for tests.
+    private static Graph graph;
+
+    // Filters used for tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(10, 10, 7);
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    @Test
+    public void testRanksArePermutation() {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, inspectors.get(0));
+        boolean[] seen = new boolean[graph.size()];
+        for (int node = 0; node < graph.size(); ++node) {
+            seen[hierarchy.getRank(node)] = true;
+        }
+        for (boolean value: seen) {
+            assertTrue(value);
+        }
+    }
+
+    @Test
+    public void testEdgesAreSplitAndUnpacked() {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, inspectors.get(2));
+        assertTrue(hierarchy.getShortcutCount() > 0);
+        int nbEdges = 0;
+        for (int node = 0; node < graph.size(); ++node) {
+            for (int i = hierarchy.getFirstUpwardEdge(node); i < hierarchy
+                    .getFirstUpwardEdge(node + 1); ++i) {
+                int edge = hierarchy.getUpwardEdge(i);
+                assertEquals(node, hierarchy.getTail(edge));
+                assertTrue(hierarchy.getRank(node) < hierarchy.getRank(hierarchy.getHead(edge)));
+                ++nbEdges;
+            }
+            for (int i = hierarchy.getFirstDownwardEdge(node); i < hierarchy
+                    .getFirstDownwardEdge(node + 1); ++i) {
+                int edge = hierarchy.getDownwardEdge(i);
+                assertEquals(node, hierarchy.getHead(edge));
+                assertTrue(hierarchy.getRank(node) < hierarchy.getRank(hierarchy.getTail(edge)));
+                ++nbEdges;
+            }
+        }
+        assertEquals(hierarchy.getEdgeCount(), nbEdges);
+
+        // Unpacked edges are consecutive arcs with the same cost as the edge.
+        for (int edge = 0; edge < hierarchy.getEdgeCount(); ++edge) {
+            double[] cost = { 0 };
+            int[] current = { hierarchy.getTail(edge) };
+            hierarchy.unpack(edge, arcId -> {
+                assertEquals(current[0], graph.getCompactGraph().getTail(arcId));
+                current[0] = graph.getCompactGraph().getHead(arcId);
+                cost[0] += inspectors.get(2).getCost(graph.getCompactGraph().getArc(arcId));
+            });
+            assertEquals(hierarchy.getHead(edge), current[0]);
+            assertEquals(hierarchy.getCost(edge), cost[0], 1e-9);
+        }
+    }
+
+    @Test
+    public void testHierarchiesAreCached() {
+        assertSame(ContractionHierarchy.get(graph, inspectors.get(1)),
+                ContractionHierarchy.get(graph, inspectors.get(1)));
+        assertNotSame(ContractionHierarchy.get(graph, inspectors.get(1)),
+                ContractionHierarchy.get(graph, inspectors.get(3)));
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixData;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DeltaSteppingAlgorithmTest {
+
+    // Graph used for tests, and pool running the algorithm.
+    private static Graph graph;
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RoadNetworkGenerator(5000, 9).generate();
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void closeAll() {
+        pool.shutdown();
+    }
+
+    /**
+     * Check that the given tree has the given costs, and that its parent arcs are
+     * consistent with them.
+     */
+    private static void assertValidTree(ShortestPathTree tree, double[] expected,
+            ArcInspector inspector) {
+        for (Node node: tree.getGraph().getNodes()) {
+            // Costs must be exactly the same as the ones of Dijkstra.
+            assertEquals(expected[node.getId()], tree.getCost(node), 0);
+            Arc parent = tree.getParentArc(node);
+            if (node.equals(tree.getOrigin()) || !tree.isReachable(node)) {
+                assertNull(parent);
+                continue;
+            }
+            assertEquals(node, parent.getDestination());
+            assertTrue(inspector.isAllowed(parent));
+            assertEquals(tree.getCost(node),
+                    tree.getCost(parent.getOrigin()) + inspector.getCost(parent), 0);
+        }
+    }
+
+    /**
+     * @return Costs from the given origin to all the nodes, computed with
+     *         Dijkstra.
+     */
+    private static double[] dijkstraCosts(Graph graph, Node origin, ArcInspector inspector) {
+        return new DistanceMatrixAlgorithm(new DistanceMatrixData(graph,
+                Collections.singletonList(origin), graph.getNodes(), inspector)).run()
+                        .getCosts()[0];
+    }
+
+    @Test
+    public void testSameTreeAsDijkstra() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int origin: new int[] { 0, graph.size() / 3, graph.size() - 1 }) {
+                ShortestPathData data = new ShortestPathData(graph, graph.get(origin),
+                        graph.get(graph.size() / 2), inspector);
+                double[] expected = dijkstraCosts(graph, data.getOrigin(), inspector);
+                assertValidTree(new DeltaSteppingAlgorithm(data, pool).computeTree(), expected,
+                        inspector);
+            }
+        }
+    }
+
+    @Test
+    public void testBucketWidths() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ShortestPathData data = new ShortestPathData(graph, graph.get(7), graph.get(11),
+                inspector);
+        double[] expected = dijkstraCosts(graph, data.getOrigin(), inspector);
+        for (double delta: new double[] { 1, 50, 1000, 1e9 }) {
+            assertValidTree(new DeltaSteppingAlgorithm(data, pool, delta).computeTree(),
+                    expected, inspector);
+        }
+    }
+
+    @Test
+    public void testZeroLengthArcs() {
+        RoadInformation info = new RoadInformation(RoadType.RESIDENTIAL,
+                new AccessRestrictions(), false, 50, "");
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            nodes.add(new Node(i, new Point(1.4f + 0.001f * i, 43.5f)));
+        }
+        int[][] arcs = { { 0, 1 }, { 1, 2 }, { 2, 3 }, { 3, 2 }, { 2, 4 }, { 4, 5 } };
+        float[] lengths = { 10, 0, 0, 0, 0, 20 };
+        for (int i = 0; i < arcs.length; ++i) {
+            Node.linkNodes(nodes.get(arcs[i][0]), nodes.get(arcs[i][1]), lengths[i], info,
+                    new ArrayList<>(Arrays.asList(nodes.get(arcs[i][0]).getPoint(),
+                            nodes.get(arcs[i][1]).getPoint())));
+        }
+        Graph zeros = new Graph("zeros", "", nodes, null);
+
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ShortestPathData data = new ShortestPathData(zeros, zeros.get(0), zeros.get(5),
+                inspector);
+        ShortestPathTree tree = new DeltaSteppingAlgorithm(data, pool).computeTree();
+        assertValidTree(tree, dijkstraCosts(zeros, zeros.get(0), inspector), inspector);
+        assertEquals(4, tree.getPath(zeros.get(5)).getArcs().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBucketWidth() {
+        new DeltaSteppingAlgorithm(new ShortestPathData(graph, graph.get(0), graph.get(1),
+                ArcInspectorFactory.getAllFilters().get(0)), pool, 0);
+    }
+
+}
@@ -0,0 +1,130 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.LandmarkTable.Selection;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphReordering;
+import org.insa.graphs.model.GraphReordering.Order;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LandmarkTableTest {
+
+    // Synthetic graph used for tests.
+    private static Graph graph;
+
+    // Filter used for tests (fastest path, only cars).
+    private static ArcInspector inspector;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(12, 12, 3);
+        inspector = ArcInspectorFactory.getAllFilters().get(3);
+    }
+
+    /**
+     * Check that the bounds of the given table are lower than the cost of shortest
+     * paths computed by Bellman-Ford.
+     */
+    private static void checkLowerBounds(LandmarkTable table) {
+        Random random = new Random(17);
+        for (int i = 0; i < 30; ++i) {
+            int origin = random.nextInt(graph.size()), target = random.nextInt(graph.size());
+            ShortestPathSolution solution = new BellmanFordAlgorithm(new ShortestPathData(graph,
+                    graph.get(origin), graph.get(target), inspector)).run();
+            double cost = solution.isFeasible() ? solution.getPath().getMinimumTravelTime()
+                    : Double.POSITIVE_INFINITY;
+            for (int landmark = 0; landmark < table.getLandmarkCount(); ++landmark) {
+                assertTrue(table.getLowerBound(landmark, origin, target) <= cost + 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testFarthestLowerBounds() {
+        LandmarkTable table = LandmarkTable.compute(graph, inspector, 6, Selection.FARTHEST, 1);
+        assertEquals(6, table.getLandmarkCount());
+        checkLowerBounds(table);
+    }
+
+    @Test
+    public void testAvoidLowerBounds() {
+        LandmarkTable table = LandmarkTable.compute(graph, inspector, 6, Selection.AVOID, 1);
+        assertEquals(6, table.getLandmarkCount());
+        checkLowerBounds(table);
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        LandmarkTable table = LandmarkTable.compute(graph, inspector, 4, Selection.AVOID, 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes), graph);
+        LandmarkTable read = LandmarkTable.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), graph);
+        assertEquals(table.getLandmarkCount(), read.getLandmarkCount());
+        for (int landmark = 0; landmark < table.getLandmarkCount(); ++landmark) {
+            assertEquals(table.getLandmark(landmark), read.getLandmark(landmark));
+            for (int node = 0; node < graph.size(); node += 7) {
+                assertEquals(table.getLowerBound(landmark, node, 0),
+                        read.getLowerBound(landmark, node, 0), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteReadRenumbered() throws IOException {
+        Graph renumbered = GraphReordering.reorder(graph, Order.HILBERT);
+        LandmarkTable table = LandmarkTable.compute(graph, inspector, 4, Selection.AVOID, 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes), graph);
+        LandmarkTable read = LandmarkTable.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), renumbered);
+
+        // Bounds are the same for the same nodes of the map, whatever their ID.
+        for (int landmark = 0; landmark < table.getLandmarkCount(); ++landmark) {
+            assertEquals(table.getLandmark(landmark),
+                    renumbered.getOriginalId(read.getLandmark(landmark)));
+            for (int node = 0; node < graph.size(); node += 7) {
+                int target = 5;
+                assertEquals(table.getLowerBound(landmark, node, target),
+                        read.getLowerBound(landmark,
+                                renumbered.getByOriginalId(node).getId(),
+                                renumbered.getByOriginalId(target).getId()),
+                        0);
+            }
+        }
+    }
+
+    @Test
+    public void testLoadOrCompute() throws IOException {
+        File mapFile = folder.newFile("synthetic.mapgr");
+        LandmarkTable computed = LandmarkTable.loadOrCompute(mapFile, "cars-time", graph,
+                inspector);
+        assertTrue(LandmarkTable.getLandmarkFile(mapFile, "cars-time").isFile());
+        assertSame(computed, LandmarkTable.get(graph, inspector));
+
+        LandmarkTable loaded = LandmarkTable.loadOrCompute(mapFile, "cars-time", graph,
+                inspector);
+        assertEquals(computed.getLandmarkCount(), loaded.getLandmarkCount());
+        assertSame(loaded, LandmarkTable.get(graph, inspector));
+    }
+
+}
@@ -0,0 +1,199 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Check every shortest-path algorithm registered in {@link AlgorithmFactory}
+ * against Bellman-Ford on a small synthetic graph, for every arc filter.
+ */
+@RunWith(Parameterized.class)
+public class RegisteredShortestPathAlgorithmsTest {
+
+    // Number of random queries for each algorithm and filter.
+    private static final int NB_QUERIES = 40;
+
+    // Synthetic graph used for tests.
+    private static Graph graph;
+
+    @Parameters(name = "{0} / {1}")
+    public static Collection<Object[]> data() {
+        Collection<Object[]> objects = new ArrayList<>();
+        for (String name: AlgorithmFactory.getAlgorithmNames(ShortestPathAlgorithm.class)) {
+            if (AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class,
+                    name) == BellmanFordAlgorithm.class) {
+                continue;
+            }
+            for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+                objects.add(new Object[] { name, inspector });
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Create a grid-like graph with random one-way roads, speeds, lengths and
+     * roads forbidden to cars. Arc lengths are never lower than the distance
+     * between their extremities so that A* heuristics remain admissible.
+     *
+     * @param nbRows Number of rows of the grid.
+     * @param nbColumns Number of columns of the grid.
+     * @param seed Seed for the random generator.
+     *
+     * @return A new synthetic graph.
+     */
+    public static Graph createGridGraph(int nbRows, int nbColumns, long seed) {
+        Random random = new Random(seed);
+
+        EnumMap<AccessMode, AccessRestriction> noCars = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            noCars.put(mode, AccessRestriction.ALLOWED);
+        }
+        noCars.put(AccessMode.MOTORCAR, AccessRestriction.FORBIDDEN);
+
+        List<RoadInformation> infos = new ArrayList<>();
+        for (int speed: new int[] { 30, 50, 70, 90 }) {
+            for (boolean oneWay: new boolean[] { false, true }) {
+                infos.add(new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                        oneWay, speed, ""));
+            }
+        }
+        infos.add(new RoadInformation(RoadType.PEDESTRIAN, new AccessRestrictions(noCars), false,
+                10, ""));
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < nbRows * nbColumns; ++i) {
+            nodes.add(new Node(i, new Point(1.4f + 0.002f * (i % nbColumns),
+                    43.5f + 0.002f * (i / nbColumns))));
+        }
+        for (int i = 0; i < nbRows * nbColumns; ++i) {
+            int row = i / nbColumns, column = i % nbColumns;
+            List<Integer> neighbors = new ArrayList<>();
+            if (column + 1 < nbColumns) {
+                neighbors.add(i + 1);
+            }
+            if (row + 1 < nbRows) {
+                neighbors.add(i + nbColumns);
+            }
+            if (row + 1 < nbRows && column + 1 < nbColumns && random.nextInt(4) == 0) {
+                neighbors.add(i + nbColumns + 1);
+            }
+            for (int neighbor: neighbors) {
+                // Drop some roads so that the graph is not too regular.
+                if (random.nextInt(10) == 0) {
+                    continue;
+                }
+                Node origin = nodes.get(i), destination = nodes.get(neighbor);
+                if (random.nextBoolean()) {
+                    origin = nodes.get(neighbor);
+                    destination = nodes.get(i);
+                }
+                float length = (float) (origin.getPoint().distanceTo(destination.getPoint())
+                        * (1.01 + random.nextDouble()));
+                ArrayList<Point> points = new ArrayList<>();
+                points.add(origin.getPoint());
+                points.add(destination.getPoint());
+                Node.linkNodes(origin, destination, length,
+                        infos.get(random.nextInt(infos.size())), points);
+            }
+        }
+        return new Graph("synthetic", "Synthetic grid", nodes, null);
+    }
+
+    @BeforeClass
+    public static void initAll() {
+        graph = createGridGraph(15, 20, 31);
+    }
+
+    @Parameter(0)
+    public String algorithmName;
+
+    @Parameter(1)
+    public ArcInspector inspector;
+
+    /**
+     * Run the registered algorithm with the given name on the given data.
+     */
+    private ShortestPathSolution run(String name, ShortestPathData data) throws Exception {
+        ShortestPathAlgorithm algorithm = (ShortestPathAlgorithm) AlgorithmFactory.createAlgorithm(
+                AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class, name), data);
+        return algorithm.run();
+    }
+
+    /**
+     * Compute the cost of the given solution according to its input data, checking
+     * that its arcs are allowed and consecutive.
+     *
+     * @return Cost of the given solution.
+     */
+    private static double getCost(ShortestPathSolution solution) {
+        double cost = 0;
+        Node current = solution.getInputData().getOrigin();
+        for (Arc arc: solution.getPath().getArcs()) {
+            assertEquals(current, arc.getOrigin());
+            assertTrue(solution.getInputData().isAllowed(arc));
+            cost += solution.getInputData().getCost(arc);
+            current = arc.getDestination();
+        }
+        assertEquals(solution.getInputData().getDestination(), current);
+        return cost;
+    }
+
+    @Test
+    public void testSameCostAsBellmanFord() throws Exception {
+        Random random = new Random(algorithmName.hashCode() ^ inspector.toString().hashCode());
+        for (int i = 0; i < NB_QUERIES; ++i) {
+            Node origin = graph.get(random.nextInt(graph.size()));
+            Node destination = graph.get(random.nextInt(graph.size()));
+            if (origin.equals(destination)) {
+                continue;
+            }
+            ShortestPathData data = new ShortestPathData(graph, origin, destination, inspector);
+            ShortestPathSolution expected = new BellmanFordAlgorithm(data).run();
+            ShortestPathSolution actual = run(algorithmName, data);
+
+            assertEquals(data.toString(), expected.getStatus(), actual.getStatus());
+            if (expected.isFeasible()) {
+                assertEquals(data.toString(), getCost(expected), getCost(actual),
+                        1e-6 * getCost(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testOriginEqualsDestination() throws Exception {
+        Node node = graph.get(graph.size() / 2);
+        ShortestPathSolution solution = run(algorithmName,
+                new ShortestPathData(graph, node, node, inspector));
+        assertEquals(Status.OPTIMAL, solution.getStatus());
+        assertEquals(1, solution.getPath().size());
+        assertEquals(node, solution.getPath().getOrigin());
+    }
+
+}
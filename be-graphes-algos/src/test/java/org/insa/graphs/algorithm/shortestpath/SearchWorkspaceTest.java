@@ -0,0 +1,161 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SearchWorkspaceTest {
+
+    @Test
+    public void testResetForgetsNodes() {
+        SearchWorkspace workspace = new SearchWorkspace(10);
+        workspace.reach(3, 1.5, 0, 7);
+        workspace.reach(4, 0.5, 0, SearchWorkspace.NO_ARC);
+        assertEquals(4, workspace.settleMin());
+        assertTrue(workspace.isReached(3));
+        assertTrue(workspace.isSettled(4));
+        assertEquals(7, workspace.getParentArc(3));
+
+        workspace.reset();
+        assertTrue(workspace.isHeapEmpty());
+        for (int node = 0; node < 10; ++node) {
+            assertFalse(workspace.isReached(node));
+            assertFalse(workspace.isSettled(node));
+            assertEquals(Double.POSITIVE_INFINITY, workspace.getCost(node), 0);
+            assertEquals(SearchWorkspace.NO_ARC, workspace.getParentArc(node));
+        }
+    }
+
+    @Test
+    public void testSettleInOrder() {
+        Random random = new Random(42);
+        int size = 200;
+        double[] costs = new double[size];
+        SearchWorkspace workspace = new SearchWorkspace(size);
+        for (int node = 0; node < size; ++node) {
+            costs[node] = random.nextDouble();
+            workspace.reach(node, costs[node] + 1, random.nextDouble(), SearchWorkspace.NO_ARC);
+        }
+        // Decrease half of the costs, with a null estimate
+        for (int node = 0; node < size; node += 2) {
+            workspace.decreaseCost(node, costs[node] - workspace.getEstimate(node),
+                    SearchWorkspace.NO_ARC);
+        }
+        for (int node = 1; node < size; node += 2) {
+            costs[node] += 1 + workspace.getEstimate(node);
+        }
+        double[] sorted = Arrays.copyOf(costs, size);
+        Arrays.sort(sorted);
+        for (int i = 0; i < size; ++i) {
+            assertEquals(sorted[i], workspace.peekMinKey(), 1e-9);
+            int node = workspace.settleMin();
+            assertEquals(costs[node], workspace.getCost(node) + workspace.getEstimate(node), 1e-9);
+        }
+        assertTrue(workspace.isHeapEmpty());
+    }
+
+    @Test
+    public void testAcquireReusesReleasedWorkspaces() {
+        SearchWorkspace first = SearchWorkspace.acquire(10);
+        first.reach(5, 0, 0, SearchWorkspace.NO_ARC);
+
+        // Nested acquisition must not return a workspace in use.
+        SearchWorkspace second = SearchWorkspace.acquire(20);
+        assertNotSame(first, second);
+        assertTrue(second.capacity() >= 20);
+        second.release();
+        first.release();
+
+        SearchWorkspace third = SearchWorkspace.acquire(100);
+        assertSame(first, third);
+        assertTrue(third.capacity() >= 100);
+        assertFalse(third.isReached(5));
+        third.release();
+    }
+
+    @Test
+    public void testSharedPool() throws InterruptedException {
+        SearchWorkspace.Pool pool = new SearchWorkspace.Pool(1);
+        SearchWorkspace[] workspaces = new SearchWorkspace[3];
+
+        // Workspaces released by a thread are borrowed by another thread.
+        Thread first = new Thread(() -> SearchWorkspace.callWithPool(pool, () -> {
+            workspaces[0] = SearchWorkspace.acquire(10);
+            workspaces[1] = SearchWorkspace.acquire(10);
+            workspaces[0].release();
+            workspaces[1].release();
+            return null;
+        }));
+        first.start();
+        first.join();
+        assertEquals(1, pool.size());
+
+        Thread second = new Thread(() -> SearchWorkspace.callWithPool(pool, () -> {
+            workspaces[2] = SearchWorkspace.acquire(10);
+            workspaces[2].release();
+            return null;
+        }));
+        second.start();
+        second.join();
+        assertSame(workspaces[0], workspaces[2]);
+        assertEquals(1, pool.size());
+
+        // Outside of the shared pool, the workspaces of the thread are used.
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        assertNotSame(workspaces[0], workspace);
+        workspace.release();
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testThreadPoolBounded() throws InterruptedException {
+        SearchWorkspace[] workspaces = new SearchWorkspace[6];
+
+        // Run on a new thread, so that its pool is initially empty.
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 3; ++i) {
+                workspaces[i] = SearchWorkspace.acquire(10);
+            }
+            for (int i = 0; i < 3; ++i) {
+                workspaces[i].release();
+            }
+            for (int i = 3; i < 6; ++i) {
+                workspaces[i] = SearchWorkspace.acquire(10);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        // Only the first workspaces released have been retained.
+        assertSame(workspaces[1], workspaces[3]);
+        assertSame(workspaces[0], workspaces[4]);
+        for (int i = 0; i < 3; ++i) {
+            assertNotSame(workspaces[i], workspaces[5]);
+        }
+    }
+
+    @Test
+    public void testOversizedWorkspaceDropped() throws InterruptedException {
+        SearchWorkspace[] workspaces = new SearchWorkspace[3];
+        Thread thread = new Thread(() -> {
+            workspaces[0] = SearchWorkspace.acquire(1000);
+            workspaces[0].release();
+            workspaces[1] = SearchWorkspace.acquire(500);
+            workspaces[1].release();
+            workspaces[2] = SearchWorkspace.acquire(10);
+        });
+        thread.start();
+        thread.join();
+        assertSame(workspaces[0], workspaces[1]);
+        assertNotSame(workspaces[0], workspaces[2]);
+        assertTrue(workspaces[2].capacity() < 1000);
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.strongconnectivity.ComponentLabels;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathBatchExecutorTest {
+
+    // Graph and queries used for tests.
+    private static Graph graph;
+    private static List<ShortestPathData> queries;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(20, 25, 3);
+        Random random = new Random(11);
+        queries = new ArrayList<>();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int i = 0; i < 50; ++i) {
+                queries.add(new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector));
+            }
+        }
+    }
+
+    private static void assertSameSolutions(List<CompletableFuture<ShortestPathSolution>> futures)
+            throws InterruptedException, ExecutionException {
+        assertEquals(queries.size(), futures.size());
+        for (int i = 0; i < queries.size(); ++i) {
+            ShortestPathSolution expected = new DijkstraAlgorithm(queries.get(i)).run();
+            ShortestPathSolution actual = futures.get(i).get();
+            assertEquals(queries.get(i), actual.getInputData());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            if (expected.getStatus() == Status.OPTIMAL) {
+                assertEquals(expected.getPath().getLength(), actual.getPath().getLength(), 1e-6);
+                assertEquals(expected.getPath().getMinimumTravelTime(),
+                        actual.getPath().getMinimumTravelTime(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSubmitAll() throws InterruptedException, ExecutionException {
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                AStarAlgorithm::new, 4)) {
+            assertSameSolutions(executor.submitAll(queries.stream()));
+        }
+    }
+
+    @Test
+    public void testInfeasibleWithoutSearch() throws InterruptedException, ExecutionException {
+        Graph sparse = new RoadNetworkGenerator(400, 8, 0.5, 0.1, 0.3).generate();
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(1);
+
+        // Count the nodes reached by all the queries of the executor.
+        final AtomicInteger nbReached = new AtomicInteger();
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(sparse,
+                data -> {
+                    DijkstraAlgorithm algorithm = new DijkstraAlgorithm(data);
+                    algorithm.addObserver(new ShortestPathObserver() {
+
+                        @Override
+                        public void notifyOriginProcessed(Node node) {
+                            nbReached.incrementAndGet();
+                        }
+
+                        @Override
+                        public void notifyNodeReached(Node node) {
+                            nbReached.incrementAndGet();
+                        }
+
+                        @Override
+                        public void notifyNodeMarked(Node node) {
+                            nbReached.incrementAndGet();
+                        }
+
+                        @Override
+                        public void notifyDestinationReached(Node node) {
+                            nbReached.incrementAndGet();
+                        }
+
+                    });
+                    return algorithm;
+                }, 2)) {
+            ComponentLabels labels = ComponentLabels.getIfPresent(sparse, inspector);
+            assertNotNull(labels);
+
+            Node origin = null, destination = null;
+            for (Node u: sparse.getNodes()) {
+                for (Node v: sparse.getNodes()) {
+                    if (origin == null && labels.isUnreachable(u, v)) {
+                        origin = u;
+                        destination = v;
+                    }
+                }
+            }
+            assertNotNull(origin);
+
+            ShortestPathSolution solution = executor
+                    .submit(new ShortestPathData(sparse, origin, destination, inspector)).get();
+            assertEquals(Status.INFEASIBLE, solution.getStatus());
+            assertEquals(0, nbReached.get());
+        }
+    }
+
+    @Test
+    public void testExternalExecutor() throws InterruptedException, ExecutionException {
+        ExecutorService service = Executors.newCachedThreadPool();
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                DijkstraAlgorithm::new, service)) {
+            assertSameSolutions(executor.submitAll(queries.stream()));
+        }
+
+        // The executor is not owned by the batch executor, it is still running.
+        assertTrue(service.submit(() -> true).get());
+        service.shutdown();
+        assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testVirtualThreads() throws InterruptedException, ExecutionException {
+        ExecutorService service;
+        try {
+            service = ShortestPathBatchExecutor.newVirtualThreadExecutor();
+        }
+        catch (UnsupportedOperationException e) {
+            return; // Not available on this JVM.
+        }
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                BidirectionalDijkstraAlgorithm::new, service)) {
+            assertSameSolutions(executor.submitAll(queries.stream()));
+        }
+        service.shutdown();
+    }
+
+    @Test
+    public void testFailedQuery() throws InterruptedException {
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                (data) -> {
+                    throw new IllegalStateException("Failure");
+                }, 1)) {
+            executor.submit(queries.get(0)).get();
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            return;
+        }
+        throw new AssertionError("The query should have failed.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherGraph() {
+        Graph other = RegisteredShortestPathAlgorithmsTest.createGridGraph(2, 2, 3);
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                DijkstraAlgorithm::new, 1)) {
+            executor.submit(new ShortestPathData(other, other.get(0), other.get(1),
+                    ArcInspectorFactory.getAllFilters().get(0)));
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testClosed() throws InterruptedException {
+        ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                DijkstraAlgorithm::new, 2);
+        executor.close();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        executor.submit(queries.get(0));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testClosedExternalExecutor() {
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph,
+                    DijkstraAlgorithm::new, service);
+            executor.close();
+            executor.submit(queries.get(0));
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathCacheTest {
+
+    // Graph and queries used for tests.
+    private static Graph graph;
+    private static List<ShortestPathData> queries;
+
+    // Number of times the algorithm has been run.
+    private AtomicInteger nbRuns;
+    private Function<ShortestPathData, ShortestPathAlgorithm> factory;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(20, 25, 7);
+        Random random = new Random(13);
+        queries = new ArrayList<>();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int i = 0; i < 40; ++i) {
+                int origin = random.nextInt(graph.size());
+                int destination = (origin + 1 + random.nextInt(graph.size() - 1)) % graph.size();
+                queries.add(new ShortestPathData(graph, graph.get(origin),
+                        graph.get(destination), inspector));
+            }
+        }
+    }
+
+    @Before
+    public void init() {
+        nbRuns = new AtomicInteger();
+        factory = (data) -> {
+            nbRuns.incrementAndGet();
+            return new DijkstraAlgorithm(data);
+        };
+    }
+
+    private static void assertSameSolution(ShortestPathSolution expected,
+            ShortestPathSolution actual) {
+        assertEquals(expected.getInputData(), actual.getInputData());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        if (expected.getStatus() == Status.OPTIMAL) {
+            assertEquals(expected.getCompactPath().getArcCount(),
+                    actual.getCompactPath().getArcCount());
+            assertEquals(expected.getPath().getLength(), actual.getPath().getLength(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        ShortestPathCache cache = new ShortestPathCache(factory, 1000);
+        for (ShortestPathData data: queries) {
+            assertSameSolution(new DijkstraAlgorithm(data).run(), cache.solve(data));
+        }
+        assertEquals(queries.size(), nbRuns.get());
+
+        for (ShortestPathData data: queries) {
+            ShortestPathData copy = new ShortestPathData(graph, data.getOrigin(),
+                    data.getDestination(), data.getArcInspector());
+            ShortestPathSolution solution = cache.solve(copy);
+            assertSameSolution(new DijkstraAlgorithm(copy).run(), solution);
+            assertTrue(solution.getSolvingTime() != null);
+            assertTrue(solution.toString().length() > 0);
+        }
+        assertEquals(queries.size(), nbRuns.get());
+
+        ShortestPathCache.Statistics statistics = cache.getStatistics();
+        assertEquals(queries.size(), statistics.getHitCount());
+        assertEquals(queries.size(), statistics.getMissCount());
+        assertEquals(0.5, statistics.getHitRate(), 1e-9);
+        assertEquals(queries.size(), statistics.getSize());
+        assertEquals(0, statistics.getEvictionCount());
+
+        cache.clear();
+        assertEquals(0, cache.getStatistics().getSize());
+        assertEquals(0, cache.getStatistics().getEstimatedBytes());
+    }
+
+    @Test
+    public void testOtherGraph() {
+        Graph other = RegisteredShortestPathAlgorithmsTest.createGridGraph(20, 25, 7);
+        ShortestPathCache cache = new ShortestPathCache(factory, 1000);
+        ShortestPathData data = queries.get(0);
+        ShortestPathSolution solution = cache.solve(data);
+        ShortestPathSolution otherSolution = cache.solve(new ShortestPathData(other,
+                other.get(data.getOrigin().getId()), other.get(data.getDestination().getId()),
+                data.getArcInspector()));
+        assertEquals(2, nbRuns.get());
+        assertNotSame(solution.getInputData().getGraph(),
+                otherSolution.getInputData().getGraph());
+    }
+
+    @Test
+    public void testLeastRecentlyUsed() {
+        ShortestPathCache cache = new ShortestPathCache(factory, 3);
+        ShortestPathData a = queries.get(0), b = queries.get(1), c = queries.get(2),
+                d = queries.get(3);
+        cache.solve(a);
+        cache.solve(b);
+        cache.solve(c);
+        cache.solve(a);
+        cache.solve(d);
+        assertEquals(4, nbRuns.get());
+        assertEquals(1, cache.getStatistics().getEvictionCount());
+
+        // b was the least recently used entry.
+        cache.solve(b);
+        assertEquals(5, nbRuns.get());
+        cache.solve(a);
+        assertEquals(5, nbRuns.get());
+        assertEquals(3, cache.getStatistics().getSize());
+        assertEquals(2, cache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void testMemoryBound() {
+        ShortestPathCache unbounded = new ShortestPathCache(factory, 1000);
+        for (ShortestPathData data: queries) {
+            unbounded.solve(data);
+        }
+        long maxBytes = unbounded.getStatistics().getEstimatedBytes() / 4;
+
+        ShortestPathCache cache = new ShortestPathCache(factory, 1000, maxBytes, 0,
+                TimeUnit.SECONDS);
+        for (ShortestPathData data: queries) {
+            cache.solve(data);
+        }
+        ShortestPathCache.Statistics statistics = cache.getStatistics();
+        assertTrue(statistics.getEstimatedBytes() <= maxBytes);
+        assertTrue(statistics.getSize() < queries.size());
+        assertEquals(queries.size(), statistics.getSize() + statistics.getEvictionCount());
+    }
+
+    @Test
+    public void testTimeToLive() {
+        AtomicLong time = new AtomicLong();
+        ShortestPathCache cache = new ShortestPathCache(factory, 1000, Long.MAX_VALUE, 100,
+                time::get);
+        ShortestPathData data = queries.get(0);
+        cache.solve(data);
+        time.set(99);
+        cache.solve(data);
+        assertEquals(1, nbRuns.get());
+        time.set(100);
+        cache.solve(data);
+        assertEquals(2, nbRuns.get());
+
+        ShortestPathCache.Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(1, statistics.getExpirationCount());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException, ExecutionException {
+        final int nbThreads = 8;
+        ShortestPathCache cache = new ShortestPathCache(factory, 10000);
+        ExecutorService service = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<List<ShortestPathSolution>>> futures = new ArrayList<>();
+            for (int t = 0; t < nbThreads; ++t) {
+                futures.add(service.submit(() -> {
+                    List<ShortestPathSolution> solutions = new ArrayList<>();
+                    for (ShortestPathData data: queries) {
+                        solutions.add(cache.solve(data));
+                    }
+                    return solutions;
+                }));
+            }
+            for (Future<List<ShortestPathSolution>> future: futures) {
+                List<ShortestPathSolution> solutions = future.get();
+                for (int i = 0; i < queries.size(); ++i) {
+                    assertSameSolution(new DijkstraAlgorithm(queries.get(i)).run(),
+                            solutions.get(i));
+                }
+            }
+        }
+        finally {
+            service.shutdown();
+        }
+
+        ShortestPathCache.Statistics statistics = cache.getStatistics();
+        assertEquals(nbThreads * queries.size(),
+                statistics.getHitCount() + statistics.getMissCount());
+        assertEquals(nbRuns.get(), statistics.getMissCount());
+        assertEquals(queries.size(), statistics.getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBound() {
+        new ShortestPathCache(factory, 0);
+    }
+
+}
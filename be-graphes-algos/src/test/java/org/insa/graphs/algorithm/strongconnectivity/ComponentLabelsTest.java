@@ -0,0 +1,167 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathObserver;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ComponentLabelsTest {
+
+    // Graph with many one-way and missing roads used for tests.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RoadNetworkGenerator(400, 8, 0.5, 0.1, 0.3).generate();
+    }
+
+    /**
+     * @return Nodes reachable from the given node using the allowed arcs.
+     */
+    private static boolean[] reachable(Node origin, ArcInspector inspector) {
+        boolean[] reached = new boolean[graph.size()];
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        reached[origin.getId()] = true;
+        queue.add(origin);
+        while (!queue.isEmpty()) {
+            for (Arc arc: queue.remove().getSuccessors()) {
+                if (inspector.isAllowed(arc) && !reached[arc.getDestination().getId()]) {
+                    reached[arc.getDestination().getId()] = true;
+                    queue.add(arc.getDestination());
+                }
+            }
+        }
+        return reached;
+    }
+
+    @Test
+    public void testUnreachablePairs() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ComponentLabels labels = ComponentLabels.get(graph, inspector);
+            assertSame(labels, ComponentLabels.get(graph, inspector));
+            assertEquals(graph.size(), labels.size());
+
+            int nbUnreachable = 0, nbDetected = 0;
+            for (Node origin: graph.getNodes()) {
+                boolean[] reached = reachable(origin, inspector);
+                for (Node destination: graph.getNodes()) {
+                    boolean unreachable = labels.isUnreachable(origin, destination);
+                    // The check is conservative: detected pairs are never reachable.
+                    assertFalse(unreachable && reached[destination.getId()]);
+                    if (!reached[destination.getId()]) {
+                        nbUnreachable += 1;
+                        nbDetected += unreachable ? 1 : 0;
+                    }
+                    if (labels.getWeakComponent(origin) != labels
+                            .getWeakComponent(destination)) {
+                        assertTrue(unreachable);
+                    }
+                }
+            }
+            assertTrue(nbUnreachable > 0);
+            assertTrue(nbDetected > nbUnreachable / 2);
+        }
+    }
+
+    @Test
+    public void testInfeasibleWithoutSearch() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(1);
+        ComponentLabels labels = ComponentLabels.get(graph, inspector);
+        Node origin = null, destination = null;
+        for (Node u: graph.getNodes()) {
+            for (Node v: graph.getNodes()) {
+                if (origin == null && labels.isUnreachable(u, v)) {
+                    origin = u;
+                    destination = v;
+                }
+            }
+        }
+
+        final int[] nbReached = { 0 };
+        DijkstraAlgorithm algorithm = new DijkstraAlgorithm(
+                new ShortestPathData(graph, origin, destination, inspector));
+        algorithm.addObserver(new ShortestPathObserver() {
+
+            @Override
+            public void notifyOriginProcessed(Node node) {
+                nbReached[0] += 1;
+            }
+
+            @Override
+            public void notifyNodeReached(Node node) {
+                nbReached[0] += 1;
+            }
+
+            @Override
+            public void notifyNodeMarked(Node node) {
+                nbReached[0] += 1;
+            }
+
+            @Override
+            public void notifyDestinationReached(Node node) {
+                nbReached[0] += 1;
+            }
+
+        });
+        assertEquals(Status.INFEASIBLE, algorithm.run().getStatus());
+        assertEquals(0, nbReached[0]);
+    }
+
+    @Test
+    public void testSharedInspectors() {
+        for (int i = 0; i < ArcInspectorFactory.getAllFilters().size(); ++i) {
+            assertSame(ArcInspectorFactory.getAllFilters().get(i),
+                    ArcInspectorFactory.getAllFilters().get(i));
+        }
+    }
+
+    @Test
+    public void testNotComputedByQueries() {
+        final ArcInspector base = ArcInspectorFactory.getAllFilters().get(0);
+        ArcInspector inspector = new ArcInspector() {
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return base.isAllowed(arc);
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return base.getCost(arc);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return base.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return base.getMode();
+            }
+        };
+        new DijkstraAlgorithm(new ShortestPathData(graph, graph.get(0), graph.get(1), inspector))
+                .run();
+        assertNull(ComponentLabels.getIfPresent(graph, inspector));
+
+        ComponentLabels labels = ComponentLabels.get(graph, inspector);
+        assertSame(labels, ComponentLabels.getIfPresent(graph, inspector));
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.RegisteredShortestPathAlgorithmsTest;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StronglyConnectedComponentsAlgorithmTest {
+
+    // Small graph with many one-way roads used for tests.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RegisteredShortestPathAlgorithmsTest.createGridGraph(12, 15, 19);
+    }
+
+    /**
+     * @return Nodes reachable from the given node using the allowed arcs.
+     */
+    private static boolean[] reachable(Graph graph, Node origin, ArcInspector inspector) {
+        boolean[] reached = new boolean[graph.size()];
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        reached[origin.getId()] = true;
+        queue.add(origin);
+        while (!queue.isEmpty()) {
+            for (Arc arc: queue.remove().getSuccessors()) {
+                if (inspector.isAllowed(arc) && !reached[arc.getDestination().getId()]) {
+                    reached[arc.getDestination().getId()] = true;
+                    queue.add(arc.getDestination());
+                }
+            }
+        }
+        return reached;
+    }
+
+    @Test
+    public void testSameAsReachability() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                    new StronglyConnectedComponentsData(graph, inspector)).run();
+            assertTrue(solution.getComponentCount() > 1);
+
+            boolean[][] reached = new boolean[graph.size()][];
+            for (Node node: graph.getNodes()) {
+                reached[node.getId()] = reachable(graph, node, inspector);
+            }
+            int total = 0;
+            for (int component = 0; component < solution.getComponentCount(); ++component) {
+                total += solution.getComponentSize(component);
+                assertTrue(solution.getComponentSize(component) <= solution
+                        .getComponentSize(solution.getLargestComponent()));
+            }
+            assertEquals(graph.size(), total);
+            for (Node u: graph.getNodes()) {
+                for (Node v: graph.getNodes()) {
+                    assertEquals(reached[u.getId()][v.getId()] && reached[v.getId()][u.getId()],
+                            solution.areStronglyConnected(u, v));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLongRoad() {
+        // A single long road, deep enough to overflow a recursive implementation.
+        RoadInformation info = new RoadInformation(RoadType.RESIDENTIAL,
+                new AccessRestrictions(), false, 50, "");
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 200000; ++i) {
+            nodes.add(new Node(i, new Point(1.4f + 1e-5f * i, 43.5f)));
+            if (i > 0) {
+                ArrayList<Point> points = new ArrayList<>();
+                points.add(nodes.get(i - 1).getPoint());
+                points.add(nodes.get(i).getPoint());
+                Node.linkNodes(nodes.get(i - 1), nodes.get(i), 1, info, points);
+            }
+        }
+        StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(new Graph("road", "", nodes, null),
+                        ArcInspectorFactory.getAllFilters().get(0))).run();
+        assertEquals(1, solution.getComponentCount());
+    }
+
+    @Test
+    public void testRoutableCore() {
+        Graph generated = new RoadNetworkGenerator(5000, 4, 0.4, 0.05, 0.2).generate();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                    new StronglyConnectedComponentsData(generated, inspector)).run();
+            RoutableCore core = RoutableCore.extract(solution);
+            Graph coreGraph = core.getGraph();
+            assertEquals(solution.getComponentSize(solution.getLargestComponent()),
+                    coreGraph.size());
+
+            // The core is a single component.
+            assertEquals(1, new StronglyConnectedComponentsAlgorithm(
+                    new StronglyConnectedComponentsData(coreGraph, inspector)).run()
+                            .getComponentCount());
+
+            int nbOriginalArcs = 0, nbCoreArcs = 0;
+            for (Node node: generated.getNodes()) {
+                Node coreNode = core.getCoreNode(node);
+                if (coreNode == null) {
+                    assertTrue(!core.contains(node));
+                    continue;
+                }
+                assertEquals(node, core.getOriginalNode(coreNode));
+                assertEquals(node.getPoint(), coreNode.getPoint());
+                for (Arc arc: node.getSuccessors()) {
+                    if (inspector.isAllowed(arc) && core.contains(arc.getDestination())) {
+                        nbOriginalArcs += 1;
+                    }
+                }
+                for (Arc arc: coreNode.getSuccessors()) {
+                    if (inspector.isAllowed(arc)) {
+                        nbCoreArcs += 1;
+                        assertEquals(arc.getDestination(), core
+                                .getCoreNode(core.getOriginalNode(arc.getDestination())));
+                    }
+                }
+            }
+            assertEquals(nbOriginalArcs, nbCoreArcs);
+        }
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(new Graph("empty", "", new ArrayList<>(), null),
+                        ArcInspectorFactory.getAllFilters().get(0))).run();
+        assertEquals(0, solution.getComponentCount());
+        assertEquals(-1, solution.getLargestComponent());
+        RoutableCore core = RoutableCore.extract(solution);
+        assertEquals(0, core.getGraph().size());
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.IdentityHashMap;
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+
+public class IndexedBinaryHeapTest extends PriorityQueueTest {
+
+    /**
+     * @return An indexer associating a new index to each new element.
+     */
+    private static ToIntFunction<MutableInteger> createIndexer() {
+        IdentityHashMap<MutableInteger, Integer> indices = new IdentityHashMap<>();
+        return x -> indices.computeIfAbsent(x, k -> indices.size());
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new IndexedBinaryHeap<>(createIndexer());
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new IndexedBinaryHeap<>((IndexedBinaryHeap<MutableInteger>) queue);
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedBinaryHeap<MutableInteger> heap = new IndexedBinaryHeap<>(createIndexer(), 4);
+        MutableInteger[] values = new MutableInteger[20];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = new MutableInteger(100 + i);
+            heap.insert(values[i]);
+        }
+        // Decrease keys in reverse order so that the minimum changes every time.
+        for (int i = values.length - 1; i >= 0; --i) {
+            values[i].set(i - values.length);
+            heap.decreaseKey(values[i]);
+            assertEquals(values[i], heap.findMin());
+        }
+        for (int i = 0; i < values.length; ++i) {
+            assertTrue(heap.contains(values[i]));
+            assertEquals(values[i], heap.deleteMin());
+            assertFalse(heap.contains(values[i]));
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testDecreaseKeyNotFound() {
+        IndexedBinaryHeap<MutableInteger> heap = new IndexedBinaryHeap<>(createIndexer());
+        heap.insert(new MutableInteger(1));
+        heap.decreaseKey(new MutableInteger(0));
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.insa.graphs.algorithm.weakconnectivity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.Test;
+
+public class UnionFindWeaklyConnectedComponentsAlgorithmTest {
+
+    /**
+     * Check that both solutions have the same components in the same order.
+     */
+    private static void assertSameComponents(WeaklyConnectedComponentsSolution expected,
+            WeaklyConnectedComponentsSolution actual) {
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getComponents().size(), actual.getComponents().size());
+        for (int i = 0; i < expected.getComponents().size(); ++i) {
+            List<Node> component = actual.getComponents().get(i);
+            assertEquals(new HashSet<>(expected.getComponents().get(i)), new HashSet<>(component));
+            for (int j = 1; j < component.size(); ++j) {
+                assertTrue(component.get(j - 1).getId() < component.get(j).getId());
+            }
+        }
+    }
+
+    @Test
+    public void testSameComponentsAsBasic() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (long seed = 0; seed < 4; ++seed) {
+            // Many missing roads, so that there are many components.
+            Graph graph = new RoadNetworkGenerator(20000, seed, 0.3, 0.05, 0.45).generate();
+            WeaklyConnectedComponentsData data = new WeaklyConnectedComponentsData(graph);
+            WeaklyConnectedComponentsSolution expected = new WeaklyConnectedComponentsAlgorithm(
+                    data).run();
+            assertTrue(expected.getComponents().size() > 1);
+            assertSameComponents(expected,
+                    new UnionFindWeaklyConnectedComponentsAlgorithm(data, pool).run());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testObservers() {
+        Graph graph = new RoadNetworkGenerator(2000, 3, 0.2, 0.05, 0.45).generate();
+        WeaklyConnectedComponentsAlgorithm algorithm = new UnionFindWeaklyConnectedComponentsAlgorithm(
+                new WeaklyConnectedComponentsData(graph));
+        final List<Node> starts = new ArrayList<>();
+        final int[] nbNodes = { 0 };
+        algorithm.addObserver(new WeaklyConnectedComponentObserver() {
+
+            @Override
+            public void notifyStartComponent(Node curNode) {
+                starts.add(curNode);
+            }
+
+            @Override
+            public void notifyNewNodeInComponent(Node node) {
+                nbNodes[0] += 1;
+            }
+
+            @Override
+            public void notifyEndComponent(ArrayList<Node> nodes) {
+                assertEquals(starts.get(starts.size() - 1), nodes.get(0));
+            }
+
+        });
+        WeaklyConnectedComponentsSolution solution = algorithm.run();
+        assertEquals(solution.getComponents().size(), starts.size());
+        assertEquals(graph.size(), nbNodes[0]);
+    }
+
+}
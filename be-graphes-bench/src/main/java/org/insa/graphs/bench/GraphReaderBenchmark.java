@@ -0,0 +1,68 @@
+package org.insa.graphs.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.BinaryGraphWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link BinaryGraphReader}, reading a synthetic road network
+ * encoded in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphReaderBenchmark {
+
+    /**
+     * Number of nodes of the network.
+     */
+    @Param({ "10000", "90000" })
+    public int nbNodes;
+
+    // Encoded graph.
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(new DataOutputStream(output))) {
+            new RoadNetworkGenerator(nbNodes, 42).write(writer);
+        }
+        bytes = output.toByteArray();
+    }
+
+    @Benchmark
+    public Graph read() throws IOException {
+        return new BinaryGraphReader(new DataInputStream(new ByteArrayInputStream(bytes))).read();
+    }
+
+    @Benchmark
+    public CompactGraph readCompactGraph() throws IOException {
+        return new BinaryGraphReader(new DataInputStream(new ByteArrayInputStream(bytes)))
+                .readCompactGraph();
+    }
+
+}
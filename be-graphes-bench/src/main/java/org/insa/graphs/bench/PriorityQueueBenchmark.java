@@ -0,0 +1,102 @@
+package org.insa.graphs.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.graphs.algorithm.utils.BinaryHeap;
+import org.insa.graphs.algorithm.utils.BinarySearchTree;
+import org.insa.graphs.algorithm.utils.PriorityQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the {@link PriorityQueue} implementations, with the operations
+ * used by label-setting algorithms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriorityQueueBenchmark {
+
+    /**
+     * Implementation of the queue, "heap" for {@link BinaryHeap} or "tree" for
+     * {@link BinarySearchTree}.
+     */
+    @Param({ "heap", "tree" })
+    public String implementation;
+
+    /**
+     * Number of elements inserted in the queue.
+     */
+    @Param({ "1000", "100000" })
+    public int size;
+
+    // Distinct elements, in random order (BinarySearchTree does not allow
+    // duplicates).
+    private Integer[] elements;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        elements = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            elements[i] = i;
+        }
+        for (int i = size - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            Integer tmp = elements[i];
+            elements[i] = elements[j];
+            elements[j] = tmp;
+        }
+    }
+
+    private PriorityQueue<Integer> createQueue() {
+        return "heap".equals(implementation) ? new BinaryHeap<>() : new BinarySearchTree<>();
+    }
+
+    /**
+     * Insert all the elements, then remove them in order.
+     */
+    @Benchmark
+    public void insertThenDeleteMin(Blackhole blackhole) {
+        PriorityQueue<Integer> queue = createQueue();
+        for (Integer element: elements) {
+            queue.insert(element);
+        }
+        while (!queue.isEmpty()) {
+            blackhole.consume(queue.deleteMin());
+        }
+    }
+
+    /**
+     * Insert all the elements and remove a quarter of them (as done when the cost
+     * of a node is decreased), then remove the others in order.
+     */
+    @Benchmark
+    public void insertRemoveDeleteMin(Blackhole blackhole) {
+        PriorityQueue<Integer> queue = createQueue();
+        for (Integer element: elements) {
+            queue.insert(element);
+        }
+        for (int i = 0; i < elements.length; i += 4) {
+            queue.remove(elements[i]);
+        }
+        while (!queue.isEmpty()) {
+            blackhole.consume(queue.deleteMin());
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.insa.graphs.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the registered shortest-path algorithms on synthetic road
+ * networks, for a fixed set of random queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortestPathBenchmark {
+
+    // Number of queries, run in turn by the benchmark.
+    private static final int NB_QUERIES = 64;
+
+    /**
+     * Name of the algorithm, as registered in {@link AlgorithmFactory}.
+     */
+    @Param({ "Dijkstra", "A*", "Bellman-Ford" })
+    public String algorithm;
+
+    /**
+     * Number of nodes of the network.
+     */
+    @Param({ "2500", "22500" })
+    public int nbNodes;
+
+    /**
+     * Index of the arc inspector in {@link ArcInspectorFactory#getAllFilters()}.
+     */
+    @Param({ "0", "2" })
+    public int inspector;
+
+    private Graph graph;
+    private ShortestPathData[] queries;
+    private int nextQuery;
+
+    @Setup
+    public void setup() {
+        graph = new RoadNetworkGenerator(nbNodes, 42).generate();
+        ArcInspector arcInspector = ArcInspectorFactory.getAllFilters().get(inspector);
+        Random random = new Random(7);
+        queries = new ShortestPathData[NB_QUERIES];
+        for (int i = 0; i < NB_QUERIES; ++i) {
+            queries[i] = new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())), arcInspector);
+        }
+        nextQuery = 0;
+    }
+
+    @Benchmark
+    public ShortestPathSolution query() throws Exception {
+        ShortestPathData data = queries[nextQuery];
+        nextQuery = (nextQuery + 1) % NB_QUERIES;
+        ShortestPathAlgorithm instance = (ShortestPathAlgorithm) AlgorithmFactory.createAlgorithm(
+                AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class, algorithm), data);
+        return instance.run();
+    }
+
+}
@@ -46,6 +46,9 @@ import javax.swing.border.EmptyBorder;
 import org.insa.graphs.algorithm.AbstractSolution;
 import org.insa.graphs.algorithm.AlgorithmFactory;
 import org.insa.graphs.algorithm.carpooling.CarPoolingAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneData;
+import org.insa.graphs.algorithm.isochrone.IsochroneTextObserver;
 import org.insa.graphs.algorithm.packageswitch.PackageSwitchAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
@@ -61,6 +64,7 @@ import org.insa.graphs.gui.drawing.Drawing;
 import org.insa.graphs.gui.drawing.GraphPalette;
 import org.insa.graphs.gui.drawing.components.BasicDrawing;
 import org.insa.graphs.gui.drawing.components.MapViewDrawing;
+import org.insa.graphs.gui.observers.IsochroneGraphicObserver;
 import org.insa.graphs.gui.observers.ShortestPathGraphicObserver;
 import org.insa.graphs.gui.observers.WeaklyConnectedComponentGraphicObserver;
 import org.insa.graphs.gui.utils.FileUtils;
@@ -108,7 +112,7 @@ public class MainWindow extends JFrame {
 
     // Algorithm panels
     private final List<AlgorithmPanel> algoPanels = new ArrayList<>();
-    private final AlgorithmPanel wccPanel, spPanel, cpPanel, psPanel;
+    private final AlgorithmPanel wccPanel, spPanel, isoPanel, cpPanel, psPanel;
 
     // Path panel
     private final PathsPanel pathPanel;
@@ -254,6 +258,69 @@ public class MainWindow extends JFrame {
             }
         });
 
+        isoPanel = new AlgorithmPanel(this, IsochroneAlgorithm.class, "Isochrone",
+                new String[] { "Origin" }, true);
+        isoPanel.addStartActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                StartActionEvent evt = (StartActionEvent) e;
+
+                // The budget is not part of the panel, ask for it.
+                String input = JOptionPane.showInputDialog(MainWindow.this,
+                        "Budget (seconds for fastest paths, meters for shortest paths):",
+                        "Isochrone budget", JOptionPane.QUESTION_MESSAGE);
+                if (input == null) {
+                    return;
+                }
+                IsochroneData data;
+                try {
+                    data = new IsochroneData(graph, evt.getNodes().get(0),
+                            Double.parseDouble(input.trim()), evt.getArcFilter());
+                }
+                catch (IllegalArgumentException e1) {
+                    JOptionPane.showMessageDialog(MainWindow.this,
+                            "Invalid budget: " + input + ".", "Invalid budget",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                IsochroneAlgorithm isoAlgorithm = null;
+                try {
+                    isoAlgorithm = (IsochroneAlgorithm) AlgorithmFactory
+                            .createAlgorithm(evt.getAlgorithmClass(), data);
+                }
+                catch (Exception e1) {
+                    JOptionPane.showMessageDialog(MainWindow.this,
+                            "An error occurred while creating the specified algorithm.",
+                            "Internal error: Algorithm instantiation failure",
+                            JOptionPane.ERROR_MESSAGE);
+                    e1.printStackTrace();
+                    return;
+                }
+
+                isoPanel.setEnabled(false);
+
+                if (evt.isGraphicVisualizationEnabled()) {
+                    isoAlgorithm.addObserver(
+                            new IsochroneGraphicObserver(drawing, data.getBudget()));
+                }
+                if (evt.isTextualVisualizationEnabled()) {
+                    isoAlgorithm.addObserver(new IsochroneTextObserver(printStream));
+                }
+
+                final IsochroneAlgorithm copyAlgorithm = isoAlgorithm;
+                launchThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        AbstractSolution solution = copyAlgorithm.run();
+                        isoPanel.solutionPanel.addSolution(solution, false);
+                        isoPanel.solutionPanel.setVisible(true);
+                        isoPanel.setEnabled(true);
+                    }
+                });
+            }
+        });
+
         cpPanel = new AlgorithmPanel(this, CarPoolingAlgorithm.class, "Car-Pooling", new String[] {
                 "Origin Car", "Origin Pedestrian", "Destination Car", "Destination Pedestrian" },
                 true);
@@ -264,6 +331,7 @@ public class MainWindow extends JFrame {
         // add algorithm panels
         algoPanels.add(wccPanel);
         algoPanels.add(spPanel);
+        algoPanels.add(isoPanel);
         algoPanels.add(cpPanel);
         algoPanels.add(psPanel);
 
@@ -746,6 +814,15 @@ public class MainWindow extends JFrame {
             }
         }));
 
+        // Isochrone
+        JMenuItem isoItem = new JMenuItem("Isochrone");
+        isoItem.addActionListener(baf.createBlockingAction(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                enableAlgorithmPanel(isoPanel);
+            }
+        }));
+
         // Car pooling
         JMenuItem cpItem = new JMenuItem("Car Pooling");
         cpItem.addActionListener(baf.createBlockingAction(new ActionListener() {
@@ -766,12 +843,14 @@ public class MainWindow extends JFrame {
 
         graphLockItems.add(wccItem);
         graphLockItems.add(spItem);
+        graphLockItems.add(isoItem);
         graphLockItems.add(cpItem);
         graphLockItems.add(psItem);
 
         algoMenu.add(wccItem);
         algoMenu.addSeparator();
         algoMenu.add(spItem);
+        algoMenu.add(isoItem);
         algoMenu.add(cpItem);
         algoMenu.add(psItem);
 
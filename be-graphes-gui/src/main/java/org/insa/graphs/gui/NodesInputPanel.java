@@ -28,6 +28,7 @@ import org.insa.graphs.gui.drawing.overlays.MarkerOverlay;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Point;
+import org.insa.graphs.model.SpatialIndex;
 
 public class NodesInputPanel extends JPanel
         implements DrawingClickListener, DrawingChangeListener, GraphChangeListener {
@@ -41,40 +42,29 @@ public class NodesInputPanel extends JPanel
 
     /**
      * Utility class that can be used to find a node from coordinates in a "fast"
-     * way.
+     * way, using the spatial index of the graph.
      *
      */
     private static class NodeFinder {
 
-        // Graph associated with this node finder.
-        private Graph graph;
+        // Spatial index of the graph associated with this node finder.
+        private SpatialIndex index;
 
         /**
          * @param graph
          */
         public NodeFinder(Graph graph) {
-            this.graph = graph;
+            this.index = graph.getSpatialIndex();
         }
 
         /**
          * @param point
          * 
-         * @return the closest node to the given point, or null if no node is "close
-         *         enough".
+         * @return the closest node to the given point, or null if the graph is
+         *         empty.
          */
         public Node findClosestNode(Point point) {
-            Node minNode = null;
-            double minDis = Double.POSITIVE_INFINITY;
-            for (Node node: graph.getNodes()) {
-                double dlon = point.getLongitude() - node.getPoint().getLongitude();
-                double dlat = point.getLatitude() - node.getPoint().getLatitude();
-                double dis = dlon * dlon + dlat * dlat; // No need to square
-                if (dis < minDis) {
-                    minNode = node;
-                    minDis = dis;
-                }
-            }
-            return minNode;
+            return index.findNearestNode(point);
         }
 
     }
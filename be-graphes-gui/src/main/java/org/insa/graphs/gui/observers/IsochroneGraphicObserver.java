@@ -0,0 +1,43 @@
+package org.insa.graphs.gui.observers;
+
+import java.awt.Color;
+
+import org.insa.graphs.algorithm.isochrone.IsochroneObserver;
+import org.insa.graphs.gui.drawing.Drawing;
+import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.model.Node;
+
+public class IsochroneGraphicObserver implements IsochroneObserver {
+
+    // Number of color bands between the origin and the budget.
+    private static final int NB_BANDS = 5;
+
+    // Drawing + Graph drawing
+    private PointSetOverlay grPoints;
+
+    // Budget of the search, used to pick the color of the nodes.
+    private final double budget;
+
+    /**
+     * @param drawing Drawing on which the reachable nodes should be drawn.
+     * @param budget Budget of the observed search.
+     */
+    public IsochroneGraphicObserver(Drawing drawing, double budget) {
+        this.grPoints = drawing.createPointSetOverlay(1, Color.GREEN);
+        this.budget = budget;
+    }
+
+    @Override
+    public void notifyOriginProcessed(Node node) {
+        this.grPoints.addPoint(node.getPoint(), 4, Color.GREEN);
+        this.grPoints.setWidth(1);
+    }
+
+    @Override
+    public void notifyNodeReached(Node node, double cost) {
+        int band = budget > 0 ? Math.min(NB_BANDS - 1, (int) (NB_BANDS * cost / budget)) : 0;
+        float hue = (1f - band / (float) (NB_BANDS - 1)) / 3f; // From green to red.
+        this.grPoints.addPoint(node.getPoint(), Color.getHSBColor(hue, 1f, 0.9f));
+    }
+
+}
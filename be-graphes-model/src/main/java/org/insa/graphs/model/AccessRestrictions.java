@@ -2,6 +2,8 @@ package org.insa.graphs.model;
 
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -14,6 +16,15 @@ import java.util.EnumSet;
  * </p>
  * 
  * <p>
+ * Restrictions are packed in a single {@code int} (4 bits per mode, see
+ * {@link #getPackedValue()}), and instances created with
+ * {@link #valueOf(int)} are shared between all the roads with the same
+ * restrictions. Checks that are evaluated for many roads should use a
+ * precomputed {@link Mask}, which reduces each check to a couple of bitwise
+ * operations.
+ * </p>
+ * 
+ * <p>
  * To each transport is associated at most one restriction per road (no
  * restriction corresponds to {@link AccessRestriction#UNKNOWN} but a road can
  * have different restrictions for different modes.
@@ -153,27 +164,180 @@ public class AccessRestrictions {
 
     }
 
-    // Map mode -> restriction
-    private final EnumMap<AccessMode, AccessRestriction> restrictions;
+    /**
+     * <p>
+     * Precomputed set of accepted restrictions for a set of modes, to check
+     * restrictions with {@link AccessRestrictions#isAllowedFor(Mask)}.
+     * </p>
+     * 
+     * <p>
+     * A mask has one bit per (mode, restriction) pair, and each restrictions
+     * object has exactly one bit set per mode, so a check only counts the bits
+     * common to both.
+     * </p>
+     */
+    public static final class Mask {
+
+        // Accepted (mode, restriction) pairs, and number of modes of the mask.
+        private final long bits;
+        private final int nbModes;
+
+        private Mask(long bits, int nbModes) {
+            this.bits = bits;
+            this.nbModes = nbModes;
+        }
+
+        /**
+         * Create a mask accepting the given restrictions for the given mode.
+         * 
+         * @param mode Mode to check.
+         * @param restrictions Accepted restrictions for the mode.
+         * 
+         * @return A new mask.
+         */
+        public static Mask of(AccessMode mode, EnumSet<AccessRestriction> restrictions) {
+            return of(EnumSet.of(mode), restrictions);
+        }
+
+        /**
+         * Create a mask accepting the given restrictions for each of the given modes.
+         * The restriction may not be the same for all modes.
+         * 
+         * @param modes Modes to check.
+         * @param restrictions Accepted restrictions for each mode.
+         * 
+         * @return A new mask.
+         */
+        public static Mask of(EnumSet<AccessMode> modes, EnumSet<AccessRestriction> restrictions) {
+            long bits = 0;
+            for (AccessMode mode: modes) {
+                for (AccessRestriction restriction: restrictions) {
+                    bits |= bit(mode, restriction);
+                }
+            }
+            return new Mask(bits, modes.size());
+        }
+
+        /**
+         * Evaluate this mask against all the road information of the given graph.
+         * 
+         * @param graph Graph whose road information should be checked.
+         * 
+         * @return Array indexed by road information index (see
+         *         {@link CompactGraph#getRoadInformationIndex(int)}) containing
+         *         {@code true} for the road information allowed by this mask.
+         */
+        public boolean[] evaluate(CompactGraph graph) {
+            boolean[] allowed = new boolean[graph.getRoadInformationCount()];
+            for (int i = 0; i < allowed.length; ++i) {
+                allowed[i] = graph.getRoadInformationAt(i).getAccessRestrictions()
+                        .isAllowedFor(this);
+            }
+            return allowed;
+        }
+
+    }
+
+    // Number of bits used by each mode in the packed value.
+    private static final int BITS_PER_MODE = 4;
+
+    // All the restrictions, by ordinal.
+    private static final AccessRestriction[] RESTRICTIONS = AccessRestriction.values();
+
+    // Packed value with unknown restrictions for all modes.
+    private static final int UNKNOWN_VALUE = pack(new EnumMap<>(AccessMode.class));
+
+    // Instances shared by the roads, by packed value.
+    private static final Map<Integer, AccessRestrictions> INSTANCES = new ConcurrentHashMap<>();
 
     /**
-     * Create new AccessRestrictions instances with unknown restrictions.
+     * @return Bit corresponding to the given mode and restriction in masks.
      */
-    public AccessRestrictions() {
-        this.restrictions = new EnumMap<>(AccessMode.class);
+    private static long bit(AccessMode mode, AccessRestriction restriction) {
+        return 1L << (mode.ordinal() * RESTRICTIONS.length + restriction.ordinal());
+    }
+
+    /**
+     * @return Packed value corresponding to the given restrictions.
+     */
+    private static int pack(Map<AccessMode, AccessRestriction> restrictions) {
+        int packed = 0;
+        for (AccessMode mode: AccessMode.values()) {
+            AccessRestriction restriction = restrictions.get(mode);
+            if (restriction == null) {
+                restriction = AccessRestriction.UNKNOWN;
+            }
+            packed |= restriction.ordinal() << (mode.ordinal() * BITS_PER_MODE);
+        }
+        return packed;
+    }
+
+    /**
+     * Retrieve the (shared) restrictions corresponding to the given packed value.
+     * 
+     * @param packed Packed value of the restrictions, as returned by
+     *        {@link #getPackedValue()}.
+     * 
+     * @return Restrictions corresponding to the given value.
+     * 
+     * @throws IllegalArgumentException if the given value does not correspond to
+     *         valid restrictions.
+     */
+    public static AccessRestrictions valueOf(int packed) {
+        AccessRestrictions access = INSTANCES.get(packed);
+        if (access == null) {
+            access = new AccessRestrictions(packed);
+            AccessRestrictions previous = INSTANCES.putIfAbsent(packed, access);
+            if (previous != null) {
+                access = previous;
+            }
+        }
+        return access;
+    }
+
+    // Restrictions packed by mode (4 bits per mode), and the same restrictions
+    // with one bit per (mode, restriction) pair as used by masks.
+    private final int packed;
+    private final long bits;
+
+    private AccessRestrictions(int packed) {
+        long bits = 0;
         for (AccessMode mode: AccessMode.values()) {
-            this.restrictions.put(mode, AccessRestriction.UNKNOWN);
+            int value = (packed >>> (mode.ordinal() * BITS_PER_MODE)) & 0xf;
+            if (value >= RESTRICTIONS.length) {
+                throw new IllegalArgumentException(
+                        "Invalid packed access restrictions: " + Integer.toHexString(packed));
+            }
+            bits |= bit(mode, RESTRICTIONS[value]);
         }
+        this.packed = packed;
+        this.bits = bits;
+    }
+
+    /**
+     * Create new AccessRestrictions instances with unknown restrictions.
+     */
+    public AccessRestrictions() {
+        this(UNKNOWN_VALUE);
     }
 
     /**
      * Create a new AccessRestrictions instances with the given restrictions.
      * 
      * @param restrictions Map of restrictions for this instance of
-     *        AccessRestrictions.
+     *        AccessRestrictions, modes not in the map have unknown restrictions.
      */
     public AccessRestrictions(EnumMap<AccessMode, AccessRestriction> restrictions) {
-        this.restrictions = restrictions;
+        this(pack(restrictions));
+    }
+
+    /**
+     * @return Restrictions packed in an int, with the restriction of each mode
+     *         (ordinal of the {@link AccessRestriction}) stored in the 4 bits
+     *         starting at 4 times the ordinal of the {@link AccessMode}.
+     */
+    public int getPackedValue() {
+        return packed;
     }
 
     /**
@@ -184,7 +348,7 @@ public class AccessRestrictions {
      * @return Restriction for the given mode.
      */
     public AccessRestriction getRestrictionFor(AccessMode mode) {
-        return restrictions.getOrDefault(mode, AccessRestriction.UNKNOWN);
+        return RESTRICTIONS[(packed >>> (mode.ordinal() * BITS_PER_MODE)) & 0xf];
     }
 
     /**
@@ -212,7 +376,7 @@ public class AccessRestrictions {
      *         given restriction.
      */
     public boolean isAllowedFor(AccessMode mode, AccessRestriction restriction) {
-        return getRestrictionFor(mode).equals(restriction);
+        return (bits & bit(mode, restriction)) != 0;
     }
 
     /**
@@ -227,10 +391,38 @@ public class AccessRestrictions {
      */
     public boolean areAllAllowedForAny(EnumSet<AccessMode> modes,
             EnumSet<AccessRestriction> restrictions) {
-        boolean allowed = true;
         for (AccessMode mode: modes) {
-            allowed = allowed && isAllowedForAny(mode, restrictions);
+            if (!isAllowedForAny(mode, restrictions)) {
+                return false;
+            }
         }
-        return allowed;
+        return true;
+    }
+
+    /**
+     * Check if the restriction associated to each mode of the given mask is one of
+     * the restrictions accepted by the mask.
+     * 
+     * @param mask Mask to check, see {@link Mask#of(EnumSet, EnumSet)}.
+     * 
+     * @return {@code true} if all the modes of the mask are allowed for any of the
+     *         restrictions of the mask.
+     */
+    public boolean isAllowedFor(Mask mask) {
+        // Each mode has exactly one bit set, so all the modes match iff there is
+        // one common bit per mode.
+        return Long.bitCount(bits & mask.bits) == mask.nbModes;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AccessRestrictions
+                && ((AccessRestrictions) other).packed == this.packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return packed;
+    }
+
 }
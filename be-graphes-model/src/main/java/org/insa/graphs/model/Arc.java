@@ -67,4 +67,22 @@ public abstract class Arc {
      * @return Points representing segments of this arc.
      */
     public abstract List<Point> getPoints();
+
+    /**
+     * @return true if this arc is the reverse of another arc, i.e. it was created
+     *         for a two-ways road and only references the arc holding the data.
+     * 
+     * @see #getForwardArc()
+     */
+    public boolean isBackward() {
+        return false;
+    }
+
+    /**
+     * @return The arc this arc is the reverse of if this arc is a backward arc, or
+     *         this arc otherwise.
+     */
+    public Arc getForwardArc() {
+        return this;
+    }
 }
@@ -45,6 +45,16 @@ class ArcBackward extends Arc {
         return this.originalArc.getRoadInformation();
     }
 
+    @Override
+    public boolean isBackward() {
+        return true;
+    }
+
+    @Override
+    public Arc getForwardArc() {
+        return this.originalArc;
+    }
+
     @Override
     public List<Point> getPoints() {
         List<Point> pts = new ArrayList<>(this.originalArc.getPoints());
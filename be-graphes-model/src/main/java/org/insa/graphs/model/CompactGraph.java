@@ -0,0 +1,536 @@
+package org.insa.graphs.model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * <p>
+ * Primitive, read-only representation of a graph stored in <b>compressed sparse
+ * row</b> (CSR) format.
+ * </p>
+ *
+ * <p>
+ * Nodes are identified by their ID (as in {@link Graph}) and arcs by an
+ * <i>arc ID</i>: the successors of node {@code n} are the arcs whose IDs lie in
+ * {@code [getFirstArc(n), getFirstArc(n + 1))}, in the same order as
+ * {@link Node#getSuccessors()}. All attributes of an arc (destination, length,
+ * road information) are stored in flat arrays indexed by arc ID, so iterating
+ * the successors of a node does not allocate nor dereference any object.
+ * </p>
+ *
+ * <p>
+ * A compact graph can be created from an existing {@link Graph} (see
+ * {@link #fromGraph(Graph)} or {@link Graph#getCompactGraph()}), in which case
+ * {@link #getArc(int)} gives back the corresponding {@link Arc} objects, or read
+ * directly from a file (see
+ * {@link org.insa.graphs.model.io.BinaryGraphReader#readCompactGraph()}), in
+ * which case no node or arc object is ever created.
+ * </p>
+ *
+ */
+public final class CompactGraph {
+
+    // Maximum number of road information that can be indexed using shorts.
+    private static final int MAX_SHORT_INDEX = 1 << 16;
+
+    /**
+     * Create a compact graph corresponding to the given graph. Arc IDs follow the
+     * order of the nodes and of their successors.
+     *
+     * @param graph Graph to convert.
+     *
+     * @return A new compact graph corresponding to the given graph.
+     */
+    public static CompactGraph fromGraph(Graph graph) {
+        final int nbNodes = graph.size();
+
+        // Compute offsets and retrieve arcs.
+        int[] offsets = new int[nbNodes + 1];
+        for (Node node: graph.getNodes()) {
+            offsets[node.getId() + 1] = node.getNumberOfSuccessors();
+        }
+        for (int i = 0; i < nbNodes; ++i) {
+            offsets[i + 1] += offsets[i];
+        }
+        final int nbArcs = offsets[nbNodes];
+
+        Arc[] arcs = new Arc[nbArcs];
+        int[] heads = new int[nbArcs];
+        float[] lengths = new float[nbArcs];
+        int[] infoIndices = new int[nbArcs];
+
+        float[] longitudes = new float[nbNodes];
+        float[] latitudes = new float[nbNodes];
+
+        // Road information are shared between arcs, so we index them by identity.
+        IdentityHashMap<RoadInformation, Integer> infoIds = new IdentityHashMap<>();
+        RoadInformation[] infos = new RoadInformation[16];
+
+        for (Node node: graph.getNodes()) {
+            Point point = node.getPoint();
+            longitudes[node.getId()] = point == null ? Float.NaN : point.getLongitude();
+            latitudes[node.getId()] = point == null ? Float.NaN : point.getLatitude();
+
+            int arcId = offsets[node.getId()];
+            for (Arc arc: node.getSuccessors()) {
+                arcs[arcId] = arc;
+                heads[arcId] = arc.getDestination().getId();
+                lengths[arcId] = arc.getLength();
+
+                Integer infoId = infoIds.get(arc.getRoadInformation());
+                if (infoId == null) {
+                    infoId = infoIds.size();
+                    infoIds.put(arc.getRoadInformation(), infoId);
+                    if (infoId == infos.length) {
+                        infos = Arrays.copyOf(infos, 2 * infos.length);
+                    }
+                    infos[infoId] = arc.getRoadInformation();
+                }
+                infoIndices[arcId] = infoId;
+                ++arcId;
+            }
+        }
+
+        CompactGraph compactGraph = new CompactGraph(graph.getMapId(), graph.getMapName(),
+                longitudes, latitudes, offsets, heads, lengths, infoIndices,
+                Arrays.copyOf(infos, infoIds.size()), graph.getGraphInformation());
+        compactGraph.graph = graph;
+        compactGraph.arcs = arcs;
+        return compactGraph;
+    }
+
+    // Map identifier and name.
+    private final String mapId, mapName;
+
+    // Graph information of this graph.
+    private final GraphStatistics graphStatistics;
+
+    // Position of the nodes.
+    private final float[] longitudes, latitudes;
+
+    // Index of the first arc of each node (plus one final index).
+    private final int[] offsets;
+
+    // Destination and length of each arc.
+    private final int[] heads;
+    private final float[] lengths;
+
+    // Index of the road information of each arc, only one of these is not null.
+    private final short[] shortInfoIndices;
+    private final int[] intInfoIndices;
+
+    // Table of road information.
+    private final RoadInformation[] roadInformations;
+
+    // Original graph and arcs, if this graph was created from a Graph.
+    private Graph graph;
+    private Arc[] arcs;
+
+    // Incoming arcs of each node, built on first use.
+    private volatile ReverseIndex reverseIndex;
+
+    /**
+     * Incoming arcs of the nodes, in CSR format: the incoming arcs of node
+     * {@code n} are {@code arcs[offsets[n]..offsets[n + 1])}, and tails[i] is the
+     * origin of arcs[i].
+     */
+    private static final class ReverseIndex {
+
+        private final int[] offsets, arcs, tails;
+
+        private ReverseIndex(int[] offsets, int[] arcs, int[] tails) {
+            this.offsets = offsets;
+            this.arcs = arcs;
+            this.tails = tails;
+        }
+
+    }
+
+    /**
+     * Create a new compact graph from the given arrays. The arrays are used as-is
+     * (not copied) and should not be modified afterwards.
+     *
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param longitudes Longitude of each node.
+     * @param latitudes Latitude of each node.
+     * @param offsets Index of the first arc of each node, of size
+     *        {@code nbNodes + 1} (the last value is the number of arcs).
+     * @param heads Destination of each arc.
+     * @param lengths Length of each arc, in meters.
+     * @param roadInformationIndices Index (in roadInformations) of the road
+     *        information of each arc.
+     * @param roadInformations Table of road information.
+     * @param graphStatistics Information for this graph.
+     */
+    public CompactGraph(String mapId, String mapName, float[] longitudes, float[] latitudes,
+            int[] offsets, int[] heads, float[] lengths, int[] roadInformationIndices,
+            RoadInformation[] roadInformations, GraphStatistics graphStatistics) {
+        if (offsets.length != longitudes.length + 1 || latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Node arrays do not have matching sizes.");
+        }
+        final int nbArcs = offsets[offsets.length - 1];
+        if (heads.length != nbArcs || lengths.length != nbArcs
+                || roadInformationIndices.length != nbArcs) {
+            throw new IllegalArgumentException("Arc arrays do not have matching sizes.");
+        }
+        this.mapId = mapId;
+        this.mapName = mapName;
+        this.longitudes = longitudes;
+        this.latitudes = latitudes;
+        this.offsets = offsets;
+        this.heads = heads;
+        this.lengths = lengths;
+        this.roadInformations = roadInformations;
+        this.graphStatistics = graphStatistics;
+
+        // Most maps have less than 65536 descriptors, in which case we can halve the
+        // memory used by the indices.
+        if (roadInformations.length <= MAX_SHORT_INDEX) {
+            this.shortInfoIndices = new short[nbArcs];
+            for (int i = 0; i < nbArcs; ++i) {
+                this.shortInfoIndices[i] = (short) roadInformationIndices[i];
+            }
+            this.intInfoIndices = null;
+        }
+        else {
+            this.shortInfoIndices = null;
+            this.intInfoIndices = roadInformationIndices;
+        }
+    }
+
+    /**
+     * @return ID of the map associated with this graph.
+     */
+    public String getMapId() {
+        return mapId;
+    }
+
+    /**
+     * @return Name of the map associated with this graph.
+     */
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return The GraphStatistics instance associated with this graph.
+     */
+    public GraphStatistics getGraphInformation() {
+        return graphStatistics;
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    public int size() {
+        return longitudes.length;
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    public int getArcCount() {
+        return heads.length;
+    }
+
+    /**
+     * Retrieve the ID of the first successor arc of the given node. The successors
+     * of {@code node} are the arcs in {@code [getFirstArc(node),
+     * getFirstArc(node + 1))}, so {@code getFirstArc(size())} is valid and returns
+     * the number of arcs.
+     *
+     * Complexity: O(1).
+     *
+     * @param node ID of the node.
+     *
+     * @return ID of the first successor arc of the given node.
+     */
+    public int getFirstArc(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Number of successors of the given node.
+     */
+    public int getNumberOfSuccessors(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @param arc ID of the arc.
+     *
+     * @return ID of the destination node of the given arc.
+     */
+    public int getHead(int arc) {
+        return heads[arc];
+    }
+
+    /**
+     * Retrieve the origin of the given arc.
+     *
+     * Complexity: O(log n), as the origin is not stored but retrieved from the
+     * offsets.
+     *
+     * @param arc ID of the arc.
+     *
+     * @return ID of the origin node of the given arc.
+     */
+    public int getTail(int arc) {
+        if (arc < 0 || arc >= heads.length) {
+            throw new IndexOutOfBoundsException("Invalid arc ID: " + arc);
+        }
+        // Find the last node whose first arc is lower or equal to arc, skipping nodes
+        // without successors.
+        int lo = 0, hi = longitudes.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= arc) {
+                lo = mid;
+            }
+            else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @param arc ID of the arc.
+     *
+     * @return Length of the given arc, in meters.
+     */
+    public float getLength(int arc) {
+        return lengths[arc];
+    }
+
+    /**
+     * Compute the time required to travel the given arc if moving at the given
+     * speed.
+     *
+     * @param arc ID of the arc.
+     * @param speed Speed to compute the travel time (in kilometers-per-hour).
+     *
+     * @return Time (in seconds) required to travel the given arc.
+     *
+     * @see Arc#getTravelTime(double)
+     */
+    public double getTravelTime(int arc, double speed) {
+        return lengths[arc] * 3600.0 / (speed * 1000.0);
+    }
+
+    /**
+     * @param arc ID of the arc.
+     *
+     * @return Minimum time required to travel the given arc, in seconds.
+     *
+     * @see Arc#getMinimumTravelTime()
+     */
+    public double getMinimumTravelTime(int arc) {
+        return getTravelTime(arc, getRoadInformation(arc).getMaximumSpeed());
+    }
+
+    /**
+     * @param arc ID of the arc.
+     *
+     * @return Index of the road information of the given arc in the table of road
+     *         information.
+     *
+     * @see #getRoadInformationAt(int)
+     */
+    public int getRoadInformationIndex(int arc) {
+        if (shortInfoIndices != null) {
+            return shortInfoIndices[arc] & 0xffff;
+        }
+        return intInfoIndices[arc];
+    }
+
+    /**
+     * @param arc ID of the arc.
+     *
+     * @return Road information of the given arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return roadInformations[getRoadInformationIndex(arc)];
+    }
+
+    /**
+     * @return Number of distinct road information in this graph.
+     */
+    public int getRoadInformationCount() {
+        return roadInformations.length;
+    }
+
+    /**
+     * @param index Index of the road information.
+     *
+     * @return Road information at the given index in the table of road
+     *         information.
+     */
+    public RoadInformation getRoadInformationAt(int index) {
+        return roadInformations[index];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Longitude of the given node (in degrees).
+     */
+    public float getLongitude(int node) {
+        return longitudes[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Latitude of the given node (in degrees).
+     */
+    public float getLatitude(int node) {
+        return latitudes[node];
+    }
+
+    /**
+     * Retrieve the reverse index of this graph, building it if necessary.
+     */
+    private ReverseIndex getReverseIndex() {
+        ReverseIndex index = this.reverseIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.reverseIndex;
+                if (index == null) {
+                    final int nbNodes = size(), nbArcs = getArcCount();
+                    int[] reverseOffsets = new int[nbNodes + 1];
+                    for (int arc = 0; arc < nbArcs; ++arc) {
+                        reverseOffsets[heads[arc] + 1] += 1;
+                    }
+                    for (int i = 0; i < nbNodes; ++i) {
+                        reverseOffsets[i + 1] += reverseOffsets[i];
+                    }
+                    int[] cursors = Arrays.copyOf(reverseOffsets, nbNodes);
+                    int[] reverseArcs = new int[nbArcs], tails = new int[nbArcs];
+                    for (int node = 0; node < nbNodes; ++node) {
+                        for (int arc = offsets[node]; arc < offsets[node + 1]; ++arc) {
+                            int position = cursors[heads[arc]]++;
+                            reverseArcs[position] = arc;
+                            tails[position] = node;
+                        }
+                    }
+                    index = new ReverseIndex(reverseOffsets, reverseArcs, tails);
+                    this.reverseIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Retrieve the position of the first incoming arc of the given node. The
+     * incoming arcs of {@code node} are at positions in
+     * {@code [getFirstIncomingArc(node), getFirstIncomingArc(node + 1))}, and can
+     * be retrieved using {@link #getIncomingArc(int)}.
+     *
+     * The incoming arcs are indexed on the first call to one of the
+     * {@code Incoming} methods, which is O(n + m), subsequent calls are O(1).
+     *
+     * @param node ID of the node.
+     *
+     * @return Position of the first incoming arc of the given node.
+     */
+    public int getFirstIncomingArc(int node) {
+        return getReverseIndex().offsets[node];
+    }
+
+    /**
+     * @param position Position of the incoming arc (see
+     *        {@link #getFirstIncomingArc(int)}).
+     *
+     * @return ID of the arc at the given position.
+     */
+    public int getIncomingArc(int position) {
+        return getReverseIndex().arcs[position];
+    }
+
+    /**
+     * @param position Position of the incoming arc (see
+     *        {@link #getFirstIncomingArc(int)}).
+     *
+     * @return ID of the origin of the arc at the given position, i.e.
+     *         {@code getTail(getIncomingArc(position))} in O(1).
+     */
+    public int getIncomingArcTail(int position) {
+        return getReverseIndex().tails[position];
+    }
+
+    /**
+     * @return true if this graph was created from a {@link Graph}, i.e.
+     *         {@link #getGraph()} and {@link #getArc(int)} can be used.
+     */
+    public boolean hasGraph() {
+        return graph != null;
+    }
+
+    /**
+     * @return The graph this compact graph was created from.
+     *
+     * @throws IllegalStateException if this graph was not created from a
+     *         {@link Graph}.
+     */
+    public Graph getGraph() {
+        if (graph == null) {
+            throw new IllegalStateException("This compact graph is not backed by a graph.");
+        }
+        return graph;
+    }
+
+    /**
+     * @param arc ID of the arc.
+     *
+     * @return The arc object corresponding to the given arc ID.
+     *
+     * @throws IllegalStateException if this graph was not created from a
+     *         {@link Graph}.
+     */
+    public Arc getArc(int arc) {
+        if (arcs == null) {
+            throw new IllegalStateException("This compact graph is not backed by a graph.");
+        }
+        return arcs[arc];
+    }
+
+    /**
+     * Retrieve the ID of the given arc, which must belong to the graph this compact
+     * graph was created from.
+     *
+     * Complexity: O(d), where d is the number of successors of the origin of the
+     * arc.
+     *
+     * @param arc Arc to find.
+     *
+     * @return ID of the given arc, or -1 if the arc is not a successor of its
+     *         origin in this graph.
+     *
+     * @throws IllegalStateException if this graph was not created from a
+     *         {@link Graph}.
+     */
+    public int getArcId(Arc arc) {
+        if (arcs == null) {
+            throw new IllegalStateException("This compact graph is not backed by a graph.");
+        }
+        final int origin = arc.getOrigin().getId();
+        for (int i = offsets[origin]; i < offsets[origin + 1]; ++i) {
+            if (arcs[i] == arc) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[id=%s, name=%s, #nodes=%d, #arcs=%d]",
+                getClass().getCanonicalName(), getMapId(), getMapName(), size(), getArcCount());
+    }
+
+}
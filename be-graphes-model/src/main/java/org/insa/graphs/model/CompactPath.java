@@ -0,0 +1,358 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p>
+ * Immutable path stored as the IDs of its arcs in the {@link CompactGraph} of
+ * its graph.
+ * </p>
+ *
+ * <p>
+ * Contrary to {@link Path}, a compact path does not hold any {@link Arc}
+ * object, and its length and minimum travel time are computed once when the
+ * path is created. Compact paths are built directly from the arcs used by a
+ * search to reach the nodes (see {@link #fromParentArcs(Graph, int, IntUnaryOperator)}),
+ * and converted to a {@link Path} only when needed (see {@link #toPath()}).
+ * </p>
+ */
+public final class CompactPath {
+
+    /**
+     * Create the path ending at the given node by following the arc used to reach
+     * each node, e.g. the parent arcs of a shortest-path search, until a node
+     * without parent arc.
+     *
+     * @param graph Graph containing the path.
+     * @param destination ID of the last node of the path.
+     * @param parentArcs Function returning the ID of the arc used to reach a node,
+     *        or a negative value for the first node of the path.
+     *
+     * @return Path from the first node to the given destination.
+     *
+     * @throws IllegalArgumentException if the arc used to reach a node does not
+     *         end at this node.
+     */
+    public static CompactPath fromParentArcs(Graph graph, int destination,
+            IntUnaryOperator parentArcs) {
+        final CompactGraph compact = graph.getCompactGraph();
+
+        // Arcs from the destination back to the origin, the tail of each arc is
+        // found among the incoming arcs of its head (the current node).
+        int[] arcs = new int[16];
+        int nbArcs = 0;
+        int node = destination;
+        for (int arc = parentArcs.applyAsInt(node); arc >= 0; arc = parentArcs.applyAsInt(node)) {
+            if (nbArcs == arcs.length) {
+                arcs = Arrays.copyOf(arcs, 2 * nbArcs);
+            }
+            arcs[nbArcs++] = arc;
+            node = getTail(compact, node, arc);
+        }
+        if (nbArcs == 0) {
+            return new CompactPath(graph, destination);
+        }
+        int[] path = new int[nbArcs];
+        for (int i = 0; i < nbArcs; ++i) {
+            path[i] = arcs[nbArcs - 1 - i];
+        }
+        return new CompactPath(graph, node, path);
+    }
+
+    /**
+     * @return Origin of the given arc, found among the incoming arcs of its
+     *         destination in O(d) instead of the binary search of
+     *         {@link CompactGraph#getTail(int)}.
+     */
+    private static int getTail(CompactGraph compact, int head, int arc) {
+        for (int i = compact.getFirstIncomingArc(head); i < compact
+                .getFirstIncomingArc(head + 1); ++i) {
+            if (compact.getIncomingArc(i) == arc) {
+                return compact.getIncomingArcTail(i);
+            }
+        }
+        throw new IllegalArgumentException("Arc " + arc + " does not end at node " + head + ".");
+    }
+
+    /**
+     * Create the path ending at the given node from an array of parent arcs, see
+     * {@link #fromParentArcs(Graph, int, IntUnaryOperator)}.
+     *
+     * @param graph Graph containing the path.
+     * @param destination ID of the last node of the path.
+     * @param parentArcs ID of the arc used to reach each node, or a negative value
+     *        for the first node of the path.
+     *
+     * @return Path from the first node to the given destination.
+     */
+    public static CompactPath fromParentArcs(Graph graph, int destination, int[] parentArcs) {
+        return fromParentArcs(graph, destination, (node) -> parentArcs[node]);
+    }
+
+    /**
+     * Create a compact path from the given path.
+     *
+     * @param path Path to convert.
+     *
+     * @return Compact path with the same arcs as the given path.
+     *
+     * @throws IllegalArgumentException if an arc of the path does not belong to
+     *         the graph of the path.
+     */
+    public static CompactPath fromPath(Path path) {
+        if (path.isEmpty()) {
+            return new CompactPath(path.getGraph());
+        }
+        if (path.getArcs().isEmpty()) {
+            return new CompactPath(path.getGraph(), path.getOrigin().getId());
+        }
+        final CompactGraph compact = path.getGraph().getCompactGraph();
+        int[] arcs = new int[path.getArcs().size()];
+        for (int i = 0; i < arcs.length; ++i) {
+            arcs[i] = compact.getArcId(path.getArcs().get(i));
+            if (arcs[i] == -1) {
+                throw new IllegalArgumentException(
+                        "Arc " + path.getArcs().get(i) + " is not in the graph of the path.");
+            }
+        }
+        return new CompactPath(path.getGraph(), arcs);
+    }
+
+    // Graph containing this path.
+    private final Graph graph;
+
+    // ID of the origin of the path, -1 if the path is empty.
+    private final int origin;
+
+    // IDs of the arcs in this path.
+    private final int[] arcs;
+
+    // Aggregates, computed when the path is created.
+    private final float length;
+    private final double minimumTravelTime;
+    private final boolean valid;
+
+    /**
+     * Create an empty path corresponding to the given graph.
+     *
+     * @param graph Graph containing the path.
+     */
+    public CompactPath(Graph graph) {
+        this(graph, -1, new int[0]);
+    }
+
+    /**
+     * Create a new path containing a single node.
+     *
+     * @param graph Graph containing the path.
+     * @param node ID of the single node of the path.
+     */
+    public CompactPath(Graph graph, int node) {
+        this(graph, node, new int[0]);
+    }
+
+    /**
+     * Create a new path with the given arcs.
+     *
+     * @param graph Graph containing the path.
+     * @param arcs IDs of the arcs of the path in the compact graph of the graph
+     *        (not copied).
+     *
+     * @throws IllegalArgumentException if the given array is empty.
+     */
+    public CompactPath(Graph graph, int[] arcs) {
+        this(graph, firstNode(graph, arcs), arcs);
+    }
+
+    private CompactPath(Graph graph, int origin, int[] arcs) {
+        this.graph = graph;
+        this.origin = origin;
+        this.arcs = arcs;
+
+        // Same order of summation as Path, so that both give the same length.
+        float length = 0;
+        double minimumTravelTime = 0;
+        boolean valid = true;
+        if (arcs.length > 0) {
+            final CompactGraph compact = graph.getCompactGraph();
+            int current = origin;
+            for (int arc: arcs) {
+                length += compact.getLength(arc);
+                minimumTravelTime += compact.getMinimumTravelTime(arc);
+
+                // The arc starts at the current node iff it is one of its successors.
+                valid = valid && arc >= compact.getFirstArc(current)
+                        && arc < compact.getFirstArc(current + 1);
+                current = compact.getHead(arc);
+            }
+        }
+        this.length = length;
+        this.minimumTravelTime = minimumTravelTime;
+        this.valid = valid;
+    }
+
+    private static int firstNode(Graph graph, int[] arcs) {
+        if (arcs.length == 0) {
+            throw new IllegalArgumentException("Cannot create a path without arcs.");
+        }
+        return graph.getCompactGraph().getTail(arcs[0]);
+    }
+
+    /**
+     * @return Graph containing the path.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return ID of the first node of the path, or -1 if the path is empty.
+     */
+    public int getOriginId() {
+        return origin;
+    }
+
+    /**
+     * @return ID of the last node of the path, or -1 if the path is empty.
+     */
+    public int getDestinationId() {
+        return arcs.length == 0 ? origin : graph.getCompactGraph().getHead(arcs[arcs.length - 1]);
+    }
+
+    /**
+     * @return First node of the path, or null if the path is empty.
+     */
+    public Node getOrigin() {
+        return isEmpty() ? null : graph.get(origin);
+    }
+
+    /**
+     * @return Last node of the path, or null if the path is empty.
+     */
+    public Node getDestination() {
+        return isEmpty() ? null : graph.get(getDestinationId());
+    }
+
+    /**
+     * @return Number of arcs in the path.
+     */
+    public int getArcCount() {
+        return arcs.length;
+    }
+
+    /**
+     * @param index Index of the arc in the path.
+     *
+     * @return ID of the arc at the given index in the path.
+     */
+    public int getArcId(int index) {
+        return arcs[index];
+    }
+
+    /**
+     * @return IDs of the arcs of the path (copy).
+     */
+    public int[] getArcIds() {
+        return arcs.clone();
+    }
+
+    /**
+     * @return true if this path is empty (it does not contain any node).
+     */
+    public boolean isEmpty() {
+        return origin == -1;
+    }
+
+    /**
+     * @return Number of <b>nodes</b> in this path.
+     */
+    public int size() {
+        return isEmpty() ? 0 : 1 + arcs.length;
+    }
+
+    /**
+     * @return true if the path is valid, i.e. if it is empty, or if each arc
+     *         starts at the end of the previous one (or at the origin for the first
+     *         arc).
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * @return Total length of the path (in meters).
+     */
+    public float getLength() {
+        return length;
+    }
+
+    /**
+     * @param speed Speed to compute the travel time.
+     *
+     * @return Time (in seconds) required to travel this path at the given speed (in
+     *         kilometers-per-hour).
+     */
+    public double getTravelTime(double speed) {
+        final CompactGraph compact = graph.getCompactGraph();
+        double travelTime = 0;
+        for (int arc: arcs) {
+            travelTime += compact.getTravelTime(arc, speed);
+        }
+        return travelTime;
+    }
+
+    /**
+     * @return Minimum travel time to travel this path (in seconds), i.e. moving at
+     *         the maximum allowed speed on every arc.
+     */
+    public double getMinimumTravelTime() {
+        return minimumTravelTime;
+    }
+
+    /**
+     * Convert this path to a {@link Path}, with the arcs of the graph.
+     *
+     * @return A new path with the same arcs as this path.
+     */
+    public Path toPath() {
+        if (isEmpty()) {
+            return new Path(graph);
+        }
+        if (arcs.length == 0) {
+            return new Path(graph, graph.get(origin));
+        }
+        final CompactGraph compact = graph.getCompactGraph();
+        List<Arc> list = new ArrayList<>(arcs.length);
+        for (int arc: arcs) {
+            list.add(compact.getArc(arc));
+        }
+        return new Path(graph, list);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompactPath)) {
+            return false;
+        }
+        CompactPath path = (CompactPath) other;
+        return graph == path.graph && origin == path.origin && Arrays.equals(arcs, path.arcs);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * origin + Arrays.hashCode(arcs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompactPath[origin=%d, destination=%d, #arcs=%d, length=%.1f]",
+                origin, getDestinationId(), arcs.length, length);
+    }
+
+}
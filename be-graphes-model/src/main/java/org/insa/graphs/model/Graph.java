@@ -13,6 +13,16 @@ import java.util.List;
  * This class acts as a object-oriented <b>adjacency list</b> for a graph, i.e.,
  * it holds a list of nodes and each node holds a list of its successors.
  * </p>
+ * 
+ * <p>
+ * Graphs are immutable: the nodes are frozen when the graph is created, so no
+ * successor can be added to them afterwards (see {@link Node#isFrozen()}).
+ * Since the nodes are frozen in the constructor and only reachable through
+ * final fields, a graph is safely published to other threads even without
+ * synchronization, and a single instance can be shared by any number of
+ * concurrent searches. Lazily computed data (the compact graph, the points of
+ * arcs decoded on demand) are computed in a thread-safe way.
+ * </p>
  *
  */
 public final class Graph {
@@ -29,19 +39,61 @@ public final class Graph {
     // Graph information of this graph.
     private final GraphStatistics graphStatistics;
 
+    // Original ID (in the map file) of each node, and node ID by original ID, or
+    // null if the nodes have not been renumbered.
+    private final int[] originalIds, nodeIds;
+
+    // Compact representation of this graph, created on first access.
+    private volatile CompactGraph compactGraph;
+
+    // Spatial index of this graph, created on first access.
+    private volatile SpatialIndex spatialIndex;
+
     /**
-     * Create a new graph with the given ID, name, nodes and information.
+     * Create a new graph with the given ID, name, nodes and information. The
+     * given nodes are frozen, so all the successors must have been added before
+     * creating the graph.
      * 
      * @param mapId ID of the map corresponding to this graph.
      * @param mapName Name of the map corresponding to this graph.
-     * @param nodes List of nodes for this graph.
+     * @param nodes List of nodes for this graph (copied).
      * @param graphStatistics Information for this graph.
      */
     public Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics) {
+        this(mapId, mapName, nodes, graphStatistics, null);
+    }
+
+    /**
+     * Create a new graph whose nodes have been renumbered, see
+     * {@link GraphReordering}.
+     * 
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param nodes List of nodes for this graph (copied).
+     * @param graphStatistics Information for this graph.
+     * @param originalIds Original ID of each node, or null if the nodes have not
+     *        been renumbered.
+     */
+    Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics,
+            int[] originalIds) {
         this.mapId = mapId;
         this.mapName = mapName;
-        this.nodes = Collections.unmodifiableList(nodes);
+        ArrayList<Node> copy = new ArrayList<>(nodes);
+        for (Node node: copy) {
+            node.freeze();
+        }
+        this.nodes = Collections.unmodifiableList(copy);
         this.graphStatistics = graphStatistics;
+        this.originalIds = originalIds;
+        if (originalIds != null) {
+            this.nodeIds = new int[originalIds.length];
+            for (int id = 0; id < originalIds.length; ++id) {
+                this.nodeIds[originalIds[id]] = id;
+            }
+        }
+        else {
+            this.nodeIds = null;
+        }
     }
 
     /**
@@ -64,6 +116,38 @@ public final class Graph {
         return this.nodes.get(id);
     }
 
+    /**
+     * Fetch the node with the given original ID, i.e. the ID of the node in the
+     * map file. This is the same as {@link #get(int)} unless the nodes have been
+     * renumbered (see {@link GraphReordering}).
+     * 
+     * @param originalId Original ID of the node to fetch.
+     * 
+     * @return Node with the given original ID.
+     */
+    public Node getByOriginalId(int originalId) {
+        return get(nodeIds == null ? originalId : nodeIds[originalId]);
+    }
+
+    /**
+     * @param id ID of a node of this graph.
+     * 
+     * @return Original ID of the given node, i.e. its ID in the map file.
+     * 
+     * @see #getByOriginalId(int)
+     */
+    public int getOriginalId(int id) {
+        return originalIds == null ? id : originalIds[id];
+    }
+
+    /**
+     * @return true if the nodes of this graph have been renumbered, i.e. if node
+     *         IDs are not the IDs of the map file.
+     */
+    public boolean isRenumbered() {
+        return originalIds != null;
+    }
+
     /**
      * @return Number of nodes in this graph.
      */
@@ -80,6 +164,53 @@ public final class Graph {
         return this.nodes;
     }
 
+    /**
+     * Retrieve the compact (CSR) representation of this graph. The compact graph
+     * is created on the first call and then cached, so arc IDs are consistent
+     * between calls. This method can be called concurrently, the compact graph is
+     * only created once.
+     * 
+     * @return Compact representation of this graph.
+     * 
+     * @see CompactGraph#fromGraph(Graph)
+     */
+    public CompactGraph getCompactGraph() {
+        CompactGraph result = this.compactGraph;
+        if (result == null) {
+            synchronized (this) {
+                result = this.compactGraph;
+                if (result == null) {
+                    result = CompactGraph.fromGraph(this);
+                    this.compactGraph = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the spatial index of this graph, used to find the nodes or arcs
+     * close to a position. The index is created on the first call and then
+     * cached.
+     * 
+     * @return Spatial index of this graph.
+     * 
+     * @see SpatialIndex
+     */
+    public SpatialIndex getSpatialIndex() {
+        SpatialIndex result = this.spatialIndex;
+        if (result == null) {
+            synchronized (this) {
+                result = this.spatialIndex;
+                if (result == null) {
+                    result = new SpatialIndex(this);
+                    this.spatialIndex = result;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * @return ID of the map associated with this graph.
      */
@@ -119,7 +250,7 @@ public final class Graph {
                 }
             }
         }
-        return new Graph("R/" + mapId, mapName, trNodes, graphStatistics);
+        return new Graph("R/" + mapId, mapName, trNodes, graphStatistics, originalIds);
     }
 
     @Override
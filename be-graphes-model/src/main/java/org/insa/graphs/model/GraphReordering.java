@@ -0,0 +1,242 @@
+package org.insa.graphs.model;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Utility class to renumber the nodes of a graph, so that nodes that are close
+ * in the graph are also close in memory (in the list of nodes, the compact
+ * graph and all the arrays indexed by node ID).
+ * </p>
+ *
+ * <p>
+ * Node IDs of a map file usually follow the order of the original data, so
+ * neighbors of a node can be anywhere in the arrays used by searches. Ordering
+ * the nodes along a space-filling curve ({@link Order#HILBERT}) or by a
+ * breadth-first traversal ({@link Order#BREADTH_FIRST}) greatly reduces the
+ * number of cache misses when relaxing arcs.
+ * </p>
+ *
+ * <p>
+ * A renumbered graph keeps the ID of the map and the original ID of each node
+ * (see {@link Graph#getOriginalId(int)} and {@link Graph#getByOriginalId(int)}),
+ * so paths are still read and written with the IDs of the map file.
+ * </p>
+ */
+public final class GraphReordering {
+
+    /**
+     * Available orders for the nodes.
+     */
+    public enum Order {
+
+        /**
+         * Nodes ordered along a Hilbert curve over their positions.
+         */
+        HILBERT,
+
+        /**
+         * Nodes ordered by a breadth-first traversal of the graph, ignoring the
+         * direction of the arcs.
+         */
+        BREADTH_FIRST
+    }
+
+    // Number of bits of each coordinate on the Hilbert curve.
+    private static final int HILBERT_BITS = 16;
+
+    private GraphReordering() {
+    }
+
+    /**
+     * Compute a new order for the nodes of the given graph.
+     *
+     * @param graph Graph whose nodes should be ordered.
+     * @param order Order to compute.
+     *
+     * @return Array containing the current ID of each node in the new order, i.e.
+     *         the node at index {@code i} becomes the node with ID {@code i}.
+     */
+    public static int[] computeOrder(Graph graph, Order order) {
+        switch (order) {
+        case HILBERT:
+            return computeHilbertOrder(graph);
+        case BREADTH_FIRST:
+            return computeBreadthFirstOrder(graph.getCompactGraph());
+        default:
+            throw new IllegalArgumentException("Unknown order: " + order);
+        }
+    }
+
+    /**
+     * Create a copy of the given graph with its nodes renumbered in the given
+     * order.
+     *
+     * @param graph Graph to renumber.
+     * @param order Order of the nodes.
+     *
+     * @return A new graph with the nodes renumbered.
+     *
+     * @see #computeOrder(Graph, Order)
+     */
+    public static Graph reorder(Graph graph, Order order) {
+        return reorder(graph, computeOrder(graph, order));
+    }
+
+    /**
+     * Create a copy of the given graph with its nodes renumbered: the node with ID
+     * {@code order[i]} in the given graph becomes the node with ID {@code i}. The
+     * arcs are linked again (see {@link Node#linkNodes(Node, Node, float,
+     * RoadInformation, java.util.List)}) and share their road information and
+     * points with the given graph.
+     *
+     * @param graph Graph to renumber.
+     * @param order Current ID of each node in the new order.
+     *
+     * @return A new graph with the nodes renumbered.
+     *
+     * @throws IllegalArgumentException if the given order is not a permutation of
+     *         the node IDs.
+     */
+    public static Graph reorder(Graph graph, int[] order) {
+        final int nbNodes = graph.size();
+        if (order.length != nbNodes) {
+            throw new IllegalArgumentException(
+                    "Order has " + order.length + " nodes, graph has " + nbNodes + ".");
+        }
+        int[] newIds = new int[nbNodes];
+        Arrays.fill(newIds, -1);
+        for (int newId = 0; newId < nbNodes; ++newId) {
+            if (order[newId] < 0 || order[newId] >= nbNodes || newIds[order[newId]] != -1) {
+                throw new IllegalArgumentException("Order is not a permutation of the nodes.");
+            }
+            newIds[order[newId]] = newId;
+        }
+
+        Node[] nodes = new Node[nbNodes];
+        int[] originalIds = new int[nbNodes];
+        for (int newId = 0; newId < nbNodes; ++newId) {
+            nodes[newId] = new Node(newId, graph.get(order[newId]).getPoint());
+            originalIds[newId] = graph.getOriginalId(order[newId]);
+        }
+
+        // Link each road once, from its forward arc, or from its only arc for
+        // one-way roads (which are only stored as backward arcs in transposed
+        // graphs).
+        for (int newId = 0; newId < nbNodes; ++newId) {
+            for (Arc arc: graph.get(order[newId]).getSuccessors()) {
+                if (!arc.isBackward() || arc.getRoadInformation().isOneWay()) {
+                    Node.linkNodes(nodes[newIds[arc.getOrigin().getId()]],
+                            nodes[newIds[arc.getDestination().getId()]], arc.getLength(),
+                            arc.getRoadInformation(), arc.getPoints());
+                }
+            }
+        }
+
+        return new Graph(graph.getMapId(), graph.getMapName(), Arrays.asList(nodes),
+                graph.getGraphInformation(), originalIds);
+    }
+
+    /**
+     * @return Nodes ordered by their index on a Hilbert curve covering the
+     *         bounding box of the nodes.
+     */
+    private static int[] computeHilbertOrder(Graph graph) {
+        final int nbNodes = graph.size();
+        float minLongitude = Float.POSITIVE_INFINITY, maxLongitude = Float.NEGATIVE_INFINITY;
+        float minLatitude = Float.POSITIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (Node node: graph.getNodes()) {
+            minLongitude = Math.min(minLongitude, node.getPoint().getLongitude());
+            maxLongitude = Math.max(maxLongitude, node.getPoint().getLongitude());
+            minLatitude = Math.min(minLatitude, node.getPoint().getLatitude());
+            maxLatitude = Math.max(maxLatitude, node.getPoint().getLatitude());
+        }
+        final double scale = (1 << HILBERT_BITS) - 1;
+        final double width = Math.max(maxLongitude - minLongitude, Float.MIN_VALUE);
+        final double height = Math.max(maxLatitude - minLatitude, Float.MIN_VALUE);
+
+        // Sort the nodes by (index, ID), packed in a long since the index uses 32
+        // bits and IDs 31 bits.
+        long[] keys = new long[nbNodes];
+        for (Node node: graph.getNodes()) {
+            Point point = node.getPoint();
+            int x = (int) Math.round((point.getLongitude() - minLongitude) / width * scale);
+            int y = (int) Math.round((point.getLatitude() - minLatitude) / height * scale);
+            keys[node.getId()] = (hilbertIndex(x, y) << 31) | node.getId();
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[nbNodes];
+        for (int i = 0; i < nbNodes; ++i) {
+            order[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return order;
+    }
+
+    /**
+     * @return Index of the given cell on the Hilbert curve of order
+     *         {@link #HILBERT_BITS}.
+     */
+    private static long hilbertIndex(int x, int y) {
+        final int size = 1 << HILBERT_BITS;
+        long index = 0;
+        for (int s = size >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+
+            // Rotate the quadrant so that the curve is continuous.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = size - 1 - x;
+                    y = size - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return Nodes in the order they are visited by breadth-first traversals
+     *         (following arcs in both directions), each traversal starting from
+     *         the unvisited node with the lowest ID.
+     */
+    private static int[] computeBreadthFirstOrder(CompactGraph graph) {
+        final int nbNodes = graph.size();
+        boolean[] visited = new boolean[nbNodes];
+
+        // The order is also used as the queue of the traversals.
+        int[] order = new int[nbNodes];
+        int head = 0, tail = 0;
+        for (int root = 0; root < nbNodes; ++root) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            order[tail++] = root;
+            while (head < tail) {
+                int node = order[head++];
+                for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                    int next = graph.getHead(arc);
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        order[tail++] = next;
+                    }
+                }
+                for (int i = graph.getFirstIncomingArc(node); i < graph
+                        .getFirstIncomingArc(node + 1); ++i) {
+                    int previous = graph.getIncomingArcTail(i);
+                    if (!visited[previous]) {
+                        visited[previous] = true;
+                        order[tail++] = previous;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+}
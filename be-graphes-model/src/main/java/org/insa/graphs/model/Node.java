@@ -1,5 +1,6 @@
 package org.insa.graphs.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +44,32 @@ public final class Node implements Comparable<Node> {
      */
     public static Arc linkNodes(Node origin, Node destination, float length,
             RoadInformation roadInformation, ArrayList<Point> points) {
+        return linkNodes(origin, destination, length, roadInformation, (List<Point>) points);
+    }
+
+    /**
+     * <p>
+     * Link the two given nodes with one or two arcs, as
+     * {@link #linkNodes(Node, Node, float, RoadInformation, ArrayList)}, using the
+     * given list of points as-is for the arcs.
+     * </p>
+     * 
+     * <p>
+     * An {@link ArrayList} is reversed in place if needed, while other lists are
+     * wrapped in a reversed view so that lazy lists (e.g. segments decoded on
+     * demand) are not read when creating the arcs.
+     * </p>
+     * 
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * @param length Length of the arc.
+     * @param roadInformation Information corresponding to the arc.
+     * @param points Points for the arc.
+     * 
+     * @return The newly created forward arc (origin to destination).
+     */
+    public static Arc linkNodes(Node origin, Node destination, float length,
+            RoadInformation roadInformation, List<Point> points) {
         Arc arc = null;
         if (roadInformation.isOneWay()) {
             arc = new ArcForward(origin, destination, length, roadInformation, points);
@@ -55,7 +82,23 @@ public final class Node implements Comparable<Node> {
                 d2o = new ArcBackward(arc);
             }
             else {
-                Collections.reverse(points);
+                if (points instanceof ArrayList) {
+                    Collections.reverse(points);
+                }
+                else if (points != null) {
+                    final List<Point> forward = points;
+                    points = new AbstractList<Point>() {
+                        @Override
+                        public Point get(int index) {
+                            return forward.get(forward.size() - 1 - index);
+                        }
+
+                        @Override
+                        public int size() {
+                            return forward.size();
+                        }
+                    };
+                }
                 d2o = new ArcForward(destination, origin, length, roadInformation, points);
                 arc = new ArcBackward(d2o);
             }
@@ -71,8 +114,12 @@ public final class Node implements Comparable<Node> {
     // Point of this graph.
     private final Point point;
 
-    // Successors.
+    // Successors, and unmodifiable view of the successors.
     private final ArrayList<Arc> successors;
+    private final List<Arc> successorsView;
+
+    // true once the node belongs to a graph, successors cannot be added anymore.
+    private boolean frozen;
 
     /**
      * Create a new Node with the given ID corresponding to the given Point with an
@@ -85,17 +132,43 @@ public final class Node implements Comparable<Node> {
         this.id = id;
         this.point = point;
         this.successors = new ArrayList<Arc>();
+        this.successorsView = Collections.unmodifiableList(this.successors);
     }
 
     /**
      * Add a successor to this node.
      * 
      * @param arc Arc to the successor.
+     * 
+     * @throws IllegalStateException if this node is frozen.
      */
     protected void addSuccessor(Arc arc) {
+        if (frozen) {
+            throw new IllegalStateException(
+                    "Cannot add a successor to node #" + id + " of a frozen graph.");
+        }
         successors.add(arc);
     }
 
+    /**
+     * Freeze this node: successors cannot be added afterwards. This is done when
+     * the node is added to a {@link Graph}.
+     */
+    void freeze() {
+        if (!frozen) {
+            successors.trimToSize();
+            frozen = true;
+        }
+    }
+
+    /**
+     * @return true if this node is frozen, i.e. it belongs to a graph and its
+     *         successors cannot be modified anymore.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     /**
      * @return ID of this node.
      */
@@ -123,7 +196,7 @@ public final class Node implements Comparable<Node> {
      * @see Collections#unmodifiableList(List)
      */
     public List<Arc> getSuccessors() {
-        return Collections.unmodifiableList(this.successors);
+        return this.successorsView;
     }
 
     /**
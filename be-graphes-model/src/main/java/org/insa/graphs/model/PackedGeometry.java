@@ -0,0 +1,165 @@
+package org.insa.graphs.model;
+
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * Shared storage for the geometry (intermediate points) of the arcs of a graph.
+ * </p>
+ *
+ * <p>
+ * Segments are stored as in the binary graph files: each segment is the
+ * difference in longitude and latitude with the previous point, in units of
+ * 1 / 2.10<sup>5</sup> degree, packed as two shorts in a single array shared by
+ * all the arcs. The lists returned by
+ * {@link #getPoints(int, int, Point, Point)} only hold a range of this array,
+ * and create the {@link Point} instances the first time one of their elements
+ * is accessed. The decoded points are only softly referenced, so they are
+ * reclaimed under memory pressure and decoded again when needed.
+ * </p>
+ *
+ * <p>
+ * Segments must be added before the geometry is shared between threads, a
+ * geometry is not modified afterwards.
+ * </p>
+ */
+public final class PackedGeometry {
+
+    // Scale of the deltas (number of units per degree).
+    private static final float SCALE = 2.0e5f;
+
+    // Longitude / latitude deltas of the segments, interleaved.
+    private short[] deltas;
+
+    // Number of segments.
+    private int size;
+
+    /**
+     * Create a new empty geometry.
+     *
+     * @param initialCapacity Expected number of segments.
+     */
+    public PackedGeometry(int initialCapacity) {
+        this.deltas = new short[2 * Math.max(initialCapacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * @return Number of segments stored in this geometry.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add a segment to this geometry.
+     *
+     * @param deltaLongitude Difference in longitude with the previous point, in
+     *        units of 1 / 2.10<sup>5</sup> degree.
+     * @param deltaLatitude Difference in latitude with the previous point, in
+     *        units of 1 / 2.10<sup>5</sup> degree.
+     *
+     * @return Index of the added segment.
+     */
+    public int addSegment(short deltaLongitude, short deltaLatitude) {
+        if (2 * this.size == this.deltas.length) {
+            this.deltas = Arrays.copyOf(this.deltas, 2 * this.deltas.length);
+        }
+        this.deltas[2 * this.size] = deltaLongitude;
+        this.deltas[2 * this.size + 1] = deltaLatitude;
+        return this.size++;
+    }
+
+    /**
+     * Release the memory allocated for segments that have not been added.
+     */
+    public void trimToSize() {
+        if (this.deltas.length > 2 * this.size) {
+            this.deltas = Arrays.copyOf(this.deltas, 2 * this.size);
+        }
+    }
+
+    /**
+     * Create the list of points of an arc whose segments are stored in this
+     * geometry. The points are not created by this method.
+     *
+     * @param first Index of the first segment of the arc.
+     * @param count Number of segments of the arc.
+     * @param origin First point of the arc.
+     * @param destination Last point of the arc.
+     *
+     * @return Unmodifiable list of {@code count + 2} points, starting with origin
+     *         and ending with destination.
+     */
+    public List<Point> getPoints(int first, int count, Point origin, Point destination) {
+        if (first < 0 || count < 0 || first + count > this.size) {
+            throw new IndexOutOfBoundsException(
+                    "Segments [" + first + ", " + (first + count) + ") out of bounds.");
+        }
+        return new PointList(this, first, count, origin, destination);
+    }
+
+    /**
+     * List of the points of an arc, decoded from the shared geometry on first
+     * access.
+     */
+    private static final class PointList extends AbstractList<Point> implements RandomAccess {
+
+        // Geometry and range of the segments.
+        private final PackedGeometry geometry;
+        private final int first, count;
+
+        // First and last points.
+        private final Point origin, destination;
+
+        // Decoded points, or null if not decoded yet (or reclaimed).
+        private volatile SoftReference<Point[]> points;
+
+        PointList(PackedGeometry geometry, int first, int count, Point origin,
+                Point destination) {
+            this.geometry = geometry;
+            this.first = first;
+            this.count = count;
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        private Point[] decode() {
+            SoftReference<Point[]> reference = this.points;
+            Point[] decoded = reference == null ? null : reference.get();
+            if (decoded == null) {
+                final short[] deltas = this.geometry.deltas;
+                decoded = new Point[count + 2];
+                decoded[0] = origin;
+                float longitude = origin.getLongitude(), latitude = origin.getLatitude();
+                for (int seg = 0; seg < count; ++seg) {
+                    longitude += deltas[2 * (first + seg)] / SCALE;
+                    latitude += deltas[2 * (first + seg) + 1] / SCALE;
+                    decoded[seg + 1] = new Point(longitude, latitude);
+                }
+                decoded[count + 1] = destination;
+                this.points = new SoftReference<>(decoded);
+            }
+            return decoded;
+        }
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return decode()[index];
+        }
+
+        @Override
+        public int size() {
+            return count + 2;
+        }
+
+    }
+
+}
@@ -0,0 +1,585 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+
+/**
+ * <p>
+ * Spatial index of the nodes and arcs of a graph, used to find the nodes or arcs
+ * close to a position.
+ * </p>
+ *
+ * <p>
+ * Nodes and arcs are stored in two packed R-trees (Sort-Tile-Recursive
+ * packing), each leaf holding up to {@value #NODE_CAPACITY} entries. Nearest
+ * neighbor queries are answered by a best-first traversal of the tree, in
+ * <i>O(log n)</i> for well-distributed entries, instead of a scan of the whole
+ * graph. Positions are compared in an equirectangular projection centered on the
+ * graph, which is accurate for regional maps, while the distances returned are
+ * computed with {@link Point#distance(Point, Point)}.
+ * </p>
+ *
+ * <p>
+ * The index of the nodes is built with the index, the index of the arcs is built
+ * on the first call to {@link #snapToArc(Point, Predicate)}. An index is
+ * immutable and can be shared between threads.
+ * </p>
+ *
+ * @see Graph#getSpatialIndex()
+ */
+public final class SpatialIndex {
+
+    /**
+     * Result of {@link SpatialIndex#snapToArc(Point, Predicate)}: the position on
+     * an arc that is the closest to a given point.
+     */
+    public static final class Snap {
+
+        private final Arc arc;
+        private final Point point;
+        private final double distance, distanceFromOrigin;
+
+        private Snap(Arc arc, Point point, double distance, double distanceFromOrigin) {
+            this.arc = arc;
+            this.point = point;
+            this.distance = distance;
+            this.distanceFromOrigin = distanceFromOrigin;
+        }
+
+        /**
+         * @return Arc on which the point was snapped.
+         */
+        public Arc getArc() {
+            return arc;
+        }
+
+        /**
+         * @return Position on the arc that is the closest to the point.
+         */
+        public Point getPoint() {
+            return point;
+        }
+
+        /**
+         * @return Distance between the point and the arc (in meters).
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return Distance from the origin of the arc to the snapped position,
+         *         following the geometry of the arc (in meters).
+         */
+        public double getDistanceFromOrigin() {
+            return distanceFromOrigin;
+        }
+
+        @Override
+        public String toString() {
+            return "Snap(arc=" + arc + ", point=" + point + ", distance=" + distance + ")";
+        }
+
+    }
+
+    // Maximum number of children of a node of the trees.
+    private static final int NODE_CAPACITY = 16;
+
+    // Graph and compact graph indexed.
+    private final Graph graph;
+    private final CompactGraph compact;
+
+    // Factor applied to longitudes in the projection (cosine of the reference
+    // latitude).
+    private final double scale;
+
+    // Tree of the nodes, and tree of the arcs (created on first access).
+    private final PackedRTree nodeTree;
+    private volatile PackedRTree arcTree;
+
+    /**
+     * Create a new spatial index for the given graph.
+     *
+     * @param graph Graph to index.
+     */
+    public SpatialIndex(Graph graph) {
+        this.graph = graph;
+        this.compact = graph.getCompactGraph();
+
+        float minLatitude = Float.POSITIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < compact.size(); ++node) {
+            minLatitude = Math.min(compact.getLatitude(node), minLatitude);
+            maxLatitude = Math.max(compact.getLatitude(node), maxLatitude);
+        }
+        this.scale = compact.size() == 0 ? 1
+                : Math.cos(Math.toRadians((minLatitude + maxLatitude) / 2.0));
+
+        float[] boxes = new float[4 * compact.size()];
+        for (int node = 0; node < compact.size(); ++node) {
+            float x = projectLongitude(compact.getLongitude(node)),
+                    y = compact.getLatitude(node);
+            boxes[4 * node] = boxes[4 * node + 2] = x;
+            boxes[4 * node + 1] = boxes[4 * node + 3] = y;
+        }
+        this.nodeTree = new PackedRTree(boxes);
+    }
+
+    /**
+     * @return Graph indexed by this index.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    private float projectLongitude(float longitude) {
+        return (float) (longitude * scale);
+    }
+
+    /**
+     * Find the node that is the closest to the given point.
+     *
+     * @param point Point to search around.
+     *
+     * @return Closest node, or null if the graph is empty.
+     */
+    public Node findNearestNode(Point point) {
+        List<Node> nodes = findNearestNodes(point, 1, null);
+        return nodes.isEmpty() ? null : nodes.get(0);
+    }
+
+    /**
+     * Find the k nodes that are the closest to the given point.
+     *
+     * @param point Point to search around.
+     * @param k Number of nodes to find.
+     *
+     * @return The k closest nodes (or all the nodes if the graph has less than k
+     *         nodes), by increasing distance to the point.
+     */
+    public List<Node> findNearestNodes(Point point, int k) {
+        return findNearestNodes(point, k, null);
+    }
+
+    /**
+     * Find the k nodes that are the closest to the given point among the nodes
+     * accepted by the given filter.
+     *
+     * @param point Point to search around.
+     * @param k Number of nodes to find.
+     * @param filter Filter for the nodes, or null to accept all nodes.
+     *
+     * @return The k closest accepted nodes (or all the accepted nodes if there are
+     *         less than k), by increasing distance to the point.
+     */
+    public List<Node> findNearestNodes(Point point, int k, Predicate<Node> filter) {
+        int[] ids = nodeTree.findNearest(projectLongitude(point.getLongitude()),
+                point.getLatitude(), k,
+                filter == null ? null : (id) -> filter.test(graph.get(id)), null);
+        List<Node> nodes = new ArrayList<>(ids.length);
+        for (int id: ids) {
+            nodes.add(graph.get(id));
+        }
+        return nodes;
+    }
+
+    /**
+     * Find the nodes inside the given bounding box.
+     *
+     * @param box Bounding box to search.
+     *
+     * @return Nodes inside the box (borders included), in no particular order.
+     */
+    public List<Node> findNodesIn(BoundingBox box) {
+        List<Node> nodes = new ArrayList<>();
+        nodeTree.findIntersecting(projectLongitude(box.getTopLeftPoint().getLongitude()),
+                box.getBottomRightPoint().getLatitude(),
+                projectLongitude(box.getBottomRightPoint().getLongitude()),
+                box.getTopLeftPoint().getLatitude(), (id) -> nodes.add(graph.get(id)));
+        return nodes;
+    }
+
+    /**
+     * Find the position on an arc that is the closest to the given point.
+     *
+     * @param point Point to snap.
+     *
+     * @return Closest position on an arc, or null if the graph has no arc.
+     */
+    public Snap snapToArc(Point point) {
+        return snapToArc(point, null);
+    }
+
+    /**
+     * Find the position on an arc accepted by the given filter that is the closest
+     * to the given point, e.g. to snap to an arc allowed by an arc inspector:
+     * {@code index.snapToArc(point, inspector::isAllowed)}.
+     *
+     * @param point Point to snap.
+     * @param filter Filter for the arcs, or null to accept all arcs.
+     *
+     * @return Closest position on an accepted arc, or null if no arc is accepted.
+     */
+    public Snap snapToArc(Point point, Predicate<Arc> filter) {
+        final double x = projectLongitude(point.getLongitude()), y = point.getLatitude();
+        int[] ids = getArcTree().findNearest(x, y, 1,
+                filter == null ? null : (id) -> filter.test(compact.getArc(id)),
+                (id) -> projectOnArc(compact.getArc(id), x, y, null));
+        if (ids.length == 0) {
+            return null;
+        }
+        Arc arc = compact.getArc(ids[0]);
+        double[] projection = new double[3];
+        projectOnArc(arc, x, y, projection);
+        Point snapped = new Point((float) (projection[0] / scale), (float) projection[1]);
+
+        // Distance along the arc up to the segment containing the snapped point.
+        List<Point> points = getPoints(arc);
+        double distanceFromOrigin = 0;
+        int segment = (int) projection[2];
+        for (int i = 0; i < segment; ++i) {
+            distanceFromOrigin += Point.distance(points.get(i), points.get(i + 1));
+        }
+        distanceFromOrigin += Point.distance(points.get(segment), snapped);
+
+        return new Snap(arc, snapped, Point.distance(point, snapped), distanceFromOrigin);
+    }
+
+    private PackedRTree getArcTree() {
+        PackedRTree result = this.arcTree;
+        if (result == null) {
+            synchronized (this) {
+                result = this.arcTree;
+                if (result == null) {
+                    float[] boxes = new float[4 * compact.getArcCount()];
+                    for (int arcId = 0; arcId < compact.getArcCount(); ++arcId) {
+                        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY,
+                                maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+                        for (Point p: getPoints(compact.getArc(arcId))) {
+                            float px = projectLongitude(p.getLongitude());
+                            minX = Math.min(px, minX);
+                            minY = Math.min(p.getLatitude(), minY);
+                            maxX = Math.max(px, maxX);
+                            maxY = Math.max(p.getLatitude(), maxY);
+                        }
+                        boxes[4 * arcId] = minX;
+                        boxes[4 * arcId + 1] = minY;
+                        boxes[4 * arcId + 2] = maxX;
+                        boxes[4 * arcId + 3] = maxY;
+                    }
+                    result = new PackedRTree(boxes);
+                    this.arcTree = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Points of the given arc, or its origin and destination if the arc has
+     *         no points.
+     */
+    private static List<Point> getPoints(Arc arc) {
+        List<Point> points = arc.getPoints();
+        if (points == null || points.size() < 2) {
+            points = Arrays.asList(arc.getOrigin().getPoint(), arc.getDestination().getPoint());
+        }
+        return points;
+    }
+
+    /**
+     * Compute the squared projected distance between the given position and the
+     * given arc. If result is not null, it is filled with the projected
+     * coordinates of the closest position on the arc and the index of the segment
+     * containing it.
+     */
+    private double projectOnArc(Arc arc, double x, double y, double[] result) {
+        List<Point> points = getPoints(arc);
+        double best = Double.POSITIVE_INFINITY;
+        double x1 = points.get(0).getLongitude() * scale, y1 = points.get(0).getLatitude();
+        for (int i = 1; i < points.size(); ++i) {
+            double x2 = points.get(i).getLongitude() * scale, y2 = points.get(i).getLatitude();
+            double dx = x2 - x1, dy = y2 - y1;
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0
+                    : Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / lengthSquared));
+            double px = x1 + t * dx, py = y1 + t * dy;
+            double distance = (x - px) * (x - px) + (y - py) * (y - py);
+            if (distance < best) {
+                best = distance;
+                if (result != null) {
+                    result[0] = px;
+                    result[1] = py;
+                    result[2] = i - 1;
+                }
+            }
+            x1 = x2;
+            y1 = y2;
+        }
+        return best;
+    }
+
+    /**
+     * Function computing the exact squared distance between a position and an
+     * entry of a tree.
+     */
+    private interface EntryDistance {
+        double distance(int id);
+    }
+
+    /**
+     * Consumer of the IDs of the entries found by a query.
+     */
+    private interface EntryConsumer {
+        void accept(int id);
+    }
+
+    /**
+     * Static R-tree packed with the Sort-Tile-Recursive algorithm, whose entries
+     * are the integers [0, n) associated with boxes.
+     */
+    private static final class PackedRTree {
+
+        // IDs and boxes (minX, minY, maxX, maxY) of the entries, in tree order.
+        private final int[] ids;
+        private final float[] entryBoxes;
+
+        // Boxes of the nodes of each level, starting from the leaves. The children
+        // of node i are the nodes (or entries) [i * NODE_CAPACITY, (i + 1) *
+        // NODE_CAPACITY) of the level below.
+        private final float[][] levels;
+
+        PackedRTree(float[] boxes) {
+            final int size = boxes.length / 4;
+
+            // Sort the entries by x, cut them into vertical slices, and sort each
+            // slice by y.
+            int[] order = new int[size];
+            for (int i = 0; i < size; ++i) {
+                order[i] = i;
+            }
+            sortByCenter(order, 0, size, boxes, 0);
+            int nbLeaves = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            int nbSlices = (int) Math.ceil(Math.sqrt(nbLeaves));
+            int sliceSize = Math.max(nbSlices * NODE_CAPACITY, 1);
+            for (int from = 0; from < size; from += sliceSize) {
+                sortByCenter(order, from, Math.min(from + sliceSize, size), boxes, 1);
+            }
+
+            this.ids = order;
+            this.entryBoxes = new float[4 * size];
+            for (int i = 0; i < size; ++i) {
+                System.arraycopy(boxes, 4 * order[i], entryBoxes, 4 * i, 4);
+            }
+
+            List<float[]> levels = new ArrayList<>();
+            float[] current = entryBoxes;
+            while (current.length > 4 || levels.isEmpty() && current.length > 0) {
+                int count = current.length / 4, parentCount = (count + NODE_CAPACITY - 1)
+                        / NODE_CAPACITY;
+                float[] parents = new float[4 * parentCount];
+                for (int parent = 0; parent < parentCount; ++parent) {
+                    int first = parent * NODE_CAPACITY,
+                            last = Math.min(first + NODE_CAPACITY, count);
+                    parents[4 * parent] = parents[4 * parent + 1] = Float.POSITIVE_INFINITY;
+                    parents[4 * parent + 2] = parents[4 * parent + 3] = Float.NEGATIVE_INFINITY;
+                    for (int child = first; child < last; ++child) {
+                        parents[4 * parent] = Math.min(current[4 * child], parents[4 * parent]);
+                        parents[4 * parent + 1] = Math.min(current[4 * child + 1],
+                                parents[4 * parent + 1]);
+                        parents[4 * parent + 2] = Math.max(current[4 * child + 2],
+                                parents[4 * parent + 2]);
+                        parents[4 * parent + 3] = Math.max(current[4 * child + 3],
+                                parents[4 * parent + 3]);
+                    }
+                }
+                levels.add(parents);
+                current = parents;
+            }
+            this.levels = levels.toArray(new float[0][]);
+        }
+
+        /**
+         * Sort the given range of entries by the center of their boxes along the
+         * given axis (0 for x, 1 for y).
+         */
+        private static void sortByCenter(int[] order, int from, int to, float[] boxes,
+                int axis) {
+            long[] keys = new long[to - from];
+            for (int i = from; i < to; ++i) {
+                int id = order[i];
+                float center = (boxes[4 * id + axis] + boxes[4 * id + 2 + axis]) / 2;
+                int bits = Float.floatToIntBits(center);
+                bits ^= (bits >> 31) & 0x7fffffff;
+                keys[i - from] = ((long) bits << 32) | (id & 0xffffffffL);
+            }
+            Arrays.sort(keys);
+            for (int i = from; i < to; ++i) {
+                order[i] = (int) keys[i - from];
+            }
+        }
+
+        private static double squaredDistance(float[] boxes, int index, double x, double y) {
+            double dx = Math.max(0, Math.max(boxes[4 * index] - x, x - boxes[4 * index + 2]));
+            double dy = Math.max(0,
+                    Math.max(boxes[4 * index + 1] - y, y - boxes[4 * index + 3]));
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * Find the k entries closest to the given position.
+         *
+         * @param filter Filter for the entries, or null.
+         * @param exact Exact distance to the entries, or null if the entries are
+         *        points (their boxes are exact).
+         *
+         * @return IDs of the closest entries, by increasing distance.
+         */
+        int[] findNearest(double x, double y, int k, IntPredicate filter, EntryDistance exact) {
+            if (levels.length == 0 || k <= 0) {
+                return new int[0];
+            }
+
+            // Queue of nodes (level >= 0), entries whose exact distance is not
+            // known yet (level -1), and entries with their exact distance (level
+            // -2), by increasing (lower bound of the) distance.
+            SearchQueue queue = new SearchQueue();
+            int top = levels.length - 1;
+            queue.push(squaredDistance(levels[top], 0, x, y), top, 0);
+
+            int[] result = new int[Math.min(k, ids.length)];
+            int count = 0;
+            while (count < result.length && !queue.isEmpty()) {
+                int level = queue.peekLevel(), index = queue.peekIndex();
+                queue.pop();
+                if (level == -2) {
+                    result[count++] = ids[index];
+                }
+                else if (level == -1) {
+                    queue.push(exact.distance(ids[index]), -2, index);
+                }
+                else {
+                    boolean leaf = level == 0;
+                    float[] children = leaf ? entryBoxes : levels[level - 1];
+                    int first = index * NODE_CAPACITY,
+                            last = Math.min(first + NODE_CAPACITY, children.length / 4);
+                    for (int child = first; child < last; ++child) {
+                        if (!leaf) {
+                            queue.push(squaredDistance(children, child, x, y), level - 1, child);
+                        }
+                        else if (filter == null || filter.test(ids[child])) {
+                            queue.push(squaredDistance(children, child, x, y),
+                                    exact == null ? -2 : -1, child);
+                        }
+                    }
+                }
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+
+        /**
+         * Find the entries whose boxes intersect the given box.
+         */
+        void findIntersecting(double minX, double minY, double maxX, double maxY,
+                EntryConsumer consumer) {
+            if (levels.length > 0) {
+                findIntersecting(levels.length - 1, 0, minX, minY, maxX, maxY, consumer);
+            }
+        }
+
+        private void findIntersecting(int level, int index, double minX, double minY,
+                double maxX, double maxY, EntryConsumer consumer) {
+            float[] boxes = level == -1 ? entryBoxes : levels[level];
+            if (boxes[4 * index] > maxX || boxes[4 * index + 2] < minX
+                    || boxes[4 * index + 1] > maxY || boxes[4 * index + 3] < minY) {
+                return;
+            }
+            if (level == -1) {
+                consumer.accept(ids[index]);
+                return;
+            }
+            int count = level == 0 ? ids.length : levels[level - 1].length / 4;
+            int first = index * NODE_CAPACITY, last = Math.min(first + NODE_CAPACITY, count);
+            for (int child = first; child < last; ++child) {
+                findIntersecting(level - 1, child, minX, minY, maxX, maxY, consumer);
+            }
+        }
+
+    }
+
+    /**
+     * Binary min-heap of (distance, level, index) triples.
+     */
+    private static final class SearchQueue {
+
+        private double[] keys = new double[64];
+        private int[] levels = new int[64], indices = new int[64];
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peekLevel() {
+            return levels[0];
+        }
+
+        int peekIndex() {
+            return indices[0];
+        }
+
+        void push(double key, int level, int index) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                levels = Arrays.copyOf(levels, 2 * size);
+                indices = Arrays.copyOf(indices, 2 * size);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                set(i, keys[parent], levels[parent], indices[parent]);
+                i = parent;
+            }
+            set(i, key, level, index);
+        }
+
+        void pop() {
+            size -= 1;
+            double key = keys[size];
+            int level = levels[size], index = indices[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child += 1;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                set(i, keys[child], levels[child], indices[child]);
+                i = child;
+            }
+            set(i, key, level, index);
+        }
+
+        private void set(int i, double key, int level, int index) {
+            keys[i] = key;
+            levels[i] = level;
+            indices[i] = index;
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        return "SpatialIndex(graph=" + graph.getMapId() + ", #nodes=" + compact.size() + ")";
+    }
+
+}
@@ -0,0 +1,640 @@
+package org.insa.graphs.model.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BinaryGraphWriter;
+
+/**
+ * <p>
+ * Generator of synthetic road networks, used to test and benchmark algorithms
+ * on graphs of any size without map files.
+ * </p>
+ *
+ * <p>
+ * Nodes are laid out on a jittered grid (about 150 meters between two
+ * neighbors) and each node is linked to its right and bottom neighbors. Roads
+ * follow a hierarchy based on the index of their row / column: every 128th line
+ * is a motorway, then trunks, primary, secondary and tertiary roads, and the
+ * remaining lines are local roads (residential roads, living streets, service
+ * roads, pedestrian streets and cycleways). Some local and tertiary roads are
+ * one-way, some local roads have access restrictions and some are missing, so
+ * that the hierarchy of major roads remains connected.
+ * </p>
+ *
+ * <p>
+ * Every property of the network is computed from a hash of the seed and of the
+ * node / road, so the network does not need to be kept in memory to be written:
+ * {@link #write(BinaryGraphWriter)} streams it to a binary graph file, and
+ * {@link #generate()} returns the same graph as the one read from this file by
+ * {@link org.insa.graphs.model.io.BinaryGraphReader}. Binary files are limited
+ * to 2<sup>24</sup> nodes, larger networks can be created in compact form using
+ * {@link #generateCompactGraph()}.
+ * </p>
+ */
+public class RoadNetworkGenerator {
+
+    // Position of the first node and distance between two nodes (in degrees).
+    private static final double ORIGIN_LONGITUDE = 1.0, ORIGIN_LATITUDE = 43.0;
+    private static final double SPACING_LONGITUDE = 0.0019, SPACING_LATITUDE = 0.00135;
+
+    // Units of the segment deltas (as stored in binary files).
+    private static final float DELTA_SCALE = 2.0e5f;
+
+    // Maximum number of arcs stored for a node (right, bottom, and reversed
+    // one-way roads from the left and top neighbors).
+    private static final int MAX_ARCS_PER_NODE = 4;
+
+    // Maximum number of intermediate points of a road.
+    private static final int MAX_SEGMENTS = 2;
+
+    // Directions of the roads starting from a node.
+    private static final int RIGHT = 0, DOWN = 1;
+
+    /**
+     * Kinds of roads, in hierarchical order for major roads.
+     */
+    private enum Kind {
+        MOTORWAY(RoadType.MOTORWAY, 130, "Motorway"),
+        TRUNK(RoadType.TRUNK, 110, "Trunk road"),
+        PRIMARY(RoadType.PRIMARY, 90, "Primary road"),
+        SECONDARY(RoadType.SECONDARY, 70, "Secondary road"),
+        TERTIARY(RoadType.TERTIARY, 50, "Tertiary road"),
+        RESIDENTIAL(RoadType.RESIDENTIAL, 50, "Residential street"),
+        LIVING_STREET(RoadType.LIVING_STREET, 20, "Living street"),
+        SERVICE(RoadType.SERVICE, 30, "Service road"),
+        PEDESTRIAN(RoadType.PEDESTRIAN, 5, "Pedestrian street"),
+        CYCLEWAY(RoadType.CYCLEWAY, 20, "Cycleway");
+
+        final RoadType type;
+        final int speed;
+        final String name;
+
+        Kind(RoadType type, int speed, String name) {
+            this.type = type;
+            this.speed = speed;
+            this.name = name;
+        }
+
+        boolean isMajor() {
+            return compareTo(SECONDARY) <= 0;
+        }
+    }
+
+    // Number of nodes, number of columns of the grid, and seed.
+    private final int nbNodes, nbColumns;
+    private final long seed;
+
+    // Ratios of one-way, restricted and missing roads.
+    private final double oneWayRatio, restrictedRatio, missingRatio;
+
+    // Road information: two (two-ways / one-way) per kind of road with standard
+    // access, followed by the restricted variants of local roads.
+    private final List<RoadInformation> roadInformations;
+
+    /**
+     * Create a new generator with default ratios (20% of one-way local roads, 5% of
+     * restricted roads and 10% of missing local roads).
+     *
+     * @param nbNodes Number of nodes of the network.
+     * @param seed Seed of the network, two generators with the same parameters
+     *        create the same network.
+     */
+    public RoadNetworkGenerator(int nbNodes, long seed) {
+        this(nbNodes, seed, 0.2, 0.05, 0.1);
+    }
+
+    /**
+     * Create a new generator.
+     *
+     * @param nbNodes Number of nodes of the network.
+     * @param seed Seed of the network, two generators with the same parameters
+     *        create the same network.
+     * @param oneWayRatio Ratio of local and tertiary roads that are one-way.
+     * @param restrictedRatio Ratio of local roads with access restrictions.
+     * @param missingRatio Ratio of local roads that are missing.
+     */
+    public RoadNetworkGenerator(int nbNodes, long seed, double oneWayRatio,
+            double restrictedRatio, double missingRatio) {
+        if (nbNodes <= 0) {
+            throw new IllegalArgumentException("Number of nodes must be positive: " + nbNodes);
+        }
+        this.nbNodes = nbNodes;
+        this.nbColumns = (int) Math.ceil(Math.sqrt(nbNodes));
+        this.seed = seed;
+        this.oneWayRatio = oneWayRatio;
+        this.restrictedRatio = restrictedRatio;
+        this.missingRatio = missingRatio;
+        this.roadInformations = Collections.unmodifiableList(createRoadInformations());
+    }
+
+    private static List<RoadInformation> createRoadInformations() {
+        AccessRestrictions allowed = restrictions(AccessMode.ALL, AccessRestriction.ALLOWED);
+        List<RoadInformation> infos = new ArrayList<>();
+        for (Kind kind: Kind.values()) {
+            AccessRestrictions access = allowed;
+            if (kind == Kind.MOTORWAY || kind == Kind.TRUNK) {
+                access = restrictions(AccessMode.MOTOR_VEHICLE, AccessRestriction.ALLOWED);
+            }
+            else if (kind == Kind.PEDESTRIAN) {
+                access = restrictions(EnumSet.of(AccessMode.FOOT),
+                        AccessRestriction.ALLOWED);
+            }
+            else if (kind == Kind.CYCLEWAY) {
+                access = restrictions(EnumSet.of(AccessMode.FOOT, AccessMode.BICYCLE),
+                        AccessRestriction.ALLOWED);
+            }
+            for (boolean oneWay: new boolean[] { false, true }) {
+                infos.add(new RoadInformation(kind.type, access, oneWay, kind.speed, kind.name));
+            }
+        }
+
+        // Restricted variants: private service roads and residential streets only
+        // open to residents.
+        EnumMap<AccessMode, AccessRestriction> privateAccess = new EnumMap<>(AccessMode.class);
+        EnumMap<AccessMode, AccessRestriction> destinationAccess = new EnumMap<>(
+                AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            boolean motorized = AccessMode.MOTOR_VEHICLE.contains(mode);
+            privateAccess.put(mode, motorized ? AccessRestriction.PRIVATE : AccessRestriction.ALLOWED);
+            destinationAccess.put(mode,
+                    motorized ? AccessRestriction.DESTINATION : AccessRestriction.ALLOWED);
+        }
+        for (boolean oneWay: new boolean[] { false, true }) {
+            infos.add(new RoadInformation(RoadType.SERVICE, new AccessRestrictions(privateAccess),
+                    oneWay, Kind.SERVICE.speed, "Private road"));
+        }
+        for (boolean oneWay: new boolean[] { false, true }) {
+            infos.add(new RoadInformation(RoadType.RESIDENTIAL,
+                    new AccessRestrictions(destinationAccess), oneWay, Kind.RESIDENTIAL.speed,
+                    "Residential street (residents only)"));
+        }
+        return infos;
+    }
+
+    private static AccessRestrictions restrictions(EnumSet<AccessMode> modes,
+            AccessRestriction restriction) {
+        EnumMap<AccessMode, AccessRestriction> map = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            map.put(mode, modes.contains(mode) ? restriction : AccessRestriction.FORBIDDEN);
+        }
+        return new AccessRestrictions(map);
+    }
+
+    /**
+     * @return Number of nodes of the generated network.
+     */
+    public int getNodeCount() {
+        return nbNodes;
+    }
+
+    /**
+     * @return Road information used by the generated network (unmodifiable list),
+     *         in the order they are written to binary files.
+     */
+    public List<RoadInformation> getRoadInformations() {
+        return roadInformations;
+    }
+
+    /**
+     * @return ID of the generated map.
+     */
+    public String getMapId() {
+        return "synthetic-" + nbNodes + "-" + Long.toHexString(seed);
+    }
+
+    /**
+     * @return Name of the generated map.
+     */
+    public String getMapName() {
+        return "Synthetic road network (" + nbNodes + " nodes)";
+    }
+
+    // -------------------------------------------------------------------------
+    // Hashing.
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private long hash(long element, int salt) {
+        return mix(seed * 0x9E3779B97F4A7C15L + mix(element * 8 + salt));
+    }
+
+    /**
+     * @return A uniform value in [0, 1) derived from the given hash and index.
+     */
+    private static double uniform(long hash, int index) {
+        return (mix(hash + index * 0x9E3779B97F4A7C15L) >>> 11) * 0x1.0p-53;
+    }
+
+    // -------------------------------------------------------------------------
+    // Nodes.
+
+    /**
+     * @return Longitude of the given node, in millionths of degree.
+     */
+    private int getLongitudeE6(int node) {
+        double jitter = uniform(hash(node, 7), 0) - 0.5;
+        return (int) Math.round(
+                (ORIGIN_LONGITUDE + SPACING_LONGITUDE * (node % nbColumns + 0.5 * jitter)) * 1e6);
+    }
+
+    /**
+     * @return Latitude of the given node, in millionths of degree.
+     */
+    private int getLatitudeE6(int node) {
+        double jitter = uniform(hash(node, 7), 1) - 0.5;
+        return (int) Math.round(
+                (ORIGIN_LATITUDE + SPACING_LATITUDE * (node / nbColumns + 0.5 * jitter)) * 1e6);
+    }
+
+    // Coordinates as read from a binary file.
+
+    private float getLongitude(int node) {
+        return ((float) getLongitudeE6(node)) / 1E6f;
+    }
+
+    private float getLatitude(int node) {
+        return ((float) getLatitudeE6(node)) / 1E6f;
+    }
+
+    // -------------------------------------------------------------------------
+    // Roads.
+
+    /**
+     * @return Neighbor of the given node in the given direction, or -1.
+     */
+    private int getNeighbor(int node, int direction) {
+        int neighbor;
+        if (direction == RIGHT) {
+            neighbor = node % nbColumns + 1 < nbColumns ? node + 1 : -1;
+        }
+        else {
+            neighbor = node + nbColumns;
+        }
+        return neighbor < nbNodes ? neighbor : -1;
+    }
+
+    /**
+     * @return Index of the road information of the road starting at the given
+     *         node in the given direction, or -1 if there is no such road.
+     */
+    private int getRoadInformationIndex(int node, int direction) {
+        if (getNeighbor(node, direction) == -1) {
+            return -1;
+        }
+        int line = direction == RIGHT ? node / nbColumns : node % nbColumns;
+        long hash = hash(node, direction);
+        Kind kind;
+        if (line % 128 == 0) {
+            kind = Kind.MOTORWAY;
+        }
+        else if (line % 32 == 0) {
+            kind = Kind.TRUNK;
+        }
+        else if (line % 8 == 0) {
+            kind = Kind.PRIMARY;
+        }
+        else if (line % 4 == 0) {
+            kind = Kind.SECONDARY;
+        }
+        else if (line % 2 == 0) {
+            kind = Kind.TERTIARY;
+        }
+        else {
+            if (uniform(hash, 0) < missingRatio) {
+                return -1;
+            }
+            double value = uniform(hash, 1);
+            kind = value < 0.7 ? Kind.RESIDENTIAL
+                    : value < 0.8 ? Kind.LIVING_STREET
+                            : value < 0.9 ? Kind.SERVICE
+                                    : value < 0.95 ? Kind.PEDESTRIAN : Kind.CYCLEWAY;
+        }
+        boolean oneWay = !kind.isMajor() && kind != Kind.PEDESTRIAN && kind != Kind.CYCLEWAY
+                && uniform(hash, 2) < oneWayRatio;
+        int index = 2 * kind.ordinal() + (oneWay ? 1 : 0);
+        if (kind.compareTo(Kind.RESIDENTIAL) >= 0 && kind != Kind.PEDESTRIAN
+                && kind != Kind.CYCLEWAY && uniform(hash, 3) < restrictedRatio) {
+            int restricted = 2 * Kind.values().length;
+            index = restricted + (kind == Kind.SERVICE ? 0 : 2) + (oneWay ? 1 : 0);
+        }
+        return index;
+    }
+
+    /**
+     * @return true if the one-way road starting at the given node in the given
+     *         direction goes toward the given node.
+     */
+    private boolean isReversed(int node, int direction) {
+        return uniform(hash(node, direction), 4) < 0.5;
+    }
+
+    /**
+     * Arcs stored for a node, i.e. roads whose origin is the node, as in binary
+     * files.
+     */
+    private static final class NodeArcs {
+        int count;
+        final int[] destinations = new int[MAX_ARCS_PER_NODE];
+        final int[] roadInformations = new int[MAX_ARCS_PER_NODE];
+        final int[] lengths = new int[MAX_ARCS_PER_NODE];
+        final int[] nbSegments = new int[MAX_ARCS_PER_NODE];
+        final short[][] deltas = new short[MAX_ARCS_PER_NODE][2 * MAX_SEGMENTS];
+    }
+
+    /**
+     * Fill the given structure with the arcs of the given node: roads to the
+     * right and bottom neighbors (unless they are one-way roads in the other
+     * direction), then one-way roads from the left and top neighbors.
+     */
+    private void fillArcs(int node, NodeArcs arcs) {
+        arcs.count = 0;
+        for (int direction = RIGHT; direction <= DOWN; ++direction) {
+            int info = getRoadInformationIndex(node, direction);
+            if (info != -1 && !(roadInformations.get(info).isOneWay()
+                    && isReversed(node, direction))) {
+                addArc(arcs, node, getNeighbor(node, direction), info, hash(node, direction));
+            }
+        }
+        for (int direction = RIGHT; direction <= DOWN; ++direction) {
+            int neighbor = direction == RIGHT ? (node % nbColumns > 0 ? node - 1 : -1)
+                    : node - nbColumns;
+            if (neighbor < 0) {
+                continue;
+            }
+            int info = getRoadInformationIndex(neighbor, direction);
+            if (info != -1 && roadInformations.get(info).isOneWay()
+                    && isReversed(neighbor, direction)) {
+                addArc(arcs, node, neighbor, info, hash(neighbor, direction));
+            }
+        }
+    }
+
+    private void addArc(NodeArcs arcs, int origin, int destination, int info, long hash) {
+        final int index = arcs.count++;
+        arcs.destinations[index] = destination;
+        arcs.roadInformations[index] = info;
+
+        // Intermediate points are spread between the extremities, with some noise,
+        // and stored as deltas as in binary files.
+        final float originLongitude = getLongitude(origin), originLatitude = getLatitude(origin);
+        final float destinationLongitude = getLongitude(destination),
+                destinationLatitude = getLatitude(destination);
+        int nbSegments = (int) (uniform(hash, 5) * (MAX_SEGMENTS + 1));
+        float longitude = originLongitude, latitude = originLatitude;
+        double length = 0;
+        for (int seg = 0; seg < nbSegments; ++seg) {
+            double ratio = (seg + 1.0) / (nbSegments + 1);
+            double targetLongitude = originLongitude
+                    + ratio * (destinationLongitude - originLongitude)
+                    + (uniform(hash, 6 + 2 * seg) - 0.5) * 0.2 * SPACING_LONGITUDE;
+            double targetLatitude = originLatitude + ratio * (destinationLatitude - originLatitude)
+                    + (uniform(hash, 7 + 2 * seg) - 0.5) * 0.2 * SPACING_LATITUDE;
+            short dlon = (short) Math.round((targetLongitude - longitude) * DELTA_SCALE);
+            short dlat = (short) Math.round((targetLatitude - latitude) * DELTA_SCALE);
+            arcs.deltas[index][2 * seg] = dlon;
+            arcs.deltas[index][2 * seg + 1] = dlat;
+            float nextLongitude = longitude + dlon / DELTA_SCALE,
+                    nextLatitude = latitude + dlat / DELTA_SCALE;
+            length += Point.distance(longitude, latitude, nextLongitude, nextLatitude);
+            longitude = nextLongitude;
+            latitude = nextLatitude;
+        }
+        length += Point.distance(longitude, latitude, destinationLongitude, destinationLatitude);
+        arcs.nbSegments[index] = nbSegments;
+
+        // Lengths are stored in millimeters.
+        arcs.lengths[index] = (int) Math.round(length * 1000);
+    }
+
+    // -------------------------------------------------------------------------
+    // Outputs.
+
+    /**
+     * Write the network in binary format.
+     *
+     * @param writer Writer to use.
+     *
+     * @throws IOException if an error occurs while writing.
+     * @throws IllegalArgumentException if the network has more than 2<sup>24</sup>
+     *         nodes.
+     */
+    public void write(BinaryGraphWriter writer) throws IOException {
+        writer.writeHeader(getMapId(), getMapName(), roadInformations.size(), nbNodes);
+        NodeArcs arcs = new NodeArcs();
+        for (int node = 0; node < nbNodes; ++node) {
+            fillArcs(node, arcs);
+            writer.writeNode(getLongitude(node), getLatitude(node), arcs.count);
+        }
+        for (RoadInformation info: roadInformations) {
+            writer.writeRoadInformation(info);
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            fillArcs(node, arcs);
+            for (int i = 0; i < arcs.count; ++i) {
+                writer.writeArc(arcs.destinations[i], arcs.roadInformations[i],
+                        arcs.lengths[i] / 1000.0f, createPoints(node, arcs, i));
+            }
+        }
+        writer.writeEnd();
+    }
+
+    private List<Point> createPoints(int node, NodeArcs arcs, int index) {
+        final int nbSegments = arcs.nbSegments[index];
+        Point[] points = new Point[nbSegments + 2];
+        points[0] = new Point(getLongitude(node), getLatitude(node));
+        float longitude = points[0].getLongitude(), latitude = points[0].getLatitude();
+        for (int seg = 0; seg < nbSegments; ++seg) {
+            longitude += arcs.deltas[index][2 * seg] / DELTA_SCALE;
+            latitude += arcs.deltas[index][2 * seg + 1] / DELTA_SCALE;
+            points[seg + 1] = new Point(longitude, latitude);
+        }
+        int destination = arcs.destinations[index];
+        points[nbSegments + 1] = new Point(getLongitude(destination), getLatitude(destination));
+        return Arrays.asList(points);
+    }
+
+    /**
+     * Create the network. The returned graph is identical (same nodes, same arcs in
+     * the same order) to the graph read from the file written by
+     * {@link #write(BinaryGraphWriter)}.
+     *
+     * @return The generated graph.
+     */
+    public Graph generate() {
+        ArrayList<Node> nodes = new ArrayList<>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            nodes.add(new Node(node, new Point(getLongitude(node), getLatitude(node))));
+        }
+
+        PackedGeometry geometry = new PackedGeometry(nbNodes);
+        NodeArcs arcs = new NodeArcs();
+        int nbArcs = 0, nbOneWayRoads = 0;
+        float maxLength = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            fillArcs(node, arcs);
+            Node origin = nodes.get(node);
+            for (int i = 0; i < arcs.count; ++i) {
+                Node destination = nodes.get(arcs.destinations[i]);
+                RoadInformation info = roadInformations.get(arcs.roadInformations[i]);
+                int firstSegment = geometry.size();
+                for (int seg = 0; seg < arcs.nbSegments[i]; ++seg) {
+                    geometry.addSegment(arcs.deltas[i][2 * seg], arcs.deltas[i][2 * seg + 1]);
+                }
+                float length = arcs.lengths[i] / 1000.0f;
+                maxLength = Math.max(length, maxLength);
+                Node.linkNodes(origin, destination,
+                        Math.max(length,
+                                (float) Point.distance(origin.getPoint(), destination.getPoint())),
+                        info, geometry.getPoints(firstSegment, arcs.nbSegments[i],
+                                origin.getPoint(), destination.getPoint()));
+                nbArcs += 1;
+                if (info.isOneWay()) {
+                    nbOneWayRoads += 1;
+                }
+            }
+        }
+        geometry.trimToSize();
+
+        return new Graph(getMapId(), getMapName(), nodes,
+                createStatistics(nbOneWayRoads, nbArcs - nbOneWayRoads, maxLength));
+    }
+
+    /**
+     * Create the network in compact form, without creating any node or arc object
+     * and without the geometry of the arcs. The returned graph is identical to the
+     * compact graph of {@link #generate()}, but can be used for networks that do
+     * not fit in a binary file or in memory as a {@link Graph}.
+     *
+     * @return The generated graph, in compact form.
+     */
+    public CompactGraph generateCompactGraph() {
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            longitudes[node] = getLongitude(node);
+            latitudes[node] = getLatitude(node);
+        }
+
+        // Count the arcs of each node, the reverse arc of a two-ways road is added
+        // to its destination, as done by Node.linkNodes.
+        int[] offsets = new int[nbNodes + 1];
+        NodeArcs arcs = new NodeArcs();
+        int nbOneWayRoads = 0, nbRoads = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            fillArcs(node, arcs);
+            for (int i = 0; i < arcs.count; ++i) {
+                offsets[node + 1] += 1;
+                nbRoads += 1;
+                if (roadInformations.get(arcs.roadInformations[i]).isOneWay()) {
+                    nbOneWayRoads += 1;
+                }
+                else {
+                    offsets[arcs.destinations[i] + 1] += 1;
+                }
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        final int nbArcs = offsets[nbNodes];
+        int[] heads = new int[nbArcs];
+        float[] lengths = new float[nbArcs];
+        int[] infoIndices = new int[nbArcs];
+        int[] cursors = Arrays.copyOf(offsets, nbNodes);
+        float maxLength = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            fillArcs(node, arcs);
+            for (int i = 0; i < arcs.count; ++i) {
+                int destination = arcs.destinations[i];
+                float length = arcs.lengths[i] / 1000.0f;
+                maxLength = Math.max(length, maxLength);
+                length = Math.max(length, (float) Point.distance(longitudes[node],
+                        latitudes[node], longitudes[destination], latitudes[destination]));
+                int arcId = cursors[node]++;
+                heads[arcId] = destination;
+                lengths[arcId] = length;
+                infoIndices[arcId] = arcs.roadInformations[i];
+                if (!roadInformations.get(arcs.roadInformations[i]).isOneWay()) {
+                    int reverseId = cursors[destination]++;
+                    heads[reverseId] = node;
+                    lengths[reverseId] = length;
+                    infoIndices[reverseId] = arcs.roadInformations[i];
+                }
+            }
+        }
+
+        return new CompactGraph(getMapId(), getMapName(), longitudes, latitudes, offsets, heads,
+                lengths, infoIndices, roadInformations.toArray(new RoadInformation[0]),
+                createStatistics(nbOneWayRoads, nbRoads - nbOneWayRoads, maxLength));
+    }
+
+    private GraphStatistics createStatistics(int nbOneWayRoads, int nbTwoWaysRoads,
+            float maxLength) {
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < nbNodes; ++node) {
+            minLongitude = Math.min(getLongitude(node), minLongitude);
+            minLatitude = Math.min(getLatitude(node), minLatitude);
+            maxLongitude = Math.max(getLongitude(node), maxLongitude);
+            maxLatitude = Math.max(getLatitude(node), maxLatitude);
+        }
+        int maxSpeed = 0;
+        for (RoadInformation info: roadInformations) {
+            maxSpeed = Math.max(info.getMaximumSpeed(), maxSpeed);
+        }
+        return new GraphStatistics(
+                new BoundingBox(new Point(minLongitude, maxLatitude),
+                        new Point(maxLongitude, minLatitude)),
+                nbOneWayRoads, nbTwoWaysRoads, maxSpeed, maxLength);
+    }
+
+    /**
+     * Write a synthetic network to a binary graph file.
+     *
+     * <pre>
+     * java org.insa.graphs.model.generator.RoadNetworkGenerator NB_NODES OUTPUT_FILE [SEED]
+     * </pre>
+     *
+     * @param args Number of nodes, output file and optional seed.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RoadNetworkGenerator NB_NODES OUTPUT_FILE [SEED]");
+            System.exit(1);
+        }
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(Integer.parseInt(args[0]),
+                args.length > 2 ? Long.parseLong(args[2]) : 0);
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(args[1]))))) {
+            generator.write(writer);
+        }
+    }
+
+}
@@ -3,14 +3,16 @@ package org.insa.graphs.model.io;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.List;
 
 import org.insa.graphs.model.AccessRestrictions;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
 import org.insa.graphs.model.Point;
 import org.insa.graphs.model.RoadInformation;
 import org.insa.graphs.model.AccessRestrictions.AccessMode;
@@ -39,7 +41,8 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
      * 
      * @param access The value to parse.
      * 
-     * @return New instance of access restrictions parsed from the given value.
+     * @return Access restrictions parsed from the given value, shared with the
+     *         other roads with the same restrictions.
      */
     protected static AccessRestrictions toAccessInformation(final long access) {
 
@@ -62,24 +65,23 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL, AccessMode.MOTORCYCLE,
                 AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null, AccessMode.PUBLIC_TRANSPORT };
 
-        // fill maps...
-        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        // Repack the restrictions by mode ordinal (see
+        // AccessRestrictions#getPackedValue()).
+        int packed = 0;
         long copyAccess = access;
         for (AccessMode mode: allModes) {
             if (mode == null) {
                 continue; // filling cells
             }
             int value = (int) (copyAccess & 0xf);
-            if (value < allRestrictions.length) {
-                restrictions.put(mode, allRestrictions[value]);
-            }
-            else {
-                restrictions.put(mode, AccessRestriction.UNKNOWN);
-            }
+            AccessRestriction restriction = value < allRestrictions.length
+                    ? allRestrictions[value]
+                    : AccessRestriction.UNKNOWN;
+            packed |= restriction.ordinal() << (4 * mode.ordinal());
             copyAccess = copyAccess >> 4;
         }
 
-        return new AccessRestrictions(restrictions);
+        return AccessRestrictions.valueOf(packed);
     }
 
     /**
@@ -230,6 +232,7 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
         observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
+        PackedGeometry geometry = new PackedGeometry(nbTotalSuccessors);
         for (int node = 0; node < nbNodes; ++node) {
             for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
 
@@ -255,21 +258,15 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 // Number of segments.
                 int nbSegments = dis.readUnsignedShort();
 
-                // Chain of points corresponding to the segments.
-                ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
-
+                // Segments are kept packed, the points are created on demand.
+                int firstSegment = geometry.size();
                 for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
-
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
-
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
+                    short dlon = dis.readShort();
+                    short dlat = dis.readShort();
+                    geometry.addSegment(dlon, dlat);
                 }
-
-                points.add(nodes.get(destNode).getPoint());
+                List<Point> points = geometry.getPoints(firstSegment, nbSegments,
+                        nodes.get(node).getPoint(), nodes.get(destNode).getPoint());
 
                 RoadInformation info = descs[descrNum];
                 Node orig = nodes.get(node);
@@ -286,6 +283,7 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
         // Check format.
         checkByteOrThrow(253);
+        geometry.trimToSize();
 
         observers.forEach((observer) -> observer.notifyEndReading());
 
@@ -298,6 +296,192 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                         nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength));
     }
 
+    /**
+     * <p>
+     * Read a graph in compact form, without creating any node or arc object.
+     * </p>
+     * 
+     * <p>
+     * The arcs of the returned graph are identical (and in the same order) to the
+     * ones of the graph returned by {@link #read()}, but the segments of the arcs
+     * are not kept. Observers are notified when the reader starts reading each
+     * part of the file, but not for each node and arc read since none is created.
+     * </p>
+     * 
+     * @return The graph read, in compact form.
+     * 
+     * @throws IOException if an exception occurs while reading the graph.
+     */
+    public CompactGraph readCompactGraph() throws IOException {
+
+        // Read and check magic number and file version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map id.
+        String mapId;
+        String mapName = "";
+
+        if (getCurrentVersion() < 6) {
+            mapId = "0x" + Integer.toHexString(dis.readInt());
+        }
+        else {
+            mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+            mapName = dis.readUTF();
+        }
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Number of descriptors and nodes.
+        int nbDesc = dis.readInt();
+        int nbNodes = dis.readInt();
+
+        // Number of successors for each nodes (in the file).
+        int[] nbSuccessors = new int[nbNodes];
+        int nbTotalSuccessors = 0;
+
+        // Read nodes.
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        for (int node = 0; node < nbNodes; ++node) {
+            longitudes[node] = ((float) dis.readInt()) / 1E6f;
+            latitudes[node] = ((float) dis.readInt()) / 1E6f;
+
+            minLongitude = Math.min(longitudes[node], minLongitude);
+            minLatitude = Math.min(latitudes[node], minLatitude);
+            maxLongitude = Math.max(longitudes[node], maxLongitude);
+            maxLatitude = Math.max(latitudes[node], maxLatitude);
+
+            nbSuccessors[node] = dis.readUnsignedByte();
+            nbTotalSuccessors += nbSuccessors[node];
+        }
+
+        // Check format.
+        checkByteOrThrow(255);
+
+        // Read descriptors.
+        RoadInformation[] descs = new RoadInformation[nbDesc];
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        int maxSpeed = 0;
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            descs[descr] = readRoadInformation();
+            maxSpeed = Math.max(descs[descr].getMaximumSpeed(), maxSpeed);
+        }
+
+        // Check format.
+        checkByteOrThrow(254);
+
+        // Read successors as they are stored in the file, each of them corresponds
+        // to one or two arcs in the graph (depending on the road being one-way).
+        int[] fileHeads = new int[nbTotalSuccessors];
+        int[] fileDescs = new int[nbTotalSuccessors];
+        float[] fileLengths = new float[nbTotalSuccessors];
+        int[] offsets = new int[nbNodes + 1];
+
+        float maxLength = 0;
+        final int copyNbTotalSuccesors = nbTotalSuccessors;
+        int nbOneWayRoad = 0;
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
+        for (int node = 0, succId = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++succId) {
+                int destNode = this.read24bits();
+                int descrNum = this.read24bits();
+
+                float length;
+                if (getCurrentVersion() < 8) {
+                    length = dis.readUnsignedShort();
+                }
+                else {
+                    length = dis.readInt() / 1000.0f;
+                }
+                maxLength = Math.max(length, maxLength);
+
+                length = Math.max(length, (float) Point.distance(longitudes[node],
+                        latitudes[node], longitudes[destNode], latitudes[destNode]));
+
+                // Skip the segments, 2 shorts per segment.
+                int nbSegments = dis.readUnsignedShort();
+                skipBytesOrThrow(4 * nbSegments);
+
+                fileHeads[succId] = destNode;
+                fileDescs[succId] = descrNum;
+                fileLengths[succId] = length;
+
+                // Count the arcs of the origin and destination nodes.
+                offsets[node + 1] += 1;
+                if (descs[descrNum].isOneWay()) {
+                    nbOneWayRoad++;
+                }
+                else {
+                    offsets[destNode + 1] += 1;
+                }
+            }
+        }
+
+        // Check format.
+        checkByteOrThrow(253);
+
+        // Build the arrays, the order of arcs follows the one of
+        // Node.linkNodes: the arc is added to its origin, and the reverse arc (if
+        // any) to its destination.
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] += offsets[node];
+        }
+        final int nbArcs = offsets[nbNodes];
+        int[] heads = new int[nbArcs];
+        float[] lengths = new float[nbArcs];
+        int[] infoIndices = new int[nbArcs];
+        int[] cursors = Arrays.copyOf(offsets, nbNodes);
+        for (int node = 0, succId = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++succId) {
+                int destNode = fileHeads[succId];
+                int arcId = cursors[node]++;
+                heads[arcId] = destNode;
+                lengths[arcId] = fileLengths[succId];
+                infoIndices[arcId] = fileDescs[succId];
+                if (!descs[fileDescs[succId]].isOneWay()) {
+                    int reverseId = cursors[destNode]++;
+                    heads[reverseId] = node;
+                    lengths[reverseId] = fileLengths[succId];
+                    infoIndices[reverseId] = fileDescs[succId];
+                }
+            }
+        }
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        this.dis.close();
+
+        return new CompactGraph(mapId, mapName, longitudes, latitudes, offsets, heads, lengths,
+                infoIndices, descs,
+                new GraphStatistics(
+                        new BoundingBox(new Point(minLongitude, maxLatitude),
+                                new Point(maxLongitude, minLatitude)),
+                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength));
+    }
+
+    /**
+     * Skip exactly the given number of bytes from the stream.
+     * 
+     * @param n Number of bytes to skip.
+     * 
+     * @throws IOException if an error occurs while reading from the stream, or if
+     *         the end of the stream is reached before n bytes are skipped.
+     */
+    private void skipBytesOrThrow(int n) throws IOException {
+        while (n > 0) {
+            int skipped = dis.skipBytes(n);
+            if (skipped <= 0) {
+                // skipBytes may skip less than requested, readByte throws on EOF.
+                dis.readByte();
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
     /**
      * Read the next road information from the stream.
      * 
@@ -0,0 +1,347 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphWriter} to write graphs in binary format
+ * (version 8), i.e. files that can be read by {@link BinaryGraphReader}.
+ * </p>
+ *
+ * <p>
+ * Besides {@link #writeGraph(Graph)}, this class can be used to write a graph
+ * without creating it in memory (e.g. huge synthetic graphs), by calling in
+ * order {@link #writeHeader(String, String, int, int)}, {@link #writeNode} for
+ * each node, {@link #writeRoadInformation(RoadInformation)} for each road
+ * information, {@link #writeArc} for each arc (grouped by origin, in the order
+ * of the nodes) and finally {@link #writeEnd()}.
+ * </p>
+ *
+ * <p>
+ * Only forward arcs are written, the backward arcs of two-ways roads are
+ * created again when reading the file.
+ * </p>
+ */
+public class BinaryGraphWriter extends BinaryWriter implements GraphWriter {
+
+    // Version and magic number of the written files.
+    private static final int VERSION = 8;
+    private static final int MAGIC_NUMBER = 0x208BC3B3;
+
+    // Maximum number of successors of a node and maximum number of segments of an
+    // arc that can be stored in a file.
+    private static final int MAX_SUCCESSORS = 0xff;
+    private static final int MAX_SEGMENTS = 0xffff;
+
+    // Restriction written for each 4-bits value (see
+    // BinaryGraphReader#toAccessInformation), UNKNOWN is written as 0xf.
+    private static final AccessRestriction[] ACCESS_RESTRICTIONS = new AccessRestriction[] {
+            AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
+            AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
+            AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
+
+    // Mode of each 4-bits group, starting with the lowest bits (the reader does not
+    // consume any bits for its filling cells).
+    private static final AccessMode[] ACCESS_MODES = new AccessMode[] { AccessMode.FOOT,
+            AccessMode.BICYCLE, AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL,
+            AccessMode.MOTORCYCLE, AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS,
+            AccessMode.PUBLIC_TRANSPORT };
+
+    // Number of nodes and road information declared in the header, and number of
+    // nodes / road information written so far.
+    private int nbNodes, nbRoadInformations;
+    private int nbWrittenNodes, nbWrittenRoadInformations;
+
+    // true if the arcs section has been started.
+    private boolean arcsStarted;
+
+    /**
+     * Create a new BinaryGraphWriter that writes to the given output stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public BinaryGraphWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Convert the given access restrictions to the 64-bits value stored in files.
+     *
+     * @param access Access restrictions to convert.
+     *
+     * @return Value corresponding to the given restrictions.
+     */
+    protected static long toAccessCode(AccessRestrictions access) {
+        long code = 0;
+        for (int i = ACCESS_MODES.length - 1; i >= 0; --i) {
+            long value = 0xf;
+            if (access != null) {
+                int index = Arrays.asList(ACCESS_RESTRICTIONS)
+                        .indexOf(access.getRestrictionFor(ACCESS_MODES[i]));
+                if (index != -1) {
+                    value = index;
+                }
+            }
+            code = (code << 4) | value;
+        }
+        return code;
+    }
+
+    /**
+     * Convert the given road type to the character stored in files.
+     *
+     * @param type Road type to convert.
+     *
+     * @return Character corresponding to the given road type.
+     */
+    protected static char toRoadTypeCode(RoadType type) {
+        switch (type) {
+        case MOTORWAY:
+            return 'a';
+        case TRUNK:
+            return 'b';
+        case PRIMARY:
+            return 'c';
+        case SECONDARY:
+            return 'd';
+        case MOTORWAY_LINK:
+            return 'e';
+        case TRUNK_LINK:
+            return 'f';
+        case PRIMARY_LINK:
+            return 'g';
+        case SECONDARY_LINK:
+            return 'h';
+        case TERTIARY:
+            return 'i';
+        case RESIDENTIAL:
+            return 'j';
+        case LIVING_STREET:
+            return 'm';
+        case SERVICE:
+            return 'n';
+        case ROUNDABOUT:
+            return 'o';
+        case PEDESTRIAN:
+            return 'p';
+        case CYCLEWAY:
+            return 'r';
+        case TRACK:
+            return 's';
+        case COASTLINE:
+            return 'z';
+        default:
+            return 'k';
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws IllegalArgumentException if the nodes of the graph have been
+     *         renumbered (see {@link Graph#isRenumbered()}), since the written map
+     *         would have the same ID as the original one but different node IDs.
+     */
+    @Override
+    public void writeGraph(Graph graph) throws IOException {
+        if (graph.isRenumbered()) {
+            throw new IllegalArgumentException(
+                    "Cannot write a renumbered graph, write the original graph instead.");
+        }
+        CompactGraph compact = graph.getCompactGraph();
+
+        writeHeader(graph.getMapId(), graph.getMapName(), compact.getRoadInformationCount(),
+                graph.size());
+
+        // Backward arcs of two-ways roads are not written, while backward arcs of
+        // one-way roads (e.g. in transpose graphs) are written as forward arcs.
+        for (Node node: graph.getNodes()) {
+            int nbSuccessors = 0;
+            for (Arc arc: node.getSuccessors()) {
+                if (isWritten(arc)) {
+                    nbSuccessors += 1;
+                }
+            }
+            writeNode(node.getPoint().getLongitude(), node.getPoint().getLatitude(),
+                    nbSuccessors);
+        }
+
+        for (int index = 0; index < compact.getRoadInformationCount(); ++index) {
+            writeRoadInformation(compact.getRoadInformationAt(index));
+        }
+
+        for (int arcId = 0; arcId < compact.getArcCount(); ++arcId) {
+            Arc arc = compact.getArc(arcId);
+            if (isWritten(arc)) {
+                writeArc(arc.getDestination().getId(), compact.getRoadInformationIndex(arcId),
+                        arc.getLength(), arc.getPoints());
+            }
+        }
+
+        writeEnd();
+    }
+
+    private static boolean isWritten(Arc arc) {
+        return !arc.isBackward() || arc.getRoadInformation().isOneWay();
+    }
+
+    /**
+     * Write the header of the file.
+     *
+     * @param mapId ID of the map (at most 32 bytes in UTF-8).
+     * @param mapName Name of the map.
+     * @param nbRoadInformations Number of road information that will be written.
+     * @param nbNodes Number of nodes that will be written.
+     *
+     * @throws IOException if an error occurs while writing to the stream.
+     */
+    public void writeHeader(String mapId, String mapName, int nbRoadInformations, int nbNodes)
+            throws IOException {
+        if (nbNodes > 1 << 24 || nbRoadInformations > 1 << 24) {
+            throw new IllegalArgumentException(
+                    "Too many nodes or road information for the binary format.");
+        }
+        dos.writeInt(MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+        dos.write(Arrays.copyOf(mapId.getBytes("UTF-8"), BinaryGraphReader.MAP_ID_FIELD_LENGTH));
+        dos.writeUTF(mapName);
+        dos.writeInt(nbRoadInformations);
+        dos.writeInt(nbNodes);
+        this.nbNodes = nbNodes;
+        this.nbRoadInformations = nbRoadInformations;
+        this.nbWrittenNodes = 0;
+        this.nbWrittenRoadInformations = 0;
+        this.arcsStarted = false;
+    }
+
+    /**
+     * Write the next node.
+     *
+     * @param longitude Longitude of the node.
+     * @param latitude Latitude of the node.
+     * @param nbSuccessors Number of arcs that will be written for this node.
+     *
+     * @throws IOException if an error occurs while writing to the stream.
+     */
+    public void writeNode(float longitude, float latitude, int nbSuccessors) throws IOException {
+        if (nbWrittenNodes == nbNodes) {
+            throw new IllegalStateException("All the nodes have already been written.");
+        }
+        if (nbSuccessors > MAX_SUCCESSORS) {
+            throw new IllegalArgumentException(
+                    "Too many successors for the binary format: " + nbSuccessors);
+        }
+        dos.writeInt(Math.round(longitude * 1e6f));
+        dos.writeInt(Math.round(latitude * 1e6f));
+        dos.writeByte(nbSuccessors);
+        nbWrittenNodes += 1;
+    }
+
+    /**
+     * Write the next road information, all the nodes must have been written.
+     *
+     * @param info Road information to write.
+     *
+     * @throws IOException if an error occurs while writing to the stream.
+     */
+    public void writeRoadInformation(RoadInformation info) throws IOException {
+        if (nbWrittenNodes != nbNodes) {
+            throw new IllegalStateException("All the nodes must be written first.");
+        }
+        if (nbWrittenRoadInformations == nbRoadInformations) {
+            throw new IllegalStateException("All the road information have already been written.");
+        }
+        if (nbWrittenRoadInformations == 0) {
+            dos.writeByte(255);
+        }
+        dos.writeByte(toRoadTypeCode(info.getType()));
+        dos.writeByte((info.isOneWay() ? 0x80 : 0) | (Math.min(info.getMaximumSpeed(), 635) / 5));
+        dos.writeLong(toAccessCode(info.getAccessRestrictions()));
+        dos.writeUTF(info.getName() == null ? "" : info.getName());
+        nbWrittenRoadInformations += 1;
+    }
+
+    /**
+     * Write the next arc, all the road information must have been written.
+     *
+     * @param destination ID of the destination of the arc.
+     * @param roadInformation Index of the road information of the arc.
+     * @param length Length of the arc (in meters).
+     * @param points Points of the arc, including its origin and destination, or
+     *        null if the arc has no intermediate point.
+     *
+     * @throws IOException if an error occurs while writing to the stream.
+     */
+    public void writeArc(int destination, int roadInformation, float length, List<Point> points)
+            throws IOException {
+        checkArcsState();
+        write24bits(destination);
+        write24bits(roadInformation);
+        dos.writeInt(Math.round(length * 1000));
+
+        int nbSegments = points == null ? 0 : Math.max(points.size() - 2, 0);
+        if (nbSegments > MAX_SEGMENTS) {
+            throw new IllegalArgumentException(
+                    "Too many segments for the binary format: " + nbSegments);
+        }
+        dos.writeShort(nbSegments);
+        if (nbSegments > 0) {
+            // Deltas are computed from the points as they will be read back, so that
+            // rounding errors do not accumulate.
+            float longitude = points.get(0).getLongitude(), latitude = points.get(0).getLatitude();
+            for (int i = 1; i <= nbSegments; ++i) {
+                short dlon = toDelta(points.get(i).getLongitude() - longitude);
+                short dlat = toDelta(points.get(i).getLatitude() - latitude);
+                dos.writeShort(dlon);
+                dos.writeShort(dlat);
+                longitude += dlon / 2.0e5f;
+                latitude += dlat / 2.0e5f;
+            }
+        }
+    }
+
+    /**
+     * Write the end of the file, and flush the stream.
+     *
+     * @throws IOException if an error occurs while writing to the stream.
+     */
+    public void writeEnd() throws IOException {
+        checkArcsState();
+        dos.writeByte(253);
+        dos.flush();
+    }
+
+    private void checkArcsState() throws IOException {
+        if (nbWrittenNodes != nbNodes || nbWrittenRoadInformations != nbRoadInformations) {
+            throw new IllegalStateException(
+                    "All the nodes and road information must be written first.");
+        }
+        if (!arcsStarted) {
+            if (nbRoadInformations == 0) {
+                dos.writeByte(255);
+            }
+            dos.writeByte(254);
+            arcsStarted = true;
+        }
+    }
+
+    private static short toDelta(float delta) {
+        return (short) Math.max(Short.MIN_VALUE,
+                Math.min(Short.MAX_VALUE, Math.round(delta * 2.0e5f)));
+    }
+
+}
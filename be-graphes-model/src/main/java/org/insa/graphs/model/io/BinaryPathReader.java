@@ -70,7 +70,9 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
      * @throws IndexOutOfBoundsException if the node is not in the graph.
      */
     protected Node readNode(Graph graph) throws IOException {
-        return graph.get(dis.readInt());
+        // Files contain the IDs of the map file, which may not be the IDs of the
+        // nodes if the graph has been renumbered.
+        return graph.getByOriginalId(dis.readInt());
     }
 
 }
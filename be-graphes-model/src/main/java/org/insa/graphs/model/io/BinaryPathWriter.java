@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 
 /**
@@ -37,14 +38,16 @@ public class BinaryPathWriter extends BinaryWriter implements PathWriter {
         // Write number of arcs
         dos.writeInt(path.getArcs().size() + 1);
 
-        // Write origin / destination.
-        dos.writeInt(path.getOrigin().getId());
-        dos.writeInt(path.getDestination().getId());
+        // Write origin / destination, with the IDs of the map file (see
+        // Graph#getOriginalId).
+        Graph graph = path.getGraph();
+        dos.writeInt(graph.getOriginalId(path.getOrigin().getId()));
+        dos.writeInt(graph.getOriginalId(path.getDestination().getId()));
 
         // Write nodes.
-        dos.writeInt(path.getOrigin().getId());
+        dos.writeInt(graph.getOriginalId(path.getOrigin().getId()));
         for (Arc arc: path.getArcs()) {
-            dos.writeInt(arc.getDestination().getId());
+            dos.writeInt(graph.getOriginalId(arc.getDestination().getId()));
         }
 
         dos.flush();
@@ -0,0 +1,26 @@
+package org.insa.graphs.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.insa.graphs.model.Graph;
+
+/**
+ * Interface for graph writers.
+ *
+ */
+public interface GraphWriter extends AutoCloseable, Closeable {
+
+    /**
+     * Write the given graph.
+     * 
+     * @param graph Graph to write.
+     * 
+     * @throws IOException When an error occurs while writing the graph.
+     */
+    public void writeGraph(Graph graph) throws IOException;
+
+    @Override
+    public void close() throws IOException;
+
+}
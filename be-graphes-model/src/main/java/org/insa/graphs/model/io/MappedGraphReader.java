@@ -0,0 +1,432 @@
+package org.insa.graphs.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} that reads graphs in binary format
+ * (same format as {@link BinaryGraphReader}) from a memory-mapped file.
+ * </p>
+ *
+ * <p>
+ * The file is mapped in memory and nodes and arcs are decoded in bulk into
+ * primitive arrays, using absolute reads on the mapped buffer instead of a
+ * stream. The segments of the arcs are not decoded while reading: each arc of
+ * the graph returned by {@link #read()} keeps the position of its segments in
+ * the mapped buffer, and its points are only decoded the first time
+ * {@link org.insa.graphs.model.Arc#getPoints()} is called. The mapped buffer is
+ * therefore kept alive (by the arcs) as long as the graph is used, and the file
+ * must not be modified meanwhile.
+ * </p>
+ *
+ * <p>
+ * Observers are notified when the reader starts reading each part of the file,
+ * but not for each node and arc read.
+ * </p>
+ */
+public class MappedGraphReader implements GraphReader {
+
+    // Map version and magic number targeted for this reader.
+    private static final int VERSION = 5;
+    private static final int MAGIC_NUMBER = 0x208BC3B3;
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    // Mapped file.
+    private final ByteBuffer buffer;
+
+    // Version of the file being read.
+    private int version;
+
+    // Content of the file, decoded by decode().
+    private String mapId, mapName;
+    private float[] longitudes, latitudes;
+    private int[] nbSuccessors;
+    private RoadInformation[] descs;
+    private int[] fileHeads, fileDescs, fileSegments;
+    private float[] fileLengths;
+    private int maxSpeed;
+    private float maxLength;
+
+    /**
+     * Create a new MappedGraphReader that reads from the given file, which is
+     * mapped in memory.
+     *
+     * @param file File to read from.
+     *
+     * @throws IOException if the file cannot be mapped.
+     */
+    public MappedGraphReader(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be mapped: " + file);
+            }
+            // The mapping remains valid after the channel is closed.
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Create a new MappedGraphReader that reads from the given buffer (e.g. a
+     * mapped file or a byte array).
+     *
+     * @param buffer Buffer to read from, starting at its current position.
+     */
+    public MappedGraphReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Nothing to close, the mapping is released when the buffer is collected.
+    }
+
+    /**
+     * Read the graph, creating the nodes and arcs but not the points of the arcs
+     * segments. The arcs of the returned graph are identical (and in the same
+     * order) to the ones of the graph returned by {@link BinaryGraphReader#read()}.
+     *
+     * @return The graph read.
+     *
+     * @throws IOException if the file is not a valid graph file.
+     */
+    @Override
+    public Graph read() throws IOException {
+        decode();
+
+        final int nbNodes = longitudes.length;
+        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            nodes.add(new Node(node, new Point(longitudes[node], latitudes[node])));
+        }
+
+        int nbOneWayRoad = 0;
+        for (int node = 0, succId = 0; node < nbNodes; ++node) {
+            Node orig = nodes.get(node);
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++succId) {
+                Node dest = nodes.get(fileHeads[succId]);
+                RoadInformation info = descs[fileDescs[succId]];
+                Node.linkNodes(orig, dest, fileLengths[succId], info,
+                        new SegmentList(buffer, fileSegments[succId], orig.getPoint(),
+                                dest.getPoint()));
+                if (info.isOneWay()) {
+                    nbOneWayRoad++;
+                }
+            }
+        }
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new Graph(mapId, mapName, nodes, createStatistics(nbOneWayRoad));
+    }
+
+    /**
+     * Read the graph in compact form, without creating any node or arc object.
+     *
+     * @return The graph read, in compact form (without segments).
+     *
+     * @throws IOException if the file is not a valid graph file.
+     *
+     * @see BinaryGraphReader#readCompactGraph()
+     */
+    public CompactGraph readCompactGraph() throws IOException {
+        decode();
+
+        final int nbNodes = longitudes.length;
+
+        // Count the arcs of each node, the reverse arc of a two-ways road is added
+        // to its destination, as done by Node.linkNodes.
+        int[] offsets = new int[nbNodes + 1];
+        int nbOneWayRoad = 0;
+        for (int node = 0, succId = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++succId) {
+                offsets[node + 1] += 1;
+                if (descs[fileDescs[succId]].isOneWay()) {
+                    nbOneWayRoad++;
+                }
+                else {
+                    offsets[fileHeads[succId] + 1] += 1;
+                }
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        final int nbArcs = offsets[nbNodes];
+        int[] heads = new int[nbArcs];
+        float[] lengths = new float[nbArcs];
+        int[] infoIndices = new int[nbArcs];
+        int[] cursors = Arrays.copyOf(offsets, nbNodes);
+        for (int node = 0, succId = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++succId) {
+                int arcId = cursors[node]++;
+                heads[arcId] = fileHeads[succId];
+                lengths[arcId] = fileLengths[succId];
+                infoIndices[arcId] = fileDescs[succId];
+                if (!descs[fileDescs[succId]].isOneWay()) {
+                    int reverseId = cursors[fileHeads[succId]]++;
+                    heads[reverseId] = node;
+                    lengths[reverseId] = fileLengths[succId];
+                    infoIndices[reverseId] = fileDescs[succId];
+                }
+            }
+        }
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new CompactGraph(mapId, mapName, longitudes, latitudes, offsets, heads, lengths,
+                infoIndices, descs, createStatistics(nbOneWayRoad));
+    }
+
+    private GraphStatistics createStatistics(int nbOneWayRoad) {
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < longitudes.length; ++node) {
+            minLongitude = Math.min(longitudes[node], minLongitude);
+            minLatitude = Math.min(latitudes[node], minLatitude);
+            maxLongitude = Math.max(longitudes[node], maxLongitude);
+            maxLatitude = Math.max(latitudes[node], maxLatitude);
+        }
+        return new GraphStatistics(
+                new BoundingBox(new Point(minLongitude, maxLatitude),
+                        new Point(maxLongitude, minLatitude)),
+                nbOneWayRoad, fileHeads.length - nbOneWayRoad, maxSpeed, maxLength);
+    }
+
+    /**
+     * Decode the header, nodes, descriptors and arcs of the file into primitive
+     * arrays.
+     */
+    private void decode() throws IOException {
+        try {
+            decodeOrThrow();
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new BadFormatException("Unexpected end of file.");
+        }
+    }
+
+    private void decodeOrThrow() throws IOException {
+        ByteBuffer buffer = this.buffer.duplicate();
+
+        // Read and check magic number and file version.
+        int magicNumber = buffer.getInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        version = buffer.getInt();
+        if (version < VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+
+        // Read map id.
+        if (version < 6) {
+            mapId = "0x" + Integer.toHexString(buffer.getInt());
+            mapName = "";
+        }
+        else {
+            byte[] bytes = new byte[BinaryGraphReader.MAP_ID_FIELD_LENGTH];
+            buffer.get(bytes);
+            mapId = new String(bytes, "UTF-8").trim();
+            mapName = readUTF(buffer);
+        }
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Number of descriptors and nodes.
+        final int nbDesc = buffer.getInt();
+        final int nbNodes = buffer.getInt();
+
+        // Read nodes.
+        longitudes = new float[nbNodes];
+        latitudes = new float[nbNodes];
+        nbSuccessors = new int[nbNodes];
+        int nbTotalSuccessors = 0;
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        int position = buffer.position();
+        for (int node = 0; node < nbNodes; ++node, position += 9) {
+            longitudes[node] = ((float) buffer.getInt(position)) / 1E6f;
+            latitudes[node] = ((float) buffer.getInt(position + 4)) / 1E6f;
+            nbSuccessors[node] = buffer.get(position + 8) & 0xff;
+            nbTotalSuccessors += nbSuccessors[node];
+        }
+        buffer.position(position);
+
+        checkByteOrThrow(buffer, 255);
+
+        // Read descriptors.
+        descs = new RoadInformation[nbDesc];
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        maxSpeed = 0;
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            descs[descr] = readRoadInformation(buffer);
+            maxSpeed = Math.max(descs[descr].getMaximumSpeed(), maxSpeed);
+        }
+
+        checkByteOrThrow(buffer, 254);
+
+        // Read successors as they are stored in the file, only the position of the
+        // segments is kept.
+        fileHeads = new int[nbTotalSuccessors];
+        fileDescs = new int[nbTotalSuccessors];
+        fileSegments = new int[nbTotalSuccessors];
+        fileLengths = new float[nbTotalSuccessors];
+        maxLength = 0;
+        final int copyNbTotalSuccessors = nbTotalSuccessors;
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccessors));
+        position = buffer.position();
+        final int lengthSize = version < 8 ? 2 : 4;
+        for (int node = 0, succId = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++succId) {
+                int destNode = read24bits(buffer, position);
+                int descrNum = read24bits(buffer, position + 3);
+                float length;
+                if (version < 8) {
+                    length = buffer.getShort(position + 6) & 0xffff;
+                }
+                else {
+                    length = buffer.getInt(position + 6) / 1000.0f;
+                }
+                maxLength = Math.max(length, maxLength);
+                position += 6 + lengthSize;
+
+                fileHeads[succId] = destNode;
+                fileDescs[succId] = descrNum;
+                fileLengths[succId] = Math.max(length, (float) Point.distance(longitudes[node],
+                        latitudes[node], longitudes[destNode], latitudes[destNode]));
+                fileSegments[succId] = position;
+
+                // Number of segments, 2 shorts per segment.
+                position += 2 + 4 * (buffer.getShort(position) & 0xffff);
+            }
+        }
+        buffer.position(position);
+
+        checkByteOrThrow(buffer, 253);
+    }
+
+    private static void checkByteOrThrow(ByteBuffer buffer, int b) throws BadFormatException {
+        if ((buffer.get() & 0xff) != b) {
+            throw new BadFormatException();
+        }
+    }
+
+    private static int read24bits(ByteBuffer buffer, int position) {
+        return ((buffer.getShort(position) & 0xffff) << 8) | (buffer.get(position + 2) & 0xff);
+    }
+
+    /**
+     * Read a string in modified UTF-8 (as written by
+     * {@link java.io.DataOutputStream#writeUTF(String)}).
+     */
+    private static String readUTF(ByteBuffer buffer) throws IOException {
+        int length = buffer.getShort() & 0xffff;
+        byte[] bytes = new byte[length + 2];
+        bytes[0] = (byte) (length >> 8);
+        bytes[1] = (byte) length;
+        buffer.get(bytes, 2, length);
+        return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+    }
+
+    private RoadInformation readRoadInformation(ByteBuffer buffer) throws IOException {
+        char type = (char) (buffer.get() & 0xff);
+        int x = buffer.get() & 0xff;
+        AccessRestrictions access = new AccessRestrictions();
+        if (version >= 7) {
+            access = BinaryGraphReader.toAccessInformation(buffer.getLong());
+        }
+        else if (version >= 6) {
+            buffer.getShort();
+        }
+        return new RoadInformation(BinaryGraphReader.toRoadType(type), access, (x & 0x80) > 0,
+                (x & 0x7F) * 5, readUTF(buffer));
+    }
+
+    /**
+     * List of the points of an arc, whose intermediate points are decoded from the
+     * mapped buffer on first access. As for
+     * {@link org.insa.graphs.model.PackedGeometry}, the decoded points are only
+     * softly referenced, so they are reclaimed under memory pressure and decoded
+     * again when needed.
+     */
+    private static final class SegmentList extends AbstractList<Point> implements RandomAccess {
+
+        // Buffer and position of the segments (number of segments followed by the
+        // segments).
+        private final ByteBuffer buffer;
+        private final int position;
+
+        // First and last points.
+        private final Point origin, destination;
+
+        // Decoded points, or null if not decoded yet (or reclaimed).
+        private volatile SoftReference<Point[]> points;
+
+        SegmentList(ByteBuffer buffer, int position, Point origin, Point destination) {
+            this.buffer = buffer;
+            this.position = position;
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        private Point[] decode() {
+            SoftReference<Point[]> reference = this.points;
+            Point[] decoded = reference == null ? null : reference.get();
+            if (decoded == null) {
+                int nbSegments = buffer.getShort(position) & 0xffff;
+                decoded = new Point[nbSegments + 2];
+                decoded[0] = origin;
+                float longitude = origin.getLongitude(), latitude = origin.getLatitude();
+                for (int seg = 0; seg < nbSegments; ++seg) {
+                    longitude += buffer.getShort(position + 2 + 4 * seg) / 2.0e5f;
+                    latitude += buffer.getShort(position + 4 + 4 * seg) / 2.0e5f;
+                    decoded[seg + 1] = new Point(longitude, latitude);
+                }
+                decoded[nbSegments + 1] = destination;
+                this.points = new SoftReference<>(decoded);
+            }
+            return decoded;
+        }
+
+        @Override
+        public Point get(int index) {
+            return decode()[index];
+        }
+
+        @Override
+        public int size() {
+            return (buffer.getShort(position) & 0xffff) + 2;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.insa.graphs.model.io;
+
+import java.io.IOException;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphReordering;
+import org.insa.graphs.model.GraphReordering.Order;
+
+/**
+ * <p>
+ * Graph reader renumbering the nodes of the graphs read by another reader, to
+ * improve the memory locality of searches (see {@link GraphReordering}).
+ * </p>
+ *
+ * <pre>
+ * Graph graph = new ReorderingGraphReader(new BinaryGraphReader(dis), Order.HILBERT).read();
+ * </pre>
+ *
+ * <p>
+ * Paths are still read and written with the node IDs of the map file by
+ * {@link BinaryPathReader} and {@link BinaryPathWriter}.
+ * </p>
+ */
+public class ReorderingGraphReader implements GraphReader {
+
+    // Reader of the original graph.
+    private final GraphReader reader;
+
+    // Order of the nodes.
+    private final Order order;
+
+    /**
+     * Create a new reader renumbering the graphs read by the given reader.
+     *
+     * @param reader Reader of the original graph.
+     * @param order Order of the nodes of the graph returned by {@link #read()}.
+     */
+    public ReorderingGraphReader(GraphReader reader, Order order) {
+        this.reader = reader;
+        this.order = order;
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        reader.addObserver(observer);
+    }
+
+    @Override
+    public Graph read() throws IOException {
+        return GraphReordering.reorder(reader.read(), order);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
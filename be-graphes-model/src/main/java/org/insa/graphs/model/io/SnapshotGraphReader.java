@@ -0,0 +1,335 @@
+package org.insa.graphs.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} that reads graph snapshots written by
+ * {@link SnapshotGraphWriter} from a memory-mapped file.
+ * </p>
+ *
+ * <p>
+ * The arrays of the snapshot are copied in bulk from the mapped buffer, without
+ * decoding individual nodes or arcs, and only the (small) table of road
+ * information is parsed. {@link #readCompactGraph()} uses these arrays as-is,
+ * while {@link #read()} replays the {@link Node#linkNodes} calls stored in the
+ * snapshot, so that the returned graph has the same arcs, in the same order, as
+ * the graph that was written. As for {@link MappedGraphReader}, the points of
+ * the arcs are only created the first time
+ * {@link org.insa.graphs.model.Arc#getPoints()} is called.
+ * </p>
+ */
+public class SnapshotGraphReader implements GraphReader {
+
+    // Snapshot version and magic number.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x5E4A7C01;
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    // Mapped file.
+    private final ByteBuffer buffer;
+
+    // Content of the snapshot, read by readArrays().
+    private String mapId, mapName;
+    private GraphStatistics statistics;
+    private RoadInformation[] infos;
+    private float[] longitudes, latitudes, lengths;
+    private int[] offsets, heads, infoIndices, roads, pointOffsets;
+    private int pointsPosition;
+
+    /**
+     * Create a new SnapshotGraphReader that reads from the given file, which is
+     * mapped in memory.
+     *
+     * @param file File to read from.
+     *
+     * @throws IOException if the file cannot be mapped.
+     */
+    public SnapshotGraphReader(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be mapped: " + file);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Create a new SnapshotGraphReader that reads from the given buffer (e.g. a
+     * mapped file or a byte array).
+     *
+     * @param buffer Buffer to read from, starting at its current position.
+     */
+    public SnapshotGraphReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Nothing to close, the mapping is released when the buffer is collected.
+    }
+
+    /**
+     * Read the graph, creating the nodes and arcs but not the points of the arcs.
+     *
+     * @return The graph read.
+     *
+     * @throws IOException if the file is not a valid snapshot.
+     */
+    @Override
+    public Graph read() throws IOException {
+        readArrays();
+
+        final int nbNodes = longitudes.length;
+        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            nodes.add(new Node(node, new Point(longitudes[node], latitudes[node])));
+        }
+
+        // Origin of each arc.
+        int[] tails = new int[heads.length];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = offsets[node]; arc < offsets[node + 1]; ++arc) {
+                tails[arc] = node;
+            }
+        }
+
+        for (int road = 0; road < roads.length / 2; ++road) {
+            final int arc = roads[2 * road];
+            Node origin = nodes.get(tails[arc]), destination = nodes.get(heads[arc]);
+            // Node.linkNodes reverses the points of two-ways loops, so they are
+            // reversed beforehand.
+            boolean reversed = origin == destination && roads[2 * road + 1] != -1;
+            Node.linkNodes(origin, destination, lengths[arc], infos[infoIndices[arc]],
+                    new PointList(buffer, pointsPosition, pointOffsets[road],
+                            pointOffsets[road + 1], reversed));
+        }
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new Graph(mapId, mapName, nodes, statistics);
+    }
+
+    /**
+     * Read the graph in compact form, without creating any node or arc object.
+     *
+     * @return The graph read, in compact form (without points).
+     *
+     * @throws IOException if the file is not a valid snapshot.
+     */
+    public CompactGraph readCompactGraph() throws IOException {
+        readArrays();
+        observers.forEach((observer) -> observer.notifyEndReading());
+        return new CompactGraph(mapId, mapName, longitudes, latitudes, offsets, heads, lengths,
+                infoIndices, infos, statistics);
+    }
+
+    /**
+     * Copy the arrays of the snapshot from the buffer.
+     */
+    private void readArrays() throws IOException {
+        try {
+            readArraysOrThrow();
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new BadFormatException("Unexpected end of file.");
+        }
+    }
+
+    private void readArraysOrThrow() throws IOException {
+        ByteBuffer buffer = this.buffer.duplicate();
+
+        // Read and check magic number and file version.
+        int magicNumber = buffer.getInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+
+        // Read map id and name.
+        mapId = readUTF(buffer);
+        mapName = readUTF(buffer);
+        align(buffer);
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Read sizes.
+        final int nbNodes = buffer.getInt();
+        final int nbArcs = buffer.getInt();
+        final int nbInfos = buffer.getInt();
+        final int nbRoads = buffer.getInt();
+        final int nbPoints = buffer.getInt();
+
+        // Read statistics.
+        boolean hasBoundingBox = buffer.getInt() != 0;
+        float left = buffer.getFloat(), top = buffer.getFloat(), right = buffer.getFloat(),
+                bottom = buffer.getFloat();
+        statistics = new GraphStatistics(
+                hasBoundingBox
+                        ? new BoundingBox(new Point(left, top), new Point(right, bottom))
+                        : null,
+                buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getFloat());
+
+        // Read road information.
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbInfos));
+        infos = new RoadInformation[nbInfos];
+        for (int index = 0; index < nbInfos; ++index) {
+            infos[index] = readRoadInformation(buffer);
+        }
+
+        // Read nodes.
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        longitudes = new float[nbNodes];
+        latitudes = new float[nbNodes];
+        buffer.asFloatBuffer().get(longitudes);
+        skip(buffer, nbNodes);
+        buffer.asFloatBuffer().get(latitudes);
+        skip(buffer, nbNodes);
+
+        // Read arcs.
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(nbArcs));
+        offsets = new int[nbNodes + 1];
+        heads = new int[nbArcs];
+        lengths = new float[nbArcs];
+        infoIndices = new int[nbArcs];
+        buffer.asIntBuffer().get(offsets);
+        skip(buffer, nbNodes + 1);
+        buffer.asIntBuffer().get(heads);
+        skip(buffer, nbArcs);
+        buffer.asFloatBuffer().get(lengths);
+        skip(buffer, nbArcs);
+        buffer.asIntBuffer().get(infoIndices);
+        skip(buffer, nbArcs);
+        if (offsets[nbNodes] != nbArcs) {
+            throw new BadFormatException("Number of arcs does not match the offsets.");
+        }
+
+        // Read roads and position of the points, the points themselves are read
+        // lazily.
+        roads = new int[2 * nbRoads];
+        pointOffsets = new int[nbRoads + 1];
+        buffer.asIntBuffer().get(roads);
+        skip(buffer, 2 * nbRoads);
+        buffer.asIntBuffer().get(pointOffsets);
+        skip(buffer, nbRoads + 1);
+        pointsPosition = buffer.position();
+        skip(buffer, 2 * nbPoints);
+    }
+
+    /**
+     * Skip the given number of 4-bytes values.
+     */
+    private static void skip(ByteBuffer buffer, int count) {
+        buffer.position(buffer.position() + 4 * count);
+    }
+
+    /**
+     * Skip padding bytes up to the next multiple of 4 bytes.
+     */
+    private static void align(ByteBuffer buffer) {
+        buffer.position((buffer.position() + 3) & ~3);
+    }
+
+    /**
+     * Read a string in modified UTF-8 (as written by
+     * {@link java.io.DataOutputStream#writeUTF(String)}).
+     */
+    private static String readUTF(ByteBuffer buffer) throws IOException {
+        int length = buffer.getShort() & 0xffff;
+        byte[] bytes = new byte[length + 2];
+        bytes[0] = (byte) (length >> 8);
+        bytes[1] = (byte) length;
+        buffer.get(bytes, 2, length);
+        return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+    }
+
+    private static RoadInformation readRoadInformation(ByteBuffer buffer) throws IOException {
+        RoadType type = RoadType.values()[buffer.get()];
+        boolean oneWay = buffer.get() != 0;
+        int maxSpeed = buffer.getShort();
+        int restrictions = 0;
+        for (AccessMode mode: AccessMode.values()) {
+            AccessRestriction restriction = AccessRestriction.values()[buffer.get()];
+            restrictions |= restriction.ordinal() << (4 * mode.ordinal());
+        }
+        String name = readUTF(buffer);
+        align(buffer);
+        return new RoadInformation(type, AccessRestrictions.valueOf(restrictions), oneWay, maxSpeed,
+                name);
+    }
+
+    /**
+     * List of the points of an arc, which are created from the mapped buffer on
+     * access.
+     */
+    private static final class PointList extends AbstractList<Point> implements RandomAccess {
+
+        // Buffer and position of the points of the snapshot.
+        private final ByteBuffer buffer;
+        private final int position;
+
+        // Range of the points of this arc.
+        private final int first, last;
+
+        // true if the points should be read in reverse order.
+        private final boolean reversed;
+
+        PointList(ByteBuffer buffer, int position, int first, int last, boolean reversed) {
+            this.buffer = buffer;
+            this.position = position;
+            this.first = first;
+            this.last = last;
+            this.reversed = reversed;
+        }
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            int point = reversed ? last - 1 - index : first + index;
+            return new Point(buffer.getFloat(position + 8 * point),
+                    buffer.getFloat(position + 8 * point + 4));
+        }
+
+        @Override
+        public int size() {
+            return last - first;
+        }
+
+    }
+
+}
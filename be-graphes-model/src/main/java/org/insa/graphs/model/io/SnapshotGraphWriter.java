@@ -0,0 +1,284 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Implementation of {@link GraphWriter} that writes graphs as snapshots, which
+ * can be read back by {@link SnapshotGraphReader}.
+ * </p>
+ *
+ * <p>
+ * Contrary to the {@code .mapgr} format, a snapshot stores the graph as it is
+ * in memory: the adjacency of the nodes in CSR format (see
+ * {@link CompactGraph}), the table of road information, the statistics of the
+ * graph and the order in which the roads were linked, so that the
+ * {@link org.insa.graphs.model.Node#linkNodes} calls (and therefore the
+ * forward / backward arcs and the order of the successors of each node) can be
+ * replayed exactly. Every section is aligned on 4 bytes, so that the arrays can
+ * be copied as-is from a mapped file.
+ * </p>
+ *
+ * <p>
+ * Only graphs whose arcs have been created by
+ * {@link org.insa.graphs.model.Node#linkNodes} can be written (e.g. graphs read
+ * from a file, but not transpose graphs), and whose nodes have not been
+ * renumbered (see {@link Graph#isRenumbered()}).
+ * </p>
+ */
+public class SnapshotGraphWriter extends BinaryWriter implements GraphWriter {
+
+    /**
+     * Create a new SnapshotGraphWriter that writes to the given output stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public SnapshotGraphWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    @Override
+    public void writeGraph(Graph graph) throws IOException {
+        if (graph.isRenumbered()) {
+            throw new IllegalArgumentException(
+                    "Cannot write a renumbered graph, write the original graph instead.");
+        }
+        final CompactGraph compact = graph.getCompactGraph();
+        final int nbNodes = compact.size();
+        final int nbArcs = compact.getArcCount();
+
+        // Retrieve the roads in the order they have to be linked.
+        final int[] roads = computeLinkOrder(compact);
+        final int nbRoads = roads.length / 2;
+
+        // Number of points of each road.
+        int nbPoints = 0;
+        for (int road = 0; road < nbRoads; ++road) {
+            List<Point> points = compact.getArc(roads[2 * road]).getPoints();
+            nbPoints += points == null ? 0 : points.size();
+        }
+
+        // Write magic number and version.
+        dos.writeInt(SnapshotGraphReader.MAGIC_NUMBER);
+        dos.writeInt(SnapshotGraphReader.VERSION);
+
+        // Write map id and name.
+        dos.writeUTF(graph.getMapId());
+        dos.writeUTF(graph.getMapName());
+        align();
+
+        // Write sizes.
+        dos.writeInt(nbNodes);
+        dos.writeInt(nbArcs);
+        dos.writeInt(compact.getRoadInformationCount());
+        dos.writeInt(nbRoads);
+        dos.writeInt(nbPoints);
+
+        // Write statistics.
+        GraphStatistics statistics = graph.getGraphInformation();
+        BoundingBox boundingBox = statistics.getBoundingBox();
+        dos.writeInt(boundingBox == null ? 0 : 1);
+        if (boundingBox != null) {
+            dos.writeFloat(boundingBox.getTopLeftPoint().getLongitude());
+            dos.writeFloat(boundingBox.getTopLeftPoint().getLatitude());
+            dos.writeFloat(boundingBox.getBottomRightPoint().getLongitude());
+            dos.writeFloat(boundingBox.getBottomRightPoint().getLatitude());
+        }
+        else {
+            for (int i = 0; i < 4; ++i) {
+                dos.writeFloat(0);
+            }
+        }
+        dos.writeInt(statistics.getOneWayRoadCount());
+        dos.writeInt(statistics.getTwoWaysRoadCount());
+        dos.writeInt(statistics.getMaximumSpeed());
+        dos.writeFloat(statistics.getMaximumLength());
+
+        // Write road information.
+        for (int index = 0; index < compact.getRoadInformationCount(); ++index) {
+            writeRoadInformation(compact.getRoadInformationAt(index));
+        }
+
+        // Write nodes.
+        for (int node = 0; node < nbNodes; ++node) {
+            dos.writeFloat(compact.getLongitude(node));
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            dos.writeFloat(compact.getLatitude(node));
+        }
+
+        // Write arcs.
+        for (int node = 0; node <= nbNodes; ++node) {
+            dos.writeInt(compact.getFirstArc(node));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(compact.getHead(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeFloat(compact.getLength(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(compact.getRoadInformationIndex(arc));
+        }
+
+        // Write roads (forward and backward arcs).
+        for (int value: roads) {
+            dos.writeInt(value);
+        }
+
+        // Write points of the roads.
+        for (int road = 0, offset = 0; road <= nbRoads; ++road) {
+            dos.writeInt(offset);
+            if (road < nbRoads) {
+                List<Point> points = compact.getArc(roads[2 * road]).getPoints();
+                offset += points == null ? 0 : points.size();
+            }
+        }
+        for (int road = 0; road < nbRoads; ++road) {
+            List<Point> points = compact.getArc(roads[2 * road]).getPoints();
+            if (points != null) {
+                for (Point point: points) {
+                    dos.writeFloat(point.getLongitude());
+                    dos.writeFloat(point.getLatitude());
+                }
+            }
+        }
+
+        dos.flush();
+    }
+
+    private void writeRoadInformation(RoadInformation info) throws IOException {
+        dos.writeByte(info.getType().ordinal());
+        dos.writeByte(info.isOneWay() ? 1 : 0);
+        dos.writeShort(info.getMaximumSpeed());
+        for (AccessMode mode: AccessMode.values()) {
+            dos.writeByte(info.getAccessRestrictions().getRestrictionFor(mode).ordinal());
+        }
+        dos.writeUTF(info.getName());
+        align();
+    }
+
+    /**
+     * Pad the output with zeros up to the next multiple of 4 bytes.
+     */
+    private void align() throws IOException {
+        while (dos.size() % 4 != 0) {
+            dos.writeByte(0);
+        }
+    }
+
+    /**
+     * Compute an order of the roads of the given graph such that linking the roads
+     * in this order with {@link org.insa.graphs.model.Node#linkNodes} gives back
+     * the successors of each node in the same order.
+     *
+     * @param compact Graph to compute the order for.
+     *
+     * @return Array containing, for each road, the ID of its forward arc followed
+     *         by the ID of its backward arc (or -1 for one-way roads).
+     *
+     * @throws IllegalArgumentException if the arcs of the graph cannot be created
+     *         by linking nodes.
+     */
+    private static int[] computeLinkOrder(CompactGraph compact) {
+        final int nbNodes = compact.size();
+        final int nbArcs = compact.getArcCount();
+
+        // Retrieve the backward arc of each two-ways forward arc.
+        IdentityHashMap<Arc, Integer> backwardArcs = new IdentityHashMap<>();
+        for (int arcId = 0; arcId < nbArcs; ++arcId) {
+            Arc arc = compact.getArc(arcId);
+            if (arc.isBackward()) {
+                backwardArcs.put(arc.getForwardArc(), arcId);
+            }
+        }
+
+        // Forward arc of the road of each arc.
+        int[] forwardArcs = new int[nbArcs];
+        int[] twins = new int[nbArcs];
+        int nbRoads = 0;
+        for (int arcId = 0; arcId < nbArcs; ++arcId) {
+            Arc arc = compact.getArc(arcId);
+            if (arc.isBackward()) {
+                continue;
+            }
+            forwardArcs[arcId] = arcId;
+            twins[arcId] = -1;
+            nbRoads += 1;
+            Integer backward = backwardArcs.remove(arc);
+            if (arc.getRoadInformation().isOneWay() != (backward == null)
+                    || (backward != null && arc.getOrigin().getId() > arc.getDestination().getId())) {
+                throw new IllegalArgumentException(
+                        "Arc " + arcId + " has not been created by linking nodes.");
+            }
+            if (backward != null) {
+                forwardArcs[backward] = arcId;
+                twins[arcId] = backward;
+            }
+        }
+        if (!backwardArcs.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Graph contains backward arcs whose forward arcs are not in the graph.");
+        }
+
+        // Greedily link the roads whose arcs are the next ones of their nodes.
+        int[] cursors = new int[nbNodes];
+        ArrayDeque<Integer> candidates = new ArrayDeque<>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            cursors[node] = compact.getFirstArc(node);
+            candidates.add(node);
+        }
+        int[] roads = new int[2 * nbRoads];
+        int nbLinked = 0;
+        while (!candidates.isEmpty()) {
+            int node = candidates.poll();
+            if (cursors[node] == compact.getFirstArc(node + 1)) {
+                continue;
+            }
+            int forward = forwardArcs[cursors[node]], backward = twins[forward];
+            int origin = compact.getTail(forward), destination = compact.getHead(forward);
+            boolean ready;
+            if (backward == -1) {
+                ready = cursors[origin] == forward;
+            }
+            else if (origin == destination) {
+                // Loops are added backward first.
+                ready = cursors[origin] == backward && forward == backward + 1;
+            }
+            else {
+                ready = cursors[origin] == forward && cursors[destination] == backward;
+            }
+            if (!ready) {
+                continue;
+            }
+            roads[2 * nbLinked] = forward;
+            roads[2 * nbLinked + 1] = backward;
+            nbLinked += 1;
+            cursors[origin] += 1;
+            candidates.add(origin);
+            if (backward != -1) {
+                cursors[destination] += 1;
+                candidates.add(destination);
+            }
+        }
+        if (nbLinked != nbRoads) {
+            throw new IllegalArgumentException(
+                    "Successors of the graph cannot be obtained by linking nodes.");
+        }
+        return roads;
+    }
+
+}
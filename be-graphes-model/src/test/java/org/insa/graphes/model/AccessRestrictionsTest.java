@@ -0,0 +1,130 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.AccessRestrictions.Mask;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AccessRestrictionsTest {
+
+    // Random restrictions (with their map) and sets of modes and restrictions
+    // used for tests.
+    private static List<EnumMap<AccessMode, AccessRestriction>> maps;
+    private static List<EnumSet<AccessMode>> modeSets;
+    private static List<EnumSet<AccessRestriction>> restrictionSets;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(31);
+        AccessRestriction[] restrictions = AccessRestriction.values();
+        maps = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            EnumMap<AccessMode, AccessRestriction> map = new EnumMap<>(AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                // Leave some modes out of the map (unknown).
+                if (random.nextInt(8) != 0) {
+                    map.put(mode, restrictions[random.nextInt(restrictions.length)]);
+                }
+            }
+            maps.add(map);
+        }
+
+        modeSets = new ArrayList<>();
+        modeSets.add(EnumSet.noneOf(AccessMode.class));
+        modeSets.add(AccessMode.ALL);
+        modeSets.add(AccessMode.VEHICLE);
+        modeSets.add(AccessMode.MOTOR_VEHICLE);
+        for (AccessMode mode: AccessMode.values()) {
+            modeSets.add(EnumSet.of(mode));
+        }
+
+        restrictionSets = new ArrayList<>();
+        restrictionSets.add(EnumSet.noneOf(AccessRestriction.class));
+        restrictionSets.add(EnumSet.allOf(AccessRestriction.class));
+        restrictionSets.add(AccessRestriction.ALLOWED_FOR_SOMETHING);
+        restrictionSets.add(EnumSet.complementOf(
+                EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+        for (AccessRestriction restriction: restrictions) {
+            restrictionSets.add(EnumSet.of(restriction));
+        }
+    }
+
+    @Test
+    public void testPacked() {
+        for (EnumMap<AccessMode, AccessRestriction> map: maps) {
+            AccessRestrictions access = new AccessRestrictions(map);
+            AccessRestrictions shared = AccessRestrictions.valueOf(access.getPackedValue());
+            assertEquals(access, shared);
+            assertSame(shared, AccessRestrictions.valueOf(access.getPackedValue()));
+            for (AccessMode mode: AccessMode.values()) {
+                AccessRestriction expected = map.getOrDefault(mode, AccessRestriction.UNKNOWN);
+                assertEquals(expected, access.getRestrictionFor(mode));
+                assertEquals(expected, shared.getRestrictionFor(mode));
+                for (AccessRestriction restriction: AccessRestriction.values()) {
+                    assertEquals(expected == restriction, access.isAllowedFor(mode, restriction));
+                }
+            }
+        }
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(AccessRestriction.UNKNOWN, new AccessRestrictions().getRestrictionFor(mode));
+        }
+    }
+
+    @Test
+    public void testMasks() {
+        for (EnumMap<AccessMode, AccessRestriction> map: maps) {
+            AccessRestrictions access = new AccessRestrictions(map);
+            for (EnumSet<AccessRestriction> restrictions: restrictionSets) {
+                for (EnumSet<AccessMode> modes: modeSets) {
+                    boolean expected = true;
+                    for (AccessMode mode: modes) {
+                        expected = expected && restrictions
+                                .contains(map.getOrDefault(mode, AccessRestriction.UNKNOWN));
+                    }
+                    assertEquals(expected, access.areAllAllowedForAny(modes, restrictions));
+                    assertEquals(expected, access.isAllowedFor(Mask.of(modes, restrictions)));
+                }
+                for (AccessMode mode: AccessMode.values()) {
+                    assertEquals(access.isAllowedForAny(mode, restrictions),
+                            access.isAllowedFor(Mask.of(mode, restrictions)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluate() {
+        Graph graph = new RoadNetworkGenerator(500, 3, 0.2, 0.3, 0.1).generate();
+        CompactGraph compact = graph.getCompactGraph();
+        for (EnumSet<AccessRestriction> restrictions: restrictionSets) {
+            Mask mask = Mask.of(AccessMode.MOTORCAR, restrictions);
+            boolean[] allowed = mask.evaluate(compact);
+            assertEquals(compact.getRoadInformationCount(), allowed.length);
+            for (int arcId = 0; arcId < compact.getArcCount(); ++arcId) {
+                assertEquals(compact.getRoadInformation(arcId).getAccessRestrictions()
+                        .isAllowedForAny(AccessMode.MOTORCAR, restrictions),
+                        allowed[compact.getRoadInformationIndex(arcId)]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPackedValue() {
+        AccessRestrictions.valueOf(0xf);
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    // List of nodes
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+
+        RoadInformation oneWay = new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null),
+                twoWays = new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null);
+
+        // Create nodes
+        nodes = new Node[5];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(i, 2 * i));
+        }
+
+        Node.linkNodes(nodes[0], nodes[1], 10, twoWays, null);
+        Node.linkNodes(nodes[0], nodes[4], 20, oneWay, null);
+        Node.linkNodes(nodes[1], nodes[2], 30, twoWays, null);
+        Node.linkNodes(nodes[2], nodes[3], 40, oneWay, null);
+        Node.linkNodes(nodes[2], nodes[3], 50, oneWay, null);
+        Node.linkNodes(nodes[4], nodes[0], 60, oneWay, null);
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    @Test
+    public void testFromGraph() {
+        CompactGraph compact = CompactGraph.fromGraph(graph);
+        assertEquals(graph.size(), compact.size());
+        assertEquals(8, compact.getArcCount());
+        assertEquals(2, compact.getRoadInformationCount());
+
+        for (Node node: graph.getNodes()) {
+            assertEquals(node.getNumberOfSuccessors(), compact.getNumberOfSuccessors(node.getId()));
+            assertEquals(node.getPoint().getLongitude(), compact.getLongitude(node.getId()), 0);
+            assertEquals(node.getPoint().getLatitude(), compact.getLatitude(node.getId()), 0);
+            int arcId = compact.getFirstArc(node.getId());
+            for (Arc arc: node.getSuccessors()) {
+                assertSame(arc, compact.getArc(arcId));
+                assertEquals(arcId, compact.getArcId(arc));
+                assertEquals(node.getId(), compact.getTail(arcId));
+                assertEquals(arc.getDestination().getId(), compact.getHead(arcId));
+                assertEquals(arc.getLength(), compact.getLength(arcId), 0);
+                assertSame(arc.getRoadInformation(), compact.getRoadInformation(arcId));
+                ++arcId;
+            }
+            assertEquals(compact.getFirstArc(node.getId() + 1), arcId);
+        }
+    }
+
+    @Test
+    public void testGetCompactGraphIsCached() {
+        assertSame(graph.getCompactGraph(), graph.getCompactGraph());
+    }
+
+    @Test
+    public void testTailWithIsolatedNodes() {
+        // Node 3 has no successor, so arcs of node 4 directly follow arcs of node 2.
+        CompactGraph compact = graph.getCompactGraph();
+        assertEquals(compact.getFirstArc(3), compact.getFirstArc(4));
+        assertEquals(4, compact.getTail(compact.getFirstArc(4)));
+    }
+
+    @Test
+    public void testIncomingArcs() {
+        CompactGraph compact = graph.getCompactGraph();
+        int[] nbIncoming = new int[compact.size()];
+        for (int node = 0; node < compact.size(); ++node) {
+            for (int i = compact.getFirstIncomingArc(node); i < compact
+                    .getFirstIncomingArc(node + 1); ++i) {
+                int arc = compact.getIncomingArc(i);
+                assertEquals(node, compact.getHead(arc));
+                assertEquals(compact.getTail(arc), compact.getIncomingArcTail(i));
+                ++nbIncoming[node];
+            }
+        }
+        for (Node node: graph.getNodes()) {
+            for (Arc arc: node.getSuccessors()) {
+                --nbIncoming[arc.getDestination().getId()];
+            }
+        }
+        assertEquals(compact.getArcCount(), compact.getFirstIncomingArc(compact.size()));
+        for (int count: nbIncoming) {
+            assertEquals(0, count);
+        }
+    }
+
+    /**
+     * Encode a small graph in the binary format (version 8), with three nodes, a
+     * two-ways road from 2 to 0 (with one segment) and a one-way road from 0 to 1.
+     */
+    static byte[] createBinaryGraph() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeInt(0x208BC3B3);
+        dos.writeInt(8);
+        dos.write(Arrays.copyOf("test".getBytes("UTF-8"), 32));
+        dos.writeUTF("Test map");
+        dos.writeInt(2); // Descriptors
+        dos.writeInt(3); // Nodes
+        int[] nbSuccessors = { 1, 0, 1 };
+        for (int i = 0; i < 3; ++i) {
+            dos.writeInt(i * 1000);
+            dos.writeInt(i * 2000);
+            dos.writeByte(nbSuccessors[i]);
+        }
+        dos.writeByte(255);
+        for (int oneway = 0; oneway < 2; ++oneway) {
+            dos.writeByte('j');
+            dos.writeByte((oneway == 1 ? 0x80 : 0) | 10);
+            dos.writeLong(0);
+            dos.writeUTF("Road #" + oneway);
+        }
+        dos.writeByte(254);
+        // 0 -> 1, one-way, no segment
+        dos.writeShort(0);
+        dos.writeByte(1);
+        dos.writeShort(0);
+        dos.writeByte(1);
+        dos.writeInt(5000000);
+        dos.writeShort(0);
+        // 2 -> 0, two-ways, one segment
+        dos.writeShort(0);
+        dos.writeByte(0);
+        dos.writeShort(0);
+        dos.writeByte(0);
+        dos.writeInt(4000000);
+        dos.writeShort(1);
+        dos.writeShort(10);
+        dos.writeShort(20);
+        dos.writeByte(253);
+        dos.close();
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testReadCompactGraph() throws IOException {
+        byte[] bytes = createBinaryGraph();
+        Graph expected = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(bytes))).read();
+        CompactGraph actual = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(bytes))).readCompactGraph();
+
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getArcCount(), actual.getArcCount());
+        assertEquals(expected.getGraphInformation().getMaximumSpeed(),
+                actual.getGraphInformation().getMaximumSpeed());
+
+        CompactGraph reference = expected.getCompactGraph();
+        for (int node = 0; node < expected.size(); ++node) {
+            assertEquals(reference.getFirstArc(node), actual.getFirstArc(node));
+            assertEquals(reference.getLongitude(node), actual.getLongitude(node), 0);
+            assertEquals(reference.getLatitude(node), actual.getLatitude(node), 0);
+        }
+        for (int arc = 0; arc < actual.getArcCount(); ++arc) {
+            assertEquals(reference.getHead(arc), actual.getHead(arc));
+            assertEquals(reference.getLength(arc), actual.getLength(arc), 0);
+            assertEquals(reference.getRoadInformation(arc).isOneWay(),
+                    actual.getRoadInformation(arc).isOneWay());
+            assertEquals(reference.getRoadInformation(arc).getName(),
+                    actual.getRoadInformation(arc).getName());
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.CompactPath;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactPathTest {
+
+    // Graph used for tests, and arc used to reach each node by a breadth-first
+    // search from node 0.
+    private static Graph graph;
+    private static int[] parentArcs;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RoadNetworkGenerator(2000, 23).generate();
+        CompactGraph compact = graph.getCompactGraph();
+        parentArcs = new int[graph.size()];
+        Arrays.fill(parentArcs, -2);
+        parentArcs[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                if (parentArcs[compact.getHead(arc)] == -2) {
+                    parentArcs[compact.getHead(arc)] = arc;
+                    queue.add(compact.getHead(arc));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFromParentArcs() {
+        CompactGraph compact = graph.getCompactGraph();
+        int nbPaths = 0;
+        for (int node = 1; node < graph.size(); ++node) {
+            if (parentArcs[node] < 0) {
+                continue;
+            }
+            nbPaths += 1;
+            CompactPath path = CompactPath.fromParentArcs(graph, node, parentArcs);
+            assertTrue(path.isValid());
+            assertEquals(0, path.getOriginId());
+            assertEquals(node, path.getDestinationId());
+            assertEquals(graph.get(node), path.getDestination());
+            assertEquals(parentArcs[node], path.getArcId(path.getArcCount() - 1));
+
+            Path expected = path.toPath();
+            assertEquals(graph.get(0), expected.getOrigin());
+            assertEquals(graph.get(node), expected.getDestination());
+            assertEquals(path.getArcCount(), expected.getArcs().size());
+            for (int i = 0; i < path.getArcCount(); ++i) {
+                assertEquals(compact.getArc(path.getArcId(i)), expected.getArcs().get(i));
+            }
+            assertEquals(path.size(), expected.size());
+            assertEquals(expected.getLength(), path.getLength(), 0);
+            assertEquals(expected.getMinimumTravelTime(), path.getMinimumTravelTime(), 1e-9);
+            assertEquals(expected.getTravelTime(42), path.getTravelTime(42), 1e-9);
+            assertEquals(path, CompactPath.fromPath(expected));
+        }
+        assertTrue(nbPaths > graph.size() / 2);
+    }
+
+    @Test
+    public void testTrivialPaths() {
+        CompactPath empty = new CompactPath(graph);
+        assertTrue(empty.isEmpty());
+        assertTrue(empty.isValid());
+        assertEquals(0, empty.size());
+        assertNull(empty.getOrigin());
+        assertNull(empty.getDestination());
+        assertTrue(empty.toPath().isEmpty());
+        assertEquals(empty, CompactPath.fromPath(new Path(graph)));
+
+        CompactPath single = CompactPath.fromParentArcs(graph, 0, parentArcs);
+        assertFalse(single.isEmpty());
+        assertTrue(single.isValid());
+        assertEquals(1, single.size());
+        assertEquals(0, single.getLength(), 0);
+        assertEquals(graph.get(0), single.getOrigin());
+        assertEquals(graph.get(0), single.getDestination());
+        assertEquals(graph.get(0), single.toPath().getOrigin());
+        assertEquals(single, CompactPath.fromPath(new Path(graph, graph.get(0))));
+    }
+
+    @Test
+    public void testInvalidPath() {
+        CompactGraph compact = graph.getCompactGraph();
+        List<Arc> successors = graph.get(0).getSuccessors();
+        int first = compact.getArcId(successors.get(0));
+        CompactPath path = new CompactPath(graph, new int[] { first, first });
+        assertFalse(path.isValid());
+        assertEquals(2 * compact.getLength(first), path.getLength(), 1e-3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParentArcNotEndingAtNode() {
+        int[] invalid = parentArcs.clone();
+        int node = graph.get(0).getSuccessors().get(0).getDestination().getId();
+        invalid[node] = graph.getCompactGraph().getFirstArc(node);
+        CompactPath.fromParentArcs(graph, node, invalid);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoArcs() {
+        new CompactPath(graph, new int[0]);
+    }
+
+}
@@ -0,0 +1,206 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphReordering;
+import org.insa.graphs.model.GraphReordering.Order;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.BinaryGraphWriter;
+import org.insa.graphs.model.io.BinaryPathReader;
+import org.insa.graphs.model.io.BinaryPathWriter;
+import org.insa.graphs.model.io.ReorderingGraphReader;
+import org.insa.graphs.model.io.SnapshotGraphWriter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class GraphReorderingTest {
+
+    // Original graph, and the same graph with its nodes shuffled.
+    private static Graph graph, shuffled;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RoadNetworkGenerator(3000, 19).generate();
+        int[] order = new int[graph.size()];
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < graph.size(); ++id) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(5));
+        for (int id = 0; id < graph.size(); ++id) {
+            order[id] = ids.get(id);
+        }
+        shuffled = GraphReordering.reorder(graph, order);
+    }
+
+    /**
+     * Check that the given graph is the original graph renumbered.
+     */
+    private static void assertSameRoads(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.size(), actual.size());
+        for (Node node: actual.getNodes()) {
+            assertEquals(node, actual.getByOriginalId(actual.getOriginalId(node.getId())));
+            Node original = expected.getByOriginalId(actual.getOriginalId(node.getId()));
+            assertEquals(original.getPoint().toString(), node.getPoint().toString());
+
+            List<String> expectedArcs = new ArrayList<>(), actualArcs = new ArrayList<>();
+            for (Arc arc: original.getSuccessors()) {
+                expectedArcs.add(expected.getOriginalId(arc.getDestination().getId()) + "/"
+                        + arc.getLength() + "/" + arc.getRoadInformation().getName() + "/"
+                        + arc.getPoints());
+            }
+            for (Arc arc: node.getSuccessors()) {
+                assertEquals(node, arc.getOrigin());
+                actualArcs.add(actual.getOriginalId(arc.getDestination().getId()) + "/"
+                        + arc.getLength() + "/" + arc.getRoadInformation().getName() + "/"
+                        + arc.getPoints());
+            }
+            Collections.sort(expectedArcs);
+            Collections.sort(actualArcs);
+            assertEquals(expectedArcs, actualArcs);
+        }
+    }
+
+    /**
+     * @return Average difference between the IDs of the origin and destination of
+     *         the arcs of the given graph.
+     */
+    private static double averageGap(Graph graph) {
+        long gap = 0, nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            for (Arc arc: node.getSuccessors()) {
+                gap += Math.abs(node.getId() - arc.getDestination().getId());
+                nbArcs += 1;
+            }
+        }
+        return (double) gap / nbArcs;
+    }
+
+    @Test
+    public void testReorder() {
+        assertFalse(graph.isRenumbered());
+        assertTrue(shuffled.isRenumbered());
+        assertSameRoads(graph, shuffled);
+        for (Order order: Order.values()) {
+            Graph reordered = GraphReordering.reorder(shuffled, order);
+            assertSameRoads(graph, reordered);
+            assertTrue(averageGap(reordered) < averageGap(shuffled) / 10);
+        }
+    }
+
+    /**
+     * @return Number of arcs of the given graph.
+     */
+    private static int countArcs(Graph graph) {
+        int nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            nbArcs += node.getNumberOfSuccessors();
+        }
+        return nbArcs;
+    }
+
+    @Test
+    public void testReorderTranspose() {
+        Graph transpose = graph.transpose();
+        for (Order order: Order.values()) {
+            Graph reordered = GraphReordering.reorder(transpose, order);
+            assertEquals(countArcs(transpose), countArcs(reordered));
+            assertSameRoads(transpose, reordered);
+        }
+    }
+
+    @Test
+    public void testPaths() throws IOException {
+        Graph reordered = GraphReordering.reorder(shuffled, Order.HILBERT);
+
+        // A path from the first node along its successors.
+        List<Node> nodes = new ArrayList<>();
+        Node node = graph.get(0);
+        nodes.add(node);
+        for (int i = 0; i < 10 && !node.getSuccessors().isEmpty(); ++i) {
+            node = node.getSuccessors().get(0).getDestination();
+            nodes.add(node);
+        }
+        List<Node> reorderedNodes = new ArrayList<>();
+        for (Node original: nodes) {
+            reorderedNodes.add(reordered.getByOriginalId(original.getId()));
+        }
+        Path path = Path.createShortestPathFromNodes(graph, nodes);
+        Path reorderedPath = Path.createShortestPathFromNodes(reordered, reorderedNodes);
+
+        // Paths written from one graph are read back on the other one.
+        Path read = readPath(reordered, writePath(path));
+        assertEquals(reorderedPath.getOrigin(), read.getOrigin());
+        assertEquals(reorderedPath.getDestination(), read.getDestination());
+        assertEquals(reorderedPath.getLength(), read.getLength(), 1e-6);
+
+        read = readPath(graph, writePath(reorderedPath));
+        assertEquals(path.getOrigin(), read.getOrigin());
+        assertEquals(path.getDestination(), read.getDestination());
+        assertEquals(path.getLength(), read.getLength(), 1e-6);
+    }
+
+    private static byte[] writePath(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryPathWriter(new DataOutputStream(bytes)).writePath(path);
+        return bytes.toByteArray();
+    }
+
+    private static Path readPath(Graph graph, byte[] bytes) throws IOException {
+        return new BinaryPathReader(new DataInputStream(new ByteArrayInputStream(bytes)))
+                .readPath(graph);
+    }
+
+    @Test
+    public void testReader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(new DataOutputStream(bytes))) {
+            writer.writeGraph(graph);
+        }
+        Graph expected = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))).read();
+        Graph actual = new ReorderingGraphReader(
+                new BinaryGraphReader(
+                        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))),
+                Order.BREADTH_FIRST).read();
+        assertTrue(actual.isRenumbered());
+        assertSameRoads(expected, actual);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteRenumbered() throws IOException {
+        new BinaryGraphWriter(new DataOutputStream(new ByteArrayOutputStream()))
+                .writeGraph(shuffled);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotRenumbered() throws IOException {
+        new SnapshotGraphWriter(new DataOutputStream(new ByteArrayOutputStream()))
+                .writeGraph(shuffled);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrder() {
+        int[] order = new int[graph.size()];
+        GraphReordering.reorder(graph, order);
+    }
+
+}
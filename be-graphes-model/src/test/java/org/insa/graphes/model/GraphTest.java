@@ -1,6 +1,9 @@
 package org.insa.graphes.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -109,4 +112,26 @@ public class GraphTest {
         assertEquals(1, getArcsBetween(transpose.get(4), transpose.get(3)).size());
 
     }
+
+    @Test
+    public void testFrozen() {
+        for (Node node: graph.getNodes()) {
+            assertTrue(node.isFrozen());
+        }
+        assertTrue(graph.transpose().get(0).isFrozen());
+        assertFalse(new Node(0, null).isFrozen());
+
+        // The list given to the constructor is copied.
+        List<Node> list = new ArrayList<>(Arrays.asList(nodes));
+        Graph copy = new Graph("ID", "", list, null);
+        list.set(0, new Node(0, null));
+        assertSame(nodes[0], copy.get(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLinkFrozenNodes() {
+        Node.linkNodes(nodes[0], nodes[3], 0,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null), new ArrayList<>());
+    }
+
 }
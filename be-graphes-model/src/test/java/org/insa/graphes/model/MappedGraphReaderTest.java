@@ -0,0 +1,109 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.MappedGraphReader;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedGraphReaderTest {
+
+    // Binary graph used for tests, and graph read using BinaryGraphReader.
+    private static byte[] bytes;
+    private static Graph expected;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        bytes = CompactGraphTest.createBinaryGraph();
+        expected = new BinaryGraphReader(new DataInputStream(new ByteArrayInputStream(bytes)))
+                .read();
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getArcCount(),
+                actual.getGraphInformation().getArcCount());
+        assertEquals(expected.getGraphInformation().getOneWayRoadCount(),
+                actual.getGraphInformation().getOneWayRoadCount());
+        for (Node node: expected.getNodes()) {
+            Node other = actual.get(node.getId());
+            assertEquals(node.getPoint().getLongitude(), other.getPoint().getLongitude(), 0);
+            assertEquals(node.getPoint().getLatitude(), other.getPoint().getLatitude(), 0);
+            assertEquals(node.getNumberOfSuccessors(), other.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i), otherArc = other.getSuccessors().get(i);
+                assertEquals(arc.getDestination().getId(), otherArc.getDestination().getId());
+                assertEquals(arc.getLength(), otherArc.getLength(), 0);
+                assertEquals(arc.getRoadInformation().getName(),
+                        otherArc.getRoadInformation().getName());
+                List<Point> points = arc.getPoints(), otherPoints = otherArc.getPoints();
+                assertEquals(points.size(), otherPoints.size());
+                for (int j = 0; j < points.size(); ++j) {
+                    assertEquals(points.get(j).getLongitude(), otherPoints.get(j).getLongitude(),
+                            1e-6);
+                    assertEquals(points.get(j).getLatitude(), otherPoints.get(j).getLatitude(),
+                            1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadBuffer() throws IOException {
+        assertSameGraph(expected, new MappedGraphReader(ByteBuffer.wrap(bytes)).read());
+    }
+
+    @Test
+    public void testReadFile() throws IOException {
+        File file = folder.newFile("test.mapgr");
+        Files.write(file.toPath(), bytes);
+        try (MappedGraphReader reader = new MappedGraphReader(file)) {
+            assertSameGraph(expected, reader.read());
+        }
+    }
+
+    @Test
+    public void testReadCompactGraph() throws IOException {
+        CompactGraph reference = expected.getCompactGraph();
+        CompactGraph actual = new MappedGraphReader(ByteBuffer.wrap(bytes)).readCompactGraph();
+        assertEquals(reference.size(), actual.size());
+        assertEquals(reference.getArcCount(), actual.getArcCount());
+        for (int node = 0; node <= actual.size(); ++node) {
+            assertEquals(reference.getFirstArc(node), actual.getFirstArc(node));
+        }
+        for (int arc = 0; arc < actual.getArcCount(); ++arc) {
+            assertEquals(reference.getHead(arc), actual.getHead(arc));
+            assertEquals(reference.getLength(arc), actual.getLength(arc), 0);
+        }
+    }
+
+    @Test(expected = BadMagicNumberException.class)
+    public void testBadMagicNumber() throws IOException {
+        byte[] copy = bytes.clone();
+        copy[0] = 0;
+        new MappedGraphReader(ByteBuffer.wrap(copy)).read();
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.junit.Test;
+
+public class PackedGeometryTest {
+
+    @Test
+    public void testGetPoints() {
+        PackedGeometry geometry = new PackedGeometry(1);
+        Point origin = new Point(1, 2), destination = new Point(3, 4);
+        geometry.addSegment((short) 100, (short) -200);
+        int first = geometry.addSegment((short) 10, (short) 20);
+        geometry.addSegment((short) -30, (short) 40);
+        geometry.addSegment((short) 50, (short) 60);
+        geometry.trimToSize();
+        assertEquals(4, geometry.size());
+
+        List<Point> points = geometry.getPoints(first, 2, origin, destination);
+        assertEquals(4, points.size());
+        assertSame(origin, points.get(0));
+        assertEquals(1 + 10 / 2.0e5f, points.get(1).getLongitude(), 1e-6);
+        assertEquals(2 + 20 / 2.0e5f, points.get(1).getLatitude(), 1e-6);
+        assertEquals(1 + (10 - 30) / 2.0e5f, points.get(2).getLongitude(), 1e-6);
+        assertEquals(2 + (20 + 40) / 2.0e5f, points.get(2).getLatitude(), 1e-6);
+        assertSame(destination, points.get(3));
+
+        // Lists without segments only contain the origin and destination.
+        assertEquals(2, geometry.getPoints(4, 0, origin, destination).size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPointsOutOfBounds() {
+        PackedGeometry geometry = new PackedGeometry(4);
+        geometry.addSegment((short) 0, (short) 0);
+        geometry.getPoints(0, 2, new Point(0, 0), new Point(0, 0));
+    }
+
+    @Test
+    public void testReadGraphPoints() throws IOException {
+        Graph graph = new BinaryGraphReader(new DataInputStream(
+                new ByteArrayInputStream(CompactGraphTest.createBinaryGraph()))).read();
+
+        // 2 -> 0 is a two-ways road with one segment (10, 20), stored as a forward
+        // arc from 0 to 2.
+        Arc forward = graph.get(0).getSuccessors().get(1);
+        Arc backward = graph.get(2).getSuccessors().get(0);
+        assertSame(forward, backward.getForwardArc());
+
+        List<Point> points = new ArrayList<>(backward.getPoints());
+        assertEquals(3, points.size());
+        assertSame(graph.get(2).getPoint(), points.get(0));
+        assertEquals(0.002f + 10 / 2.0e5f, points.get(1).getLongitude(), 1e-6);
+        assertEquals(0.004f + 20 / 2.0e5f, points.get(1).getLatitude(), 1e-6);
+        assertSame(graph.get(0).getPoint(), points.get(2));
+
+        List<Point> forwardPoints = forward.getPoints();
+        for (int i = 0; i < points.size(); ++i) {
+            assertSame(points.get(i), forwardPoints.get(points.size() - 1 - i));
+        }
+    }
+
+}
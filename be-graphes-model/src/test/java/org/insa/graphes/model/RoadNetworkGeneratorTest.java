@@ -0,0 +1,189 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.BinaryGraphWriter;
+import org.junit.Test;
+
+public class RoadNetworkGeneratorTest {
+
+    private static byte[] write(RoadNetworkGenerator generator) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(new DataOutputStream(bytes))) {
+            generator.write(writer);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] write(Graph graph) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(new DataOutputStream(bytes))) {
+            writer.writeGraph(graph);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Graph read(byte[] bytes) throws IOException {
+        return new BinaryGraphReader(new DataInputStream(new ByteArrayInputStream(bytes))).read();
+    }
+
+    private static void assertSameInformation(RoadInformation expected, RoadInformation actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.isOneWay(), actual.isOneWay());
+        assertEquals(expected.getMaximumSpeed(), actual.getMaximumSpeed());
+        assertEquals(expected.getName(), actual.getName());
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(expected.getAccessRestrictions().getRestrictionFor(mode),
+                    actual.getAccessRestrictions().getRestrictionFor(mode));
+        }
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual, double lengthDelta) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getArcCount(),
+                actual.getGraphInformation().getArcCount());
+        assertEquals(expected.getGraphInformation().getMaximumLength(),
+                actual.getGraphInformation().getMaximumLength(), lengthDelta);
+        for (int node = 0; node < expected.size(); ++node) {
+            assertEquals(expected.get(node).getPoint().getLongitude(),
+                    actual.get(node).getPoint().getLongitude(), 0);
+            assertEquals(expected.get(node).getPoint().getLatitude(),
+                    actual.get(node).getPoint().getLatitude(), 0);
+            List<Arc> expectedArcs = expected.get(node).getSuccessors(),
+                    actualArcs = actual.get(node).getSuccessors();
+            assertEquals(expectedArcs.size(), actualArcs.size());
+            for (int i = 0; i < expectedArcs.size(); ++i) {
+                Arc expectedArc = expectedArcs.get(i), actualArc = actualArcs.get(i);
+                assertEquals(expectedArc.getDestination().getId(),
+                        actualArc.getDestination().getId());
+                assertEquals(expectedArc.getLength(), actualArc.getLength(), lengthDelta);
+                assertSameInformation(expectedArc.getRoadInformation(),
+                        actualArc.getRoadInformation());
+                List<Point> expectedPoints = expectedArc.getPoints(),
+                        actualPoints = actualArc.getPoints();
+                assertEquals(expectedPoints.size(), actualPoints.size());
+                for (int p = 0; p < expectedPoints.size(); ++p) {
+                    assertEquals(expectedPoints.get(p).getLongitude(),
+                            actualPoints.get(p).getLongitude(), 1e-6);
+                    assertEquals(expectedPoints.get(p).getLatitude(),
+                            actualPoints.get(p).getLatitude(), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGenerateMatchesWrittenFile() throws IOException {
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(5000, 42);
+        assertSameGraph(generator.generate(), read(write(generator)), 0);
+    }
+
+    @Test
+    public void testDeterministic() throws IOException {
+        assertEquals(new String(write(new RoadNetworkGenerator(1000, 7)), "ISO-8859-1"),
+                new String(write(new RoadNetworkGenerator(1000, 7)), "ISO-8859-1"));
+    }
+
+    @Test
+    public void testGenerateCompactGraph() {
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(3000, 3);
+        CompactGraph expected = generator.generate().getCompactGraph();
+        CompactGraph actual = generator.generateCompactGraph();
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getArcCount(), actual.getArcCount());
+        for (int node = 0; node <= expected.size(); ++node) {
+            assertEquals(expected.getFirstArc(node), actual.getFirstArc(node));
+        }
+        for (int arc = 0; arc < expected.getArcCount(); ++arc) {
+            assertEquals(expected.getHead(arc), actual.getHead(arc));
+            assertEquals(expected.getLength(arc), actual.getLength(arc), 0);
+            assertSameInformation(expected.getRoadInformation(arc),
+                    actual.getRoadInformation(arc));
+        }
+    }
+
+    @Test
+    public void testRoadNetworkProperties() {
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(20000, 11, 0.3, 0.1, 0.1);
+        Graph graph = generator.generate();
+        assertEquals(20000, graph.size());
+
+        EnumSet<RoadType> types = EnumSet.noneOf(RoadType.class);
+        int nbLocalRoads = 0, nbOneWayLocalRoads = 0, nbRestricted = 0;
+        for (int node = 0; node < graph.size(); ++node) {
+            for (Arc arc: graph.get(node).getSuccessors()) {
+                RoadInformation info = arc.getRoadInformation();
+                types.add(info.getType());
+                assertTrue(arc.getLength() >= (float) Point.distance(arc.getOrigin().getPoint(),
+                        arc.getDestination().getPoint()));
+                if (arc.isBackward()) {
+                    continue;
+                }
+                if (info.getType() == RoadType.RESIDENTIAL
+                        || info.getType() == RoadType.LIVING_STREET
+                        || info.getType() == RoadType.SERVICE) {
+                    nbLocalRoads += 1;
+                    if (info.isOneWay()) {
+                        nbOneWayLocalRoads += 1;
+                    }
+                    if (!info.getAccessRestrictions().isAllowedFor(AccessMode.MOTORCAR,
+                            AccessRestriction.ALLOWED)) {
+                        nbRestricted += 1;
+                    }
+                }
+                if (info.getType() == RoadType.MOTORWAY) {
+                    assertTrue(!info.isOneWay() && !info.getAccessRestrictions().isAllowedForAny(
+                            AccessMode.FOOT, AccessRestriction.ALLOWED_FOR_SOMETHING));
+                }
+            }
+        }
+        assertTrue(types.containsAll(EnumSet.of(RoadType.MOTORWAY, RoadType.TRUNK,
+                RoadType.PRIMARY, RoadType.SECONDARY, RoadType.TERTIARY, RoadType.RESIDENTIAL,
+                RoadType.PEDESTRIAN)));
+
+        // A one-way road is stored once while a two-ways road creates two arcs, so
+        // the ratio of one-way roads is computed on forward arcs only.
+        double oneWayRatio = nbOneWayLocalRoads / (double) nbLocalRoads;
+        assertEquals(0.3, oneWayRatio, 0.05);
+        double restrictedRatio = nbRestricted / (double) nbLocalRoads;
+        assertEquals(0.1, restrictedRatio, 0.05);
+    }
+
+    @Test
+    public void testWriteGraph() throws IOException {
+        // Lengths are stored in millimeters.
+        Graph graph = read(CompactGraphTest.createBinaryGraph());
+        assertSameGraph(graph, read(write(graph)), 1e-3);
+
+        Graph generated = new RoadNetworkGenerator(2000, 5).generate();
+        assertSameGraph(generated, read(write(generated)), 1e-3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteTooManyNodes() throws IOException {
+        new RoadNetworkGenerator((1 << 24) + 1, 0)
+                .write(new BinaryGraphWriter(new DataOutputStream(new ByteArrayOutputStream())));
+    }
+
+}
@@ -0,0 +1,187 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.SnapshotGraphReader;
+import org.insa.graphs.model.io.SnapshotGraphWriter;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotGraphTest {
+
+    // Small graph with one-way roads, two-ways roads and loops.
+    private static Graph graph;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        Node[] nodes = new Node[4];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(i, 2 * i));
+        }
+        RoadInformation oneWay = new RoadInformation(RoadType.MOTORWAY, new AccessRestrictions(),
+                true, 130, "A61");
+        RoadInformation twoWays = new RoadInformation(RoadType.RESIDENTIAL,
+                new AccessRestrictions(), false, 30, "Avenue de Rangueil");
+
+        Node.linkNodes(nodes[0], nodes[1], 10, twoWays, points(0, 0, 0.5f, 1, 1, 2));
+        Node.linkNodes(nodes[2], nodes[1], 20, twoWays, points(2, 4, 1, 2));
+        Node.linkNodes(nodes[1], nodes[3], 30, oneWay, points(1, 2, 3, 6));
+        Node.linkNodes(nodes[3], nodes[3], 40, twoWays, points(3, 6, 4, 7, 3, 6));
+        Node.linkNodes(nodes[3], nodes[0], 50, twoWays, points(3, 6, 0, 0));
+        Node.linkNodes(nodes[2], nodes[2], 60, oneWay, points(2, 4, 2, 5, 2, 4));
+        Node.linkNodes(nodes[1], nodes[0], 70, oneWay, points(1, 2, 0, 0));
+
+        graph = new Graph("snapshot", "Snapshot map", Arrays.asList(nodes),
+                new GraphStatistics(new BoundingBox(new Point(0, 6), new Point(3, 0)), 3, 4,
+                        130, 70));
+    }
+
+    private static ArrayList<Point> points(float... coordinates) {
+        ArrayList<Point> points = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            points.add(new Point(coordinates[i], coordinates[i + 1]));
+        }
+        return points;
+    }
+
+    private static byte[] write(Graph graph) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotGraphWriter writer = new SnapshotGraphWriter(new DataOutputStream(bytes))) {
+            writer.writeGraph(graph);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void assertSameArc(Arc expected, Arc actual) {
+        assertEquals(expected.getOrigin().getId(), actual.getOrigin().getId());
+        assertEquals(expected.getDestination().getId(), actual.getDestination().getId());
+        assertEquals(expected.getLength(), actual.getLength(), 0);
+        assertEquals(expected.isBackward(), actual.isBackward());
+        RoadInformation info = expected.getRoadInformation(),
+                otherInfo = actual.getRoadInformation();
+        assertEquals(info.getType(), otherInfo.getType());
+        assertEquals(info.isOneWay(), otherInfo.isOneWay());
+        assertEquals(info.getMaximumSpeed(), otherInfo.getMaximumSpeed());
+        assertEquals(info.getName(), otherInfo.getName());
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(info.getAccessRestrictions().getRestrictionFor(mode),
+                    otherInfo.getAccessRestrictions().getRestrictionFor(mode));
+        }
+        List<Point> points = expected.getPoints(), otherPoints = actual.getPoints();
+        assertEquals(points.size(), otherPoints.size());
+        for (int i = 0; i < points.size(); ++i) {
+            assertEquals(points.get(i).getLongitude(), otherPoints.get(i).getLongitude(), 1e-6);
+            assertEquals(points.get(i).getLatitude(), otherPoints.get(i).getLatitude(), 1e-6);
+        }
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        GraphStatistics statistics = expected.getGraphInformation(),
+                otherStatistics = actual.getGraphInformation();
+        assertEquals(statistics.getOneWayRoadCount(), otherStatistics.getOneWayRoadCount());
+        assertEquals(statistics.getTwoWaysRoadCount(), otherStatistics.getTwoWaysRoadCount());
+        assertEquals(statistics.getMaximumSpeed(), otherStatistics.getMaximumSpeed());
+        assertEquals(statistics.getMaximumLength(), otherStatistics.getMaximumLength(), 0);
+        assertEquals(statistics.getBoundingBox().toString(),
+                otherStatistics.getBoundingBox().toString());
+
+        CompactGraph compact = actual.getCompactGraph();
+        for (Node node: expected.getNodes()) {
+            Node other = actual.get(node.getId());
+            assertEquals(node.getPoint().getLongitude(), other.getPoint().getLongitude(), 0);
+            assertEquals(node.getPoint().getLatitude(), other.getPoint().getLatitude(), 0);
+            assertEquals(node.getNumberOfSuccessors(), other.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i), otherArc = other.getSuccessors().get(i);
+                assertSameArc(arc, otherArc);
+                // The forward arc of a backward arc must be in the graph.
+                assertSame(otherArc.getForwardArc(),
+                        compact.getArc(compact.getArcId(otherArc.getForwardArc())));
+            }
+        }
+    }
+
+    @Test
+    public void testReadBuffer() throws IOException {
+        assertSameGraph(graph, new SnapshotGraphReader(ByteBuffer.wrap(write(graph))).read());
+    }
+
+    @Test
+    public void testReadFile() throws IOException {
+        Graph expected = new BinaryGraphReader(new DataInputStream(
+                new ByteArrayInputStream(CompactGraphTest.createBinaryGraph()))).read();
+        File file = folder.newFile("test.snapshot");
+        try (SnapshotGraphWriter writer = new SnapshotGraphWriter(
+                new DataOutputStream(new FileOutputStream(file)))) {
+            writer.writeGraph(expected);
+        }
+        try (SnapshotGraphReader reader = new SnapshotGraphReader(file)) {
+            assertSameGraph(expected, reader.read());
+        }
+    }
+
+    @Test
+    public void testReadCompactGraph() throws IOException {
+        CompactGraph reference = graph.getCompactGraph();
+        CompactGraph actual = new SnapshotGraphReader(ByteBuffer.wrap(write(graph)))
+                .readCompactGraph();
+        assertEquals(reference.size(), actual.size());
+        assertEquals(reference.getArcCount(), actual.getArcCount());
+        for (int node = 0; node <= actual.size(); ++node) {
+            assertEquals(reference.getFirstArc(node), actual.getFirstArc(node));
+        }
+        for (int arc = 0; arc < actual.getArcCount(); ++arc) {
+            assertEquals(reference.getHead(arc), actual.getHead(arc));
+            assertEquals(reference.getLength(arc), actual.getLength(arc), 0);
+            assertEquals(reference.getRoadInformationIndex(arc),
+                    actual.getRoadInformationIndex(arc));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteTransposeGraph() throws IOException {
+        write(graph.transpose());
+    }
+
+    @Test(expected = BadMagicNumberException.class)
+    public void testBadMagicNumber() throws IOException {
+        byte[] bytes = write(graph);
+        bytes[0] = 0;
+        new SnapshotGraphReader(ByteBuffer.wrap(bytes)).read();
+    }
+
+}
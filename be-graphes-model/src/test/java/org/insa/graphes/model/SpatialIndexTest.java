@@ -0,0 +1,187 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.SpatialIndex;
+import org.insa.graphs.model.SpatialIndex.Snap;
+import org.insa.graphs.model.generator.RoadNetworkGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SpatialIndexTest {
+
+    // Graph, index and query points used for tests.
+    private static Graph graph;
+    private static SpatialIndex index;
+    private static List<Point> queries;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RoadNetworkGenerator(3000, 5).generate();
+        index = graph.getSpatialIndex();
+
+        BoundingBox box = graph.getGraphInformation().getBoundingBox().extend(0.001f);
+        Random random = new Random(13);
+        queries = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            float longitude = box.getTopLeftPoint().getLongitude() + random.nextFloat()
+                    * (box.getBottomRightPoint().getLongitude() - box.getTopLeftPoint().getLongitude());
+            float latitude = box.getBottomRightPoint().getLatitude() + random.nextFloat()
+                    * (box.getTopLeftPoint().getLatitude() - box.getBottomRightPoint().getLatitude());
+            queries.add(new Point(longitude, latitude));
+        }
+    }
+
+    /**
+     * @return Distance (in meters) between the given point and the closest point
+     *         of the given arc, computed in a local projection centered on the
+     *         point.
+     */
+    private static double arcDistance(Point point, Arc arc) {
+        final double metersPerDegree = Math.toRadians(1) * Point.EARTH_RADIUS,
+                scale = Math.cos(Math.toRadians(point.getLatitude())) * metersPerDegree;
+        List<Point> points = arc.getPoints();
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 1; i < points.size(); ++i) {
+            double x1 = (points.get(i - 1).getLongitude() - point.getLongitude()) * scale,
+                    y1 = (points.get(i - 1).getLatitude() - point.getLatitude())
+                            * metersPerDegree;
+            double x2 = (points.get(i).getLongitude() - point.getLongitude()) * scale,
+                    y2 = (points.get(i).getLatitude() - point.getLatitude()) * metersPerDegree;
+            double dx = x2 - x1, dy = y2 - y1, lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0
+                    : Math.max(0, Math.min(1, -(x1 * dx + y1 * dy) / lengthSquared));
+            best = Math.min(best, Math.hypot(x1 + t * dx, y1 + t * dy));
+        }
+        return best;
+    }
+
+    @Test
+    public void testNearestNode() {
+        for (Point query: queries) {
+            double expected = Double.POSITIVE_INFINITY;
+            for (Node node: graph.getNodes()) {
+                expected = Math.min(expected, Point.distance(query, node.getPoint()));
+            }
+            Node nearest = index.findNearestNode(query);
+            assertEquals(expected, Point.distance(query, nearest.getPoint()), 1e-2);
+        }
+    }
+
+    @Test
+    public void testNearestNodes() {
+        for (Point query: queries.subList(0, 20)) {
+            List<Node> expected = new ArrayList<>(graph.getNodes());
+            Collections.sort(expected, Comparator
+                    .comparingDouble((Node node) -> Point.distance(query, node.getPoint())));
+            List<Node> actual = index.findNearestNodes(query, 10);
+            assertEquals(10, actual.size());
+            for (int i = 0; i < actual.size(); ++i) {
+                assertEquals(Point.distance(query, expected.get(i).getPoint()),
+                        Point.distance(query, actual.get(i).getPoint()), 1e-2);
+            }
+        }
+        assertEquals(graph.size(), index.findNearestNodes(queries.get(0), 10000).size());
+    }
+
+    @Test
+    public void testNearestNodesWithFilter() {
+        Predicate<Node> even = (node) -> node.getId() % 2 == 0;
+        for (Point query: queries.subList(0, 20)) {
+            double expected = Double.POSITIVE_INFINITY;
+            for (Node node: graph.getNodes()) {
+                if (even.test(node)) {
+                    expected = Math.min(expected, Point.distance(query, node.getPoint()));
+                }
+            }
+            List<Node> actual = index.findNearestNodes(query, 1, even);
+            assertTrue(even.test(actual.get(0)));
+            assertEquals(expected, Point.distance(query, actual.get(0).getPoint()), 1e-2);
+        }
+        assertTrue(index.findNearestNodes(queries.get(0), 1, (node) -> false).isEmpty());
+    }
+
+    @Test
+    public void testNodesIn() {
+        BoundingBox box = graph.getGraphInformation().getBoundingBox();
+        float longitude = (box.getTopLeftPoint().getLongitude()
+                + box.getBottomRightPoint().getLongitude()) / 2,
+                latitude = (box.getTopLeftPoint().getLatitude()
+                        + box.getBottomRightPoint().getLatitude()) / 2;
+        BoundingBox query = new BoundingBox(new Point(longitude - 0.01f, latitude + 0.005f),
+                new Point(longitude, latitude));
+
+        HashSet<Node> expected = new HashSet<>();
+        for (Node node: graph.getNodes()) {
+            if (query.contains(node.getPoint())) {
+                expected.add(node);
+            }
+        }
+        List<Node> actual = index.findNodesIn(query);
+        assertTrue(!expected.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        assertTrue(expected.containsAll(actual));
+        assertEquals(graph.size(), index.findNodesIn(box).size());
+    }
+
+    @Test
+    public void testSnapToArc() {
+        Predicate<Arc> oneWay = (arc) -> arc.getRoadInformation().isOneWay();
+        for (Point query: queries.subList(0, 50)) {
+            for (Predicate<Arc> filter: Arrays.asList(null, oneWay)) {
+                double expected = Double.POSITIVE_INFINITY;
+                for (Node node: graph.getNodes()) {
+                    for (Arc arc: node.getSuccessors()) {
+                        if (filter == null || filter.test(arc)) {
+                            expected = Math.min(expected, arcDistance(query, arc));
+                        }
+                    }
+                }
+                Snap snap = index.snapToArc(query, filter);
+                assertTrue(filter == null || filter.test(snap.getArc()));
+                assertEquals(Point.distance(query, snap.getPoint()), snap.getDistance(), 1e-6);
+                // Points are stored as floats, i.e. with a precision of ~0.5 meter.
+                assertTrue(snap.getDistance() <= expected + 0.5);
+                assertEquals(expected, snap.getDistance(), 1);
+                assertEquals(0, arcDistance(snap.getPoint(), snap.getArc()), 0.5);
+                assertTrue(snap.getDistanceFromOrigin() >= 0);
+                assertTrue(snap.getDistanceFromOrigin() <= snap.getArc().getLength() + 1e-2);
+            }
+        }
+        assertNull(index.snapToArc(queries.get(0), (arc) -> false));
+    }
+
+    @Test
+    public void testSnapOnNode() {
+        Node node = graph.get(graph.size() / 2);
+        Snap snap = index.snapToArc(node.getPoint());
+        assertEquals(0, snap.getDistance(), 1e-2);
+        assertSame(graph.getSpatialIndex(), index);
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        SpatialIndex empty = new SpatialIndex(new Graph("empty", "", new ArrayList<>(), null));
+        assertNull(empty.findNearestNode(new Point(0, 0)));
+        assertTrue(empty.findNearestNodes(new Point(0, 0), 3).isEmpty());
+        assertNull(empty.snapToArc(new Point(0, 0)));
+    }
+
+}